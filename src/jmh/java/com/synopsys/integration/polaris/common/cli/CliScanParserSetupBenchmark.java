@@ -0,0 +1,62 @@
+package com.synopsys.integration.polaris.common.cli;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.IOUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.gson.Gson;
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.log.IntLogger;
+import com.synopsys.integration.log.SilentIntLogger;
+import com.synopsys.integration.polaris.common.cli.model.CliCommonResponseModel;
+import com.synopsys.integration.polaris.common.cli.model.json.CliCommonResponseAdapter;
+import com.synopsys.integration.polaris.common.cli.model.json.CliScanParserRegistry;
+
+/**
+ * Measures what one build pays to set up the cli-scan.json parsing and read its result: with a Gson and parsers of its own, as every build used to, or with the registry shared across builds.
+ * Run with -prof gc to see the allocation per build.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CliScanParserSetupBenchmark {
+    private final IntLogger logger = new SilentIntLogger();
+    private String cliScanJson;
+
+    @Setup
+    public void setUp() throws IOException {
+        try (InputStream inputStream = getClass().getResourceAsStream("/cli-scanv2-w.json")) {
+            cliScanJson = IOUtils.toString(inputStream, StandardCharsets.UTF_8);
+        }
+    }
+
+    @Benchmark
+    public CliCommonResponseModel gsonPerBuild() throws IntegrationException {
+        Gson gson = new Gson();
+        PolarisCliResponseUtility polarisCliResponseUtility = new PolarisCliResponseUtility(logger, gson, new CliCommonResponseAdapter(new CliScanParserRegistry(gson)));
+        return polarisCliResponseUtility.getPolarisCliResponseModelFromString(cliScanJson);
+    }
+
+    @Benchmark
+    public CliCommonResponseModel sharedRegistry() throws IntegrationException {
+        PolarisCliResponseUtility polarisCliResponseUtility = PolarisCliResponseUtility.defaultUtility(logger);
+        return polarisCliResponseUtility.getPolarisCliResponseModelFromString(cliScanJson);
+    }
+
+}
@@ -0,0 +1,62 @@
+package com.synopsys.integration.polaris.common.cli;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.IOUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.log.SilentIntLogger;
+import com.synopsys.integration.polaris.common.cli.model.CliCommonResponseModel;
+
+/**
+ * Compares reading a cli-scan.json in one streaming pass with the previous path, which parsed it into a JsonObject first and then ran Gson over that tree.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CliScanParsingBenchmark {
+    @Param({ "cli-scanv1-w.json", "cli-scanv2-w.json" })
+    private String cliScanResource;
+
+    private PolarisCliResponseUtility polarisCliResponseUtility;
+    private String cliScanJson;
+
+    @Setup
+    public void setUp() throws IOException {
+        polarisCliResponseUtility = PolarisCliResponseUtility.defaultUtility(new SilentIntLogger());
+        try (InputStream inputStream = getClass().getResourceAsStream("/" + cliScanResource)) {
+            cliScanJson = IOUtils.toString(inputStream, StandardCharsets.UTF_8);
+        }
+    }
+
+    @Benchmark
+    public CliCommonResponseModel streaming() throws IntegrationException {
+        return polarisCliResponseUtility.getPolarisCliResponseModelFromString(cliScanJson);
+    }
+
+    @Benchmark
+    public CliCommonResponseModel throughJsonObject() throws IntegrationException {
+        JsonObject versionlessModel = JsonParser.parseString(cliScanJson).getAsJsonObject();
+        return polarisCliResponseUtility.getPolarisCliResponseModelFromJsonObject(versionlessModel);
+    }
+
+}
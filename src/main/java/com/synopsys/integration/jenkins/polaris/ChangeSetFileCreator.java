@@ -12,32 +12,28 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.List;
 
 import org.apache.commons.lang3.StringUtils;
 
 import com.synopsys.integration.jenkins.ChangeSetFilter;
 import com.synopsys.integration.jenkins.extensions.JenkinsIntLogger;
-import com.synopsys.integration.jenkins.polaris.service.PolarisEnvironmentService;
-import com.synopsys.integration.jenkins.service.JenkinsRemotingService;
 import com.synopsys.integration.jenkins.service.JenkinsScmService;
-import com.synopsys.integration.util.IntEnvironmentVariables;
-
-import jenkins.security.MasterToSlaveCallable;
 
 public class ChangeSetFileCreator {
     private final JenkinsIntLogger logger;
-    private final JenkinsRemotingService jenkinsRemotingService;
     private final JenkinsScmService jenkinsScmService;
-    private final PolarisEnvironmentService polarisEnvironmentService;
 
-    public ChangeSetFileCreator(JenkinsIntLogger logger, JenkinsRemotingService jenkinsRemotingService, JenkinsScmService jenkinsScmService, PolarisEnvironmentService polarisEnvironmentService) {
+    public ChangeSetFileCreator(JenkinsIntLogger logger, JenkinsScmService jenkinsScmService) {
         this.logger = logger;
-        this.jenkinsRemotingService = jenkinsRemotingService;
         this.jenkinsScmService = jenkinsScmService;
-        this.polarisEnvironmentService = polarisEnvironmentService;
     }
 
-    public String createChangeSetFile(String exclusionPatterns, String inclusionPatterns) throws IOException, InterruptedException {
+    /**
+     * The changeset file itself is written on the agent by PreparePolarisCliLaunch, in the same round trip as the rest of the preparation for launching the Polaris CLI.
+     * @return The files in the Jenkins-provided SCM changeset that match the patterns, which is empty if the changeset file could not be created.
+     */
+    public ArrayList<String> getChangedFiles(String exclusionPatterns, String inclusionPatterns) {
         ChangeSetFilter changeSetFilter = jenkinsScmService.newChangeSetFilter().excludeMatching(exclusionPatterns).includeMatching(inclusionPatterns);
 
         // ArrayLists are serializable, Lists are not. -- rotte SEP 2020
@@ -48,49 +44,31 @@ public class ChangeSetFileCreator {
             logger.error("Could not get the Jenkins-provided SCM changeset: " + e.getMessage());
         }
 
-        String remoteWorkspacePath = jenkinsRemotingService.getRemoteWorkspacePath();
-
-        String changeSetFilePath;
         if (changedFiles.size() == 0) {
             logger.info("The changeset file could not be created because the Jenkins-provided SCM changeset contained no files to analyze.");
-            changeSetFilePath = null;
-        } else {
-            IntEnvironmentVariables environment = polarisEnvironmentService.getInitialEnvironment();
-            String valueOfChangeSetFilePath = environment.getValue(PolarisJenkinsEnvironmentVariable.CHANGE_SET_FILE_PATH.stringValue());
-
-            changeSetFilePath = jenkinsRemotingService.call(new CreateChangeSetFileAndGetRemotePath(valueOfChangeSetFilePath, remoteWorkspacePath, changedFiles));
         }
 
-        return changeSetFilePath;
+        return changedFiles;
     }
 
-    private static class CreateChangeSetFileAndGetRemotePath extends MasterToSlaveCallable<String, IOException> {
-        private static final long serialVersionUID = -8708849449533708805L;
-        private final ArrayList<String> changedFiles;
-        private final String changeSetFilePath;
-        private final String valueOfChangeSetFilePath;
-
-        public CreateChangeSetFileAndGetRemotePath(String valueOfChangeSetFilePath, String remoteWorkspacePath, ArrayList<String> changedFiles) {
-            this.valueOfChangeSetFilePath = valueOfChangeSetFilePath;
-            this.changeSetFilePath = remoteWorkspacePath;
-            this.changedFiles = changedFiles;
+    /**
+     * Must be called on the agent.
+     * @return The real path of the changeset file.
+     */
+    public static String writeChangeSetFile(String valueOfChangeSetFilePath, String remoteWorkspacePath, List<String> changedFiles) throws IOException {
+        Path changeSetFile;
+        if (StringUtils.isNotBlank(valueOfChangeSetFilePath)) {
+            changeSetFile = Paths.get(valueOfChangeSetFilePath);
+        } else {
+            changeSetFile = Paths.get(remoteWorkspacePath)
+                                .resolve(".synopsys")
+                                .resolve("polaris")
+                                .resolve("changeSetFiles.txt");
         }
+        Files.createDirectories(changeSetFile.getParent());
+        Files.write(changeSetFile, changedFiles);
 
-        @Override
-        public String call() throws IOException {
-            Path changeSetFile;
-            if (StringUtils.isNotBlank(valueOfChangeSetFilePath)) {
-                changeSetFile = Paths.get(valueOfChangeSetFilePath);
-            } else {
-                changeSetFile = Paths.get(changeSetFilePath)
-                                    .resolve(".synopsys")
-                                    .resolve("polaris")
-                                    .resolve("changeSetFiles.txt");
-            }
-            Files.createDirectories(changeSetFile.getParent());
-            Files.write(changeSetFile, changedFiles);
-
-            return changeSetFile.toRealPath().toString();
-        }
+        return changeSetFile.toRealPath().toString();
     }
+
 }
@@ -0,0 +1,57 @@
+/*
+ * synopsys-polaris
+ *
+ * Copyright (c) 2024 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.jenkins.polaris;
+
+import java.io.IOException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.synopsys.integration.jenkins.extensions.ChangeBuildStatusTo;
+import com.synopsys.integration.jenkins.polaris.extensions.freestyle.PolarisIssueCheckAction;
+import com.synopsys.integration.jenkins.polaris.service.PendingIssueCount;
+
+import hudson.model.Run;
+
+/**
+ * Finishes a freestyle issue check once its build has ended, so the executor is not held while the Coverity on Polaris jobs run. The jobs are waited on by the shared JobStatusPoller and the outcome
+ * is recorded in a PolarisIssueCheckAction on the build.
+ */
+public class DeferredIssueCheck {
+    private static final Logger LOGGER = Logger.getLogger(DeferredIssueCheck.class.getName());
+    private final Run<?, ?> run;
+    private final Executor countExecutor;
+
+    public DeferredIssueCheck(Run<?, ?> run, Executor countExecutor) {
+        this.run = run;
+        this.countExecutor = countExecutor;
+    }
+
+    public void checkAfterBuild(PolarisIssueChecker polarisIssueChecker, PendingIssueCount pendingIssueCount, ChangeBuildStatusTo buildStatusForIssues) {
+        PolarisIssueCheckAction polarisIssueCheckAction = new PolarisIssueCheckAction(buildStatusForIssues);
+        run.addAction(polarisIssueCheckAction);
+
+        polarisIssueChecker.waitForPolarisIssueCount(pendingIssueCount, countExecutor)
+            .whenComplete((issueCount, throwable) -> {
+                if (throwable == null) {
+                    polarisIssueCheckAction.issuesCounted(issueCount);
+                } else {
+                    Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+                    polarisIssueCheckAction.failed(cause.getMessage());
+                }
+
+                try {
+                    run.save();
+                } catch (IOException e) {
+                    LOGGER.log(Level.WARNING, String.format("Could not save the issue check of %s", run.getFullDisplayName()), e);
+                }
+            });
+    }
+
+}
@@ -10,6 +10,7 @@ package com.synopsys.integration.jenkins.polaris;
 import java.io.IOException;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.lang3.StringUtils;
 
@@ -17,21 +18,19 @@ import com.synopsys.integration.exception.IntegrationException;
 import com.synopsys.integration.jenkins.exception.JenkinsUserFriendlyException;
 import com.synopsys.integration.jenkins.polaris.extensions.global.PolarisGlobalConfig;
 import com.synopsys.integration.jenkins.polaris.extensions.tools.PolarisCli;
-import com.synopsys.integration.jenkins.polaris.service.GetPathToPolarisCli;
 import com.synopsys.integration.jenkins.polaris.service.PolarisCliArgumentService;
 import com.synopsys.integration.jenkins.polaris.service.PolarisEnvironmentService;
 import com.synopsys.integration.jenkins.polaris.service.PolarisPhoneHomeService;
+import com.synopsys.integration.jenkins.polaris.service.PreparePolarisCliLaunch;
 import com.synopsys.integration.jenkins.service.JenkinsConfigService;
 import com.synopsys.integration.jenkins.service.JenkinsRemotingService;
 import com.synopsys.integration.jenkins.wrapper.JenkinsProxyHelper;
 import com.synopsys.integration.jenkins.wrapper.JenkinsVersionHelper;
 import com.synopsys.integration.jenkins.wrapper.SynopsysCredentialsHelper;
 import com.synopsys.integration.log.IntLogger;
-import com.synopsys.integration.phonehome.PhoneHomeResponse;
 import com.synopsys.integration.polaris.common.configuration.PolarisServerConfigBuilder;
 import com.synopsys.integration.polaris.common.exception.PolarisIntegrationException;
 import com.synopsys.integration.util.IntEnvironmentVariables;
-import com.synopsys.integration.util.OperatingSystemType;
 
 public class PolarisCliRunner {
     private final PolarisCliArgumentService polarisCliArgumentService;
@@ -57,47 +56,57 @@ public class PolarisCliRunner {
         this.versionHelper = versionHelper;
     }
 
-    public int runPolarisCli(String polarisCliName, String changeSetFileRemotePath, String polarisArgumentString) throws IOException, InterruptedException, IntegrationException {
-        Optional<PhoneHomeResponse> successfulPhoneHomeResponse = polarisPhoneHomeService.phoneHome();
+    /**
+     * @param changedFiles The files to write to the changeset file before the CLI is run, or null if no changeset file should be created.
+     */
+    public int runPolarisCli(String polarisCliName, List<String> changedFiles, String polarisArgumentString) throws IOException, InterruptedException, IntegrationException {
+        // Sent in the background, the build does not wait for it
+        polarisPhoneHomeService.phoneHome();
 
-        try {
-            String logMessage = versionHelper.getPluginVersion("synopsys-polaris")
-                                    .map(version -> String.format("Running Polaris Software Integrity Platform for Jenkins version %s", version))
-                                    .orElse("Running Polaris Software Integrity Platform for Jenkins");
-            logger.info(logMessage);
+        String logMessage = versionHelper.getPluginVersion("synopsys-polaris")
+                                .map(version -> String.format("Running Polaris Software Integrity Platform for Jenkins version %s", version))
+                                .orElse("Running Polaris Software Integrity Platform for Jenkins");
+        logger.info(logMessage);
 
-            Optional<PolarisCli> polarisCliWithName = jenkinsConfigService.getInstallationForNodeAndEnvironment(PolarisCli.DescriptorImpl.class, polarisCliName);
+        Optional<PolarisCli> polarisCliWithName = jenkinsConfigService.getInstallationForNodeAndEnvironment(PolarisCli.DescriptorImpl.class, polarisCliName);
 
-            if (!polarisCliWithName.isPresent()) {
-                throw new JenkinsUserFriendlyException("[ERROR] Polaris Software Integrity Platform cannot be executed: No Polaris CLI Installation with the name " + polarisCliName + " could be found in the global tool configuration.");
-            }
-
-            PolarisCli polarisCli = polarisCliWithName.get();
+        if (!polarisCliWithName.isPresent()) {
+            throw new JenkinsUserFriendlyException("[ERROR] Polaris Software Integrity Platform cannot be executed: No Polaris CLI Installation with the name " + polarisCliName + " could be found in the global tool configuration.");
+        }
 
-            PolarisGlobalConfig polarisGlobalConfig = jenkinsConfigService.getGlobalConfiguration(PolarisGlobalConfig.class)
-                                                          .orElseThrow(() -> new PolarisIntegrationException("No Polaris Software Integrity Platform for Jenkins system configuration could be found, please check your system configuration."));
+        PolarisCli polarisCli = polarisCliWithName.get();
 
-            PolarisServerConfigBuilder polarisServerConfigBuilder = polarisGlobalConfig.getPolarisServerConfigBuilder(credentialsHelper, proxyHelper);
+        PolarisGlobalConfig polarisGlobalConfig = jenkinsConfigService.getGlobalConfiguration(PolarisGlobalConfig.class)
+                                                      .orElseThrow(() -> new PolarisIntegrationException("No Polaris Software Integrity Platform for Jenkins system configuration could be found, please check your system configuration."));
 
-            IntEnvironmentVariables intEnvironmentVariables = polarisEnvironmentService.createPolarisEnvironment(changeSetFileRemotePath, polarisServerConfigBuilder);
+        PolarisServerConfigBuilder polarisServerConfigBuilder = polarisGlobalConfig.getPolarisServerConfigBuilder(credentialsHelper, proxyHelper);
 
-            String polarisCliHome = polarisCli.getHome();
+        // The changeset file is only written on the agent, so its path is added to the environment once it is known
+        IntEnvironmentVariables intEnvironmentVariables = polarisEnvironmentService.createPolarisEnvironment(null, polarisServerConfigBuilder);
 
-            if (StringUtils.isBlank(polarisCliHome)) {
-                throw new JenkinsUserFriendlyException(
-                    "[ERROR] Polaris Software Integrity Platform cannot be executed: The Polaris CLI installation home could not be determined for the configured Polaris CLI. Please ensure that this installation is correctly configured in the global tool configuration.");
-            }
+        String polarisCliHome = polarisCli.getHome();
 
-            String pathToPolarisCli = jenkinsRemotingService.call(new GetPathToPolarisCli(polarisCliHome));
+        if (StringUtils.isBlank(polarisCliHome)) {
+            throw new JenkinsUserFriendlyException(
+                "[ERROR] Polaris Software Integrity Platform cannot be executed: The Polaris CLI installation home could not be determined for the configured Polaris CLI. Please ensure that this installation is correctly configured in the global tool configuration.");
+        }
 
-            OperatingSystemType operatingSystemType = jenkinsRemotingService.getRemoteOperatingSystemType();
-            List<String> tokenizedPolarisArguments = jenkinsRemotingService.tokenizeArgumentString(polarisArgumentString);
-            List<String> tokenizedResolvedArguments = jenkinsRemotingService.resolveEnvironmentVariables(intEnvironmentVariables, tokenizedPolarisArguments);
-            List<String> polarisArguments = polarisCliArgumentService.finalizePolarisCliArguments(operatingSystemType, pathToPolarisCli, tokenizedResolvedArguments);
+        // Everything the launch needs from the agent comes back in one round trip
+        long preparationStart = System.nanoTime();
+        PreparePolarisCliLaunch preparePolarisCliLaunch = new PreparePolarisCliLaunch(polarisCliHome, intEnvironmentVariables.getVariables(), jenkinsRemotingService.getRemoteWorkspacePath(), changedFiles);
+        PreparePolarisCliLaunch.PreparedLaunch preparedLaunch = jenkinsRemotingService.call(preparePolarisCliLaunch);
+        logger.info(String.format("Prepared the Polaris CLI launch on the agent in %d ms (%s)", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - preparationStart), preparedLaunch.describePhases()));
 
-            return jenkinsRemotingService.launch(intEnvironmentVariables, polarisArguments);
-        } finally {
-            successfulPhoneHomeResponse.ifPresent(PhoneHomeResponse::getImmediateResult);
+        if (StringUtils.isNotBlank(preparedLaunch.getChangeSetFilePath())) {
+            intEnvironmentVariables.put(PolarisJenkinsEnvironmentVariable.CHANGE_SET_FILE_PATH.stringValue(), preparedLaunch.getChangeSetFilePath());
         }
+
+        // The arguments may refer to the changeset file, so they are resolved once its path is known. Tokenizing and resolving only work on values held here on the controller and never use the agent's
+        // channel, so keeping them out of the agent call costs no extra round trip; only call and launch go to the agent.
+        List<String> tokenizedPolarisArguments = jenkinsRemotingService.tokenizeArgumentString(polarisArgumentString);
+        List<String> tokenizedResolvedArguments = jenkinsRemotingService.resolveEnvironmentVariables(intEnvironmentVariables, tokenizedPolarisArguments);
+        List<String> polarisArguments = polarisCliArgumentService.finalizePolarisCliArguments(preparedLaunch.getOperatingSystemType(), preparedLaunch.getPathToPolarisCli(), tokenizedResolvedArguments);
+
+        return jenkinsRemotingService.launch(intEnvironmentVariables, polarisArguments);
     }
 }
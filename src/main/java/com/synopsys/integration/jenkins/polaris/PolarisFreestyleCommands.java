@@ -7,37 +7,45 @@
  */
 package com.synopsys.integration.jenkins.polaris;
 
+import java.util.List;
 import java.util.Optional;
 
 import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.function.ThrowingSupplier;
 import com.synopsys.integration.jenkins.exception.JenkinsUserFriendlyException;
 import com.synopsys.integration.jenkins.extensions.ChangeBuildStatusTo;
 import com.synopsys.integration.jenkins.extensions.JenkinsIntLogger;
 import com.synopsys.integration.jenkins.polaris.extensions.freestyle.FreestyleCreateChangeSetFile;
 import com.synopsys.integration.jenkins.polaris.extensions.freestyle.WaitForIssues;
+import com.synopsys.integration.jenkins.polaris.service.PendingIssueCount;
 import com.synopsys.integration.jenkins.service.JenkinsBuildService;
 
+import hudson.AbortException;
+
 public class PolarisFreestyleCommands {
     private final JenkinsIntLogger logger;
     private final JenkinsBuildService jenkinsBuildService;
     private final ChangeSetFileCreator changeSetFileCreator;
-    private final PolarisCliRunner polarisCliRunner;
-    private final PolarisIssueChecker polarisIssueCounter;
+    private final ThrowingSupplier<PolarisCliRunner, AbortException> polarisCliRunner;
+    private final ThrowingSupplier<PolarisIssueChecker, AbortException> polarisIssueCounter;
+    private final DeferredIssueCheck deferredIssueCheck;
 
-    public PolarisFreestyleCommands(JenkinsIntLogger jenkinsIntLogger, JenkinsBuildService jenkinsBuildService, ChangeSetFileCreator changeSetFileCreator, PolarisCliRunner polarisCliRunner, PolarisIssueChecker polarisIssueCounter) {
+    public PolarisFreestyleCommands(JenkinsIntLogger jenkinsIntLogger, JenkinsBuildService jenkinsBuildService, ChangeSetFileCreator changeSetFileCreator,
+        ThrowingSupplier<PolarisCliRunner, AbortException> polarisCliRunner, ThrowingSupplier<PolarisIssueChecker, AbortException> polarisIssueCounter, DeferredIssueCheck deferredIssueCheck) {
         this.logger = jenkinsIntLogger;
         this.jenkinsBuildService = jenkinsBuildService;
         this.changeSetFileCreator = changeSetFileCreator;
         this.polarisCliRunner = polarisCliRunner;
         this.polarisIssueCounter = polarisIssueCounter;
+        this.deferredIssueCheck = deferredIssueCheck;
     }
 
     public void runPolarisCliAndCheckForIssues(String polarisCliName, String polarisArgumentString, FreestyleCreateChangeSetFile createChangeSetFile, WaitForIssues waitForIssues) {
         try {
-            String changeSetFilePath = null;
+            List<String> changedFiles = null;
             if (createChangeSetFile != null) {
-                changeSetFilePath = changeSetFileCreator.createChangeSetFile(createChangeSetFile.getChangeSetExclusionPatterns(), createChangeSetFile.getChangeSetInclusionPatterns());
-                if (changeSetFilePath == null) {
+                changedFiles = changeSetFileCreator.getChangedFiles(createChangeSetFile.getChangeSetExclusionPatterns(), createChangeSetFile.getChangeSetInclusionPatterns());
+                if (changedFiles.isEmpty()) {
                     ChangeBuildStatusTo changeBuildStatusTo = createChangeSetFile.getBuildStatusOnSkip() != null ? createChangeSetFile.getBuildStatusOnSkip() : createChangeSetFile.getDescriptor().getDefaultBuildStatusOnSkip();
                     logger.warn("The changeset contained no files to analyze. Skipping Polaris Software Integrity Platform static analysis.");
                     logger.warn("Performing configured skip action: " + changeBuildStatusTo.getDisplayName());
@@ -46,7 +54,7 @@ public class PolarisFreestyleCommands {
                 }
             }
 
-            int exitCode = polarisCliRunner.runPolarisCli(polarisCliName, changeSetFilePath, polarisArgumentString);
+            int exitCode = polarisCliRunner.get().runPolarisCli(polarisCliName, changedFiles, polarisArgumentString);
             if (exitCode > 0) {
                 jenkinsBuildService.markBuildFailed("Polaris CLI failed with exit code: " + exitCode);
             }
@@ -55,7 +63,21 @@ public class PolarisFreestyleCommands {
                 ChangeBuildStatusTo buildStatusToSet = Optional.ofNullable(waitForIssues.getBuildStatusForIssues())
                                                            .orElse(ChangeBuildStatusTo.SUCCESS);
 
-                int issueCount = polarisIssueCounter.getPolarisIssueCount(waitForIssues.getJobTimeoutInMinutes());
+                int issueCount;
+                if (Boolean.TRUE.equals(waitForIssues.getCheckIssuesAfterBuild())) {
+                    PendingIssueCount pendingIssueCount = polarisIssueCounter.get().preparePolarisIssueCount(waitForIssues.getJobTimeoutInMinutes());
+                    Optional<Integer> countedIssues = pendingIssueCount.getIssueCount();
+                    if (!countedIssues.isPresent()) {
+                        logger.alwaysLog("Polaris Software Integrity Platform Issue Check");
+                        logger.alwaysLog("The issue check will finish after this build, once the Coverity on Polaris jobs complete. Its result will be shown on the build page.");
+                        deferredIssueCheck.checkAfterBuild(polarisIssueCounter.get(), pendingIssueCount, buildStatusToSet);
+                        return;
+                    }
+                    // The scan was run with -w, so there is nothing to wait for
+                    issueCount = countedIssues.get();
+                } else {
+                    issueCount = polarisIssueCounter.get().getPolarisIssueCount(waitForIssues.getJobTimeoutInMinutes());
+                }
 
                 logger.alwaysLog("Polaris Software Integrity Platform Issue Check");
                 logger.alwaysLog("Build state for issues: " + buildStatusToSet.getDisplayName());
@@ -70,6 +92,8 @@ public class PolarisFreestyleCommands {
             jenkinsBuildService.markBuildInterrupted();
         } catch (JenkinsUserFriendlyException e) {
             jenkinsBuildService.markBuildFailed(e.getMessage());
+        } catch (AbortException e) {
+            jenkinsBuildService.markBuildFailed(e.getMessage());
         } catch (IntegrationException e) {
             jenkinsBuildService.markBuildFailed(e);
         } catch (Exception e) {
@@ -9,13 +9,17 @@ package com.synopsys.integration.jenkins.polaris;
 
 import java.io.IOException;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 import com.synopsys.integration.exception.IntegrationException;
-import com.synopsys.integration.jenkins.polaris.service.GetPolarisCliResponseContent;
+import com.synopsys.integration.jenkins.polaris.service.GetPolarisCliResponseDigest;
+import com.synopsys.integration.jenkins.polaris.service.PendingIssueCount;
 import com.synopsys.integration.jenkins.polaris.service.PolarisCliIssueCountService;
 import com.synopsys.integration.jenkins.service.JenkinsRemotingService;
 import com.synopsys.integration.jenkins.wrapper.JenkinsVersionHelper;
 import com.synopsys.integration.log.IntLogger;
+import com.synopsys.integration.polaris.common.cli.model.CliCommonResponseDigest;
 import com.synopsys.integration.polaris.common.service.JobService;
 
 public class PolarisIssueChecker {
@@ -32,17 +36,37 @@ public class PolarisIssueChecker {
     }
 
     public int getPolarisIssueCount(Integer jobTimeoutInMinutes) throws IOException, InterruptedException, IntegrationException {
+        logVersion();
+        return polarisCliIssueCountService.getIssueCount(toJobTimeoutInSeconds(jobTimeoutInMinutes), getCliCommonResponseDigest());
+    }
+
+    /**
+     * Reads the cli-scan.json and checks it without waiting on any of its jobs; see waitForPolarisIssueCount for the wait.
+     */
+    public PendingIssueCount preparePolarisIssueCount(Integer jobTimeoutInMinutes) throws IOException, InterruptedException, IntegrationException {
+        logVersion();
+        return polarisCliIssueCountService.prepareIssueCount(toJobTimeoutInSeconds(jobTimeoutInMinutes), getCliCommonResponseDigest());
+    }
+
+    public CompletableFuture<Integer> waitForPolarisIssueCount(PendingIssueCount pendingIssueCount, Executor countExecutor) {
+        return polarisCliIssueCountService.getIssueCountAsync(pendingIssueCount, countExecutor);
+    }
+
+    private void logVersion() {
         String logMessage = versionHelper.getPluginVersion("synopsys-polaris")
                                 .map(version -> String.format("Running Polaris Software Integrity Platform for Jenkins version %s", version))
                                 .orElse("Running Polaris Software Integrity Platform for Jenkins");
         logger.info(logMessage);
+    }
 
-        Long jobTimeoutInSeconds = Optional.ofNullable(jobTimeoutInMinutes)
-                                       .map(value -> value * 60L)
-                                       .orElse(JobService.DEFAULT_TIMEOUT);
-
-        String cliCommonResponseModelJson = jenkinsRemotingService.call(new GetPolarisCliResponseContent(jenkinsRemotingService.getRemoteWorkspacePath()));
+    private long toJobTimeoutInSeconds(Integer jobTimeoutInMinutes) {
+        return Optional.ofNullable(jobTimeoutInMinutes)
+                   .map(value -> value * 60L)
+                   .orElse(JobService.DEFAULT_TIMEOUT);
+    }
 
-        return polarisCliIssueCountService.getIssueCount(jobTimeoutInSeconds, cliCommonResponseModelJson);
+    private CliCommonResponseDigest getCliCommonResponseDigest() throws IOException, InterruptedException, IntegrationException {
+        return jenkinsRemotingService.call(new GetPolarisCliResponseDigest(jenkinsRemotingService.getRemoteWorkspacePath()));
     }
+
 }
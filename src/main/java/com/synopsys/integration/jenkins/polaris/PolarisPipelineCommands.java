@@ -8,20 +8,29 @@
 package com.synopsys.integration.jenkins.polaris;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.function.ThrowingSupplier;
 import com.synopsys.integration.jenkins.exception.JenkinsUserFriendlyException;
 import com.synopsys.integration.jenkins.extensions.JenkinsIntLogger;
 import com.synopsys.integration.jenkins.polaris.extensions.pipeline.PipelineCreateChangeSetFile;
+import com.synopsys.integration.jenkins.polaris.service.PendingIssueCount;
 import com.synopsys.integration.polaris.common.exception.PolarisIntegrationException;
 
+import hudson.AbortException;
+
 public class PolarisPipelineCommands {
     private final JenkinsIntLogger logger;
     private final ChangeSetFileCreator changeSetFileCreator;
-    private final PolarisCliRunner polarisCliRunner;
-    private final PolarisIssueChecker polarisIssueCounter;
+    private final ThrowingSupplier<PolarisCliRunner, AbortException> polarisCliRunner;
+    private final ThrowingSupplier<PolarisIssueChecker, AbortException> polarisIssueCounter;
 
-    public PolarisPipelineCommands(JenkinsIntLogger jenkinsIntLogger, ChangeSetFileCreator changeSetFileCreator, PolarisCliRunner polarisCliRunner, PolarisIssueChecker polarisIssueCounter) {
+    public PolarisPipelineCommands(JenkinsIntLogger jenkinsIntLogger, ChangeSetFileCreator changeSetFileCreator, ThrowingSupplier<PolarisCliRunner, AbortException> polarisCliRunner,
+        ThrowingSupplier<PolarisIssueChecker, AbortException> polarisIssueCounter) {
         this.logger = jenkinsIntLogger;
         this.changeSetFileCreator = changeSetFileCreator;
         this.polarisCliRunner = polarisCliRunner;
@@ -29,10 +38,10 @@ public class PolarisPipelineCommands {
     }
 
     public int runPolarisCli(String polarisCliName, String polarisCliArgumentString, Boolean returnStatus, PipelineCreateChangeSetFile createChangeSetFile) throws IntegrationException, InterruptedException, IOException {
-        String changeSetFilePath = null;
+        List<String> changedFiles = null;
         if (createChangeSetFile != null) {
-            changeSetFilePath = changeSetFileCreator.createChangeSetFile(createChangeSetFile.getExcluding(), createChangeSetFile.getIncluding());
-            if (changeSetFilePath == null) {
+            changedFiles = changeSetFileCreator.getChangedFiles(createChangeSetFile.getExcluding(), createChangeSetFile.getIncluding());
+            if (changedFiles.isEmpty()) {
                 String skipMessage = "The changeset contained no files to analyze. Skipping Polaris Software Integrity Platform static analysis.";
                 if (Boolean.FALSE.equals(createChangeSetFile.getReturnSkipCode())) {
                     throw new JenkinsUserFriendlyException(skipMessage);
@@ -43,7 +52,7 @@ public class PolarisPipelineCommands {
             }
         }
 
-        int exitCode = polarisCliRunner.runPolarisCli(polarisCliName, changeSetFilePath, polarisCliArgumentString);
+        int exitCode = polarisCliRunner.get().runPolarisCli(polarisCliName, changedFiles, polarisCliArgumentString);
 
         if (exitCode > 0) {
             String errorMsg = "Polaris Software Integrity Platform failed with exit code: " + exitCode;
@@ -58,8 +67,32 @@ public class PolarisPipelineCommands {
     }
 
     public int checkForIssues(Integer jobTimeoutInMinutes, Boolean returnIssueCount) throws InterruptedException, IntegrationException, IOException {
-        int issueCount = polarisIssueCounter.getPolarisIssueCount(jobTimeoutInMinutes);
+        int issueCount = polarisIssueCounter.get().getPolarisIssueCount(jobTimeoutInMinutes);
+        return reportIssueCount(issueCount, returnIssueCount);
+    }
+
+    public PendingIssueCount prepareIssueCheck(Integer jobTimeoutInMinutes) throws InterruptedException, IntegrationException, IOException {
+        return polarisIssueCounter.get().preparePolarisIssueCount(jobTimeoutInMinutes);
+    }
+
+    /**
+     * The same check as checkForIssues, except that no thread is held while the jobs run. Cancelling the returned future stops the wait.
+     */
+    public CompletableFuture<Integer> checkForIssuesAsync(PendingIssueCount pendingIssueCount, Boolean returnIssueCount, Executor countExecutor) throws AbortException {
+        CompletableFuture<Integer> issueCount = polarisIssueCounter.get().waitForPolarisIssueCount(pendingIssueCount, countExecutor);
+        CompletableFuture<Integer> reportedIssueCount = issueCount.thenApply(count -> {
+            try {
+                return reportIssueCount(count, returnIssueCount);
+            } catch (PolarisIntegrationException e) {
+                throw new CompletionException(e);
+            }
+        });
+
+        reportedIssueCount.whenComplete((count, throwable) -> issueCount.cancel(true));
+        return reportedIssueCount;
+    }
 
+    private int reportIssueCount(int issueCount, Boolean returnIssueCount) throws PolarisIntegrationException {
         String defectMessage = String.format("[Polaris] Found %s total issues.", issueCount);
         if (issueCount > 0) {
             if (Boolean.TRUE.equals(returnIssueCount)) {
@@ -0,0 +1,89 @@
+/*
+ * synopsys-polaris
+ *
+ * Copyright (c) 2024 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.jenkins.polaris.extensions.freestyle;
+
+import com.synopsys.integration.jenkins.extensions.ChangeBuildStatusTo;
+
+import hudson.model.Run;
+import jenkins.model.RunAction2;
+
+/**
+ * Records the outcome of an issue check that finished after its build did. Jenkins does not allow the result of a finished build to change, so the status the check would have set is shown on the
+ * build page instead.
+ */
+public class PolarisIssueCheckAction implements RunAction2 {
+    private final ChangeBuildStatusTo buildStatusForIssues;
+    private volatile Integer issueCount;
+    private volatile String failureMessage;
+    private transient Run<?, ?> run;
+
+    public PolarisIssueCheckAction(ChangeBuildStatusTo buildStatusForIssues) {
+        this.buildStatusForIssues = buildStatusForIssues;
+    }
+
+    public void issuesCounted(int issueCount) {
+        this.issueCount = issueCount;
+    }
+
+    public void failed(String failureMessage) {
+        this.failureMessage = failureMessage;
+    }
+
+    public boolean isPending() {
+        return issueCount == null && failureMessage == null;
+    }
+
+    public Run<?, ?> getRun() {
+        return run;
+    }
+
+    public String getSummary() {
+        if (failureMessage != null) {
+            return "The issue check could not be completed: " + failureMessage;
+        }
+        if (issueCount == null) {
+            return "Waiting for the Coverity on Polaris jobs to complete before checking for issues.";
+        }
+        if (issueCount > 0 && buildStatusForIssues != ChangeBuildStatusTo.SUCCESS) {
+            return String.format("Found %s issues. The build was not marked %s because the issue check finished after the build.", issueCount, buildStatusForIssues.getDisplayName());
+        }
+        return String.format("Found %s issues.", issueCount);
+    }
+
+    @Override
+    public void onAttached(Run<?, ?> run) {
+        this.run = run;
+    }
+
+    /**
+     * Waiting on the jobs is not resumed after a restart: a check that was still pending when Jenkins stopped is recorded as failed.
+     */
+    @Override
+    public void onLoad(Run<?, ?> run) {
+        this.run = run;
+        if (isPending()) {
+            failureMessage = "Jenkins restarted before the Coverity on Polaris jobs completed.";
+        }
+    }
+
+    @Override
+    public String getIconFileName() {
+        return null;
+    }
+
+    @Override
+    public String getDisplayName() {
+        return "Coverity on Polaris Issue Check";
+    }
+
+    @Override
+    public String getUrlName() {
+        return null;
+    }
+
+}
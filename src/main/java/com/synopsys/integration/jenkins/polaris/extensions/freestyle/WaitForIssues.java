@@ -32,6 +32,12 @@ public class WaitForIssues extends AbstractDescribableImpl<WaitForIssues> {
     @HelpMarkdown("The maximum number of minutes to wait for jobs started by the Coverity on Polaris CLI to complete when the Coverity on Polaris CLI is executed without -w (nonblocking mode). Must be a positive integer, defaults to 30 minutes.")
     private Integer jobTimeoutInMinutes;
 
+    @Nullable
+    @HelpMarkdown("Check this box to finish the build, and free its executor, while the jobs started by the Coverity on Polaris CLI run without -w (nonblocking mode). The issue count is shown on the build page once the jobs complete. "
+                      + "Warning: the 'If there are issues' build status is not enforced in this mode. Jenkins does not allow the result of a finished build to change, so the build keeps its result whatever issues are found. "
+                      + "If Jenkins restarts before the jobs complete, the check is not resumed and is shown as failed on the build page.")
+    private Boolean checkIssuesAfterBuild;
+
     @DataBoundConstructor
     public WaitForIssues() {
         // Nothing to do-- we generally want to only use DataBoundSetters if we can avoid it, but having no DataBoundConstructor can cause issues.
@@ -56,6 +62,19 @@ public class WaitForIssues extends AbstractDescribableImpl<WaitForIssues> {
         this.jobTimeoutInMinutes = jobTimeoutInMinutes;
     }
 
+    @Nullable
+    public Boolean getCheckIssuesAfterBuild() {
+        if (!Boolean.TRUE.equals(checkIssuesAfterBuild)) {
+            return null;
+        }
+        return checkIssuesAfterBuild;
+    }
+
+    @DataBoundSetter
+    public void setCheckIssuesAfterBuild(final Boolean checkIssuesAfterBuild) {
+        this.checkIssuesAfterBuild = checkIssuesAfterBuild;
+    }
+
     @Override
     public DescriptorImpl getDescriptor() {
         return (DescriptorImpl) super.getDescriptor();
@@ -7,11 +7,13 @@
  */
 package com.synopsys.integration.jenkins.polaris.extensions.pipeline;
 
-import java.io.IOException;
 import java.io.Serializable;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Future;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -21,17 +23,20 @@ import org.jenkinsci.plugins.workflow.steps.Step;
 import org.jenkinsci.plugins.workflow.steps.StepContext;
 import org.jenkinsci.plugins.workflow.steps.StepDescriptor;
 import org.jenkinsci.plugins.workflow.steps.StepExecution;
-import org.jenkinsci.plugins.workflow.steps.SynchronousNonBlockingStepExecution;
 import org.kohsuke.stapler.DataBoundConstructor;
 import org.kohsuke.stapler.DataBoundSetter;
 
 import com.synopsys.integration.jenkins.annotations.HelpMarkdown;
+import com.synopsys.integration.jenkins.polaris.PolarisPipelineCommands;
+import com.synopsys.integration.jenkins.polaris.service.PendingIssueCount;
 import com.synopsys.integration.jenkins.polaris.service.PolarisCommandsFactory;
 
+import hudson.AbortException;
 import hudson.EnvVars;
 import hudson.Extension;
 import hudson.FilePath;
 import hudson.Launcher;
+import hudson.model.Computer;
 import hudson.model.Node;
 import hudson.model.Run;
 import hudson.model.TaskListener;
@@ -109,29 +114,98 @@ public class PolarisIssueCheckStep extends Step implements Serializable {
 
     }
 
-    public class Execution extends SynchronousNonBlockingStepExecution<Integer> {
-        private static final long serialVersionUID = -3799159740768688972L;
-        private final transient TaskListener listener;
-        private final transient EnvVars envVars;
-        private final transient FilePath workspace;
-        private final transient Launcher launcher;
-        private final transient Node node;
-        private final transient Run<?, ?> run;
-
-        protected Execution(@Nonnull StepContext context) throws InterruptedException, IOException {
+    /**
+     * Waits for the jobs of a scan without holding a thread. start() and onResume() hand the work to Computer.threadPoolForRemoting, so neither the CPS VM thread nor the thread resuming the pipeline waits
+     * on the agent. There the cli-scan.json is read into a PendingIssueCount, which is saved with the execution from then on, and its jobs are registered with the shared JobStatusPoller; the step completes
+     * from the callback once they end. After a restart, onResume registers the same jobs again with the time that remains, or reads the cli-scan.json again if the restart came before it had been read.
+     */
+    public class Execution extends StepExecution {
+        private static final long serialVersionUID = 5436108622180329765L;
+        // Null until the cli-scan.json has been read on the remoting pool
+        private volatile PendingIssueCount pendingIssueCount;
+        private transient volatile boolean stopped;
+        private transient volatile Future<?> preparation;
+        private transient volatile CompletableFuture<Integer> issueCount;
+
+        protected Execution(@Nonnull StepContext context) {
             super(context);
-            listener = context.get(TaskListener.class);
-            envVars = context.get(EnvVars.class);
-            workspace = context.get(FilePath.class);
-            launcher = context.get(Launcher.class);
-            node = context.get(Node.class);
-            run = context.get(Run.class);
         }
 
         @Override
-        protected Integer run() throws Exception {
-            return PolarisCommandsFactory.fromPipeline(listener, envVars, launcher, node, run, workspace)
-                       .checkForIssues(jobTimeoutInMinutes, returnIssueCount);
+        public boolean start() {
+            prepareAndWaitForIssueCount();
+            return false;
+        }
+
+        @Override
+        public void onResume() {
+            prepareAndWaitForIssueCount();
+        }
+
+        @Override
+        public void stop(@Nonnull Throwable cause) throws Exception {
+            stopped = true;
+            cancel(preparation);
+            cancel(issueCount);
+            getContext().onFailure(cause);
+        }
+
+        @Override
+        public String getStatus() {
+            PendingIssueCount pending = pendingIssueCount;
+            if (pending == null) {
+                return "reading cli-scan.json";
+            }
+            return String.format("waiting for %s Coverity on Polaris job(s)", pending.getJobStatusUrls().size());
         }
+
+        private void prepareAndWaitForIssueCount() {
+            // Reading the cli-scan.json needs the agent, which may be slow or, after a restart, still reconnecting
+            preparation = Computer.threadPoolForRemoting.submit(() -> {
+                try {
+                    PolarisPipelineCommands polarisPipelineCommands = createPolarisPipelineCommands();
+                    if (pendingIssueCount == null) {
+                        pendingIssueCount = polarisPipelineCommands.prepareIssueCheck(jobTimeoutInMinutes);
+                    }
+                    waitForIssueCount(polarisPipelineCommands);
+                } catch (Exception e) {
+                    if (!stopped) {
+                        getContext().onFailure(e);
+                    }
+                }
+            });
+        }
+
+        private PolarisPipelineCommands createPolarisPipelineCommands() throws Exception {
+            StepContext context = getContext();
+            return PolarisCommandsFactory.fromPipeline(context.get(TaskListener.class), context.get(EnvVars.class), context.get(Launcher.class), context.get(Node.class), context.get(Run.class),
+                context.get(FilePath.class));
+        }
+
+        private void waitForIssueCount(PolarisPipelineCommands polarisPipelineCommands) throws AbortException {
+            StepContext context = getContext();
+            issueCount = polarisPipelineCommands.checkForIssuesAsync(pendingIssueCount, returnIssueCount, Computer.threadPoolForRemoting);
+            if (stopped) {
+                issueCount.cancel(true);
+            }
+            issueCount.whenComplete((count, throwable) -> {
+                if (stopped) {
+                    return;
+                }
+                if (throwable == null) {
+                    context.onSuccess(count);
+                } else {
+                    context.onFailure(throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable);
+                }
+            });
+        }
+
+        private void cancel(@Nullable Future<?> future) {
+            if (future != null) {
+                future.cancel(true);
+            }
+        }
+
     }
+
 }
@@ -13,6 +13,7 @@ import java.nio.file.Files;
 
 import com.synopsys.integration.exception.IntegrationException;
 import com.synopsys.integration.jenkins.extensions.JenkinsIntLogger;
+import com.synopsys.integration.polaris.common.cli.PolarisCliArchiveExpander;
 import com.synopsys.integration.polaris.common.cli.PolarisDownloadUtility;
 import com.synopsys.integration.polaris.common.exception.PolarisIntegrationException;
 import com.synopsys.integration.polaris.common.rest.AccessTokenPolarisHttpClient;
@@ -21,7 +22,6 @@ import com.synopsys.integration.rest.client.IntHttpClient;
 import com.synopsys.integration.rest.credentials.CredentialsBuilder;
 import com.synopsys.integration.rest.proxy.ProxyInfo;
 import com.synopsys.integration.rest.proxy.ProxyInfoBuilder;
-import com.synopsys.integration.util.CleanupZipExpander;
 import com.synopsys.integration.util.OperatingSystemType;
 
 import jenkins.security.MasterToSlaveCallable;
@@ -85,11 +85,11 @@ public class FindOrInstallPolarisCli extends MasterToSlaveCallable<String, Integ
             proxyInfoBuilder.setNtlmDomain(proxyNtlmWorkstation);
 
             IntHttpClient intHttpClient = new IntHttpClient(jenkinsIntLogger, timeout, false, proxyInfoBuilder.build());
-            CleanupZipExpander cleanupZipExpander = new CleanupZipExpander(jenkinsIntLogger);
+            PolarisCliArchiveExpander polarisCliArchiveExpander = new PolarisCliArchiveExpander(jenkinsIntLogger);
 
             Files.createDirectories(installLocation.toPath());
 
-            PolarisDownloadUtility polarisDownloadUtility = new PolarisDownloadUtility(jenkinsIntLogger, operatingSystemType, intHttpClient, cleanupZipExpander, new HttpUrl(polarisServerUrl), installLocation);
+            PolarisDownloadUtility polarisDownloadUtility = new PolarisDownloadUtility(jenkinsIntLogger, operatingSystemType, intHttpClient, polarisCliArchiveExpander, new HttpUrl(polarisServerUrl), installLocation);
 
             return polarisDownloadUtility.getOrDownloadPolarisCliHome().orElseThrow(() -> new PolarisIntegrationException("The Polaris CLI could not be found or installed correctly."));
         } catch (IOException | IllegalArgumentException ex) {
@@ -0,0 +1,179 @@
+/*
+ * synopsys-polaris
+ *
+ * Copyright (c) 2024 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.jenkins.polaris.extensions.tools;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.apache.commons.codec.digest.DigestUtils;
+
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.jenkins.extensions.JenkinsIntLogger;
+import com.synopsys.integration.log.SilentIntLogger;
+import com.synopsys.integration.polaris.common.cli.PolarisCliInstallDirectory;
+import com.synopsys.integration.polaris.common.cli.PolarisCliArchiveExpander;
+import com.synopsys.integration.polaris.common.cli.PolarisDownloadUtility;
+import com.synopsys.integration.polaris.common.exception.PolarisIntegrationException;
+import com.synopsys.integration.polaris.common.rest.AccessTokenPolarisHttpClient;
+import com.synopsys.integration.rest.client.IntHttpClient;
+
+import hudson.FilePath;
+import hudson.remoting.VirtualChannel;
+import jenkins.MasterToSlaveFileCallable;
+
+/**
+ * Downloads each Polaris CLI once per controller into JENKINS_HOME and copies the expanded CLI to agents over their remoting channel, so that agents (especially short-lived ones) never download the CLI
+ * from Polaris themselves.
+ */
+public class PolarisCliControllerCache {
+    public static final String CACHE_DIRECTORY_NAME = "caches" + File.separator + "synopsys-polaris-cli";
+
+    // A cache directory is only re-expanded under its write lock, and only copied to agents under its read lock
+    private static final ConcurrentMap<String, ReadWriteLock> CACHE_LOCKS = new ConcurrentHashMap<>();
+
+    private final JenkinsIntLogger logger;
+    private final File cacheRoot;
+
+    public PolarisCliControllerCache(JenkinsIntLogger logger, File jenkinsRootDirectory) {
+        this.logger = logger;
+        this.cacheRoot = new File(jenkinsRootDirectory, CACHE_DIRECTORY_NAME);
+    }
+
+    /**
+     * Makes sure the controller's copy of the CLI for the given platform is current, then copies it to the install location on the agent unless the agent already has that version.
+     * @return The Polaris CLI home on the agent.
+     */
+    public FilePath installFromCache(AccessTokenPolarisHttpClient polarisHttpClient, PolarisCliPlatform platform, FilePath installLocation) throws IntegrationException, IOException, InterruptedException {
+        String downloadUrlFormat = platform.getDownloadUrlFormat(polarisHttpClient.getPolarisServerUrl());
+        File cacheDirectory = new File(cacheRoot, DigestUtils.sha256Hex(downloadUrlFormat).substring(0, 16));
+        ReadWriteLock cacheLock = CACHE_LOCKS.computeIfAbsent(cacheDirectory.getAbsolutePath(), ignored -> new ReentrantReadWriteLock());
+
+        CachedPolarisCli cachedPolarisCli;
+        Lock writeLock = cacheLock.writeLock();
+        writeLock.lock();
+        try {
+            cachedPolarisCli = updateCache(polarisHttpClient, platform, downloadUrlFormat, cacheDirectory);
+        } finally {
+            writeLock.unlock();
+        }
+
+        Lock readLock = cacheLock.readLock();
+        readLock.lock();
+        try {
+            return copyToAgent(cachedPolarisCli, installLocation);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    private CachedPolarisCli updateCache(AccessTokenPolarisHttpClient polarisHttpClient, PolarisCliPlatform platform, String downloadUrlFormat, File cacheDirectory) throws IntegrationException, IOException {
+        IntHttpClient intHttpClient = new IntHttpClient(logger, polarisHttpClient.getTimeoutInSeconds(), false, polarisHttpClient.getProxyInfo());
+        PolarisCliArchiveExpander polarisCliArchiveExpander = new PolarisCliArchiveExpander(logger);
+        PolarisDownloadUtility polarisDownloadUtility = new PolarisDownloadUtility(logger, platform.getOperatingSystemType(), intHttpClient, polarisCliArchiveExpander, polarisHttpClient.getPolarisServerUrl(), cacheDirectory);
+
+        File versionFile = polarisDownloadUtility.getOrCreateVersionFile();
+        String polarisCliExecutable = polarisDownloadUtility.getOrDownloadPolarisCliExecutable(versionFile, downloadUrlFormat)
+                                          .orElseThrow(() -> new PolarisIntegrationException("The Polaris CLI could not be downloaded to the controller's cache."));
+
+        // The executable is in <home>/bin
+        File polarisCliHome = new File(polarisCliExecutable).getParentFile().getParentFile();
+        String cacheKey = PolarisCliInstallDirectory.createCacheKey(polarisHttpClient.getPolarisServerUrl());
+        return new CachedPolarisCli(polarisCliHome, versionFile, versionFile.lastModified(), cacheKey);
+    }
+
+    private FilePath copyToAgent(CachedPolarisCli cachedPolarisCli, FilePath installLocation) throws IOException, InterruptedException {
+        FilePath agentInstallDirectory = installLocation.child(PolarisDownloadUtility.POLARIS_CLI_INSTALL_DIRECTORY);
+        FilePath agentVersionFile = agentInstallDirectory.child(PolarisCliInstallDirectory.getVersionFilename(cachedPolarisCli.cacheKey));
+        FilePath agentPolarisCliHome = agentInstallDirectory.child(cachedPolarisCli.home.getName());
+
+        // Installations on the agent are named like the controller's, so a matching version file and home mean the agent already has this version
+        if (agentVersionFile.exists() && agentVersionFile.lastModified() == cachedPolarisCli.lastModified && agentPolarisCliHome.isDirectory()) {
+            logger.debug("The Polaris CLI on this node is already up to date with the controller's cache.");
+            agentPolarisCliHome.child(PolarisCliInstallDirectory.LAST_USED_FILENAME).touch(System.currentTimeMillis());
+            return agentPolarisCliHome;
+        }
+
+        logger.info("Copying the Polaris CLI from the controller's cache to " + agentInstallDirectory.getRemote());
+        agentInstallDirectory.mkdirs();
+
+        // The copy is staged outside of the install lock, so only swapping it in makes other executors on the agent wait
+        FilePath agentStagingDirectory = agentInstallDirectory.createTempDir(PolarisCliInstallDirectory.STAGING_DIRECTORY_PREFIX, null);
+        try {
+            // Copying between channels is done as a gzipped tar stream
+            FilePath stagedPolarisCliHome = agentStagingDirectory.child(cachedPolarisCli.home.getName());
+            new FilePath(cachedPolarisCli.home).copyRecursiveTo(stagedPolarisCliHome);
+            for (FilePath binFile : stagedPolarisCliHome.child("bin").list()) {
+                binFile.chmod(0755);
+            }
+
+            String artifactName = new String(Files.readAllBytes(cachedPolarisCli.versionFile.toPath()), StandardCharsets.UTF_8).trim();
+            agentInstallDirectory.act(new PromoteStagedPolarisCli(stagedPolarisCliHome.getRemote(), cachedPolarisCli.home.getName(), artifactName, cachedPolarisCli.lastModified, cachedPolarisCli.cacheKey));
+        } finally {
+            agentStagingDirectory.deleteRecursive();
+        }
+
+        logger.info("Polaris CLI copied successfully.");
+        return agentPolarisCliHome;
+    }
+
+    private static class PromoteStagedPolarisCli extends MasterToSlaveFileCallable<Void> {
+        private static final long serialVersionUID = 6071837645318026529L;
+
+        private final String stagedHomePath;
+        private final String installationName;
+        private final String artifactName;
+        private final long lastModified;
+        private final String cacheKey;
+
+        private PromoteStagedPolarisCli(String stagedHomePath, String installationName, String artifactName, long lastModified, String cacheKey) {
+            this.stagedHomePath = stagedHomePath;
+            this.installationName = installationName;
+            this.artifactName = artifactName;
+            this.lastModified = lastModified;
+            this.cacheKey = cacheKey;
+        }
+
+        @Override
+        public Void invoke(File installDirectory, VirtualChannel channel) throws IOException {
+            PolarisCliInstallDirectory polarisCliInstallDirectory = new PolarisCliInstallDirectory(new SilentIntLogger(), installDirectory, cacheKey);
+            return polarisCliInstallDirectory.withLock(() -> {
+                polarisCliInstallDirectory.promote(new File(stagedHomePath), installationName);
+
+                // The agent's version file follows the same convention as an install on the agent, and is only written once the new version is current
+                File versionFile = polarisCliInstallDirectory.getVersionFile();
+                Files.write(versionFile.toPath(), artifactName.getBytes(StandardCharsets.UTF_8));
+                versionFile.setLastModified(lastModified);
+                return null;
+            });
+        }
+
+    }
+
+    private static class CachedPolarisCli {
+        private final File home;
+        private final File versionFile;
+        private final long lastModified;
+        private final String cacheKey;
+
+        private CachedPolarisCli(File home, File versionFile, long lastModified, String cacheKey) {
+            this.home = home;
+            this.versionFile = versionFile;
+            this.lastModified = lastModified;
+            this.cacheKey = cacheKey;
+        }
+
+    }
+
+}
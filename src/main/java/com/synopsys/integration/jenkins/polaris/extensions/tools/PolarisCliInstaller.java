@@ -11,6 +11,7 @@ import java.io.IOException;
 import java.util.Optional;
 
 import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
 
 import com.synopsys.integration.exception.IntegrationException;
 import com.synopsys.integration.jenkins.extensions.JenkinsIntLogger;
@@ -30,13 +31,39 @@ import hudson.tools.ToolInstaller;
 import hudson.tools.ToolInstallerDescriptor;
 
 public class PolarisCliInstaller extends ToolInstaller {
+    private boolean cacheOnController;
+    private boolean warmUpOnConnect;
+
     @DataBoundConstructor
     public PolarisCliInstaller(String label) {
         super(label);
     }
 
+    public boolean isCacheOnController() {
+        return cacheOnController;
+    }
+
+    @DataBoundSetter
+    public void setCacheOnController(boolean cacheOnController) {
+        this.cacheOnController = cacheOnController;
+    }
+
+    public boolean isWarmUpOnConnect() {
+        return warmUpOnConnect;
+    }
+
+    @DataBoundSetter
+    public void setWarmUpOnConnect(boolean warmUpOnConnect) {
+        this.warmUpOnConnect = warmUpOnConnect;
+    }
+
     @Override
     public FilePath performInstallation(ToolInstallation tool, Node node, TaskListener log) throws IOException, InterruptedException {
+        // A build that needs the CLI while it is being installed on the node, e.g. by the warm-up when the agent connected, waits for that installation
+        return PolarisCliWarmUp.installOrJoin(tool, node, log, () -> install(tool, node, log));
+    }
+
+    private FilePath install(ToolInstallation tool, Node node, TaskListener log) throws IOException, InterruptedException {
         JenkinsIntLogger jenkinsIntLogger = JenkinsIntLogger.logToListener(log);
 
         VirtualChannel virtualChannel = node.getChannel();
@@ -64,6 +91,17 @@ public class PolarisCliInstaller extends ToolInstaller {
         installLocation.mkdirs();
 
         AccessTokenPolarisHttpClient polarisHttpClient = polarisGlobalConfig.getPolarisServerConfig(jenkinsWrapper.getCredentialsHelper(), jenkinsWrapper.getProxyHelper()).createPolarisHttpClient(jenkinsIntLogger);
+
+        if (cacheOnController) {
+            try {
+                PolarisCliPlatform platform = virtualChannel.call(new PolarisCliPlatform.GetPolarisCliPlatform());
+                PolarisCliControllerCache polarisCliControllerCache = new PolarisCliControllerCache(jenkinsIntLogger, jenkinsWrapper.getJenkins().get().getRootDir());
+                return polarisCliControllerCache.installFromCache(polarisHttpClient, platform, installLocation);
+            } catch (IntegrationException | IOException ex) {
+                jenkinsIntLogger.warn("The Polaris CLI could not be installed from the controller's cache, so it will be installed directly on this node instead: " + ex.getMessage());
+            }
+        }
+
         FindOrInstallPolarisCli findOrInstallPolarisCli = FindOrInstallPolarisCli.getConnectionDetailsFromHttpClient(jenkinsIntLogger, polarisHttpClient, installLocation.getRemote());
 
         try {
@@ -0,0 +1,57 @@
+/*
+ * synopsys-polaris
+ *
+ * Copyright (c) 2024 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.jenkins.polaris.extensions.tools;
+
+import java.io.Serializable;
+
+import com.synopsys.integration.polaris.common.cli.PolarisDownloadUtility;
+import com.synopsys.integration.rest.HttpUrl;
+import com.synopsys.integration.util.OperatingSystemType;
+
+import jenkins.security.MasterToSlaveCallable;
+
+/**
+ * The operating system and architecture of a node, which together decide which Polaris CLI zip that node needs.
+ */
+public class PolarisCliPlatform implements Serializable {
+    private static final long serialVersionUID = 2164128315386934427L;
+    private final OperatingSystemType operatingSystemType;
+    private final String osArch;
+
+    public PolarisCliPlatform(OperatingSystemType operatingSystemType, String osArch) {
+        this.operatingSystemType = operatingSystemType;
+        this.osArch = osArch;
+    }
+
+    public static PolarisCliPlatform determineFromSystem() {
+        return new PolarisCliPlatform(OperatingSystemType.determineFromSystem(), System.getProperty("os.arch").toLowerCase());
+    }
+
+    public String getDownloadUrlFormat(HttpUrl polarisServerUrl) {
+        return PolarisDownloadUtility.getDownloadUrlFormat(polarisServerUrl, operatingSystemType, osArch);
+    }
+
+    public OperatingSystemType getOperatingSystemType() {
+        return operatingSystemType;
+    }
+
+    public String getOsArch() {
+        return osArch;
+    }
+
+    public static class GetPolarisCliPlatform extends MasterToSlaveCallable<PolarisCliPlatform, RuntimeException> {
+        private static final long serialVersionUID = -3546125009541335542L;
+
+        @Override
+        public PolarisCliPlatform call() {
+            return PolarisCliPlatform.determineFromSystem();
+        }
+
+    }
+
+}
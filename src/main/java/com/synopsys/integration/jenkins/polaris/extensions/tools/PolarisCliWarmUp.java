@@ -0,0 +1,218 @@
+/*
+ * synopsys-polaris
+ *
+ * Copyright (c) 2024 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.jenkins.polaris.extensions.tools;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import hudson.Extension;
+import hudson.FilePath;
+import hudson.Util;
+import hudson.model.Computer;
+import hudson.model.Node;
+import hudson.model.TaskListener;
+import hudson.slaves.ComputerListener;
+import hudson.slaves.OfflineCause;
+import hudson.tools.InstallSourceProperty;
+import hudson.tools.ToolInstallation;
+import hudson.tools.ToolInstaller;
+import hudson.util.LogTaskListener;
+
+/**
+ * Installs the Polaris CLI on agents as soon as they come online, for installers that opt in, so the first build on a new agent does not wait for the download. Every installation of a Polaris CLI on a
+ * node goes through installOrJoin, so a build that needs the CLI while it is being installed waits for that installation instead of starting another.
+ */
+public class PolarisCliWarmUp {
+    private static final Logger LOGGER = Logger.getLogger(PolarisCliWarmUp.class.getName());
+
+    private static final ConcurrentMap<String, CompletableFuture<FilePath>> INSTALLATIONS_IN_FLIGHT = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, ConcurrentMap<String, WarmUpStatus>> WARM_UP_STATUSES = new ConcurrentHashMap<>();
+
+    private PolarisCliWarmUp() {
+    }
+
+    /**
+     * Runs the installation unless the same tool is already being installed on the node, in which case the result of that installation is returned.
+     */
+    public static FilePath installOrJoin(ToolInstallation tool, Node node, TaskListener listener, Installation installation) throws IOException, InterruptedException {
+        String key = node.getNodeName() + "\n" + tool.getName();
+        CompletableFuture<FilePath> ourInstallation = new CompletableFuture<>();
+        CompletableFuture<FilePath> installationInFlight = INSTALLATIONS_IN_FLIGHT.putIfAbsent(key, ourInstallation);
+
+        if (installationInFlight != null) {
+            listener.getLogger().println(String.format("Waiting for the installation of %s already in progress on %s.", tool.getName(), node.getDisplayName()));
+            try {
+                return installationInFlight.get();
+            } catch (ExecutionException e) {
+                listener.getLogger().println(String.format("The installation of %s in progress on %s failed, so it will be installed again: %s", tool.getName(), node.getDisplayName(), e.getCause().getMessage()));
+                return installation.install();
+            }
+        }
+
+        try {
+            FilePath home = installation.install();
+            ourInstallation.complete(home);
+            return home;
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            ourInstallation.completeExceptionally(e);
+            throw e;
+        } finally {
+            INSTALLATIONS_IN_FLIGHT.remove(key, ourInstallation);
+        }
+    }
+
+    /**
+     * Starts a background installation on the computer's node of every Polaris CLI installation whose installer applies to the node and has warm-up enabled.
+     */
+    public static void warmUp(Computer computer) {
+        Node node = computer.getNode();
+        if (node == null) {
+            return;
+        }
+
+        PolarisCli.DescriptorImpl descriptor = ToolInstallation.all().get(PolarisCli.DescriptorImpl.class);
+        if (descriptor == null) {
+            return;
+        }
+
+        for (PolarisCli polarisCli : descriptor.getInstallations()) {
+            InstallSourceProperty installSourceProperty = polarisCli.getProperties().get(InstallSourceProperty.class);
+            if (installSourceProperty == null) {
+                continue;
+            }
+
+            for (ToolInstaller toolInstaller : installSourceProperty.installers) {
+                if (toolInstaller instanceof PolarisCliInstaller && ((PolarisCliInstaller) toolInstaller).isWarmUpOnConnect() && toolInstaller.appliesTo(node)) {
+                    startWarmUp(computer, node, polarisCli, (PolarisCliInstaller) toolInstaller);
+                    break;
+                }
+            }
+        }
+    }
+
+    public static List<WarmUpStatus> getStatuses(Computer computer) {
+        ConcurrentMap<String, WarmUpStatus> statuses = WARM_UP_STATUSES.get(computer.getName());
+        if (statuses == null) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(statuses.values());
+    }
+
+    private static void startWarmUp(Computer computer, Node node, PolarisCli polarisCli, PolarisCliInstaller polarisCliInstaller) {
+        WarmUpStatus warmUpStatus = new WarmUpStatus(polarisCli.getName());
+        WARM_UP_STATUSES.computeIfAbsent(computer.getName(), ignored -> new ConcurrentHashMap<>()).put(polarisCli.getName(), warmUpStatus);
+
+        Computer.threadPoolForRemoting.submit(() -> {
+            warmUpStatus.started();
+            TaskListener listener = new LogTaskListener(LOGGER, Level.INFO);
+            try {
+                FilePath home = polarisCliInstaller.performInstallation(polarisCli, node, listener);
+                warmUpStatus.succeeded(home.getRemote());
+            } catch (IOException | RuntimeException e) {
+                LOGGER.log(Level.WARNING, String.format("Could not install %s on %s ahead of its first build", polarisCli.getName(), node.getDisplayName()), e);
+                warmUpStatus.failed(e.getMessage());
+            } catch (InterruptedException e) {
+                warmUpStatus.failed("The installation was interrupted.");
+                Thread.currentThread().interrupt();
+            }
+        });
+    }
+
+    @FunctionalInterface
+    public interface Installation {
+        FilePath install() throws IOException, InterruptedException;
+    }
+
+    public enum WarmUpState {
+        PENDING("Waiting to install"),
+        INSTALLING("Installing"),
+        INSTALLED("Installed"),
+        FAILED("Failed");
+
+        private final String displayName;
+
+        WarmUpState(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+
+    public static class WarmUpStatus {
+        private final String toolName;
+        private volatile WarmUpState state = WarmUpState.PENDING;
+        private volatile String details = "";
+        private volatile long startedMillis;
+        private volatile long finishedMillis;
+
+        private WarmUpStatus(String toolName) {
+            this.toolName = toolName;
+        }
+
+        public String getToolName() {
+            return toolName;
+        }
+
+        public WarmUpState getState() {
+            return state;
+        }
+
+        public String getDetails() {
+            return details;
+        }
+
+        public String getDuration() {
+            if (startedMillis == 0) {
+                return "";
+            }
+            return Util.getTimeSpanString((finishedMillis == 0 ? System.currentTimeMillis() : finishedMillis) - startedMillis);
+        }
+
+        private void started() {
+            startedMillis = System.currentTimeMillis();
+            state = WarmUpState.INSTALLING;
+        }
+
+        private void succeeded(String home) {
+            finishedMillis = System.currentTimeMillis();
+            details = home;
+            state = WarmUpState.INSTALLED;
+        }
+
+        private void failed(String reason) {
+            finishedMillis = System.currentTimeMillis();
+            details = reason;
+            state = WarmUpState.FAILED;
+        }
+
+    }
+
+    @Extension
+    public static class WarmUpOnConnect extends ComputerListener {
+        @Override
+        public void onOnline(Computer computer, TaskListener listener) {
+            warmUp(computer);
+        }
+
+        @Override
+        public void onOffline(Computer computer, OfflineCause cause) {
+            WARM_UP_STATUSES.remove(computer.getName());
+        }
+
+    }
+
+}
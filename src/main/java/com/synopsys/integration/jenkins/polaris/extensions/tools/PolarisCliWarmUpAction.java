@@ -0,0 +1,70 @@
+/*
+ * synopsys-polaris
+ *
+ * Copyright (c) 2024 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.jenkins.polaris.extensions.tools;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+
+import hudson.Extension;
+import hudson.model.Action;
+import hudson.model.Computer;
+import jenkins.model.TransientActionFactory;
+
+/**
+ * Shows the status of the Polaris CLI warm-up on the page of each node it ran on.
+ */
+public class PolarisCliWarmUpAction implements Action {
+    private final Computer computer;
+
+    public PolarisCliWarmUpAction(Computer computer) {
+        this.computer = computer;
+    }
+
+    public Computer getComputer() {
+        return computer;
+    }
+
+    public List<PolarisCliWarmUp.WarmUpStatus> getStatuses() {
+        return PolarisCliWarmUp.getStatuses(computer);
+    }
+
+    @Override
+    public String getIconFileName() {
+        // Nodes that no warm-up ran on do not get a link
+        return getStatuses().isEmpty() ? null : "symbol-settings";
+    }
+
+    @Override
+    public String getDisplayName() {
+        return "Coverity on Polaris CLI Warm-up";
+    }
+
+    @Override
+    public String getUrlName() {
+        return "polaris-cli-warm-up";
+    }
+
+    @Extension
+    public static class Factory extends TransientActionFactory<Computer> {
+        @Override
+        public Class<Computer> type() {
+            return Computer.class;
+        }
+
+        @Nonnull
+        @Override
+        public Collection<? extends Action> createFor(@Nonnull Computer computer) {
+            return Collections.singletonList(new PolarisCliWarmUpAction(computer));
+        }
+
+    }
+
+}
@@ -14,6 +14,7 @@ import java.nio.file.Paths;
 import java.util.Optional;
 
 import com.synopsys.integration.jenkins.exception.JenkinsUserFriendlyException;
+import com.synopsys.integration.polaris.common.cli.PolarisCliInstallDirectory;
 import com.synopsys.integration.util.OperatingSystemType;
 
 import jenkins.security.MasterToSlaveCallable;
@@ -30,6 +31,8 @@ public class GetPathToPolarisCli extends MasterToSlaveCallable<String, JenkinsUs
     public String call() throws JenkinsUserFriendlyException {
         Path homePath = Paths.get(polarisCliHome);
         Path binPath = homePath.resolve("bin");
+        // The CLI is about to be run from this home, so it must not be deleted to make room for other versions
+        PolarisCliInstallDirectory.markUsed(homePath.toFile());
 
         OperatingSystemType operatingSystemType = OperatingSystemType.determineFromSystem();
 
@@ -0,0 +1,34 @@
+/*
+ * synopsys-polaris
+ *
+ * Copyright (c) 2024 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.jenkins.polaris.service;
+
+import com.synopsys.integration.log.SilentIntLogger;
+import com.synopsys.integration.polaris.common.cli.PolarisCliResponseUtility;
+import com.synopsys.integration.polaris.common.cli.model.CliCommonResponseDigest;
+import com.synopsys.integration.polaris.common.exception.PolarisIntegrationException;
+
+import jenkins.security.MasterToSlaveCallable;
+
+/**
+ * Parses the cli-scan.json on the agent that wrote it, so only a small digest is sent back instead of the whole file.
+ */
+public class GetPolarisCliResponseDigest extends MasterToSlaveCallable<CliCommonResponseDigest, PolarisIntegrationException> {
+    private static final long serialVersionUID = 3415702968617023571L;
+    private final String workspaceRemotePath;
+
+    public GetPolarisCliResponseDigest(String workspaceRemotePath) {
+        this.workspaceRemotePath = workspaceRemotePath;
+    }
+
+    @Override
+    public CliCommonResponseDigest call() throws PolarisIntegrationException {
+        PolarisCliResponseUtility polarisCliResponseUtility = PolarisCliResponseUtility.defaultUtility(new SilentIntLogger());
+        return CliCommonResponseDigest.fromModel(polarisCliResponseUtility.getPolarisCliResponseModelFromDefaultLocation(workspaceRemotePath));
+    }
+
+}
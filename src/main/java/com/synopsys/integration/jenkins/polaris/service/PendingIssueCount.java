@@ -0,0 +1,64 @@
+/*
+ * synopsys-polaris
+ *
+ * Copyright (c) 2024 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.jenkins.polaris.service;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * What is left to do to count the issues of a scan once its cli-scan.json has been read: either nothing, because the scan was run with -w, or waiting for its jobs before asking the issue api url.
+ * It is serializable so a waiting pipeline step can save it and pick the wait up again after a restart, which is also why the job timeout is kept as a deadline rather than a duration.
+ */
+public class PendingIssueCount implements Serializable {
+    private static final long serialVersionUID = -6471359230883514781L;
+    private final Integer issueCount;
+    private final String issueApiUrl;
+    private final ArrayList<String> jobStatusUrls;
+    private final long jobDeadlineMillis;
+
+    private PendingIssueCount(Integer issueCount, String issueApiUrl, List<String> jobStatusUrls, long jobDeadlineMillis) {
+        this.issueCount = issueCount;
+        this.issueApiUrl = issueApiUrl;
+        this.jobStatusUrls = new ArrayList<>(jobStatusUrls);
+        this.jobDeadlineMillis = jobDeadlineMillis;
+    }
+
+    public static PendingIssueCount counted(int issueCount) {
+        return new PendingIssueCount(issueCount, null, new ArrayList<>(), 0L);
+    }
+
+    public static PendingIssueCount waitingForJobs(String issueApiUrl, List<String> jobStatusUrls, long jobDeadlineMillis) {
+        return new PendingIssueCount(null, issueApiUrl, jobStatusUrls, jobDeadlineMillis);
+    }
+
+    /**
+     * @return The issue count, which is only present if there are no jobs to wait for.
+     */
+    public Optional<Integer> getIssueCount() {
+        return Optional.ofNullable(issueCount);
+    }
+
+    public String getIssueApiUrl() {
+        return issueApiUrl;
+    }
+
+    public List<String> getJobStatusUrls() {
+        return jobStatusUrls;
+    }
+
+    public long getJobDeadlineMillis() {
+        return jobDeadlineMillis;
+    }
+
+    public long getRemainingJobTimeoutInSeconds(long currentTimeMillis) {
+        return Math.max(0L, (jobDeadlineMillis - currentTimeMillis) / 1000L);
+    }
+
+}
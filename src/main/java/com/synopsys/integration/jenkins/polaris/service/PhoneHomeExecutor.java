@@ -0,0 +1,99 @@
+/*
+ * synopsys-polaris
+ *
+ * Copyright (c) 2024 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.jenkins.polaris.service;
+
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Runs phone home requests on one daemon thread shared by every build on the controller. At most queueCapacity requests wait behind the running one; any more are dropped rather than queued, so phone
+ * home can never hold up a build or pile up threads. Drops are reported in the Jenkins system log, at most once a minute.
+ */
+public class PhoneHomeExecutor {
+    public static final int DEFAULT_QUEUE_CAPACITY = 16;
+    private static final long IDLE_THREAD_TIMEOUT_SECONDS = 60L;
+    private static final long DROP_LOG_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(1);
+    private static final Logger LOGGER = Logger.getLogger(PhoneHomeExecutor.class.getName());
+    private static final AtomicInteger EXECUTOR_COUNT = new AtomicInteger();
+    private static PhoneHomeExecutor shared = null;
+
+    private final ThreadPoolExecutor executor;
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong completedCount = new AtomicLong();
+    private final AtomicLong lastDropLoggedMillis = new AtomicLong();
+
+    public PhoneHomeExecutor(int queueCapacity) {
+        String threadName = "Polaris phone home " + EXECUTOR_COUNT.incrementAndGet();
+        this.executor = new ThreadPoolExecutor(1, 1, IDLE_THREAD_TIMEOUT_SECONDS, TimeUnit.SECONDS, new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, threadName);
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+        // The thread is only kept while there is something to send
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    public static synchronized PhoneHomeExecutor shared() {
+        if (shared == null) {
+            shared = new PhoneHomeExecutor(DEFAULT_QUEUE_CAPACITY);
+        }
+        return shared;
+    }
+
+    /**
+     * @return The pending result of the phone home, or empty if it was dropped because too many are already waiting.
+     */
+    public Optional<Future<Boolean>> submit(Callable<Boolean> phoneHome) {
+        try {
+            return Optional.of(executor.submit(() -> {
+                try {
+                    return phoneHome.call();
+                } finally {
+                    completedCount.incrementAndGet();
+                }
+            }));
+        } catch (RejectedExecutionException e) {
+            droppedCount.incrementAndGet();
+            logDrop();
+            return Optional.empty();
+        }
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * @return How many phone homes have finished, whether or not they succeeded.
+     */
+    public long getCompletedCount() {
+        return completedCount.get();
+    }
+
+    public int getQueuedCount() {
+        return executor.getQueue().size();
+    }
+
+    private void logDrop() {
+        long nowMillis = System.currentTimeMillis();
+        long lastLoggedMillis = lastDropLoggedMillis.get();
+        // Only the thread that claims the interval logs, so a burst of drops is one line
+        if (nowMillis - lastLoggedMillis >= DROP_LOG_INTERVAL_MILLIS && lastDropLoggedMillis.compareAndSet(lastLoggedMillis, nowMillis)) {
+            LOGGER.info(String.format("Polaris phone home is falling behind: %d dropped and %d completed since Jenkins started, %d waiting.", getDroppedCount(), getCompletedCount(), getQueuedCount()));
+        }
+    }
+
+}
@@ -7,16 +7,17 @@
  */
 package com.synopsys.integration.jenkins.polaris.service;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 import com.synopsys.integration.exception.IntegrationException;
 import com.synopsys.integration.jenkins.exception.JenkinsUserFriendlyException;
 import com.synopsys.integration.jenkins.extensions.JenkinsIntLogger;
-import com.synopsys.integration.polaris.common.cli.PolarisCliResponseUtility;
-import com.synopsys.integration.polaris.common.cli.model.CliCommonResponseModel;
-import com.synopsys.integration.polaris.common.cli.model.CommonIssueSummary;
-import com.synopsys.integration.polaris.common.cli.model.CommonScanInfo;
-import com.synopsys.integration.polaris.common.cli.model.CommonToolInfo;
+import com.synopsys.integration.polaris.common.cli.model.CliCommonResponseDigest;
 import com.synopsys.integration.polaris.common.service.CountService;
 import com.synopsys.integration.polaris.common.service.JobService;
 import com.synopsys.integration.rest.HttpUrl;
@@ -26,47 +27,102 @@ public class PolarisCliIssueCountService {
     private final JenkinsIntLogger logger;
     private final CountService countService;
     private final JobService jobService;
-    private final PolarisCliResponseUtility polarisCliResponseUtility;
 
-    public PolarisCliIssueCountService(JenkinsIntLogger logger, CountService countService, JobService jobService, PolarisCliResponseUtility polarisCliResponseUtility) {
+    public PolarisCliIssueCountService(JenkinsIntLogger logger, CountService countService, JobService jobService) {
         this.logger = logger;
         this.countService = countService;
         this.jobService = jobService;
-        this.polarisCliResponseUtility = polarisCliResponseUtility;
     }
 
-    public Integer getIssueCount(long jobTimeoutInSeconds, String cliCommonResponseModelJson) throws IntegrationException, JenkinsUserFriendlyException, InterruptedException {
-        CliCommonResponseModel polarisCliResponseModel = polarisCliResponseUtility.getPolarisCliResponseModelFromString(cliCommonResponseModelJson);
+    public Integer getIssueCount(long jobTimeoutInSeconds, CliCommonResponseDigest cliCommonResponseDigest) throws IntegrationException, JenkinsUserFriendlyException, InterruptedException {
+        PendingIssueCount pendingIssueCount = prepareIssueCount(jobTimeoutInSeconds, cliCommonResponseDigest);
+        Optional<Integer> issueCount = pendingIssueCount.getIssueCount();
+        if (issueCount.isPresent()) {
+            return issueCount.get();
+        }
+
+        // All tool jobs are polled together under the one timeout, and the first to fail ends the wait
+        jobService.waitForJobStatesAreCompletedOrDieByUrls(toHttpUrls(pendingIssueCount.getJobStatusUrls()), jobTimeoutInSeconds, JobService.DEFAULT_WAIT_INTERVAL);
 
-        Optional<CommonIssueSummary> issueSummary = polarisCliResponseModel.getIssueSummary();
-        CommonScanInfo scanInfo = polarisCliResponseModel.getScanInfo();
+        return countService.getTotalIssueCountFromIssueApiUrl(new HttpUrl(pendingIssueCount.getIssueApiUrl()));
+    }
 
-        if (issueSummary.isPresent()) {
+    /**
+     * Checks everything that can be checked without waiting, and works out what is left to do to count the issues.
+     */
+    public PendingIssueCount prepareIssueCount(long jobTimeoutInSeconds, CliCommonResponseDigest cliCommonResponseDigest) throws IntegrationException, JenkinsUserFriendlyException {
+        Optional<Integer> totalIssueCount = cliCommonResponseDigest.getTotalIssueCount();
+
+        if (totalIssueCount.isPresent()) {
             logger.debug("Found total issue count in cli-scan.json, scan must have been run with -w");
-            return issueSummary.get().getTotalIssueCount();
+            return PendingIssueCount.counted(totalIssueCount.get());
         }
 
         if (jobTimeoutInSeconds < 1) {
             throw new JenkinsUserFriendlyException(STEP_EXCEPTION_PREFIX + "Job timeout must be a positive integer if the Polaris CLI is being run without -w");
         }
 
-        HttpUrl issueApiUrl = Optional.ofNullable(scanInfo)
-                                  .map(CommonScanInfo::getIssueApiUrl)
-                                  .orElseThrow(() -> new JenkinsUserFriendlyException(
-                                      "Polaris Software Integrity Platform for Jenkins cannot find the total issue count or issue api url in the cli-scan.json. Please ensure that you are using a supported version of the Polaris CLI."
-                                  ));
+        String issueApiUrl = cliCommonResponseDigest.getIssueApiUrl()
+                                 .orElseThrow(() -> new JenkinsUserFriendlyException(
+                                     "Polaris Software Integrity Platform for Jenkins cannot find the total issue count or issue api url in the cli-scan.json. Please ensure that you are using a supported version of the Polaris CLI."
+                                 ));
 
         logger.debug("Found issue api url, polling for job status");
 
-        for (CommonToolInfo tool : polarisCliResponseModel.getTools()) {
-            HttpUrl jobStatusUrl = tool.getJobStatusUrl();
-            if (jobStatusUrl == null) {
-                throw new JenkinsUserFriendlyException(STEP_EXCEPTION_PREFIX + "tool with name " + tool.getToolName() + " has no jobStatusUrl");
-            }
-            jobService.waitForJobStateIsCompletedOrDieByUrl(jobStatusUrl, jobTimeoutInSeconds, JobService.DEFAULT_WAIT_INTERVAL);
+        List<String> jobStatusUrls = new ArrayList<>();
+        for (CliCommonResponseDigest.ToolJob toolJob : cliCommonResponseDigest.getToolJobs()) {
+            String jobStatusUrl = toolJob.getJobStatusUrl()
+                                      .orElseThrow(() -> new JenkinsUserFriendlyException(STEP_EXCEPTION_PREFIX + "tool with name " + toolJob.getToolName() + " has no jobStatusUrl"));
+            jobStatusUrls.add(jobStatusUrl);
         }
 
-        return countService.getTotalIssueCountFromIssueApiUrl(issueApiUrl);
+        // Fail now rather than after the wait if any url is malformed
+        new HttpUrl(issueApiUrl);
+        toHttpUrls(jobStatusUrls);
+
+        return PendingIssueCount.waitingForJobs(issueApiUrl, jobStatusUrls, System.currentTimeMillis() + jobTimeoutInSeconds * 1000L);
+    }
+
+    /**
+     * Waits for the jobs on the shared JobStatusPoller without holding a thread, then asks for the count on the given executor. Cancelling the returned future stops the wait.
+     */
+    public CompletableFuture<Integer> getIssueCountAsync(PendingIssueCount pendingIssueCount, Executor countExecutor) {
+        Optional<Integer> issueCount = pendingIssueCount.getIssueCount();
+        if (issueCount.isPresent()) {
+            return CompletableFuture.completedFuture(issueCount.get());
+        }
+
+        List<HttpUrl> jobStatusUrls;
+        HttpUrl issueApiUrl;
+        try {
+            jobStatusUrls = toHttpUrls(pendingIssueCount.getJobStatusUrls());
+            issueApiUrl = new HttpUrl(pendingIssueCount.getIssueApiUrl());
+        } catch (IntegrationException e) {
+            CompletableFuture<Integer> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+
+        long remainingJobTimeoutInSeconds = pendingIssueCount.getRemainingJobTimeoutInSeconds(System.currentTimeMillis());
+        CompletableFuture<Void> jobsCompleted = jobService.waitForJobStatesAreCompletedByUrls(jobStatusUrls, remainingJobTimeoutInSeconds, JobService.DEFAULT_WAIT_INTERVAL);
+        CompletableFuture<Integer> totalIssueCount = jobsCompleted.thenApplyAsync(ignored -> {
+            try {
+                return countService.getTotalIssueCountFromIssueApiUrl(issueApiUrl);
+            } catch (IntegrationException e) {
+                throw new CompletionException(e);
+            }
+        }, countExecutor);
+
+        totalIssueCount.whenComplete((count, throwable) -> jobsCompleted.cancel(true));
+        return totalIssueCount;
+    }
+
+    private List<HttpUrl> toHttpUrls(List<String> urls) throws IntegrationException {
+        List<HttpUrl> httpUrls = new ArrayList<>();
+        for (String url : urls) {
+            httpUrls.add(new HttpUrl(url));
+        }
+        return httpUrls;
     }
 
 }
@@ -13,6 +13,7 @@ import java.util.function.Supplier;
 import com.synopsys.integration.function.ThrowingSupplier;
 import com.synopsys.integration.jenkins.extensions.JenkinsIntLogger;
 import com.synopsys.integration.jenkins.polaris.ChangeSetFileCreator;
+import com.synopsys.integration.jenkins.polaris.DeferredIssueCheck;
 import com.synopsys.integration.jenkins.polaris.PolarisCliRunner;
 import com.synopsys.integration.jenkins.polaris.PolarisFreestyleCommands;
 import com.synopsys.integration.jenkins.polaris.PolarisIssueChecker;
@@ -25,7 +26,6 @@ import com.synopsys.integration.jenkins.service.JenkinsRemotingService;
 import com.synopsys.integration.jenkins.service.JenkinsScmService;
 import com.synopsys.integration.jenkins.service.JenkinsServicesFactory;
 import com.synopsys.integration.jenkins.wrapper.JenkinsWrapper;
-import com.synopsys.integration.polaris.common.cli.PolarisCliResponseUtility;
 import com.synopsys.integration.polaris.common.configuration.PolarisServerConfig;
 import com.synopsys.integration.polaris.common.service.ContextsService;
 import com.synopsys.integration.polaris.common.service.CountService;
@@ -38,6 +38,7 @@ import hudson.FilePath;
 import hudson.Launcher;
 import hudson.model.AbstractBuild;
 import hudson.model.BuildListener;
+import hudson.model.Computer;
 import hudson.model.Node;
 import hudson.model.Run;
 import hudson.model.TaskListener;
@@ -45,19 +46,22 @@ import hudson.model.TaskListener;
 public class PolarisCommandsFactory {
     private final EnvVars envVars;
     private final TaskListener listener;
+    private final Run<?, ?> run;
     private final ThrowingSupplier<JenkinsWrapper, AbortException> validatedJenkinsWrapper;
     // These fields are lazily initialized; within this class use the suppliers instead of referencing the fields directly
     private JenkinsIntLogger _logger = null;
+    private PolarisServicesFactory _polarisServicesFactory = null;
     private final Supplier<JenkinsIntLogger> initializedLogger = this::getOrCreateLogger;
 
-    private PolarisCommandsFactory(JenkinsWrapper jenkinsWrapper, EnvVars envVars, TaskListener listener) {
+    private PolarisCommandsFactory(JenkinsWrapper jenkinsWrapper, EnvVars envVars, TaskListener listener, Run<?, ?> run) {
         this.validatedJenkinsWrapper = () -> validateJenkinsWrapper(jenkinsWrapper);
         this.envVars = envVars;
         this.listener = listener;
+        this.run = run;
     }
 
     public static PolarisFreestyleCommands fromPostBuild(AbstractBuild<?, ?> build, Launcher launcher, BuildListener listener) throws IOException, InterruptedException {
-        PolarisCommandsFactory polarisCommandsFactory = new PolarisCommandsFactory(JenkinsWrapper.initializeFromJenkinsJVM(), build.getEnvironment(listener), listener);
+        PolarisCommandsFactory polarisCommandsFactory = new PolarisCommandsFactory(JenkinsWrapper.initializeFromJenkinsJVM(), build.getEnvironment(listener), listener, build);
         JenkinsFreestyleServicesFactory jenkinsServicesFactory = new JenkinsFreestyleServicesFactory(polarisCommandsFactory.getOrCreateLogger(), build, build.getEnvironment(listener), launcher, listener, build.getBuiltOn(),
             build.getWorkspace());
 
@@ -66,24 +70,25 @@ public class PolarisCommandsFactory {
         JenkinsBuildService jenkinsBuildService = jenkinsServicesFactory.createJenkinsBuildService();
         JenkinsScmService jenkinsScmService = jenkinsServicesFactory.createJenkinsScmService();
 
-        ChangeSetFileCreator changeSetFileCreator = polarisCommandsFactory.createChangeSetFileCreator(jenkinsRemotingService, jenkinsScmService);
-        PolarisCliRunner polarisCliRunner = polarisCommandsFactory.createPolarisCliRunner(jenkinsConfigService, jenkinsRemotingService);
-        PolarisIssueChecker polarisIssueCounter = polarisCommandsFactory.createPolarisIssueCounter(jenkinsConfigService, jenkinsRemotingService);
+        ChangeSetFileCreator changeSetFileCreator = polarisCommandsFactory.createChangeSetFileCreator(jenkinsScmService);
+        ThrowingSupplier<PolarisCliRunner, AbortException> polarisCliRunner = lazily(() -> polarisCommandsFactory.createPolarisCliRunner(jenkinsConfigService, jenkinsRemotingService));
+        ThrowingSupplier<PolarisIssueChecker, AbortException> polarisIssueCounter = lazily(() -> polarisCommandsFactory.createPolarisIssueCounter(jenkinsConfigService, jenkinsRemotingService));
+        DeferredIssueCheck deferredIssueCheck = new DeferredIssueCheck(build, Computer.threadPoolForRemoting);
 
-        return new PolarisFreestyleCommands(polarisCommandsFactory.getOrCreateLogger(), jenkinsBuildService, changeSetFileCreator, polarisCliRunner, polarisIssueCounter);
+        return new PolarisFreestyleCommands(polarisCommandsFactory.getOrCreateLogger(), jenkinsBuildService, changeSetFileCreator, polarisCliRunner, polarisIssueCounter, deferredIssueCheck);
     }
 
     public static PolarisPipelineCommands fromPipeline(TaskListener listener, EnvVars envVars, Launcher launcher, Node node, Run<?, ?> run, FilePath workspace) throws AbortException {
-        PolarisCommandsFactory polarisCommandsFactory = new PolarisCommandsFactory(JenkinsWrapper.initializeFromJenkinsJVM(), envVars, listener);
+        PolarisCommandsFactory polarisCommandsFactory = new PolarisCommandsFactory(JenkinsWrapper.initializeFromJenkinsJVM(), envVars, listener, run);
         JenkinsServicesFactory jenkinsServicesFactory = new JenkinsServicesFactory(polarisCommandsFactory.getOrCreateLogger(), envVars, launcher, listener, node, run, workspace);
 
         JenkinsRemotingService jenkinsRemotingService = jenkinsServicesFactory.createJenkinsRemotingService();
         JenkinsConfigService jenkinsConfigService = jenkinsServicesFactory.createJenkinsConfigService();
         JenkinsScmService jenkinsScmService = jenkinsServicesFactory.createJenkinsScmService();
 
-        ChangeSetFileCreator changeSetFileCreator = polarisCommandsFactory.createChangeSetFileCreator(jenkinsRemotingService, jenkinsScmService);
-        PolarisCliRunner polarisCliRunner = polarisCommandsFactory.createPolarisCliRunner(jenkinsConfigService, jenkinsRemotingService);
-        PolarisIssueChecker polarisIssueCounter = polarisCommandsFactory.createPolarisIssueCounter(jenkinsConfigService, jenkinsRemotingService);
+        ChangeSetFileCreator changeSetFileCreator = polarisCommandsFactory.createChangeSetFileCreator(jenkinsScmService);
+        ThrowingSupplier<PolarisCliRunner, AbortException> polarisCliRunner = lazily(() -> polarisCommandsFactory.createPolarisCliRunner(jenkinsConfigService, jenkinsRemotingService));
+        ThrowingSupplier<PolarisIssueChecker, AbortException> polarisIssueCounter = lazily(() -> polarisCommandsFactory.createPolarisIssueCounter(jenkinsConfigService, jenkinsRemotingService));
 
         return new PolarisPipelineCommands(polarisCommandsFactory.getOrCreateLogger(), changeSetFileCreator, polarisCliRunner, polarisIssueCounter);
     }
@@ -105,8 +110,8 @@ public class PolarisCommandsFactory {
             jenkinsWrapper.getVersionHelper());
     }
 
-    public ChangeSetFileCreator createChangeSetFileCreator(JenkinsRemotingService jenkinsRemotingService, JenkinsScmService jenkinsScmService) {
-        return new ChangeSetFileCreator(initializedLogger.get(), jenkinsRemotingService, jenkinsScmService, createPolarisEnvironmentService());
+    public ChangeSetFileCreator createChangeSetFileCreator(JenkinsScmService jenkinsScmService) {
+        return new ChangeSetFileCreator(initializedLogger.get(), jenkinsScmService);
     }
 
     private PolarisEnvironmentService createPolarisEnvironmentService() {
@@ -118,16 +123,15 @@ public class PolarisCommandsFactory {
     }
 
     private PolarisCliIssueCountService createPolarisCliIssueCountService(JenkinsConfigService jenkinsConfigService) throws AbortException {
-        PolarisServicesFactory polarisServicesFactory = createPolarisServicesFactory(jenkinsConfigService);
+        PolarisServicesFactory polarisServicesFactory = getOrCreatePolarisServicesFactory(jenkinsConfigService);
         JobService jobService = polarisServicesFactory.createJobService();
         CountService countService = polarisServicesFactory.createCountService();
-        PolarisCliResponseUtility polarisCliResponseUtility = PolarisCliResponseUtility.defaultUtility(initializedLogger.get());
 
-        return new PolarisCliIssueCountService(initializedLogger.get(), countService, jobService, polarisCliResponseUtility);
+        return new PolarisCliIssueCountService(initializedLogger.get(), countService, jobService);
     }
 
     private PolarisPhoneHomeService createPolarisPhoneHomeService(JenkinsConfigService jenkinsConfigService) throws AbortException {
-        PolarisServicesFactory polarisServicesFactory = createPolarisServicesFactory(jenkinsConfigService);
+        PolarisServicesFactory polarisServicesFactory = getOrCreatePolarisServicesFactory(jenkinsConfigService);
         ContextsService contextsService = polarisServicesFactory.createContextsService();
         JenkinsWrapper jenkinsWrapper = validatedJenkinsWrapper.get();
 
@@ -141,16 +145,39 @@ public class PolarisCommandsFactory {
         return _logger;
     }
 
-    private PolarisServicesFactory createPolarisServicesFactory(JenkinsConfigService jenkinsConfigService) throws AbortException {
+    // Resolving the credentials and proxy and building the http client is only done once per run, by whichever step needs them first
+    private PolarisServicesFactory getOrCreatePolarisServicesFactory(JenkinsConfigService jenkinsConfigService) throws AbortException {
+        if (_polarisServicesFactory == null) {
+            _polarisServicesFactory = PolarisRunServices.forRun(run).getPolarisServicesFactory(initializedLogger.get(), () -> createPolarisServerConfig(jenkinsConfigService));
+        }
+        return _polarisServicesFactory;
+    }
+
+    private PolarisServerConfig createPolarisServerConfig(JenkinsConfigService jenkinsConfigService) throws AbortException {
         PolarisGlobalConfig polarisGlobalConfig = jenkinsConfigService.getGlobalConfiguration(PolarisGlobalConfig.class)
                                                       .orElseThrow(
                                                           () -> new AbortException(
                                                               "Polaris Software Integrity Platform for Jenkins cannot be executed: No Polaris Software Integrity Platform global configuration detected in the Jenkins system configuration."));
 
-        JenkinsIntLogger jenkinsIntLogger = getOrCreateLogger();
         JenkinsWrapper jenkinsWrapper = validatedJenkinsWrapper.get();
-        PolarisServerConfig polarisServerConfig = polarisGlobalConfig.getPolarisServerConfig(jenkinsWrapper.getCredentialsHelper(), jenkinsWrapper.getProxyHelper());
-        return polarisServerConfig.createPolarisServicesFactory(jenkinsIntLogger);
+        return polarisGlobalConfig.getPolarisServerConfig(jenkinsWrapper.getCredentialsHelper(), jenkinsWrapper.getProxyHelper());
+    }
+
+    /**
+     * Defers creating a service until a command first uses it, so a step does no setup for the services it never calls.
+     */
+    private static <T> ThrowingSupplier<T, AbortException> lazily(ThrowingSupplier<T, AbortException> creator) {
+        return new ThrowingSupplier<T, AbortException>() {
+            private T service = null;
+
+            @Override
+            public synchronized T get() throws AbortException {
+                if (service == null) {
+                    service = creator.get();
+                }
+                return service;
+            }
+        };
     }
 
     private JenkinsWrapper validateJenkinsWrapper(JenkinsWrapper jenkinsWrapper) throws AbortException {
@@ -8,14 +8,18 @@
 package com.synopsys.integration.jenkins.polaris.service;
 
 import java.util.Optional;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+import org.apache.http.HttpResponseInterceptor;
 import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.util.EntityUtils;
+import org.slf4j.LoggerFactory;
 
 import com.google.gson.Gson;
 import com.synopsys.integration.jenkins.extensions.JenkinsIntLogger;
 import com.synopsys.integration.jenkins.wrapper.JenkinsVersionHelper;
+import com.synopsys.integration.log.IntLogger;
+import com.synopsys.integration.log.Slf4jIntLogger;
 import com.synopsys.integration.phonehome.PhoneHomeClient;
 import com.synopsys.integration.phonehome.PhoneHomeResponse;
 import com.synopsys.integration.phonehome.PhoneHomeService;
@@ -24,37 +28,50 @@ import com.synopsys.integration.phonehome.request.PhoneHomeRequestBodyBuilder;
 import com.synopsys.integration.polaris.common.api.PolarisResource;
 import com.synopsys.integration.polaris.common.api.model.ContextAttributes;
 import com.synopsys.integration.polaris.common.rest.AccessTokenPolarisHttpClient;
+import com.synopsys.integration.polaris.common.rest.PolarisConnectionPoolRegistry;
 import com.synopsys.integration.polaris.common.service.ContextsService;
+import com.synopsys.integration.rest.client.IntHttpClient;
+import com.synopsys.integration.rest.proxy.ProxyInfo;
 
 public class PolarisPhoneHomeService {
+    private static final String PHONE_HOME_CONNECTION_POOL = "phone-home";
+    // Phone homes outlive the step that sent them, so they cannot log to its listener
+    private static final IntLogger PHONE_HOME_LOGGER = new Slf4jIntLogger(LoggerFactory.getLogger(PolarisPhoneHomeService.class));
+
     private final JenkinsIntLogger logger;
     private final JenkinsVersionHelper jenkinsVersionHelper;
     private final ContextsService contextsService;
     private final AccessTokenPolarisHttpClient accessTokenPolarisHttpClient;
+    private final PhoneHomeExecutor phoneHomeExecutor;
 
     public PolarisPhoneHomeService(JenkinsIntLogger logger, JenkinsVersionHelper jenkinsVersionHelper, ContextsService contextsService, AccessTokenPolarisHttpClient accessTokenPolarisHttpClient) {
+        this(logger, jenkinsVersionHelper, contextsService, accessTokenPolarisHttpClient, PhoneHomeExecutor.shared());
+    }
+
+    public PolarisPhoneHomeService(JenkinsIntLogger logger, JenkinsVersionHelper jenkinsVersionHelper, ContextsService contextsService, AccessTokenPolarisHttpClient accessTokenPolarisHttpClient,
+        PhoneHomeExecutor phoneHomeExecutor) {
         this.logger = logger;
         this.jenkinsVersionHelper = jenkinsVersionHelper;
         this.contextsService = contextsService;
         this.accessTokenPolarisHttpClient = accessTokenPolarisHttpClient;
+        this.phoneHomeExecutor = phoneHomeExecutor;
     }
 
+    /**
+     * Queues the phone home, including the lookup of the organization name, on the shared PhoneHomeExecutor and returns without waiting for it.
+     */
     public Optional<PhoneHomeResponse> phoneHome() {
-        try {
-            HttpClientBuilder httpClientBuilder = HttpClientBuilder.create();
-            Gson gson = new Gson();
-            PhoneHomeClient phoneHomeClient = new PhoneHomeClient(logger, httpClientBuilder, gson);
-            ExecutorService executor = Executors.newSingleThreadExecutor();
-            PhoneHomeService phoneHomeService = PhoneHomeService.createAsynchronousPhoneHomeService(logger, phoneHomeClient, executor);
-
-            PhoneHomeRequestBody phoneHomeRequestBody = buildPhoneHomeRequest();
+        Optional<Future<Boolean>> phoneHomeResult = phoneHomeExecutor.submit(() -> {
+            PhoneHomeService phoneHomeService = PhoneHomeService.createPhoneHomeService(PHONE_HOME_LOGGER, SharedPhoneHomeClient.PHONE_HOME_CLIENT);
+            return phoneHomeService.phoneHome(buildPhoneHomeRequest()).getImmediateResult();
+        });
 
-            return Optional.ofNullable(phoneHomeService.phoneHome(phoneHomeRequestBody));
-        } catch (Exception e) {
-            logger.trace("Phone home failed due to an unexpected exception:", e);
+        if (!phoneHomeResult.isPresent()) {
+            logger.info(String.format("Phone home was skipped because too many are waiting to be sent (%d dropped and %d completed since Jenkins started)", phoneHomeExecutor.getDroppedCount(),
+                phoneHomeExecutor.getCompletedCount()));
         }
 
-        return Optional.empty();
+        return phoneHomeResult.map(PhoneHomeResponse::createAsynchronousResponse);
     }
 
     private PhoneHomeRequestBody buildPhoneHomeRequest() {
@@ -80,4 +97,17 @@ public class PolarisPhoneHomeService {
         return phoneHomeRequestBodyBuilder.build();
     }
 
+    // Every phone home runs on the one PhoneHomeExecutor thread, so they can all share a client
+    private static class SharedPhoneHomeClient {
+        private static final PhoneHomeClient PHONE_HOME_CLIENT = createPhoneHomeClient();
+
+        private static PhoneHomeClient createPhoneHomeClient() {
+            HttpClientBuilder httpClientBuilder = PolarisConnectionPoolRegistry.shared().createHttpClientBuilder(PHONE_HOME_CONNECTION_POOL, ProxyInfo.NO_PROXY_INFO, IntHttpClient.DEFAULT_TIMEOUT);
+            // PhoneHomeClient never reads or closes its response, so drain it here or the pooled connection is never released
+            httpClientBuilder.addInterceptorLast((HttpResponseInterceptor) (response, context) -> EntityUtils.consume(response.getEntity()));
+            return new PhoneHomeClient(PHONE_HOME_LOGGER, httpClientBuilder, new Gson());
+        }
+
+    }
+
 }
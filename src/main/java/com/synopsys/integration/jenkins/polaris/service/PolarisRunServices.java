@@ -0,0 +1,65 @@
+/*
+ * synopsys-polaris
+ *
+ * Copyright (c) 2024 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.jenkins.polaris.service;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import javax.annotation.Nonnull;
+
+import org.slf4j.LoggerFactory;
+
+import com.synopsys.integration.function.ThrowingSupplier;
+import com.synopsys.integration.log.IntLogger;
+import com.synopsys.integration.log.Slf4jIntLogger;
+import com.synopsys.integration.polaris.common.configuration.PolarisServerConfig;
+import com.synopsys.integration.polaris.common.service.PolarisServicesFactory;
+
+import hudson.AbortException;
+import hudson.Extension;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.model.listeners.RunListener;
+
+/**
+ * The Polaris server config, http client and json machinery of a run, resolved by its first step and shared by every later one, including steps in parallel branches. They are held in memory next to the
+ * run rather than on it, so nothing here is saved with the run, and they are dropped once the run completes or is no longer loaded.
+ */
+public class PolarisRunServices {
+    // The shared services outlive the step that created them, so the http client logs here rather than to that step's listener
+    private static final IntLogger RUN_SERVICES_LOGGER = new Slf4jIntLogger(LoggerFactory.getLogger(PolarisRunServices.class));
+    private static final Map<Run<?, ?>, PolarisRunServices> RUN_SERVICES = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private PolarisServicesFactory polarisServicesFactory;
+
+    public static PolarisRunServices forRun(Run<?, ?> run) {
+        // Only the lookup is done under the map's lock; resolving the services locks this run's entry alone
+        return RUN_SERVICES.computeIfAbsent(run, ignored -> new PolarisRunServices());
+    }
+
+    /**
+     * @return A PolarisServicesFactory whose services log to the given logger, but share this run's http client and json machinery.
+     */
+    public synchronized PolarisServicesFactory getPolarisServicesFactory(IntLogger logger, ThrowingSupplier<PolarisServerConfig, AbortException> polarisServerConfigResolver) throws AbortException {
+        if (polarisServicesFactory == null) {
+            polarisServicesFactory = polarisServerConfigResolver.get().createPolarisServicesFactory(RUN_SERVICES_LOGGER);
+        }
+        return polarisServicesFactory.withLogger(logger);
+    }
+
+    @Extension
+    public static class RunCompletedListener extends RunListener<Run<?, ?>> {
+        @Override
+        public void onCompleted(Run<?, ?> run, @Nonnull TaskListener listener) {
+            RUN_SERVICES.remove(run);
+        }
+
+    }
+
+}
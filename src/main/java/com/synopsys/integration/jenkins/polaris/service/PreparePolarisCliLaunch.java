@@ -0,0 +1,112 @@
+/*
+ * synopsys-polaris
+ *
+ * Copyright (c) 2024 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.jenkins.polaris.service;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.jenkins.polaris.ChangeSetFileCreator;
+import com.synopsys.integration.jenkins.polaris.PolarisJenkinsEnvironmentVariable;
+import com.synopsys.integration.polaris.common.exception.PolarisIntegrationException;
+import com.synopsys.integration.util.OperatingSystemType;
+
+import jenkins.security.MasterToSlaveCallable;
+
+/**
+ * Does everything on the agent that running the Polaris CLI needs before it is launched, in a single remoting call: writes the changeset file, finds the CLI, and determines the operating system.
+ * Each of these used to be a round trip of its own.
+ */
+public class PreparePolarisCliLaunch extends MasterToSlaveCallable<PreparePolarisCliLaunch.PreparedLaunch, IntegrationException> {
+    private static final long serialVersionUID = 2470950829365193722L;
+    private final String polarisCliHome;
+    private final HashMap<String, String> environmentVariables;
+    private final String remoteWorkspacePath;
+    private final ArrayList<String> changedFiles;
+
+    /**
+     * @param changedFiles The files to write to the changeset file, or null if no changeset file should be created.
+     */
+    public PreparePolarisCliLaunch(String polarisCliHome, Map<String, String> environmentVariables, String remoteWorkspacePath, List<String> changedFiles) {
+        this.polarisCliHome = polarisCliHome;
+        this.environmentVariables = new HashMap<>(environmentVariables);
+        this.remoteWorkspacePath = remoteWorkspacePath;
+        this.changedFiles = changedFiles == null ? null : new ArrayList<>(changedFiles);
+    }
+
+    @Override
+    public PreparedLaunch call() throws IntegrationException {
+        PreparedLaunch preparedLaunch = new PreparedLaunch();
+
+        long phaseStart = System.nanoTime();
+        if (changedFiles != null) {
+            String changeSetFileEnvironmentVariable = PolarisJenkinsEnvironmentVariable.CHANGE_SET_FILE_PATH.stringValue();
+            try {
+                preparedLaunch.changeSetFilePath = ChangeSetFileCreator.writeChangeSetFile(environmentVariables.get(changeSetFileEnvironmentVariable), remoteWorkspacePath, changedFiles);
+            } catch (IOException e) {
+                throw new PolarisIntegrationException("The changeset file could not be written: " + e.getMessage(), e);
+            }
+            phaseStart = preparedLaunch.recordPhase("changeset file", phaseStart);
+        }
+
+        preparedLaunch.pathToPolarisCli = new GetPathToPolarisCli(polarisCliHome).call();
+        phaseStart = preparedLaunch.recordPhase("find CLI", phaseStart);
+
+        preparedLaunch.operatingSystemType = OperatingSystemType.determineFromSystem();
+        preparedLaunch.recordPhase("operating system", phaseStart);
+
+        return preparedLaunch;
+    }
+
+    public static class PreparedLaunch implements Serializable {
+        private static final long serialVersionUID = -3188460916237561029L;
+        private final LinkedHashMap<String, Long> phaseMicros = new LinkedHashMap<>();
+        private String changeSetFilePath;
+        private String pathToPolarisCli;
+        private OperatingSystemType operatingSystemType;
+
+        /**
+         * @return The real path of the changeset file that was written, or null if none was requested.
+         */
+        public String getChangeSetFilePath() {
+            return changeSetFilePath;
+        }
+
+        public String getPathToPolarisCli() {
+            return pathToPolarisCli;
+        }
+
+        public OperatingSystemType getOperatingSystemType() {
+            return operatingSystemType;
+        }
+
+        /**
+         * @return How long each phase took on the agent, for comparison with the time the whole round trip took.
+         */
+        public String describePhases() {
+            return phaseMicros.entrySet().stream()
+                       .map(phase -> String.format("%s %.1f ms", phase.getKey(), phase.getValue() / 1000.0))
+                       .collect(Collectors.joining(", "));
+        }
+
+        private long recordPhase(String phase, long phaseStart) {
+            long phaseEnd = System.nanoTime();
+            phaseMicros.put(phase, TimeUnit.NANOSECONDS.toMicros(phaseEnd - phaseStart));
+            return phaseEnd;
+        }
+
+    }
+
+}
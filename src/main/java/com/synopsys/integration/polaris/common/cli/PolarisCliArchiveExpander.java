@@ -0,0 +1,294 @@
+/*
+ * synopsys-polaris
+ *
+ * Copyright (c) 2024 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.polaris.common.cli;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.IOUtils;
+
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.log.IntLogger;
+
+/**
+ * Expands a Polaris CLI archive in a single pass over the download. ZipInputStream checks each entry's CRC once the entry has been read, which catches a corrupt or truncated download. A manifest of entry
+ * CRCs is written into the expanded home, along with the archive's sha256. Polaris does not publish a digest for the CLI archive, so the sha256 is only recorded to identify what was installed; it is not
+ * checked against anything. Entries whose CRC matches the previous installation's manifest are linked to (or copied from) the previous file instead of being written again.
+ */
+public class PolarisCliArchiveExpander {
+    public static final String MANIFEST_FILENAME = ".polarisCliManifest";
+
+    private static final String ARCHIVE_DIGEST_KEY = "#sha256";
+
+    private final IntLogger logger;
+
+    public PolarisCliArchiveExpander(IntLogger logger) {
+        this.logger = logger;
+    }
+
+    /**
+     * @param targetDirectory An empty directory. The archive's top level directory is expanded into it.
+     * @param previousHome The home of the currently installed CLI, or null if there is none.
+     */
+    public ExpansionResult expand(InputStream archiveStream, File targetDirectory, File previousHome) throws IOException, IntegrationException {
+        Map<String, ManifestEntry> previousManifest = readManifest(previousHome);
+        Map<String, ManifestEntry> manifest = new HashMap<>();
+        Path targetPath = targetDirectory.toPath().toAbsolutePath().normalize();
+        String homeName = null;
+        int entriesWritten = 0;
+        int entriesReused = 0;
+
+        MessageDigest archiveDigest = DigestUtils.getSha256Digest();
+        DigestInputStream digestInputStream = new DigestInputStream(archiveStream, archiveDigest);
+        try (ZipInputStream zipInputStream = new ZipInputStream(digestInputStream)) {
+            ZipEntry zipEntry;
+            while ((zipEntry = zipInputStream.getNextEntry()) != null) {
+                Path entryPath = targetPath.resolve(zipEntry.getName()).normalize();
+                if (!entryPath.startsWith(targetPath) || entryPath.equals(targetPath)) {
+                    throw new IntegrationException(String.format("The Polaris CLI archive entry %s is outside of the archive's directory.", zipEntry.getName()));
+                }
+
+                Path relativeEntryPath = targetPath.relativize(entryPath);
+                String entryHomeName = relativeEntryPath.getName(0).toString();
+                if (homeName == null) {
+                    homeName = entryHomeName;
+                }
+                if (!homeName.equals(entryHomeName) || (!zipEntry.isDirectory() && relativeEntryPath.getNameCount() < 2)) {
+                    throw new IntegrationException("The Polaris CLI archive should contain a single directory.");
+                }
+
+                if (zipEntry.isDirectory()) {
+                    Files.createDirectories(entryPath);
+                    continue;
+                }
+                Files.createDirectories(entryPath.getParent());
+
+                // Paths in the manifest are relative to the home, so they match across versions whose home directories are named differently
+                String manifestPath = relativeEntryPath.subpath(1, relativeEntryPath.getNameCount()).toString().replace(File.separatorChar, '/');
+                ManifestEntry previousEntry = previousManifest.get(manifestPath);
+                Path previousPath = previousEntry == null ? null : previousHome.toPath().resolve(manifestPath);
+                if (expandEntry(zipInputStream, zipEntry, previousEntry, previousPath, entryPath)) {
+                    entriesReused++;
+                } else {
+                    entriesWritten++;
+                }
+                // Closing the entry reads any data left in it and checks its CRC
+                zipInputStream.closeEntry();
+
+                manifest.put(manifestPath, new ManifestEntry(zipEntry.getCrc(), Files.size(entryPath)));
+            }
+            // The central directory is not read by ZipInputStream, but is part of the download too
+            IOUtils.skip(digestInputStream, Long.MAX_VALUE);
+        }
+
+        if (homeName == null) {
+            throw new IntegrationException("The Polaris CLI archive is empty.");
+        }
+
+        String archiveSha256 = Hex.encodeHexString(archiveDigest.digest());
+        File home = new File(targetDirectory, homeName);
+        writeManifest(home, archiveSha256, manifest);
+        logger.debug(String.format("Expanded the Polaris CLI archive (sha256 %s): %d files written, %d unchanged files reused.", archiveSha256, entriesWritten, entriesReused));
+
+        return new ExpansionResult(home, archiveSha256, entriesWritten, entriesReused);
+    }
+
+    /**
+     * @return true if the previous installation's file was reused, false if the entry was written.
+     */
+    private boolean expandEntry(ZipInputStream zipInputStream, ZipEntry zipEntry, ManifestEntry previousEntry, Path previousPath, Path entryPath) throws IOException {
+        // A file that was changed since it was installed is never reused
+        if (previousEntry != null && Files.isRegularFile(previousPath) && Files.size(previousPath) == previousEntry.size) {
+            if (zipEntry.getCrc() != -1) {
+                if (previousEntry.matches(zipEntry.getCrc(), zipEntry.getSize()) && linkOrCopy(previousPath, entryPath)) {
+                    return true;
+                }
+            } else {
+                // Archives written as a stream only record the CRC after the entry's data, so the entry is compared with the previous file as it is read instead
+                return expandUnlessUnchanged(zipInputStream, previousPath, entryPath);
+            }
+        }
+
+        write(zipInputStream, entryPath, null, 0);
+        return false;
+    }
+
+    private boolean expandUnlessUnchanged(ZipInputStream zipInputStream, Path previousPath, Path entryPath) throws IOException {
+        byte[] entryBuffer = new byte[IOUtils.DEFAULT_BUFFER_SIZE];
+        byte[] previousBuffer = new byte[IOUtils.DEFAULT_BUFFER_SIZE];
+        long matchingBytes = 0;
+        try (InputStream previousInputStream = Files.newInputStream(previousPath)) {
+            int read;
+            while ((read = zipInputStream.read(entryBuffer)) != -1) {
+                int previousRead = IOUtils.read(previousInputStream, previousBuffer, 0, read);
+                if (previousRead != read || !rangeEquals(entryBuffer, previousBuffer, read)) {
+                    write(zipInputStream, entryPath, previousPath, matchingBytes, entryBuffer, read);
+                    return false;
+                }
+                matchingBytes += read;
+            }
+            if (previousInputStream.read() != -1) {
+                write(zipInputStream, entryPath, previousPath, matchingBytes);
+                return false;
+            }
+        }
+
+        if (linkOrCopy(previousPath, entryPath)) {
+            return true;
+        }
+        write(zipInputStream, entryPath, previousPath, matchingBytes);
+        return false;
+    }
+
+    /**
+     * Writes the rest of the entry, after the given number of bytes that are the same as the start of the previous file and any bytes already read from the entry.
+     */
+    private void write(ZipInputStream zipInputStream, Path entryPath, Path previousPath, long matchingBytes, byte[] readBuffer, int readLength) throws IOException {
+        // Never write through a link to the previous installation's file
+        Files.deleteIfExists(entryPath);
+        try (OutputStream outputStream = Files.newOutputStream(entryPath)) {
+            if (matchingBytes > 0) {
+                try (InputStream previousInputStream = Files.newInputStream(previousPath)) {
+                    IOUtils.copyLarge(previousInputStream, outputStream, 0, matchingBytes);
+                }
+            }
+            outputStream.write(readBuffer, 0, readLength);
+            IOUtils.copy(zipInputStream, outputStream);
+        }
+    }
+
+    private void write(ZipInputStream zipInputStream, Path entryPath, Path previousPath, long matchingBytes) throws IOException {
+        write(zipInputStream, entryPath, previousPath, matchingBytes, new byte[0], 0);
+    }
+
+    private boolean rangeEquals(byte[] first, byte[] second, int length) {
+        for (int i = 0; i < length; i++) {
+            if (first[i] != second[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean linkOrCopy(Path previousPath, Path entryPath) {
+        try {
+            try {
+                // Installed files are never modified in place, so the two versions can share them
+                Files.createLink(entryPath, previousPath);
+            } catch (IOException | UnsupportedOperationException e) {
+                Files.copy(previousPath, entryPath);
+            }
+            return true;
+        } catch (IOException e) {
+            logger.debug(String.format("Could not reuse %s: %s", previousPath, e.getMessage()));
+            return false;
+        }
+    }
+
+    private Map<String, ManifestEntry> readManifest(File home) {
+        Map<String, ManifestEntry> manifest = new HashMap<>();
+        if (home == null) {
+            return manifest;
+        }
+
+        File manifestFile = new File(home, MANIFEST_FILENAME);
+        if (!manifestFile.isFile()) {
+            return manifest;
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(manifestFile.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split("\t", 3);
+                if (fields.length == 3 && !ARCHIVE_DIGEST_KEY.equals(fields[0])) {
+                    manifest.put(fields[2], new ManifestEntry(Long.parseLong(fields[0], 16), Long.parseLong(fields[1])));
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // Without a readable manifest every entry is written, which is only slower
+            logger.debug(String.format("Could not read the manifest of %s: %s", home.getAbsolutePath(), e.getMessage()));
+            manifest.clear();
+        }
+        return manifest;
+    }
+
+    private void writeManifest(File home, String archiveSha256, Map<String, ManifestEntry> manifest) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(new File(home, MANIFEST_FILENAME).toPath(), StandardCharsets.UTF_8)) {
+            writer.write(String.format("%s\t%d\t%s%n", ARCHIVE_DIGEST_KEY, 0, archiveSha256));
+            for (Map.Entry<String, ManifestEntry> entry : manifest.entrySet()) {
+                writer.write(String.format("%x\t%d\t%s%n", entry.getValue().crc, entry.getValue().size, entry.getKey()));
+            }
+        }
+    }
+
+    public static class ExpansionResult {
+        private final File home;
+        private final String archiveSha256;
+        private final int entriesWritten;
+        private final int entriesReused;
+
+        public ExpansionResult(File home, String archiveSha256, int entriesWritten, int entriesReused) {
+            this.home = home;
+            this.archiveSha256 = archiveSha256;
+            this.entriesWritten = entriesWritten;
+            this.entriesReused = entriesReused;
+        }
+
+        public File getHome() {
+            return home;
+        }
+
+        /**
+         * @return The sha256 of the downloaded archive, for identifying the installation. It has not been compared with any expected value.
+         */
+        public String getArchiveSha256() {
+            return archiveSha256;
+        }
+
+        public int getEntriesWritten() {
+            return entriesWritten;
+        }
+
+        public int getEntriesReused() {
+            return entriesReused;
+        }
+
+    }
+
+    private static class ManifestEntry {
+        private final long crc;
+        private final long size;
+
+        private ManifestEntry(long crc, long size) {
+            this.crc = crc;
+            this.size = size;
+        }
+
+        private boolean matches(long otherCrc, long otherSize) {
+            // Sizes that were not recorded ahead of the data are only checked against the installed file
+            return crc == otherCrc && (otherSize == -1 || size == otherSize);
+        }
+
+    }
+
+}
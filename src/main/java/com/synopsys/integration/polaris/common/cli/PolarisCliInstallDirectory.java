@@ -0,0 +1,414 @@
+/*
+ * synopsys-polaris
+ *
+ * Copyright (c) 2024 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.polaris.common.cli;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.function.ThrowingSupplier;
+import com.synopsys.integration.log.IntLogger;
+import com.synopsys.integration.rest.HttpUrl;
+
+/**
+ * The layout of a Polaris CLI install directory. Every version is expanded into a staging directory and then moved into a directory of its own, and a pointer file that is replaced atomically names the
+ * current one. Builds that already resolved an older version keep its binaries, and installers on the same node, whether in this JVM or another process, take turns under the install lock.
+ * <p>
+ * Installations are keyed by the Polaris server they came from and their Last-Modified time, and each server has its own pointer file, so a node used with several servers keeps a current version for
+ * each of them. Older versions are kept as a cache until the installations exceed the disk budget, and are then deleted least recently used first.
+ */
+public class PolarisCliInstallDirectory {
+    public static final String CURRENT_INSTALLATION_FILENAME = "polarisCurrentInstallation.txt";
+    public static final String LOCK_FILENAME = ".polarisInstall.lock";
+    public static final String STAGING_DIRECTORY_PREFIX = ".staging-";
+    public static final String LAST_USED_FILENAME = ".polarisLastUsed";
+    public static final String MAX_SIZE_PROPERTY = "com.synopsys.integration.polaris.cli.cacheMaxSizeInMegabytes";
+    public static final long DEFAULT_MAX_SIZE_IN_MEGABYTES = 1024;
+
+    // Staging directories are only written to by the installer that created them, so one this old was left behind by an installer that did not finish
+    private static final long ABANDONED_STAGING_DIRECTORY_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+    // Nothing tells the installer when a build is done with the CLI, so an installation used this recently may still be running and is never deleted
+    private static final long IN_USE_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+    private static final String CURRENT_INSTALLATION_FILENAME_FORMAT = "polarisCurrentInstallation_%s.txt";
+    private static final String VERSION_FILENAME_FORMAT = "polarisVersion_%s.txt";
+    private static final Pattern INSTALLATION_NAME_PATTERN = Pattern.compile(".+_([0-9a-f]{16})_(\\d+)");
+
+    // File locks are held per process, so installers within one JVM are serialized by these before they take the file lock
+    private static final ConcurrentMap<String, ReentrantLock> JVM_LOCKS = new ConcurrentHashMap<>();
+
+    private final IntLogger logger;
+    private final File installDirectory;
+    private final String cacheKey;
+    private long maxSizeInBytes = Long.getLong(MAX_SIZE_PROPERTY, DEFAULT_MAX_SIZE_IN_MEGABYTES) * 1024 * 1024;
+
+    public PolarisCliInstallDirectory(IntLogger logger, File installDirectory) {
+        this(logger, installDirectory, null);
+    }
+
+    /**
+     * @param cacheKey The key of the Polaris server installations are made for, or null for the layout used before installations were kept per server.
+     */
+    public PolarisCliInstallDirectory(IntLogger logger, File installDirectory, String cacheKey) {
+        this.logger = logger;
+        this.installDirectory = installDirectory;
+        this.cacheKey = cacheKey;
+    }
+
+    public static String createCacheKey(HttpUrl polarisServerUrl) {
+        return DigestUtils.sha256Hex(polarisServerUrl.string()).substring(0, 16);
+    }
+
+    public static String getVersionFilename(String cacheKey) {
+        if (cacheKey == null) {
+            return PolarisDownloadUtility.VERSION_FILENAME;
+        }
+        return String.format(VERSION_FILENAME_FORMAT, cacheKey);
+    }
+
+    /**
+     * Records that a build is about to run the CLI in the given home, so it is not deleted while the build may still be using it. Homes that were not installed by this class are left untouched.
+     */
+    public static void markUsed(File home) {
+        File lastUsedFile = new File(home, LAST_USED_FILENAME);
+        if (lastUsedFile.isFile()) {
+            lastUsedFile.setLastModified(System.currentTimeMillis());
+        }
+    }
+
+    public File getInstallDirectory() {
+        return installDirectory;
+    }
+
+    public File getVersionFile() {
+        return new File(installDirectory, getVersionFilename(cacheKey));
+    }
+
+    public String getInstallationName(String homeName, long lastModified) {
+        if (cacheKey == null) {
+            return String.format("%s_%d", homeName, lastModified);
+        }
+        return String.format("%s_%s_%d", homeName, cacheKey, lastModified);
+    }
+
+    public void setMaxSizeInBytes(long maxSizeInBytes) {
+        this.maxSizeInBytes = maxSizeInBytes;
+    }
+
+    /**
+     * Runs the given work while holding the install directory's lock, see lock().
+     */
+    public <T, E extends Exception> T withLock(ThrowingSupplier<T, E> lockedWork) throws E, IOException {
+        InstallLock installLock = lock();
+        try {
+            return lockedWork.get();
+        } finally {
+            installLock.close();
+        }
+    }
+
+    /**
+     * Blocks until no other installer on this node holds the install directory. The lock must be closed to release it.
+     */
+    public InstallLock lock() throws IOException {
+        installDirectory.mkdirs();
+        ReentrantLock jvmLock = JVM_LOCKS.computeIfAbsent(installDirectory.getCanonicalPath(), ignored -> new ReentrantLock());
+        if (!jvmLock.tryLock()) {
+            logger.info("Waiting for another installation of the Polaris CLI on this node to finish.");
+            jvmLock.lock();
+        }
+
+        if (jvmLock.getHoldCount() > 1) {
+            // This thread already holds the file lock, and asking for it again would fail
+            return new InstallLock(jvmLock, null, null);
+        }
+
+        FileChannel lockChannel = null;
+        try {
+            lockChannel = FileChannel.open(new File(installDirectory, LOCK_FILENAME).toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            FileLock fileLock = lockChannel.tryLock();
+            if (fileLock == null) {
+                logger.info("Waiting for another process on this node to finish installing the Polaris CLI.");
+                fileLock = lockChannel.lock();
+            }
+            return new InstallLock(jvmLock, lockChannel, fileLock);
+        } catch (IOException | RuntimeException e) {
+            if (lockChannel != null) {
+                lockChannel.close();
+            }
+            jvmLock.unlock();
+            throw e;
+        }
+    }
+
+    /**
+     * Creates an empty directory to expand or copy a new version into. Nothing but its creator reads it until it is promoted.
+     */
+    public File createStagingDirectory() throws IOException {
+        installDirectory.mkdirs();
+        return Files.createTempDirectory(installDirectory.toPath(), STAGING_DIRECTORY_PREFIX).toFile();
+    }
+
+    /**
+     * Moves a fully staged CLI home into the install directory under the given name and makes it the current installation for this server. Versions of this server it replaces are deleted once no build
+     * may still be running them, and other servers' versions are only deleted while the installations exceed the disk budget. Must be called while holding the install lock.
+     * @return The new current CLI home.
+     */
+    public File promote(File stagedHome, String installationName) throws IOException {
+        File installationHome = new File(installDirectory, installationName);
+
+        // A version that is already installed is complete, since it was moved in whole, and may be in use, so it is reused rather than replaced
+        if (!installationHome.isDirectory()) {
+            move(stagedHome.toPath(), installationHome.toPath());
+        }
+        FileUtils.touch(new File(installationHome, LAST_USED_FILENAME));
+
+        writeCurrentInstallation(installationName);
+        logger.debug("The current Polaris CLI installation is now " + installationHome.getAbsolutePath());
+
+        deleteUnusedInstallations();
+        return installationHome;
+    }
+
+    /**
+     * @return The home of the current installation for this server, including one made before versions were installed side by side.
+     */
+    public File getCurrentHome() throws IntegrationException {
+        File currentInstallationFile = new File(installDirectory, getCurrentInstallationFilename());
+        if (!currentInstallationFile.isFile()) {
+            // Installations made before they were kept per server are only recorded in the unkeyed pointer file
+            currentInstallationFile = new File(installDirectory, CURRENT_INSTALLATION_FILENAME);
+        }
+        if (currentInstallationFile.isFile()) {
+            String installationName = readCurrentInstallation(currentInstallationFile);
+            File installationHome = new File(installDirectory, installationName);
+            if (StringUtils.isBlank(installationName) || !installationHome.isDirectory()) {
+                throw new IntegrationException(String.format("The Polaris CLI installation recorded in %s could not be found, so the Polaris CLI can not be run.", currentInstallationFile.getName()));
+            }
+            return installationHome;
+        }
+
+        // Before versioned installations, the only directory in the install directory was the expanded archive
+        File[] directories = listInstallations();
+        if (directories.length == 0) {
+            throw new IntegrationException(String.format("The %s directory is empty, so the Polaris CLI can not be run.", installDirectory.getName()));
+        }
+
+        if (directories.length > 1) {
+            throw new IntegrationException(String.format("The %s directory should only be modified by polaris-common. Please delete all files from that directory and try again.", installDirectory.getName()));
+        }
+
+        return directories[0];
+    }
+
+    public Optional<File> findCurrentHome() {
+        try {
+            return Optional.of(getCurrentHome());
+        } catch (IntegrationException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Deletes staging directories that installers which did not finish left behind. Must be called while holding the install lock.
+     */
+    public void deleteAbandonedStagingDirectories() {
+        long abandonedBefore = System.currentTimeMillis() - ABANDONED_STAGING_DIRECTORY_MILLIS;
+        File[] stagingDirectories = installDirectory.listFiles(file -> file.isDirectory() && file.getName().startsWith(STAGING_DIRECTORY_PREFIX) && file.lastModified() < abandonedBefore);
+        if (stagingDirectories != null) {
+            for (File stagingDirectory : stagingDirectories) {
+                logger.debug("Deleting abandoned staging directory " + stagingDirectory.getAbsolutePath());
+                FileUtils.deleteQuietly(stagingDirectory);
+            }
+        }
+    }
+
+    private String getCurrentInstallationFilename() {
+        if (cacheKey == null) {
+            return CURRENT_INSTALLATION_FILENAME;
+        }
+        return String.format(CURRENT_INSTALLATION_FILENAME_FORMAT, cacheKey);
+    }
+
+    private void writeCurrentInstallation(String installationName) throws IOException {
+        Path currentInstallationPath = new File(installDirectory, getCurrentInstallationFilename()).toPath();
+        Path temporaryPath = Files.createTempFile(installDirectory.toPath(), ".current-", ".tmp");
+        try {
+            Files.write(temporaryPath, installationName.getBytes(StandardCharsets.UTF_8));
+            move(temporaryPath, currentInstallationPath);
+        } finally {
+            Files.deleteIfExists(temporaryPath);
+        }
+    }
+
+    private String readCurrentInstallation(File currentInstallationFile) throws IntegrationException {
+        try {
+            return new String(Files.readAllBytes(currentInstallationFile.toPath()), StandardCharsets.UTF_8).trim();
+        } catch (IOException e) {
+            throw new IntegrationException(String.format("Could not read %s: %s", CURRENT_INSTALLATION_FILENAME, e.getMessage()), e);
+        }
+    }
+
+    private void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private File[] listInstallations() {
+        File[] installations = installDirectory.listFiles(file -> file.isDirectory() && !file.getName().startsWith("."));
+        return installations == null ? new File[0] : installations;
+    }
+
+    // The current installation of every server, read from all of the pointer files
+    private Set<File> findCurrentHomes() {
+        Set<File> currentHomes = new HashSet<>();
+        File[] currentInstallationFiles = installDirectory.listFiles(file -> file.isFile() && file.getName().startsWith("polarisCurrentInstallation"));
+        if (currentInstallationFiles != null) {
+            for (File currentInstallationFile : currentInstallationFiles) {
+                try {
+                    currentHomes.add(new File(installDirectory, readCurrentInstallation(currentInstallationFile)));
+                } catch (IntegrationException e) {
+                    logger.debug(e.getMessage());
+                }
+            }
+        }
+        return currentHomes;
+    }
+
+    private long getLastUsed(File installation) {
+        File lastUsedFile = new File(installation, LAST_USED_FILENAME);
+        // Installations made before they were marked as used were last used when they were installed, at the latest
+        return lastUsedFile.isFile() ? lastUsedFile.lastModified() : installation.lastModified();
+    }
+
+    private Optional<String> findCacheKey(File installation) {
+        Matcher matcher = INSTALLATION_NAME_PATTERN.matcher(installation.getName());
+        return matcher.matches() ? Optional.of(matcher.group(1)) : Optional.empty();
+    }
+
+    private void deleteUnusedInstallations() {
+        Set<File> currentHomes = findCurrentHomes();
+        long inUseAfter = System.currentTimeMillis() - IN_USE_MILLIS;
+
+        long totalSize = 0;
+        List<CachedInstallation> evictable = new ArrayList<>();
+        for (File installation : listInstallations()) {
+            long size = FileUtils.sizeOfDirectory(installation);
+            totalSize += size;
+
+            long lastUsed = getLastUsed(installation);
+            if (currentHomes.contains(installation) || lastUsed > inUseAfter) {
+                continue;
+            }
+
+            // The server has replaced this version, so it will not be asked for again
+            if (cacheKey != null && findCacheKey(installation).filter(cacheKey::equals).isPresent()) {
+                if (deleteInstallation(installation)) {
+                    totalSize -= size;
+                }
+                continue;
+            }
+            evictable.add(new CachedInstallation(installation, size, lastUsed));
+        }
+
+        evictable.sort(Comparator.comparingLong(cachedInstallation -> cachedInstallation.lastUsed));
+        for (CachedInstallation cachedInstallation : evictable) {
+            if (totalSize <= maxSizeInBytes) {
+                break;
+            }
+            if (deleteInstallation(cachedInstallation.home)) {
+                totalSize -= cachedInstallation.size;
+            }
+        }
+
+        if (totalSize > maxSizeInBytes) {
+            logger.debug(String.format("The Polaris CLI installations use %d bytes, more than the %d bytes allowed by %s, because the rest of them are current or in use.", totalSize, maxSizeInBytes, MAX_SIZE_PROPERTY));
+        }
+    }
+
+    private boolean deleteInstallation(File installation) {
+        try {
+            FileUtils.deleteDirectory(installation);
+            logger.debug("Deleted old Polaris CLI installation " + installation.getAbsolutePath());
+            return true;
+        } catch (IOException e) {
+            // On Windows the binaries of a running CLI can not be deleted, so the installation is left for a later update
+            logger.debug(String.format("Could not delete old Polaris CLI installation %s: %s", installation.getAbsolutePath(), e.getMessage()));
+            return false;
+        }
+    }
+
+    private static class CachedInstallation {
+        private final File home;
+        private final long size;
+        private final long lastUsed;
+
+        private CachedInstallation(File home, long size, long lastUsed) {
+            this.home = home;
+            this.size = size;
+            this.lastUsed = lastUsed;
+        }
+
+    }
+
+    public static class InstallLock implements AutoCloseable {
+        private final ReentrantLock jvmLock;
+        private final FileChannel lockChannel;
+        private final FileLock fileLock;
+
+        private InstallLock(ReentrantLock jvmLock, FileChannel lockChannel, FileLock fileLock) {
+            this.jvmLock = jvmLock;
+            this.lockChannel = lockChannel;
+            this.fileLock = fileLock;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                if (fileLock != null) {
+                    fileLock.release();
+                }
+                if (lockChannel != null) {
+                    lockChannel.close();
+                }
+            } finally {
+                jvmLock.unlock();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,254 @@
+/*
+ * synopsys-polaris
+ *
+ * Copyright (c) 2024 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.polaris.common.cli;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpStatus;
+
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.log.IntLogger;
+import com.synopsys.integration.polaris.common.exception.PolarisIntegrationException;
+import com.synopsys.integration.rest.HttpUrl;
+import com.synopsys.integration.rest.client.IntHttpClient;
+import com.synopsys.integration.rest.request.Request;
+import com.synopsys.integration.rest.response.Response;
+
+/**
+ * Downloads the Polaris CLI archive to a file as byte ranges fetched over parallel connections. A range whose connection is reset is requested again from the last byte written, so an interrupted
+ * transfer only costs the rest of that range instead of the whole archive. Resuming only happens within a single call to download: the target file is truncated when a download starts, so a download
+ * that fails or is abandoned starts over from the first byte the next time.
+ */
+public class PolarisCliRangedDownloader {
+    public static final int DEFAULT_CONNECTIONS = 4;
+    public static final long DEFAULT_RANGE_SIZE_IN_BYTES = 8L * 1024 * 1024;
+    public static final int DEFAULT_ATTEMPTS_PER_RANGE = 5;
+
+    private static final Pattern CONTENT_RANGE_PATTERN = Pattern.compile("bytes (\\d+)-(\\d+)/(\\d+)");
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final IntLogger logger;
+    private final IntHttpClient intHttpClient;
+    private final int connections;
+    private final long rangeSizeInBytes;
+    private final int attemptsPerRange;
+
+    public PolarisCliRangedDownloader(IntLogger logger, IntHttpClient intHttpClient, int connections, long rangeSizeInBytes, int attemptsPerRange) {
+        this.logger = logger;
+        this.intHttpClient = intHttpClient;
+        this.connections = Math.max(1, connections);
+        this.rangeSizeInBytes = Math.max(1, rangeSizeInBytes);
+        this.attemptsPerRange = Math.max(1, attemptsPerRange);
+    }
+
+    /**
+     * Limits the initial download request to the first range. The response to that request is then passed to download, so checking for a new version does not cost an extra request.
+     */
+    public void addFirstRange(Request.Builder requestBuilder) {
+        requestBuilder.addHeader(HttpHeaders.RANGE, formatRange(0, rangeSizeInBytes - 1));
+    }
+
+    /**
+     * Writes the complete archive to the target file, starting with the response to a request made with addFirstRange. A server that ignores ranges sends the whole archive in that response, which is
+     * then written over a single connection.
+     */
+    public void download(HttpUrl downloadUrl, Response firstResponse, File targetFile) throws IOException, IntegrationException {
+        try (FileChannel fileChannel = FileChannel.open(targetFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            if (HttpStatus.SC_PARTIAL_CONTENT != firstResponse.getStatusCode()) {
+                logger.debug("The server did not respond with a range, so the Polaris CLI is downloaded over a single connection.");
+                try (InputStream content = firstResponse.getContent()) {
+                    IOUtils.copy(content, Channels.newOutputStream(fileChannel));
+                }
+                return;
+            }
+
+            long[] firstContentRange = parseContentRange(firstResponse.getHeaderValue(HttpHeaders.CONTENT_RANGE));
+            if (firstContentRange[0] != 0) {
+                throw new PolarisIntegrationException(String.format("The server sent bytes starting at %d of the Polaris CLI when the first bytes were requested.", firstContentRange[0]));
+            }
+            List<Range> ranges = new ArrayList<>();
+            ranges.add(new Range(firstContentRange[0], firstContentRange[1]));
+            for (long start = firstContentRange[1] + 1; start < firstContentRange[2]; start += rangeSizeInBytes) {
+                ranges.add(new Range(start, Math.min(start + rangeSizeInBytes, firstContentRange[2]) - 1));
+            }
+            logger.debug(String.format("Downloading the Polaris CLI (%d bytes) as %d ranges.", firstContentRange[2], ranges.size()));
+
+            // Every range after the first must come from the same version of the archive
+            String ifRange = getIfRangeValidator(firstResponse);
+            downloadRanges(downloadUrl, firstResponse, ranges, ifRange, fileChannel);
+        }
+    }
+
+    private void downloadRanges(HttpUrl downloadUrl, Response firstResponse, List<Range> ranges, String ifRange, FileChannel fileChannel) throws IOException, IntegrationException {
+        int threads = Math.min(connections - 1, ranges.size() - 1);
+        if (threads <= 0) {
+            for (int i = 0; i < ranges.size(); i++) {
+                downloadRange(downloadUrl, i == 0 ? firstResponse : null, ranges.get(i), ifRange, fileChannel);
+            }
+            return;
+        }
+
+        BasicThreadFactory threadFactory = new BasicThreadFactory.Builder()
+                                               .namingPattern("polaris-cli-download-%d")
+                                               .daemon(true)
+                                               .build();
+        ExecutorService executorService = Executors.newFixedThreadPool(threads, threadFactory);
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (Range range : ranges.subList(1, ranges.size())) {
+                futures.add(executorService.submit(() -> {
+                    downloadRange(downloadUrl, null, range, ifRange, fileChannel);
+                    return null;
+                }));
+            }
+
+            // The first range is already being sent, so this thread reads it while the pool fetches the rest
+            downloadRange(downloadUrl, firstResponse, ranges.get(0), ifRange, fileChannel);
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IntegrationException("The Polaris CLI download was interrupted.", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IntegrationException) {
+                throw (IntegrationException) cause;
+            } else if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IntegrationException("The Polaris CLI could not be downloaded: " + cause.getMessage(), cause);
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    private void downloadRange(HttpUrl downloadUrl, Response firstResponse, Range range, String ifRange, FileChannel fileChannel) throws IOException, IntegrationException {
+        Exception lastFailure = null;
+        for (int attempt = 1; attempt <= attemptsPerRange && !range.isComplete(); attempt++) {
+            try {
+                if (attempt == 1 && firstResponse != null) {
+                    try (InputStream content = firstResponse.getContent()) {
+                        transfer(content, range, fileChannel);
+                    }
+                } else {
+                    requestRemainingRange(downloadUrl, range, ifRange, fileChannel);
+                }
+            } catch (PolarisIntegrationException e) {
+                throw e;
+            } catch (IOException | IntegrationException e) {
+                lastFailure = e;
+                logger.debug(String.format("The download of bytes %d-%d of the Polaris CLI was interrupted at byte %d: %s", range.start, range.end, range.position, e.getMessage()));
+            }
+        }
+
+        if (!range.isComplete()) {
+            throw new IntegrationException(String.format("Bytes %d-%d of the Polaris CLI could not be downloaded after %d attempts.", range.start, range.end, attemptsPerRange), lastFailure);
+        }
+    }
+
+    private void requestRemainingRange(HttpUrl downloadUrl, Range range, String ifRange, FileChannel fileChannel) throws IOException, IntegrationException {
+        Request.Builder requestBuilder = new Request.Builder(downloadUrl)
+                                             .addHeader(HttpHeaders.RANGE, formatRange(range.position, range.end));
+        if (StringUtils.isNotBlank(ifRange)) {
+            requestBuilder.addHeader(HttpHeaders.IF_RANGE, ifRange);
+        }
+
+        try (Response response = intHttpClient.execute(requestBuilder.build())) {
+            if (HttpStatus.SC_PARTIAL_CONTENT != response.getStatusCode()) {
+                // With If-Range, a full response means the archive changed on the server since the first range was sent
+                throw new PolarisIntegrationException(String.format("The Polaris CLI changed on the server during the download (status %d).", response.getStatusCode()));
+            }
+            long[] contentRange = parseContentRange(response.getHeaderValue(HttpHeaders.CONTENT_RANGE));
+            if (contentRange[0] != range.position) {
+                throw new PolarisIntegrationException(String.format("The server sent bytes starting at %d of the Polaris CLI when bytes starting at %d were requested.", contentRange[0], range.position));
+            }
+
+            try (InputStream content = response.getContent()) {
+                transfer(content, range, fileChannel);
+            }
+        }
+    }
+
+    private void transfer(InputStream content, Range range, FileChannel fileChannel) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int read;
+        while (!range.isComplete() && (read = content.read(buffer, 0, (int) Math.min(buffer.length, range.getRemaining()))) != -1) {
+            ByteBuffer byteBuffer = ByteBuffer.wrap(buffer, 0, read);
+            while (byteBuffer.hasRemaining()) {
+                // Positional writes let every range write to the same channel at once
+                range.position += fileChannel.write(byteBuffer, range.position);
+            }
+        }
+
+        if (!range.isComplete()) {
+            throw new IOException(String.format("The connection closed after %d of %d bytes.", range.position - range.start, range.end - range.start + 1));
+        }
+    }
+
+    private String getIfRangeValidator(Response response) {
+        String entityTag = response.getHeaderValue(HttpHeaders.ETAG);
+        // If-Range only allows strong entity tags
+        if (StringUtils.isNotBlank(entityTag) && !entityTag.startsWith("W/")) {
+            return entityTag;
+        }
+        return response.getHeaderValue(HttpHeaders.LAST_MODIFIED);
+    }
+
+    private long[] parseContentRange(String contentRange) throws PolarisIntegrationException {
+        Matcher matcher = CONTENT_RANGE_PATTERN.matcher(StringUtils.defaultString(contentRange).trim());
+        if (!matcher.matches()) {
+            throw new PolarisIntegrationException(String.format("The server sent an unexpected Content-Range for the Polaris CLI: %s", contentRange));
+        }
+        return new long[] { Long.parseLong(matcher.group(1)), Long.parseLong(matcher.group(2)), Long.parseLong(matcher.group(3)) };
+    }
+
+    private String formatRange(long start, long end) {
+        return String.format("bytes=%d-%d", start, end);
+    }
+
+    private static class Range {
+        private final long start;
+        private final long end;
+        private volatile long position;
+
+        private Range(long start, long end) {
+            this.start = start;
+            this.end = end;
+            this.position = start;
+        }
+
+        private long getRemaining() {
+            return end - position + 1;
+        }
+
+        private boolean isComplete() {
+            return position > end;
+        }
+
+    }
+
+}
@@ -9,16 +9,20 @@ package com.synopsys.integration.polaris.common.cli;
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 
 import com.google.gson.Gson;
 import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
 import com.synopsys.integration.exception.IntegrationException;
 import com.synopsys.integration.log.IntLogger;
 import com.synopsys.integration.polaris.common.cli.model.CliCommonResponseModel;
 import com.synopsys.integration.polaris.common.cli.model.json.CliCommonResponseAdapter;
+import com.synopsys.integration.polaris.common.cli.model.json.CliScanParserRegistry;
 import com.synopsys.integration.polaris.common.exception.PolarisIntegrationException;
 
 public class PolarisCliResponseUtility {
@@ -33,8 +37,8 @@ public class PolarisCliResponseUtility {
     }
 
     public static PolarisCliResponseUtility defaultUtility(IntLogger logger) {
-        Gson gson = new Gson();
-        return new PolarisCliResponseUtility(logger, gson, new CliCommonResponseAdapter(gson));
+        CliScanParserRegistry cliScanParserRegistry = CliScanParserRegistry.shared();
+        return new PolarisCliResponseUtility(logger, cliScanParserRegistry.getGson(), new CliCommonResponseAdapter(cliScanParserRegistry));
     }
 
     public static Path getDefaultPathToJson(String projectRootDirectory) {
@@ -61,14 +65,24 @@ public class PolarisCliResponseUtility {
     public CliCommonResponseModel getPolarisCliResponseModel(Path pathToJson) throws PolarisIntegrationException {
         try (BufferedReader reader = Files.newBufferedReader(pathToJson)) {
             logger.debug("Attempting to retrieve CliCommonResponseModel from " + pathToJson.toString());
-            return getPolarisCliResponseModelFromJsonObject(gson.fromJson(reader, JsonObject.class));
+            return getPolarisCliResponseModelFromReader(reader);
         } catch (IOException | IntegrationException e) {
             throw new PolarisIntegrationException("There was a problem parsing the Polaris CLI response json at " + pathToJson.toString(), e);
         }
     }
 
     public CliCommonResponseModel getPolarisCliResponseModelFromString(String rawPolarisCliResponse) throws IntegrationException {
-        return getPolarisCliResponseModelFromJsonObject(gson.fromJson(rawPolarisCliResponse, JsonObject.class));
+        try {
+            return getPolarisCliResponseModelFromReader(new StringReader(rawPolarisCliResponse));
+        } catch (IOException e) {
+            throw new PolarisIntegrationException("There was a problem parsing the Polaris CLI response json", e);
+        }
+    }
+
+    public CliCommonResponseModel getPolarisCliResponseModelFromReader(Reader reader) throws IOException, IntegrationException {
+        JsonReader jsonReader = gson.newJsonReader(reader);
+        jsonReader.setLenient(true);
+        return cliCommonResponseAdapter.fromJson(jsonReader);
     }
 
     public CliCommonResponseModel getPolarisCliResponseModelFromJsonObject(JsonObject versionlessModel) throws IntegrationException {
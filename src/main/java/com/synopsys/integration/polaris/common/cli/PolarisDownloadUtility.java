@@ -10,12 +10,19 @@ package com.synopsys.integration.polaris.common.cli;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
 import java.util.Optional;
 
 import com.synopsys.integration.polaris.common.configuration.OSArchTask;
 import hudson.FilePath;
-import org.apache.commons.compress.archivers.ArchiveException;
+import org.apache.commons.io.FileUtils;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.utils.DateUtils;
 
 import com.synopsys.integration.exception.IntegrationException;
 import com.synopsys.integration.log.IntLogger;
@@ -24,7 +31,6 @@ import com.synopsys.integration.rest.client.IntHttpClient;
 import com.synopsys.integration.rest.proxy.ProxyInfo;
 import com.synopsys.integration.rest.request.Request;
 import com.synopsys.integration.rest.response.Response;
-import com.synopsys.integration.util.CleanupZipExpander;
 import com.synopsys.integration.util.OperatingSystemType;
 import org.apache.commons.lang3.SystemUtils;
 
@@ -38,15 +44,23 @@ public class PolarisDownloadUtility {
 
     public static final String POLARIS_CLI_INSTALL_DIRECTORY = "Polaris_CLI_Installation";
     public static final String VERSION_FILENAME = "polarisVersion.txt";
+    public static final String RANGED_DOWNLOAD_CONNECTIONS_PROPERTY = "com.synopsys.integration.polaris.cli.rangedDownloadConnections";
+    public static final String RANGED_DOWNLOAD_RANGE_SIZE_PROPERTY = "com.synopsys.integration.polaris.cli.rangedDownloadRangeSizeInBytes";
+
+    private static final String DOWNLOADED_ARCHIVE_FILENAME = ".polaris_cli.zip";
+    private static final String SWIP_ARTIFACT_NAME = "swip";
+    private static final String POLARIS_ARTIFACT_NAME = "polaris";
 
     private final IntLogger logger;
     private final OperatingSystemType operatingSystemType;
     private final IntHttpClient intHttpClient;
-    private final CleanupZipExpander cleanupZipExpander;
+    private final PolarisCliArchiveExpander polarisCliArchiveExpander;
     private final HttpUrl polarisServerUrl;
     private final File installDirectory;
+    private final PolarisCliInstallDirectory polarisCliInstallDirectory;
+    private PolarisCliRangedDownloader rangedDownloader;
 
-    public PolarisDownloadUtility(IntLogger logger, OperatingSystemType operatingSystemType, IntHttpClient intHttpClient, CleanupZipExpander cleanupZipExpander, HttpUrl polarisServerUrl, File downloadTargetDirectory) {
+    public PolarisDownloadUtility(IntLogger logger, OperatingSystemType operatingSystemType, IntHttpClient intHttpClient, PolarisCliArchiveExpander polarisCliArchiveExpander, HttpUrl polarisServerUrl, File downloadTargetDirectory) {
         if (null == polarisServerUrl) {
             throw new IllegalArgumentException("A Polaris server url must be provided.");
         }
@@ -54,27 +68,50 @@ public class PolarisDownloadUtility {
         this.logger = logger;
         this.operatingSystemType = operatingSystemType;
         this.intHttpClient = intHttpClient;
-        this.cleanupZipExpander = cleanupZipExpander;
+        this.polarisCliArchiveExpander = polarisCliArchiveExpander;
         this.polarisServerUrl = polarisServerUrl;
         installDirectory = new File(downloadTargetDirectory, PolarisDownloadUtility.POLARIS_CLI_INSTALL_DIRECTORY);
+        // Installations are kept per server, so an agent used with several servers does not download the CLI again every time it switches between them
+        polarisCliInstallDirectory = new PolarisCliInstallDirectory(logger, installDirectory, PolarisCliInstallDirectory.createCacheKey(polarisServerUrl));
 
         installDirectory.mkdirs();
         if (!installDirectory.exists() || !installDirectory.isDirectory() || !installDirectory.canWrite()) {
             throw new IllegalArgumentException("The provided directory must exist and be writable.");
         }
+
+        int rangedDownloadConnections = Integer.getInteger(RANGED_DOWNLOAD_CONNECTIONS_PROPERTY, 0);
+        if (rangedDownloadConnections > 0) {
+            enableRangedDownload(rangedDownloadConnections, Long.getLong(RANGED_DOWNLOAD_RANGE_SIZE_PROPERTY, PolarisCliRangedDownloader.DEFAULT_RANGE_SIZE_IN_BYTES));
+        }
     }
 
     public static PolarisDownloadUtility defaultUtility(IntLogger logger, HttpUrl polarisServerUrl, ProxyInfo proxyInfo, File downloadTargetDirectory) {
         OperatingSystemType operatingSystemType = OperatingSystemType.determineFromSystem();
         IntHttpClient intHttpClient = new IntHttpClient(logger, PolarisDownloadUtility.DEFAULT_POLARIS_TIMEOUT, false, proxyInfo);
-        CleanupZipExpander cleanupZipExpander = new CleanupZipExpander(logger);
-        return new PolarisDownloadUtility(logger, operatingSystemType, intHttpClient, cleanupZipExpander, polarisServerUrl, downloadTargetDirectory);
+        PolarisCliArchiveExpander polarisCliArchiveExpander = new PolarisCliArchiveExpander(logger);
+        return new PolarisDownloadUtility(logger, operatingSystemType, intHttpClient, polarisCliArchiveExpander, polarisServerUrl, downloadTargetDirectory);
     }
 
     public static PolarisDownloadUtility defaultUtilityNoProxy(IntLogger logger, HttpUrl polarisServerUrl, File downloadTargetDirectory) {
         return defaultUtility(logger, polarisServerUrl, ProxyInfo.NO_PROXY_INFO, downloadTargetDirectory);
     }
 
+    /**
+     * Downloads the Polaris CLI as byte ranges over several connections, resuming any range that is interrupted during that download, and only expands it once the whole archive is on disk. The
+     * partial archive is not kept between attempts. By default the CLI is expanded while it is streamed over a single connection, unless the com.synopsys.integration.polaris.cli.rangedDownload* system properties are set.
+     */
+    public void enableRangedDownload(int connections, long rangeSizeInBytes) {
+        rangedDownloader = new PolarisCliRangedDownloader(logger, intHttpClient, connections, rangeSizeInBytes, PolarisCliRangedDownloader.DEFAULT_ATTEMPTS_PER_RANGE);
+    }
+
+    /**
+     * Limits the disk space used by the Polaris CLI installations that are kept for other servers and older versions. By default the limit is read from the
+     * com.synopsys.integration.polaris.cli.cacheMaxSizeInMegabytes system property. Installations that are current or in use are never deleted, even over the limit.
+     */
+    public void setCacheMaxSizeInBytes(long cacheMaxSizeInBytes) {
+        polarisCliInstallDirectory.setMaxSizeInBytes(cacheMaxSizeInBytes);
+    }
+
     /**
      * The Polaris CLI will be downloaded if it has not previously been downloaded or
      * if it has been updated on the server. The absolute path to the swip_cli
@@ -83,8 +120,17 @@ public class PolarisDownloadUtility {
      * details concerning the failure.
      */
     public Optional<String> getOrDownloadPolarisCliExecutable() {
-        File binDirectory = getOrDownloadPolarisCliBin().orElse(null);
+        return getPolarisCliExecutable(getOrDownloadPolarisCliBin().orElse(null));
+    }
+
+    /**
+     * As above, but for a CLI that may be for another platform than this machine's, e.g. one downloaded on the controller for an agent.
+     */
+    public Optional<String> getOrDownloadPolarisCliExecutable(File versionFile, String downloadUrlFormat) {
+        return getPolarisCliExecutable(getOrDownloadPolarisCliBin(versionFile, downloadUrlFormat).orElse(null));
+    }
 
+    private Optional<String> getPolarisCliExecutable(File binDirectory) {
         if (binDirectory != null && binDirectory.exists() && binDirectory.isDirectory()) {
             try {
                 File polarisCliExecutable = getPolarisCli(binDirectory);
@@ -113,8 +159,14 @@ public class PolarisDownloadUtility {
 
     public Optional<File> getOrDownloadPolarisCliBin(File versionFile, String downloadUrlFormat) {
         File binDirectory = null;
+        // Executors on the same node wait for one download rather than racing each other into the install directory
         try {
-            binDirectory = downloadIfModified(versionFile, downloadUrlFormat);
+            binDirectory = polarisCliInstallDirectory.withLock(() -> {
+                polarisCliInstallDirectory.deleteAbandonedStagingDirectories();
+                File downloadedBinDirectory = downloadIfModified(versionFile, downloadUrlFormat);
+                PolarisCliInstallDirectory.markUsed(downloadedBinDirectory.getParentFile());
+                return downloadedBinDirectory;
+            });
         } catch (Exception e) {
             logger.error("The Polaris CLI could not be downloaded successfully: " + e.getMessage());
         }
@@ -139,7 +191,7 @@ public class PolarisDownloadUtility {
     }
 
     public File getOrCreateVersionFile() throws IOException {
-        File versionFile = new File(installDirectory, PolarisDownloadUtility.VERSION_FILENAME);
+        File versionFile = polarisCliInstallDirectory.getVersionFile();
         if (!versionFile.exists()) {
             logger.info("The version file has not been created yet so creating it now.");
             versionFile.createNewFile();
@@ -150,12 +202,22 @@ public class PolarisDownloadUtility {
     }
 
     public String getDownloadUrlFormat() {
+        String arch = null;
+        if (OperatingSystemType.MAC == operatingSystemType) {
+            FilePath workspace = new FilePath(new File(installDirectory.getPath()));
+            arch = getAgentOsArch(workspace);
+        }
+        return getDownloadUrlFormat(polarisServerUrl, operatingSystemType, arch);
+    }
+
+    /**
+     * @param osArch The os.arch of the machine the CLI will run on. Only needed for Mac.
+     */
+    public static String getDownloadUrlFormat(HttpUrl polarisServerUrl, OperatingSystemType operatingSystemType, String osArch) {
         if (OperatingSystemType.MAC == operatingSystemType) {
             // If the OS Architecture is Mac non-ARM, the return tool name as "%s_cli-macosx.zip"
             // If the OS Architecture is Mac ARM architecture, the return tool name as "%s_cli-macos_arm.zip"
-            FilePath workspace = new FilePath(new File(installDirectory.getPath()));
-            String arch = getAgentOsArch(workspace);
-            if (arch.startsWith("arm") || arch.startsWith("aarch")) {
+            if (osArch != null && (osArch.startsWith("arm") || osArch.startsWith("aarch"))) {
                 return polarisServerUrl + PolarisDownloadUtility.MAC_ARM_DOWNLOAD_URL_FORMAT;
             } else {
                 return polarisServerUrl + PolarisDownloadUtility.MAC_DOWNLOAD_URL_FORMAT;
@@ -185,66 +247,116 @@ public class PolarisDownloadUtility {
         return arch;
     }
 
-    private File downloadIfModified(File versionFile, String downloadUrlFormat) throws IOException, IntegrationException, ArchiveException {
+    private File downloadIfModified(File versionFile, String downloadUrlFormat) throws IOException, IntegrationException {
         long lastTimeDownloaded = versionFile.lastModified();
         logger.debug(String.format("last time downloaded: %d", lastTimeDownloaded));
 
-        HttpUrl swipDownloadUrl = new HttpUrl(String.format(downloadUrlFormat, "swip"));
-        Request swipDownloadRequest = new Request.Builder(swipDownloadUrl).build();
-        try (Response downloadResponse = intHttpClient.execute(swipDownloadRequest)) {
-            if (!downloadResponse.isStatusCodeError()) {
-                return getBinDirectoryFromResponse(downloadResponse, versionFile, lastTimeDownloaded);
+        // Only ask the server to skip the body if there is an installation to fall back on
+        boolean alreadyInstalled = lastTimeDownloaded > 0L && isInstalled();
+
+        for (String artifactName : getArtifactNamesToTry(versionFile)) {
+            HttpUrl downloadUrl = new HttpUrl(String.format(downloadUrlFormat, artifactName));
+            Request.Builder downloadRequestBuilder = new Request.Builder(downloadUrl);
+            if (alreadyInstalled) {
+                downloadRequestBuilder.addHeader(HttpHeaders.IF_MODIFIED_SINCE, DateUtils.formatDate(new Date(lastTimeDownloaded)));
+            }
+            if (rangedDownloader != null) {
+                rangedDownloader.addFirstRange(downloadRequestBuilder);
             }
-        }
 
-        HttpUrl polarisDownloadUrl = new HttpUrl(String.format(downloadUrlFormat, "polaris"));
-        Request polarisDownloadRequest = new Request.Builder(polarisDownloadUrl).build();
-        try (Response downloadResponse = intHttpClient.execute(polarisDownloadRequest)) {
-            if (!downloadResponse.isStatusCodeError()) {
-                return getBinDirectoryFromResponse(downloadResponse, versionFile, lastTimeDownloaded);
+            try (Response downloadResponse = intHttpClient.execute(downloadRequestBuilder.build())) {
+                if (HttpStatus.SC_NOT_MODIFIED == downloadResponse.getStatusCode()) {
+                    logger.debug("The Polaris CLI has not been modified since it was last downloaded - skipping download.");
+                    updateVersionFile(versionFile, artifactName, lastTimeDownloaded);
+                    return getBinDirectory();
+                }
+                if (!downloadResponse.isStatusCodeError()) {
+                    return getBinDirectoryFromResponse(downloadResponse, downloadUrl, versionFile, artifactName, lastTimeDownloaded);
+                }
             }
         }
 
         return getBinDirectory();
     }
 
-    private File getBinDirectoryFromResponse(Response response, File versionFile, long lastTimeDownloaded) throws IOException, IntegrationException, ArchiveException {
+    private File getBinDirectoryFromResponse(Response response, HttpUrl downloadUrl, File versionFile, String artifactName, long lastTimeDownloaded) throws IOException, IntegrationException {
         long lastModifiedOnServer = response.getLastModified();
         if (lastModifiedOnServer == lastTimeDownloaded) {
             logger.debug("The Polaris CLI has not been modified since it was last downloaded - skipping download.");
+            updateVersionFile(versionFile, artifactName, lastTimeDownloaded);
             return getBinDirectory();
         } else {
             logger.info("Downloading the Polaris CLI.");
-            try (InputStream responseStream = response.getContent()) {
-                cleanupZipExpander.expand(responseStream, installDirectory);
+            File stagingDirectory = polarisCliInstallDirectory.createStagingDirectory();
+            try {
+                // Files that are unchanged since the current installation are taken from it rather than written again
+                File currentHome = polarisCliInstallDirectory.findCurrentHome().orElse(null);
+                File stagedHome;
+                if (rangedDownloader == null) {
+                    try (InputStream responseStream = response.getContent()) {
+                        stagedHome = polarisCliArchiveExpander.expand(responseStream, stagingDirectory, currentHome).getHome();
+                    }
+                } else {
+                    File archiveFile = new File(stagingDirectory, DOWNLOADED_ARCHIVE_FILENAME);
+                    rangedDownloader.download(downloadUrl, response, archiveFile);
+                    try (InputStream archiveStream = Files.newInputStream(archiveFile.toPath())) {
+                        stagedHome = polarisCliArchiveExpander.expand(archiveStream, stagingDirectory, currentHome).getHome();
+                    }
+                }
+
+                File stagedBinDirectory = new File(stagedHome, "bin");
+                // A download without a CLI in it must never replace a working installation
+                getPolarisCli(stagedBinDirectory);
+                makeBinFilesExecutable(stagedBinDirectory);
+
+                File polarisCliHome = polarisCliInstallDirectory.promote(stagedHome, polarisCliInstallDirectory.getInstallationName(stagedHome.getName(), lastModifiedOnServer));
+                updateVersionFile(versionFile, artifactName, lastModifiedOnServer);
+
+                logger.info("Polaris CLI downloaded successfully.");
+
+                return new File(polarisCliHome, "bin");
+            } finally {
+                FileUtils.deleteQuietly(stagingDirectory);
             }
-            versionFile.setLastModified(lastModifiedOnServer);
-
-            File binDirectory = getBinDirectory();
-            makeBinFilesExecutable(binDirectory);
-
-            logger.info("Polaris CLI downloaded successfully.");
+        }
+    }
 
-            return binDirectory;
+    // The version file's modification time is the server's Last-Modified time of the installed CLI, and its content is the name of the artifact (swip or polaris) it came from
+    private List<String> getArtifactNamesToTry(File versionFile) {
+        String lastArtifactName = readLastArtifactName(versionFile);
+        if (POLARIS_ARTIFACT_NAME.equals(lastArtifactName)) {
+            return Arrays.asList(POLARIS_ARTIFACT_NAME, SWIP_ARTIFACT_NAME);
         }
+        return Arrays.asList(SWIP_ARTIFACT_NAME, POLARIS_ARTIFACT_NAME);
     }
 
-    // since we know that we only allow a single directory in installDirectory,
-    // that single directory IS the expanded archive
-    private File getBinDirectory() throws IntegrationException {
-        File[] directories = installDirectory.listFiles(File::isDirectory);
-        if (directories == null || directories.length == 0) {
-            throw new IntegrationException(String.format("The %s directory is empty, so the Polaris CLI can not be run.", PolarisDownloadUtility.POLARIS_CLI_INSTALL_DIRECTORY));
+    private String readLastArtifactName(File versionFile) {
+        try {
+            return new String(Files.readAllBytes(versionFile.toPath()), StandardCharsets.UTF_8).trim();
+        } catch (IOException e) {
+            logger.debug("Could not read the version file: " + e.getMessage());
+            return "";
         }
+    }
 
-        if (directories.length > 1) {
-            throw new IntegrationException(String.format("The %s directory should only be modified by polaris-common. Please delete all files from that directory and try again.", PolarisDownloadUtility.POLARIS_CLI_INSTALL_DIRECTORY));
+    private void updateVersionFile(File versionFile, String artifactName, long lastModified) throws IOException {
+        if (!artifactName.equals(readLastArtifactName(versionFile))) {
+            Files.write(versionFile.toPath(), artifactName.getBytes(StandardCharsets.UTF_8));
         }
+        // Writing the file touches it, so the modification time must always be set afterwards
+        versionFile.setLastModified(lastModified);
+    }
 
-        File polarisCliDirectory = directories[0];
-        File bin = new File(polarisCliDirectory, "bin");
+    private boolean isInstalled() {
+        try {
+            return getBinDirectory().isDirectory();
+        } catch (IntegrationException e) {
+            return false;
+        }
+    }
 
-        return bin;
+    private File getBinDirectory() throws IntegrationException {
+        return new File(polarisCliInstallDirectory.getCurrentHome(), "bin");
     }
 
     private void makeBinFilesExecutable(File binDirectory) {
@@ -0,0 +1,90 @@
+/*
+ * synopsys-polaris
+ *
+ * Copyright (c) 2024 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.polaris.common.cli.model;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import com.synopsys.integration.rest.HttpUrl;
+
+/**
+ * The part of a CliCommonResponseModel needed to count the issues of a scan. Unlike the model it is serializable, so the cli-scan.json can be parsed where it was written and only this crosses the
+ * remoting channel.
+ */
+public class CliCommonResponseDigest implements Serializable {
+    private static final long serialVersionUID = 6094372315716452218L;
+    private final Integer totalIssueCount;
+    private final String issueApiUrl;
+    private final ArrayList<ToolJob> toolJobs;
+
+    public CliCommonResponseDigest(Integer totalIssueCount, String issueApiUrl, List<ToolJob> toolJobs) {
+        this.totalIssueCount = totalIssueCount;
+        this.issueApiUrl = issueApiUrl;
+        this.toolJobs = new ArrayList<>(toolJobs);
+    }
+
+    public static CliCommonResponseDigest fromModel(CliCommonResponseModel cliCommonResponseModel) {
+        Integer totalIssueCount = cliCommonResponseModel.getIssueSummary()
+                                      .map(CommonIssueSummary::getTotalIssueCount)
+                                      .orElse(null);
+        String issueApiUrl = Optional.ofNullable(cliCommonResponseModel.getScanInfo())
+                                 .map(CommonScanInfo::getIssueApiUrl)
+                                 .map(HttpUrl::string)
+                                 .orElse(null);
+
+        List<ToolJob> toolJobs = new ArrayList<>();
+        if (cliCommonResponseModel.getTools() != null) {
+            for (CommonToolInfo tool : cliCommonResponseModel.getTools()) {
+                String jobStatusUrl = Optional.ofNullable(tool.getJobStatusUrl())
+                                          .map(HttpUrl::string)
+                                          .orElse(null);
+                toolJobs.add(new ToolJob(tool.getToolName(), jobStatusUrl));
+            }
+        }
+
+        return new CliCommonResponseDigest(totalIssueCount, issueApiUrl, toolJobs);
+    }
+
+    /**
+     * @return The total issue count, which is only present if the scan was run with -w.
+     */
+    public Optional<Integer> getTotalIssueCount() {
+        return Optional.ofNullable(totalIssueCount);
+    }
+
+    public Optional<String> getIssueApiUrl() {
+        return Optional.ofNullable(issueApiUrl);
+    }
+
+    public List<ToolJob> getToolJobs() {
+        return toolJobs;
+    }
+
+    public static class ToolJob implements Serializable {
+        private static final long serialVersionUID = -2301785237150932911L;
+        private final String toolName;
+        private final String jobStatusUrl;
+
+        public ToolJob(String toolName, String jobStatusUrl) {
+            this.toolName = toolName;
+            this.jobStatusUrl = jobStatusUrl;
+        }
+
+        public String getToolName() {
+            return toolName;
+        }
+
+        public Optional<String> getJobStatusUrl() {
+            return Optional.ofNullable(jobStatusUrl);
+        }
+
+    }
+
+}
@@ -7,34 +7,84 @@
  */
 package com.synopsys.integration.polaris.common.cli.model.json;
 
+import java.io.IOException;
+import java.io.StringReader;
+
 import com.google.gson.Gson;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import com.synopsys.integration.exception.IntegrationException;
 import com.synopsys.integration.polaris.common.cli.PolarisCliResponseVersion;
 import com.synopsys.integration.polaris.common.cli.model.CliCommonResponseModel;
 import com.synopsys.integration.polaris.common.cli.model.json.parser.CliScanParser;
-import com.synopsys.integration.polaris.common.cli.model.json.parser.CliScanUnsupportedParser;
-import com.synopsys.integration.polaris.common.cli.model.json.parser.CliScanV1Parser;
-import com.synopsys.integration.polaris.common.cli.model.json.parser.CliScanV2Parser;
+import com.synopsys.integration.polaris.common.exception.PolarisIntegrationException;
 
 public class CliCommonResponseAdapter {
     private final Gson gson;
+    private final CliScanParserRegistry cliScanParserRegistry;
 
     public CliCommonResponseAdapter(Gson gson) {
-        this.gson = gson;
+        this(new CliScanParserRegistry(gson));
+    }
+
+    public CliCommonResponseAdapter(CliScanParserRegistry cliScanParserRegistry) {
+        this.gson = cliScanParserRegistry.getGson();
+        this.cliScanParserRegistry = cliScanParserRegistry;
     }
 
     public CliCommonResponseModel fromJson(String versionString, PolarisCliResponseVersion polarisCliResponseVersion, JsonObject versionlessModel) throws IntegrationException {
-        CliScanParser<? extends CliScanResponse> cliScanParser = new CliScanUnsupportedParser(gson, versionString);
+        return cliScanParserRegistry.getCliScanParser(versionString, polarisCliResponseVersion).fromCliScan(versionlessModel);
+    }
+
+    /**
+     * Reads a cli-scan.json in one pass, without building a tree of it first. The fields that come before the version are the only ones held as a tree, because which class they belong to is not known
+     * until the version is read.
+     */
+    public CliCommonResponseModel fromJson(JsonReader jsonReader) throws IOException, IntegrationException {
+        try {
+            JsonObject fieldsBeforeVersion = new JsonObject();
+            jsonReader.beginObject();
+            while (jsonReader.hasNext()) {
+                String name = jsonReader.nextName();
+                if ("version".equals(name)) {
+                    String versionString = jsonReader.peek() == JsonToken.NULL ? null : jsonReader.nextString();
+                    PolarisCliResponseVersion polarisCliResponseVersion = PolarisCliResponseVersion.parse(versionString)
+                                                                              .orElseThrow(() -> new PolarisIntegrationException("Version " + versionString + " is not a valid version of cli-scan.json"));
+                    return fromJson(cliScanParserRegistry.getCliScanParser(versionString, polarisCliResponseVersion), versionString, fieldsBeforeVersion, jsonReader);
+                }
+                fieldsBeforeVersion.add(name, gson.getAdapter(JsonElement.class).read(jsonReader));
+            }
+        } catch (IllegalStateException | JsonParseException e) {
+            throw new PolarisIntegrationException("The cli-scan.json is not in the expected format: " + e.getMessage(), e);
+        }
 
-        int majorVersion = polarisCliResponseVersion.getMajor();
-        if (majorVersion == 1) {
-            cliScanParser = new CliScanV1Parser(gson);
-        } else if (majorVersion == 2) {
-            cliScanParser = new CliScanV2Parser(gson);
+        throw new PolarisIntegrationException("The cli-scan.json does not have a version");
+    }
+
+    private <T extends CliScanResponse> CliCommonResponseModel fromJson(CliScanParser<T> cliScanParser, String versionString, JsonObject fieldsBeforeVersion, JsonReader jsonReader) throws IOException, IntegrationException {
+        T cliScan = cliScanParser.createCliScan(versionString);
+
+        if (fieldsBeforeVersion.size() > 0) {
+            JsonReader fieldsBeforeVersionReader = new JsonReader(new StringReader(fieldsBeforeVersion.toString()));
+            fieldsBeforeVersionReader.beginObject();
+            readFields(cliScanParser, cliScan, fieldsBeforeVersionReader);
         }
+        readFields(cliScanParser, cliScan, jsonReader);
+        jsonReader.endObject();
 
-        return cliScanParser.fromCliScan(versionlessModel);
+        return cliScanParser.fromCliScan(cliScan);
+    }
+
+    private <T extends CliScanResponse> void readFields(CliScanParser<T> cliScanParser, T cliScan, JsonReader jsonReader) throws IOException {
+        while (jsonReader.hasNext()) {
+            String name = jsonReader.nextName();
+            if (!cliScanParser.readField(cliScan, name, jsonReader)) {
+                jsonReader.skipValue();
+            }
+        }
     }
 
 }
@@ -0,0 +1,59 @@
+/*
+ * synopsys-polaris
+ *
+ * Copyright (c) 2024 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.polaris.common.cli.model.json;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.google.gson.Gson;
+import com.synopsys.integration.polaris.common.cli.PolarisCliResponseVersion;
+import com.synopsys.integration.polaris.common.cli.model.json.parser.CliScanParser;
+import com.synopsys.integration.polaris.common.cli.model.json.parser.CliScanUnsupportedParser;
+import com.synopsys.integration.polaris.common.cli.model.json.parser.CliScanV1Parser;
+import com.synopsys.integration.polaris.common.cli.model.json.parser.CliScanV2Parser;
+
+/**
+ * Holds the Gson and the parser for each supported major version of the cli-scan.json. Both are immutable and thread-safe, so sharing one registry across every build on a JVM keeps Gson's type adapter
+ * cache warm instead of rebuilding it for each build.
+ */
+public class CliScanParserRegistry {
+    private static final CliScanParserRegistry SHARED_REGISTRY = new CliScanParserRegistry(new Gson());
+
+    private final Gson gson;
+    private final Map<Integer, CliScanParser<? extends CliScanResponse>> parsersByMajorVersion;
+
+    public CliScanParserRegistry(Gson gson) {
+        this.gson = gson;
+
+        Map<Integer, CliScanParser<? extends CliScanResponse>> parsers = new HashMap<>();
+        parsers.put(1, new CliScanV1Parser(gson));
+        parsers.put(2, new CliScanV2Parser(gson));
+        this.parsersByMajorVersion = Collections.unmodifiableMap(parsers);
+    }
+
+    /**
+     * @return The registry shared by every build on this JVM.
+     */
+    public static CliScanParserRegistry shared() {
+        return SHARED_REGISTRY;
+    }
+
+    public Gson getGson() {
+        return gson;
+    }
+
+    public CliScanParser<? extends CliScanResponse> getCliScanParser(String versionString, PolarisCliResponseVersion polarisCliResponseVersion) {
+        CliScanParser<? extends CliScanResponse> cliScanParser = parsersByMajorVersion.get(polarisCliResponseVersion.getMajor());
+        if (cliScanParser == null) {
+            return new CliScanUnsupportedParser(gson, versionString);
+        }
+        return cliScanParser;
+    }
+
+}
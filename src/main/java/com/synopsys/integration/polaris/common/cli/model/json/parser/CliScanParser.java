@@ -7,11 +7,13 @@
  */
 package com.synopsys.integration.polaris.common.cli.model.json.parser;
 
+import java.io.IOException;
 import java.util.function.Consumer;
 
 import com.google.gson.Gson;
 import com.google.gson.JsonObject;
 import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
 import com.synopsys.integration.exception.IntegrationException;
 import com.synopsys.integration.polaris.common.cli.model.CliCommonResponseModel;
 import com.synopsys.integration.polaris.common.cli.model.CommonIssueSummary;
@@ -36,10 +38,28 @@ public abstract class CliScanParser<T extends CliScanResponse> {
 
     public abstract CliCommonResponseModel fromCliScan(JsonObject versionlessModel) throws IntegrationException;
 
+    public abstract CliCommonResponseModel fromCliScan(T cliScan) throws IntegrationException;
+
+    public abstract T createCliScan(String versionString);
+
+    /**
+     * Reads the value of one top-level field of the cli-scan.json into the cli scan.
+     * @return false if the field is not part of this version, in which case its value has not been read.
+     */
+    public abstract boolean readField(T cliScan, String name, JsonReader jsonReader) throws IOException;
+
     protected T fromJson(JsonObject jsonObject) {
         return gson.fromJson(jsonObject, getTypeToken().getType());
     }
 
+    protected <V> V readValue(JsonReader jsonReader, Class<V> valueClass) throws IOException {
+        return gson.getAdapter(valueClass).read(jsonReader);
+    }
+
+    protected <V> V readValue(JsonReader jsonReader, TypeToken<V> valueType) throws IOException {
+        return gson.getAdapter(valueType).read(jsonReader);
+    }
+
     protected CliCommonResponseModel createResponseModel(IssueSummaryV1 issueSummary, ProjectInfoV1 projectInfo, ScanInfoV1 scanInfo) throws IntegrationException {
         CliCommonResponseModel cliCommonResponseModel = new CliCommonResponseModel();
 
@@ -7,9 +7,12 @@
  */
 package com.synopsys.integration.polaris.common.cli.model.json.parser;
 
+import java.io.IOException;
+
 import com.google.gson.Gson;
 import com.google.gson.JsonObject;
 import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
 import com.synopsys.integration.polaris.common.cli.model.CliCommonResponseModel;
 import com.synopsys.integration.polaris.common.cli.model.json.UnsupportedVersionCliScanResponse;
 import com.synopsys.integration.polaris.common.exception.PolarisIntegrationException;
@@ -32,4 +35,19 @@ public class CliScanUnsupportedParser extends CliScanParser<UnsupportedVersionCl
         throw new PolarisIntegrationException("Version " + versionString + " of the cli-scan.json is not supported.");
     }
 
+    @Override
+    public CliCommonResponseModel fromCliScan(UnsupportedVersionCliScanResponse cliScan) throws PolarisIntegrationException {
+        throw new PolarisIntegrationException("Version " + versionString + " of the cli-scan.json is not supported.");
+    }
+
+    @Override
+    public UnsupportedVersionCliScanResponse createCliScan(String versionString) {
+        return new UnsupportedVersionCliScanResponse();
+    }
+
+    @Override
+    public boolean readField(UnsupportedVersionCliScanResponse cliScan, String name, JsonReader jsonReader) {
+        return false;
+    }
+
 }
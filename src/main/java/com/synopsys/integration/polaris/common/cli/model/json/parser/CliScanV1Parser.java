@@ -7,6 +7,7 @@
  */
 package com.synopsys.integration.polaris.common.cli.model.json.parser;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Consumer;
@@ -14,26 +15,36 @@ import java.util.function.Consumer;
 import com.google.gson.Gson;
 import com.google.gson.JsonObject;
 import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
 import com.synopsys.integration.exception.IntegrationException;
 import com.synopsys.integration.polaris.common.cli.model.CliCommonResponseModel;
 import com.synopsys.integration.polaris.common.cli.model.CommonToolInfo;
 import com.synopsys.integration.polaris.common.cli.model.json.v1.CliScanV1;
+import com.synopsys.integration.polaris.common.cli.model.json.v1.IssueSummaryV1;
+import com.synopsys.integration.polaris.common.cli.model.json.v1.ProjectInfoV1;
+import com.synopsys.integration.polaris.common.cli.model.json.v1.ScanInfoV1;
 import com.synopsys.integration.polaris.common.cli.model.json.v1.ToolInfoV1;
 
 public class CliScanV1Parser extends CliScanParser<CliScanV1> {
+    private static final TypeToken<CliScanV1> CLI_SCAN_TYPE_TOKEN = new TypeToken<CliScanV1>() {
+    };
+
     public CliScanV1Parser(Gson gson) {
         super(gson);
     }
 
     @Override
     public TypeToken<CliScanV1> getTypeToken() {
-        return new TypeToken<CliScanV1>() {
-        };
+        return CLI_SCAN_TYPE_TOKEN;
     }
 
     @Override
     public CliCommonResponseModel fromCliScan(JsonObject versionlessModel) throws IntegrationException {
-        CliScanV1 cliScanV1 = fromJson(versionlessModel);
+        return fromCliScan(fromJson(versionlessModel));
+    }
+
+    @Override
+    public CliCommonResponseModel fromCliScan(CliScanV1 cliScanV1) throws IntegrationException {
         CliCommonResponseModel cliCommonResponseModel = createResponseModel(cliScanV1.issueSummary, cliScanV1.projectInfo, cliScanV1.scanInfo);
 
         List<CommonToolInfo> tools = new ArrayList<>();
@@ -47,6 +58,36 @@ public class CliScanV1Parser extends CliScanParser<CliScanV1> {
 
     }
 
+    @Override
+    public CliScanV1 createCliScan(String versionString) {
+        CliScanV1 cliScanV1 = new CliScanV1();
+        cliScanV1.version = versionString;
+        return cliScanV1;
+    }
+
+    @Override
+    public boolean readField(CliScanV1 cliScanV1, String name, JsonReader jsonReader) throws IOException {
+        switch (name) {
+            case "scanInfo":
+                cliScanV1.scanInfo = readValue(jsonReader, ScanInfoV1.class);
+                return true;
+            case "projectInfo":
+                cliScanV1.projectInfo = readValue(jsonReader, ProjectInfoV1.class);
+                return true;
+            case "issueSummary":
+                cliScanV1.issueSummary = readValue(jsonReader, IssueSummaryV1.class);
+                return true;
+            case "coverity":
+                cliScanV1.coverityToolInfo = readValue(jsonReader, ToolInfoV1.class);
+                return true;
+            case "sca":
+                cliScanV1.blackDuckScaToolInfo = readValue(jsonReader, ToolInfoV1.class);
+                return true;
+            default:
+                return false;
+        }
+    }
+
     private void fromToolInfoV1(ToolInfoV1 toolInfoV1, String toolName, Consumer<CommonToolInfo> consumer) throws IntegrationException {
         if (toolInfoV1 != null) {
             CommonToolInfo commonToolInfo = createCommonToolInfo(toolInfoV1);
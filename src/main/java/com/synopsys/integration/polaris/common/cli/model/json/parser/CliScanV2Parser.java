@@ -7,6 +7,7 @@
  */
 package com.synopsys.integration.polaris.common.cli.model.json.parser;
 
+import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -17,27 +18,38 @@ import org.apache.commons.lang3.StringUtils;
 import com.google.gson.Gson;
 import com.google.gson.JsonObject;
 import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
 import com.synopsys.integration.exception.IntegrationException;
 import com.synopsys.integration.polaris.common.cli.model.CliCommonResponseModel;
 import com.synopsys.integration.polaris.common.cli.model.CommonToolInfo;
+import com.synopsys.integration.polaris.common.cli.model.json.v1.IssueSummaryV1;
+import com.synopsys.integration.polaris.common.cli.model.json.v1.ProjectInfoV1;
+import com.synopsys.integration.polaris.common.cli.model.json.v1.ScanInfoV1;
 import com.synopsys.integration.polaris.common.cli.model.json.v2.CliScanV2;
 import com.synopsys.integration.polaris.common.cli.model.json.v2.ToolInfoV2;
 import com.synopsys.integration.rest.HttpUrl;
 
 public class CliScanV2Parser extends CliScanParser<CliScanV2> {
+    private static final TypeToken<CliScanV2> CLI_SCAN_TYPE_TOKEN = new TypeToken<CliScanV2>() {
+    };
+    private static final TypeToken<List<ToolInfoV2>> TOOLS_TYPE_TOKEN = new TypeToken<List<ToolInfoV2>>() {
+    };
+
     public CliScanV2Parser(Gson gson) {
         super(gson);
     }
 
     @Override
     public TypeToken<CliScanV2> getTypeToken() {
-        return new TypeToken<CliScanV2>() {
-        };
+        return CLI_SCAN_TYPE_TOKEN;
     }
 
     public CliCommonResponseModel fromCliScan(JsonObject versionlessModel) throws IntegrationException {
-        CliScanV2 cliScanV2 = fromJson(versionlessModel);
+        return fromCliScan(fromJson(versionlessModel));
+    }
 
+    @Override
+    public CliCommonResponseModel fromCliScan(CliScanV2 cliScanV2) throws IntegrationException {
         CliCommonResponseModel cliCommonResponseModel = createResponseModel(cliScanV2.issueSummary, cliScanV2.projectInfo, cliScanV2.scanInfo);
 
         List<CommonToolInfo> tools = Optional.ofNullable(cliScanV2.tools)
@@ -53,6 +65,33 @@ public class CliScanV2Parser extends CliScanParser<CliScanV2> {
         return cliCommonResponseModel;
     }
 
+    @Override
+    public CliScanV2 createCliScan(String versionString) {
+        CliScanV2 cliScanV2 = new CliScanV2();
+        cliScanV2.version = versionString;
+        return cliScanV2;
+    }
+
+    @Override
+    public boolean readField(CliScanV2 cliScanV2, String name, JsonReader jsonReader) throws IOException {
+        switch (name) {
+            case "scanInfo":
+                cliScanV2.scanInfo = readValue(jsonReader, ScanInfoV1.class);
+                return true;
+            case "projectInfo":
+                cliScanV2.projectInfo = readValue(jsonReader, ProjectInfoV1.class);
+                return true;
+            case "issueSummary":
+                cliScanV2.issueSummary = readValue(jsonReader, IssueSummaryV1.class);
+                return true;
+            case "tools":
+                cliScanV2.tools = readValue(jsonReader, TOOLS_TYPE_TOKEN);
+                return true;
+            default:
+                return false;
+        }
+    }
+
     private Optional<CommonToolInfo> fromToolInfoV2(ToolInfoV2 toolInfoV2) {
         if (toolInfoV2 != null) {
             try {
@@ -0,0 +1,27 @@
+/*
+ * synopsys-polaris
+ *
+ * Copyright (c) 2024 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.polaris.common.exception;
+
+import com.synopsys.integration.exception.IntegrationException;
+
+/**
+ * Wraps an IntegrationException thrown from a context that cannot throw checked exceptions, such as a lazily evaluated Stream.
+ */
+public class UncheckedPolarisIntegrationException extends RuntimeException {
+    private static final long serialVersionUID = -1453624961281365207L;
+
+    public UncheckedPolarisIntegrationException(final IntegrationException cause) {
+        super(cause.getMessage(), cause);
+    }
+
+    @Override
+    public synchronized IntegrationException getCause() {
+        return (IntegrationException) super.getCause();
+    }
+
+}
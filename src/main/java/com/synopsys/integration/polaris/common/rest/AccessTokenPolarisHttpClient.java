@@ -7,17 +7,24 @@
  */
 package com.synopsys.integration.polaris.common.rest;
 
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.http.Header;
 import org.apache.http.HttpEntity;
 import org.apache.http.client.methods.HttpUriRequest;
 import org.apache.http.client.methods.RequestBuilder;
+import org.apache.http.entity.BufferedHttpEntity;
 import org.apache.http.entity.StringEntity;
 
 import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
 import com.synopsys.integration.exception.IntegrationException;
 import com.synopsys.integration.log.IntLogger;
 import com.synopsys.integration.rest.HttpMethod;
@@ -33,26 +40,45 @@ public class AccessTokenPolarisHttpClient extends AuthenticatingIntHttpClient {
 
     private static final String ACCESS_TOKEN_REQUEST_KEY = "accesstoken";
     private static final String ACCESS_TOKEN_REQUEST_CONTENT_TYPE = "application/x-www-form-urlencoded";
+    private static final String BEARER_PREFIX = "Bearer ";
 
     private final Gson gson;
     private final AuthenticationSupport authenticationSupport;
     private final HttpUrl baseUrl;
     private final String accessToken;
+    private final PolarisAccessTokenCache accessTokenCache;
+    private final PolarisAccessTokenCache.Key accessTokenCacheKey;
 
     public AccessTokenPolarisHttpClient(IntLogger logger, int timeout, ProxyInfo proxyInfo, HttpUrl baseUrl, String accessToken, Gson gson, AuthenticationSupport authenticationSupport) {
+        this(logger, timeout, proxyInfo, baseUrl, accessToken, gson, authenticationSupport, PolarisAccessTokenCache.shared(), PolarisConnectionPoolRegistry.shared());
+    }
+
+    public AccessTokenPolarisHttpClient(IntLogger logger, int timeout, ProxyInfo proxyInfo, HttpUrl baseUrl, String accessToken, Gson gson, AuthenticationSupport authenticationSupport,
+        PolarisAccessTokenCache accessTokenCache, PolarisConnectionPoolRegistry connectionPoolRegistry) {
         super(logger, timeout, false, proxyInfo);
         this.baseUrl = baseUrl;
         this.accessToken = accessToken;
         this.gson = gson;
         this.authenticationSupport = authenticationSupport;
+        this.accessTokenCache = accessTokenCache;
 
         if (StringUtils.isBlank(accessToken)) {
             throw new IllegalArgumentException("No access token was found.");
         }
+        this.accessTokenCacheKey = PolarisAccessTokenCache.createKey(baseUrl, accessToken);
+
+        connectionPoolRegistry.configure(getClientBuilder(), baseUrl.string(), proxyInfo, timeout, isAlwaysTrustServerCertificate());
     }
 
     @Override
     public void handleErrorResponse(HttpUriRequest request, Response response) {
+        if (isUnauthorizedOrForbidden(response)) {
+            // Make sure no other build picks up the token Polaris just rejected
+            getBearerToken(request).ifPresent(rejectedToken -> accessTokenCache.invalidate(accessTokenCacheKey, rejectedToken));
+            // Responses that are retried are never closed, so read them now to hand their connection back to the pool
+            bufferEntity(response);
+        }
+
         super.handleErrorResponse(request, response);
 
         authenticationSupport.handleTokenErrorResponse(this, request, response);
@@ -60,12 +86,30 @@ public class AccessTokenPolarisHttpClient extends AuthenticatingIntHttpClient {
 
     @Override
     public boolean isAlreadyAuthenticated(HttpUriRequest request) {
-        return authenticationSupport.isTokenAlreadyAuthenticated(request);
+        if (authenticationSupport.isTokenAlreadyAuthenticated(request)) {
+            return true;
+        }
+
+        // Authenticating through the shared cache keeps the POST to api/auth/authenticate off of most requests -- if it fails, the normal authentication path runs and reports the failure
+        try {
+            // Most requests find a valid token without taking the lock that is only needed to refresh it
+            Optional<String> validToken = accessTokenCache.getValidToken(accessTokenCacheKey);
+            String bearerToken = validToken.isPresent() ? validToken.get() : accessTokenCache.getOrRefreshToken(accessTokenCacheKey, this::requestBearerToken);
+            request.setHeader(AuthenticationSupport.AUTHORIZATION_HEADER, BEARER_PREFIX + bearerToken);
+            return true;
+        } catch (IntegrationException e) {
+            logger.debug("Could not retrieve a bearer token from the shared token cache: " + e.getMessage());
+            return false;
+        }
     }
 
     @Override
-    protected void completeAuthenticationRequest(HttpUriRequest request, Response response) {
-        authenticationSupport.completeTokenAuthenticationRequest(request, response, logger, gson, this, AccessTokenPolarisHttpClient.AUTHENTICATION_RESPONSE_KEY);
+    protected void completeAuthenticationRequest(HttpUriRequest request, Response response) throws IntegrationException {
+        if (response.isStatusCodeSuccess()) {
+            String bearerToken = parseBearerToken(response);
+            accessTokenCache.putToken(accessTokenCacheKey, bearerToken);
+            request.setHeader(AuthenticationSupport.AUTHORIZATION_HEADER, BEARER_PREFIX + bearerToken);
+        }
     }
 
     @Override
@@ -87,4 +131,51 @@ public class AccessTokenPolarisHttpClient extends AuthenticatingIntHttpClient {
         return baseUrl;
     }
 
+    /**
+     * @return Equal for every client of the same Polaris server using the same access token.
+     */
+    public PolarisAccessTokenCache.Key getAccessTokenCacheKey() {
+        return accessTokenCacheKey;
+    }
+
+    private String requestBearerToken() throws IntegrationException {
+        try (Response response = attemptAuthentication()) {
+            response.throwExceptionForError();
+            return parseBearerToken(response);
+        } catch (IOException e) {
+            throw new IntegrationException("The authentication response could not be closed: " + e.getMessage(), e);
+        }
+    }
+
+    private String parseBearerToken(Response response) throws IntegrationException {
+        try {
+            JsonObject authenticationResponse = gson.fromJson(response.getContentString(), JsonObject.class);
+            JsonElement bearerToken = authenticationResponse == null ? null : authenticationResponse.get(AccessTokenPolarisHttpClient.AUTHENTICATION_RESPONSE_KEY);
+            if (bearerToken == null || !bearerToken.isJsonPrimitive()) {
+                throw new IntegrationException("No Bearer token found when authenticating.");
+            }
+            return bearerToken.getAsString();
+        } catch (JsonParseException e) {
+            throw new IntegrationException("The authentication response could not be parsed: " + e.getMessage(), e);
+        }
+    }
+
+    private void bufferEntity(Response response) {
+        HttpEntity entity = response.getActualResponse().getEntity();
+        if (entity != null && !entity.isRepeatable()) {
+            try {
+                response.getActualResponse().setEntity(new BufferedHttpEntity(entity));
+            } catch (IOException e) {
+                logger.trace("Could not read the error response: " + e.getMessage());
+            }
+        }
+    }
+
+    private Optional<String> getBearerToken(HttpUriRequest request) {
+        return Optional.ofNullable(request.getFirstHeader(AuthenticationSupport.AUTHORIZATION_HEADER))
+                   .map(Header::getValue)
+                   .filter(headerValue -> headerValue.startsWith(BEARER_PREFIX))
+                   .map(headerValue -> headerValue.substring(BEARER_PREFIX.length()));
+    }
+
 }
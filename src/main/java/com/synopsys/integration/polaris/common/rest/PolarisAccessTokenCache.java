@@ -0,0 +1,194 @@
+/*
+ * synopsys-polaris
+ *
+ * Copyright (c) 2024 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.polaris.common.rest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.apache.commons.codec.digest.DigestUtils;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.function.ThrowingSupplier;
+import com.synopsys.integration.rest.HttpUrl;
+
+/**
+ * Holds the bearer JWT for every Polaris server and access token combination in use on this JVM, so that builds do not each authenticate with the same access token. Tokens are refreshed shortly before
+ * they expire, and concurrent callers needing a refresh for the same key wait on a single authentication request.
+ */
+public class PolarisAccessTokenCache {
+    public static final long DEFAULT_TOKEN_LIFETIME_MILLIS = TimeUnit.MINUTES.toMillis(15);
+    public static final long REFRESH_MARGIN_MILLIS = TimeUnit.MINUTES.toMillis(2);
+
+    private static final PolarisAccessTokenCache SHARED_CACHE = new PolarisAccessTokenCache(System::currentTimeMillis);
+
+    private final ConcurrentMap<Key, CachedToken> cachedTokens = new ConcurrentHashMap<>();
+    private final LongSupplier clock;
+
+    public PolarisAccessTokenCache(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * @return The cache shared by every build on this JVM.
+     */
+    public static PolarisAccessTokenCache shared() {
+        return SHARED_CACHE;
+    }
+
+    public static Key createKey(HttpUrl polarisServerUrl, String accessToken) {
+        // Only a digest of the access token is kept, so the key can be logged or dumped without exposing the credential
+        return new Key(polarisServerUrl.string(), DigestUtils.sha256Hex(accessToken));
+    }
+
+    /**
+     * @return The cached bearer token for the key, if there is one that is not about to expire.
+     */
+    public Optional<String> getValidToken(Key key) {
+        CachedToken cachedToken = cachedTokens.get(key);
+        if (cachedToken == null) {
+            return Optional.empty();
+        }
+        return cachedToken.getIfValid(clock.getAsLong());
+    }
+
+    /**
+     * Returns the cached bearer token for the key, authenticating with the provided supplier if there is no cached token or it is about to expire. Only one caller per key authenticates at a time.
+     */
+    public String getOrRefreshToken(Key key, ThrowingSupplier<String, IntegrationException> authenticator) throws IntegrationException {
+        CachedToken cachedToken = cachedTokens.computeIfAbsent(key, ignored -> new CachedToken());
+        return cachedToken.getOrRefresh(clock, authenticator);
+    }
+
+    /**
+     * Caches a bearer token that was obtained outside of getOrRefreshToken.
+     */
+    public void putToken(Key key, String bearerToken) {
+        cachedTokens.computeIfAbsent(key, ignored -> new CachedToken()).set(bearerToken, clock.getAsLong());
+    }
+
+    /**
+     * Forgets the given token if it is still the one cached for the key, e.g. because Polaris rejected it. A token that another caller has already refreshed is left alone.
+     */
+    public void invalidate(Key key, String rejectedBearerToken) {
+        CachedToken cachedToken = cachedTokens.get(key);
+        if (cachedToken != null) {
+            cachedToken.clearIfCurrent(rejectedBearerToken);
+        }
+    }
+
+    public void clear() {
+        cachedTokens.clear();
+    }
+
+    static long parseExpirationMillis(String bearerToken, long issuedAtMillis) {
+        try {
+            String[] jwtSegments = bearerToken.split("\\.");
+            if (jwtSegments.length >= 2) {
+                String claimsJson = new String(Base64.getUrlDecoder().decode(jwtSegments[1]), StandardCharsets.UTF_8);
+                JsonElement claims = JsonParser.parseString(claimsJson);
+                if (claims.isJsonObject()) {
+                    JsonElement expiration = ((JsonObject) claims).get("exp");
+                    if (expiration != null && expiration.isJsonPrimitive()) {
+                        return TimeUnit.SECONDS.toMillis(expiration.getAsLong());
+                    }
+                }
+            }
+        } catch (RuntimeException ignored) {
+            // Polaris tokens are opaque to the plugin, so a token that is not a readable JWT falls back to the default lifetime
+        }
+        return issuedAtMillis + DEFAULT_TOKEN_LIFETIME_MILLIS;
+    }
+
+    public static class Key {
+        private final String polarisServerUrl;
+        private final String accessTokenDigest;
+
+        private Key(String polarisServerUrl, String accessTokenDigest) {
+            this.polarisServerUrl = polarisServerUrl;
+            this.accessTokenDigest = accessTokenDigest;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key key = (Key) o;
+            return polarisServerUrl.equals(key.polarisServerUrl) && accessTokenDigest.equals(key.accessTokenDigest);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(polarisServerUrl, accessTokenDigest);
+        }
+
+    }
+
+    private static class CachedToken {
+        // The token and its refresh time are replaced together, so a reader that does not lock never pairs a new deadline with an old token
+        private volatile TokenState state;
+
+        private Optional<String> getIfValid(long nowMillis) {
+            TokenState currentState = state;
+            if (currentState != null && nowMillis < currentState.refreshAtMillis) {
+                return Optional.of(currentState.bearerToken);
+            }
+            return Optional.empty();
+        }
+
+        private synchronized String getOrRefresh(LongSupplier clock, ThrowingSupplier<String, IntegrationException> authenticator) throws IntegrationException {
+            Optional<String> validToken = getIfValid(clock.getAsLong());
+            if (validToken.isPresent()) {
+                return validToken.get();
+            }
+
+            String newToken = authenticator.get();
+            set(newToken, clock.getAsLong());
+            return newToken;
+        }
+
+        private synchronized void set(String newToken, long issuedAtMillis) {
+            long expirationMillis = parseExpirationMillis(newToken, issuedAtMillis);
+            long lifetimeMillis = Math.max(0, expirationMillis - issuedAtMillis);
+            // Short-lived tokens are refreshed half way through their life rather than never being considered valid
+            state = new TokenState(newToken, expirationMillis - Math.min(REFRESH_MARGIN_MILLIS, lifetimeMillis / 2));
+        }
+
+        private synchronized void clearIfCurrent(String rejectedBearerToken) {
+            TokenState currentState = state;
+            if (currentState != null && Objects.equals(currentState.bearerToken, rejectedBearerToken)) {
+                state = null;
+            }
+        }
+
+    }
+
+    private static class TokenState {
+        private final String bearerToken;
+        private final long refreshAtMillis;
+
+        private TokenState(String bearerToken, long refreshAtMillis) {
+            this.bearerToken = bearerToken;
+            this.refreshAtMillis = refreshAtMillis;
+        }
+
+    }
+
+}
@@ -0,0 +1,217 @@
+/*
+ * synopsys-polaris
+ *
+ * Copyright (c) 2024 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.polaris.common.rest;
+
+import java.security.KeyManagementException;
+import java.security.KeyStoreException;
+import java.security.NoSuchAlgorithmException;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.apache.http.HttpHost;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.config.SocketConfig;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.NoopHostnameVerifier;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.conn.ssl.TrustAllStrategy;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.ssl.SSLContextBuilder;
+
+import com.synopsys.integration.rest.proxy.ProxyInfo;
+
+/**
+ * Keeps one pool of keep-alive connections per target, proxy, and timeout for the whole JVM. IntHttpClient builds a new CloseableHttpClient for every request, so without a shared pool every request pays
+ * for a new connection and TLS handshake. Clients built from a configured HttpClientBuilder borrow connections from the pool, and closing them leaves the pool open.
+ */
+public class PolarisConnectionPoolRegistry {
+    public static final String MAX_CONNECTIONS_PER_ROUTE_PROPERTY = "com.synopsys.integration.polaris.http.maxConnectionsPerRoute";
+    public static final String MAX_CONNECTIONS_TOTAL_PROPERTY = "com.synopsys.integration.polaris.http.maxConnectionsTotal";
+    public static final String IDLE_EVICTION_SECONDS_PROPERTY = "com.synopsys.integration.polaris.http.idleEvictionSeconds";
+    public static final int DEFAULT_MAX_CONNECTIONS_PER_ROUTE = 10;
+    public static final int DEFAULT_MAX_CONNECTIONS_TOTAL = 50;
+    public static final long DEFAULT_IDLE_EVICTION_SECONDS = 60;
+
+    private static final PolarisConnectionPoolRegistry SHARED_REGISTRY = new PolarisConnectionPoolRegistry(
+        Integer.getInteger(MAX_CONNECTIONS_PER_ROUTE_PROPERTY, DEFAULT_MAX_CONNECTIONS_PER_ROUTE),
+        Integer.getInteger(MAX_CONNECTIONS_TOTAL_PROPERTY, DEFAULT_MAX_CONNECTIONS_TOTAL),
+        Long.getLong(IDLE_EVICTION_SECONDS_PROPERTY, DEFAULT_IDLE_EVICTION_SECONDS)
+    );
+
+    private final ConcurrentMap<Key, PoolingHttpClientConnectionManager> connectionManagers = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService idleConnectionEvictor;
+    private final long idleEvictionSeconds;
+    private volatile int maxConnectionsPerRoute;
+    private volatile int maxConnectionsTotal;
+
+    public PolarisConnectionPoolRegistry(int maxConnectionsPerRoute, int maxConnectionsTotal, long idleEvictionSeconds) {
+        this.maxConnectionsPerRoute = Math.max(1, maxConnectionsPerRoute);
+        this.maxConnectionsTotal = Math.max(this.maxConnectionsPerRoute, maxConnectionsTotal);
+        this.idleEvictionSeconds = Math.max(1, idleEvictionSeconds);
+
+        BasicThreadFactory threadFactory = new BasicThreadFactory.Builder()
+                                               .namingPattern("polaris-idle-connection-evictor-%d")
+                                               .daemon(true)
+                                               .build();
+        idleConnectionEvictor = new ScheduledThreadPoolExecutor(1, threadFactory);
+        long evictionPeriodMillis = Math.max(1000, TimeUnit.SECONDS.toMillis(this.idleEvictionSeconds) / 2);
+        idleConnectionEvictor.scheduleWithFixedDelay(this::evictIdleConnections, evictionPeriodMillis, evictionPeriodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return The registry shared by every build on this JVM. Its limits can be tuned with the com.synopsys.integration.polaris.http.* system properties.
+     */
+    public static PolarisConnectionPoolRegistry shared() {
+        return SHARED_REGISTRY;
+    }
+
+    /**
+     * Points the builder at the pool for the given target so that every client it builds reuses that pool's connections.
+     * @param target The server the connections are for, e.g. the Polaris server url. Requests to other servers still work, but are pooled under this target's limits.
+     */
+    public HttpClientBuilder configure(HttpClientBuilder httpClientBuilder, String target, ProxyInfo proxyInfo, int timeoutInSeconds, boolean alwaysTrustServerCertificate) {
+        PoolingHttpClientConnectionManager connectionManager = getConnectionManager(target, proxyInfo, timeoutInSeconds, alwaysTrustServerCertificate);
+        return httpClientBuilder.setConnectionManager(connectionManager)
+                   .setConnectionManagerShared(true);
+    }
+
+    /**
+     * Creates a pooled HttpClientBuilder for callers that do not go through IntHttpClient, with the timeout and proxy applied to every request.
+     */
+    public HttpClientBuilder createHttpClientBuilder(String target, ProxyInfo proxyInfo, int timeoutInSeconds) {
+        int timeoutInMillis = (int) TimeUnit.SECONDS.toMillis(timeoutInSeconds);
+        RequestConfig.Builder requestConfigBuilder = RequestConfig.custom()
+                                                         .setConnectTimeout(timeoutInMillis)
+                                                         .setSocketTimeout(timeoutInMillis)
+                                                         .setConnectionRequestTimeout(timeoutInMillis);
+        if (proxyInfo.shouldUseProxy()) {
+            requestConfigBuilder.setProxy(new HttpHost(proxyInfo.getHost().orElse(null), proxyInfo.getPort()));
+        }
+
+        HttpClientBuilder httpClientBuilder = HttpClientBuilder.create().setDefaultRequestConfig(requestConfigBuilder.build());
+        return configure(httpClientBuilder, target, proxyInfo, timeoutInSeconds, false);
+    }
+
+    public PoolingHttpClientConnectionManager getConnectionManager(String target, ProxyInfo proxyInfo, int timeoutInSeconds, boolean alwaysTrustServerCertificate) {
+        Key key = new Key(target, proxyInfo, timeoutInSeconds, alwaysTrustServerCertificate);
+        return connectionManagers.computeIfAbsent(key, this::createConnectionManager);
+    }
+
+    public void setMaxConnectionsPerRoute(int maxConnectionsPerRoute) {
+        if (maxConnectionsPerRoute > 0) {
+            this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+            connectionManagers.values().forEach(connectionManager -> connectionManager.setDefaultMaxPerRoute(maxConnectionsPerRoute));
+        }
+    }
+
+    public void setMaxConnectionsTotal(int maxConnectionsTotal) {
+        if (maxConnectionsTotal > 0) {
+            this.maxConnectionsTotal = maxConnectionsTotal;
+            connectionManagers.values().forEach(connectionManager -> connectionManager.setMaxTotal(maxConnectionsTotal));
+        }
+    }
+
+    public int getPoolCount() {
+        return connectionManagers.size();
+    }
+
+    /**
+     * Closes every pooled connection and stops evicting idle ones. Clients configured by this registry cannot be used afterwards.
+     */
+    public void shutdown() {
+        idleConnectionEvictor.shutdownNow();
+        connectionManagers.values().forEach(PoolingHttpClientConnectionManager::shutdown);
+        connectionManagers.clear();
+    }
+
+    private PoolingHttpClientConnectionManager createConnectionManager(Key key) {
+        Registry<ConnectionSocketFactory> socketFactoryRegistry = RegistryBuilder.<ConnectionSocketFactory>create()
+                                                                     .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                                                                     .register("https", createSslSocketFactory(key.alwaysTrustServerCertificate))
+                                                                     .build();
+
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(socketFactoryRegistry);
+        connectionManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+        connectionManager.setMaxTotal(maxConnectionsTotal);
+        connectionManager.setDefaultSocketConfig(SocketConfig.custom().setSoTimeout((int) TimeUnit.SECONDS.toMillis(key.timeoutInSeconds)).build());
+        // Connections the server may have closed while they sat in the pool are checked before they are handed out again
+        connectionManager.setValidateAfterInactivity(2000);
+        return connectionManager;
+    }
+
+    // Mirrors the SSL configuration IntHttpClient would otherwise put on its builder
+    private SSLConnectionSocketFactory createSslSocketFactory(boolean alwaysTrustServerCertificate) {
+        if (!alwaysTrustServerCertificate) {
+            return SSLConnectionSocketFactory.getSocketFactory();
+        }
+
+        try {
+            return new SSLConnectionSocketFactory(SSLContextBuilder.create().loadTrustMaterial(new TrustAllStrategy()).build(), new NoopHostnameVerifier());
+        } catch (KeyManagementException | KeyStoreException | NoSuchAlgorithmException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+    }
+
+    private void evictIdleConnections() {
+        for (PoolingHttpClientConnectionManager connectionManager : connectionManagers.values()) {
+            connectionManager.closeExpiredConnections();
+            connectionManager.closeIdleConnections(idleEvictionSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    private static class Key {
+        private final String target;
+        private final String proxyHost;
+        private final int proxyPort;
+        private final String proxyUsername;
+        private final int timeoutInSeconds;
+        private final boolean alwaysTrustServerCertificate;
+
+        private Key(String target, ProxyInfo proxyInfo, int timeoutInSeconds, boolean alwaysTrustServerCertificate) {
+            this.target = target;
+            this.proxyHost = proxyInfo.getHost().orElse(null);
+            this.proxyPort = proxyInfo.getPort();
+            this.proxyUsername = proxyInfo.getUsername().orElse(null);
+            this.timeoutInSeconds = timeoutInSeconds;
+            this.alwaysTrustServerCertificate = alwaysTrustServerCertificate;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key key = (Key) o;
+            return proxyPort == key.proxyPort
+                       && timeoutInSeconds == key.timeoutInSeconds
+                       && alwaysTrustServerCertificate == key.alwaysTrustServerCertificate
+                       && Objects.equals(target, key.target)
+                       && Objects.equals(proxyHost, key.proxyHost)
+                       && Objects.equals(proxyUsername, key.proxyUsername);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(target, proxyHost, proxyPort, proxyUsername, timeoutInSeconds, alwaysTrustServerCertificate);
+        }
+
+    }
+
+}
@@ -0,0 +1,90 @@
+/*
+ * synopsys-polaris
+ *
+ * Copyright (c) 2024 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.polaris.common.service;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import com.synopsys.integration.polaris.common.api.model.JobStatus;
+
+/**
+ * Backs off exponentially from a minimum interval up to a cap while a job runs, then tightens the interval again as the job's reported progress approaches 100%. Every delay is jittered so that builds which
+ * started together do not keep polling Polaris in lockstep.
+ */
+public class AdaptiveJobPollingStrategy implements JobPollingStrategy {
+    public static final int DEFAULT_MAXIMUM_INTERVAL_SECONDS = 60;
+    public static final double DEFAULT_BACKOFF_MULTIPLIER = 1.5;
+    public static final double DEFAULT_JITTER_FRACTION = 0.2;
+
+    private static final Random SHARED_RANDOM = new Random();
+
+    private final long minimumIntervalInMillis;
+    private final long maximumIntervalInMillis;
+    private final double backoffMultiplier;
+    private final double jitterFraction;
+    private final Random random;
+
+    private Integer firstObservedProgress = null;
+    private long firstObservedProgressMillis;
+
+    public AdaptiveJobPollingStrategy(int minimumIntervalInSeconds) {
+        this(minimumIntervalInSeconds, DEFAULT_MAXIMUM_INTERVAL_SECONDS, DEFAULT_BACKOFF_MULTIPLIER, DEFAULT_JITTER_FRACTION, SHARED_RANDOM);
+    }
+
+    public AdaptiveJobPollingStrategy(int minimumIntervalInSeconds, int maximumIntervalInSeconds, double backoffMultiplier, double jitterFraction, Random random) {
+        this.minimumIntervalInMillis = TimeUnit.SECONDS.toMillis(Math.max(1, minimumIntervalInSeconds));
+        this.maximumIntervalInMillis = Math.max(minimumIntervalInMillis, TimeUnit.SECONDS.toMillis(maximumIntervalInSeconds));
+        this.backoffMultiplier = Math.max(1.0, backoffMultiplier);
+        this.jitterFraction = Math.min(Math.max(0.0, jitterFraction), 1.0);
+        this.random = random;
+    }
+
+    @Override
+    public long getNextPollDelayInMillis(JobStatus lastJobStatus, int pollsSoFar, long elapsedMillis) {
+        double delay = minimumIntervalInMillis * Math.pow(backoffMultiplier, Math.max(0, pollsSoFar - 1));
+        delay = Math.min(delay, maximumIntervalInMillis);
+
+        Long estimatedMillisRemaining = estimateMillisRemaining(lastJobStatus, elapsedMillis);
+        if (estimatedMillisRemaining != null) {
+            // Halving the remaining time each poll clusters polls around the predicted finish without overshooting it
+            delay = Math.min(delay, estimatedMillisRemaining / 2.0);
+        }
+
+        double jitter = 1.0 + jitterFraction * (2.0 * random.nextDouble() - 1.0);
+        long jitteredDelay = Math.round(delay * jitter);
+
+        return Math.min(Math.max(jitteredDelay, minimumIntervalInMillis), maximumIntervalInMillis);
+    }
+
+    @Override
+    public long getBaselineIntervalInMillis() {
+        return minimumIntervalInMillis;
+    }
+
+    private Long estimateMillisRemaining(JobStatus lastJobStatus, long elapsedMillis) {
+        Integer progress = lastJobStatus == null ? null : lastJobStatus.getProgress();
+        if (progress == null || progress <= 0 || progress >= 100) {
+            return null;
+        }
+
+        if (firstObservedProgress == null) {
+            firstObservedProgress = progress;
+            firstObservedProgressMillis = elapsedMillis;
+            return null;
+        }
+
+        int progressMade = progress - firstObservedProgress;
+        long timeTaken = elapsedMillis - firstObservedProgressMillis;
+        if (progressMade <= 0 || timeTaken <= 0) {
+            return null;
+        }
+
+        return (long) ((100 - progress) * ((double) timeTaken / progressMade));
+    }
+
+}
@@ -9,10 +9,12 @@ package com.synopsys.integration.polaris.common.service;
 
 import java.util.List;
 import java.util.Objects;
+import java.util.stream.Stream;
 
 import com.synopsys.integration.exception.IntegrationException;
 import com.synopsys.integration.polaris.common.api.PolarisResource;
 import com.synopsys.integration.polaris.common.api.model.CountV0Attributes;
+import com.synopsys.integration.polaris.common.exception.UncheckedPolarisIntegrationException;
 import com.synopsys.integration.rest.HttpUrl;
 
 public class CountService {
@@ -27,10 +29,14 @@ public class CountService {
     }
 
     public Integer getTotalIssueCountFromIssueApiUrl(HttpUrl issueApiUrl) throws IntegrationException {
-        return getCountV0ResourcesFromIssueApiUrl(issueApiUrl).stream()
-                   .map(PolarisResource::getAttributes)
-                   .map(CountV0Attributes::getValue)
-                   .filter(Objects::nonNull)
-                   .reduce(0, Integer::sum);
+        try (Stream<PolarisResource<CountV0Attributes>> countV0Resources = polarisService.stream(issueApiUrl, CountV0Attributes.class)) {
+            return countV0Resources
+                       .map(PolarisResource::getAttributes)
+                       .map(CountV0Attributes::getValue)
+                       .filter(Objects::nonNull)
+                       .reduce(0, Integer::sum);
+        } catch (UncheckedPolarisIntegrationException e) {
+            throw e.getCause();
+        }
     }
 }
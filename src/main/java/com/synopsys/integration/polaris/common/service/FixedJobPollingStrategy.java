@@ -0,0 +1,31 @@
+/*
+ * synopsys-polaris
+ *
+ * Copyright (c) 2024 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.polaris.common.service;
+
+import java.util.concurrent.TimeUnit;
+
+import com.synopsys.integration.polaris.common.api.model.JobStatus;
+
+public class FixedJobPollingStrategy implements JobPollingStrategy {
+    private final long intervalInMillis;
+
+    public FixedJobPollingStrategy(int intervalInSeconds) {
+        this.intervalInMillis = TimeUnit.SECONDS.toMillis(intervalInSeconds);
+    }
+
+    @Override
+    public long getNextPollDelayInMillis(JobStatus lastJobStatus, int pollsSoFar, long elapsedMillis) {
+        return intervalInMillis;
+    }
+
+    @Override
+    public long getBaselineIntervalInMillis() {
+        return intervalInMillis;
+    }
+
+}
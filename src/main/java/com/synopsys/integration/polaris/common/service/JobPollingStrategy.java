@@ -0,0 +1,29 @@
+/*
+ * synopsys-polaris
+ *
+ * Copyright (c) 2024 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.polaris.common.service;
+
+import com.synopsys.integration.polaris.common.api.model.JobStatus;
+
+/**
+ * Decides how long the JobStatusPoller waits between polls of a single job. A new instance is created for every job that is polled, so implementations may keep per-job state.
+ */
+public interface JobPollingStrategy {
+    /**
+     * @param lastJobStatus  The status returned by the most recent poll, or null if it could not be determined.
+     * @param pollsSoFar     How many polls of this job have been made, including the most recent one.
+     * @param elapsedMillis  How long this job has been polled for.
+     * @return How long to wait before polling again, in milliseconds.
+     */
+    long getNextPollDelayInMillis(JobStatus lastJobStatus, int pollsSoFar, long elapsedMillis);
+
+    /**
+     * @return The interval a naive fixed schedule would have used, so the number of polls saved can be reported.
+     */
+    long getBaselineIntervalInMillis();
+
+}
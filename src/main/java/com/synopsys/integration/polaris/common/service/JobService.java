@@ -7,10 +7,16 @@
  */
 package com.synopsys.integration.polaris.common.service;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.time.DurationFormatUtils;
 
 import com.synopsys.integration.exception.IntegrationException;
 import com.synopsys.integration.log.IntLogger;
@@ -20,7 +26,6 @@ import com.synopsys.integration.polaris.common.api.model.JobAttributes;
 import com.synopsys.integration.polaris.common.api.model.JobStatus;
 import com.synopsys.integration.polaris.common.exception.PolarisIntegrationException;
 import com.synopsys.integration.rest.HttpUrl;
-import com.synopsys.integration.wait.WaitJob;
 
 public class JobService {
     public static final long DEFAULT_TIMEOUT = 30 * 60L;
@@ -28,29 +33,117 @@ public class JobService {
 
     private final IntLogger logger;
     private final PolarisService polarisService;
+    private final JobStatusPoller jobStatusPoller;
+    private final IntFunction<JobPollingStrategy> pollingStrategyFactory;
 
     public JobService(IntLogger logger, PolarisService polarisService) {
+        this(logger, polarisService, JobStatusPoller.shared());
+    }
+
+    public JobService(IntLogger logger, PolarisService polarisService, JobStatusPoller jobStatusPoller) {
+        this(logger, polarisService, jobStatusPoller, AdaptiveJobPollingStrategy::new);
+    }
+
+    /**
+     * @param pollingStrategyFactory Creates the JobPollingStrategy for each job waited on, given the caller's wait interval in seconds.
+     */
+    public JobService(IntLogger logger, PolarisService polarisService, JobStatusPoller jobStatusPoller, IntFunction<JobPollingStrategy> pollingStrategyFactory) {
         this.logger = logger;
         this.polarisService = polarisService;
+        this.jobStatusPoller = jobStatusPoller;
+        this.pollingStrategyFactory = pollingStrategyFactory;
     }
 
     public PolarisResource<JobAttributes> getJobByUrl(HttpUrl jobApiUrl) throws IntegrationException {
         return polarisService.get(jobApiUrl, JobAttributes.class);
     }
 
+    /**
+     * Registers the job with the shared JobStatusPoller and returns immediately. The returned future completes with the job's final status if it COMPLETED, and exceptionally otherwise.
+     * By default the wait interval is the shortest delay between polls; the poller backs off from it while the job runs (see AdaptiveJobPollingStrategy).
+     */
+    public CompletableFuture<JobStatus> waitForJobStateIsCompletedByUrl(HttpUrl jobApiUrl, long timeoutInSeconds, int waitIntervalInSeconds) {
+        CompletableFuture<PolarisResource<JobAttributes>> jobEnded = jobStatusPoller.waitForJobToEnd(jobApiUrl, polarisService.getAccessTokenCacheKey(), this::getJobByUrl, logger, timeoutInSeconds, () -> pollingStrategyFactory.apply(waitIntervalInSeconds));
+        CompletableFuture<JobStatus> jobCompleted = jobEnded.thenApply(jobResource -> {
+            try {
+                return validateJobCompleted(jobApiUrl, jobResource);
+            } catch (PolarisIntegrationException e) {
+                throw new CompletionException(e);
+            }
+        });
+
+        // Cancelling the returned future should also stop waiting on the poller
+        jobCompleted.whenComplete((jobStatus, throwable) -> jobEnded.cancel(false));
+        return jobCompleted;
+    }
+
     public void waitForJobStateIsCompletedOrDieByUrl(HttpUrl jobApiUrl, long timeoutInSeconds, int waitIntervalInSeconds) throws IntegrationException, InterruptedException {
-        WaitJob waitJob = WaitJob.createUsingSystemTimeWhenInvoked(logger, timeoutInSeconds, waitIntervalInSeconds, () -> hasJobEnded(jobApiUrl));
-        if (!waitJob.waitFor()) {
-            String maximumDurationString = DurationFormatUtils.formatDurationHMS(timeoutInSeconds * 1000);
-            throw new PolarisIntegrationException(String.format("Job at url %s did not end in the provided timeout of %s", jobApiUrl, maximumDurationString));
+        CompletableFuture<JobStatus> jobStatusFuture = waitForJobStateIsCompletedByUrl(jobApiUrl, timeoutInSeconds, waitIntervalInSeconds);
+        try {
+            jobStatusFuture.get();
+        } catch (InterruptedException e) {
+            jobStatusFuture.cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IntegrationException) {
+                throw (IntegrationException) cause;
+            }
+            throw new PolarisIntegrationException(String.format("Job at url %s could not be polled.", jobApiUrl), cause);
+        }
+    }
+
+    /**
+     * Registers every job with the shared JobStatusPoller and returns immediately. The returned future completes once every job has COMPLETED, and exceptionally as soon as any job does not. Every job
+     * shares the same deadline, and cancelling the returned future stops waiting on all of them.
+     */
+    public CompletableFuture<Void> waitForJobStatesAreCompletedByUrls(Collection<HttpUrl> jobApiUrls, long timeoutInSeconds, int waitIntervalInSeconds) {
+        List<CompletableFuture<JobStatus>> jobStatusFutures = jobApiUrls.stream()
+                                                                  .distinct()
+                                                                  .map(jobApiUrl -> waitForJobStateIsCompletedByUrl(jobApiUrl, timeoutInSeconds, waitIntervalInSeconds))
+                                                                  .collect(Collectors.toList());
+
+        CompletableFuture<Void> allCompletedOrFirstFailure = new CompletableFuture<>();
+        for (CompletableFuture<JobStatus> jobStatusFuture : jobStatusFutures) {
+            jobStatusFuture.whenComplete((jobStatus, throwable) -> {
+                if (throwable != null) {
+                    allCompletedOrFirstFailure.completeExceptionally(throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable);
+                }
+            });
+        }
+        CompletableFuture.allOf(jobStatusFutures.toArray(new CompletableFuture<?>[0]))
+            .thenRun(() -> allCompletedOrFirstFailure.complete(null));
+
+        allCompletedOrFirstFailure.whenComplete((ignored, throwable) -> jobStatusFutures.forEach(jobStatusFuture -> jobStatusFuture.cancel(true)));
+        return allCompletedOrFirstFailure;
+    }
+
+    /**
+     * Waits on every job at once, so the wait takes as long as the slowest job rather than the sum of them, and every job shares the same deadline. The first job that does not complete stops the wait.
+     */
+    public void waitForJobStatesAreCompletedOrDieByUrls(Collection<HttpUrl> jobApiUrls, long timeoutInSeconds, int waitIntervalInSeconds) throws IntegrationException, InterruptedException {
+        CompletableFuture<Void> allCompletedOrFirstFailure = waitForJobStatesAreCompletedByUrls(jobApiUrls, timeoutInSeconds, waitIntervalInSeconds);
+        try {
+            allCompletedOrFirstFailure.get();
+        } catch (InterruptedException e) {
+            allCompletedOrFirstFailure.cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IntegrationException) {
+                throw (IntegrationException) cause;
+            }
+            throw new PolarisIntegrationException("Jobs could not be polled.", cause);
         }
+    }
 
-        PolarisResource<JobAttributes> jobResource = this.getJobByUrl(jobApiUrl);
-        JobStatus.StateEnum jobState = Optional.ofNullable(jobResource)
-                                           .map(PolarisResource::getAttributes)
-                                           .map(JobAttributes::getStatus)
-                                           .map(JobStatus::getState)
-                                           .orElseThrow(() -> new PolarisIntegrationException(String.format("Job at url %s ended but its state cannot be determined.", jobApiUrl)));
+    private JobStatus validateJobCompleted(HttpUrl jobApiUrl, PolarisResource<JobAttributes> jobResource) throws PolarisIntegrationException {
+        JobStatus jobStatus = Optional.ofNullable(jobResource)
+                                  .map(PolarisResource::getAttributes)
+                                  .map(JobAttributes::getStatus)
+                                  .filter(status -> status.getState() != null)
+                                  .orElseThrow(() -> new PolarisIntegrationException(String.format("Job at url %s ended but its state cannot be determined.", jobApiUrl)));
+        JobStatus.StateEnum jobState = jobStatus.getState();
 
         if (!JobStatus.StateEnum.COMPLETED.equals(jobState)) {
             StringBuilder errorMessageBuilder = new StringBuilder();
@@ -66,37 +159,8 @@ public class JobService {
 
             throw new PolarisIntegrationException(errorMessageBuilder.toString());
         }
-    }
-
-    private boolean hasJobEnded(HttpUrl jobApiUrl) throws IntegrationException {
-        String jobStatusPrefix = "Job at url " + jobApiUrl;
-
-        try {
-            Optional<JobStatus> optionalJobStatus = Optional.ofNullable(getJobByUrl(jobApiUrl))
-                                                        .map(PolarisResource::getAttributes)
-                                                        .map(JobAttributes::getStatus);
-
-            if (!optionalJobStatus.isPresent()) {
-                logger.info(jobStatusPrefix + " was found but the job status could not be determined.");
-                return false;
-            }
-
-            JobStatus jobStatus = optionalJobStatus.get();
-            JobStatus.StateEnum stateEnum = jobStatus.getState();
-            if (JobStatus.StateEnum.QUEUED.equals(stateEnum) || JobStatus.StateEnum.RUNNING.equals(stateEnum) || JobStatus.StateEnum.DISPATCHED.equals(stateEnum)) {
-                logger.info(jobStatusPrefix + " was found with status " + stateEnum.toString() + ". Progress: " + jobStatus.getProgress());
-                return false;
-            }
-
-        } catch (IntegrationException e) {
-            if (e.getMessage() != null && e.getMessage().contains("404")) {
-                logger.info(jobStatusPrefix + " could not be found.");
-            } else {
-                throw e;
-            }
-        }
 
-        return true;
+        return jobStatus;
     }
 
 }
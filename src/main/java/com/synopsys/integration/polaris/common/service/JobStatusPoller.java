@@ -0,0 +1,286 @@
+/*
+ * synopsys-polaris
+ *
+ * Copyright (c) 2024 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.polaris.common.service;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.apache.commons.lang3.time.DurationFormatUtils;
+
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.function.ThrowingFunction;
+import com.synopsys.integration.log.IntLogger;
+import com.synopsys.integration.polaris.common.api.PolarisResource;
+import com.synopsys.integration.polaris.common.api.model.JobAttributes;
+import com.synopsys.integration.polaris.common.api.model.JobStatus;
+import com.synopsys.integration.polaris.common.exception.PolarisIntegrationException;
+import com.synopsys.integration.rest.HttpUrl;
+
+/**
+ * Polls Polaris job urls on a small, shared pool of threads instead of parking one thread per waiting build. Callers waiting on the same job url with the same credentials key share a single poll, made
+ * with the first caller's job requester and polling strategy, but each keeps its own timeout and its own log. Callers with different credentials never share a poll. The job requests run on their own bounded pool, so a slow Polaris response never delays the scheduler that fires the next polls and the timeouts.
+ */
+public class JobStatusPoller {
+    public static final int DEFAULT_POLLING_THREADS = 2;
+
+    private static final JobStatusPoller SHARED_POLLER = new JobStatusPoller(DEFAULT_POLLING_THREADS);
+
+    private final ScheduledThreadPoolExecutor scheduler;
+    private final ThreadPoolExecutor requestExecutor;
+    private final ConcurrentMap<PolledJobKey, PolledJob> polledJobs = new ConcurrentHashMap<>();
+
+    /**
+     * @param pollingThreads The most job requests that may be waiting on Polaris at once.
+     */
+    public JobStatusPoller(int pollingThreads) {
+        BasicThreadFactory schedulerThreadFactory = new BasicThreadFactory.Builder()
+                                                        .namingPattern("polaris-job-status-scheduler-%d")
+                                                        .daemon(true)
+                                                        .build();
+        scheduler = new ScheduledThreadPoolExecutor(1, schedulerThreadFactory);
+        scheduler.setRemoveOnCancelPolicy(true);
+
+        BasicThreadFactory requestThreadFactory = new BasicThreadFactory.Builder()
+                                                      .namingPattern("polaris-job-status-poller-%d")
+                                                      .daemon(true)
+                                                      .build();
+        int requestThreads = Math.max(1, pollingThreads);
+        // Each polled job has at most one poll waiting at a time, so the queue is bounded by the number of jobs being waited on
+        requestExecutor = new ThreadPoolExecutor(requestThreads, requestThreads, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), requestThreadFactory);
+        requestExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * @return The poller shared by every build on this JVM.
+     */
+    public static JobStatusPoller shared() {
+        return SHARED_POLLER;
+    }
+
+    /**
+     * Waits for the job at the given url to leave the QUEUED, DISPATCHED, and RUNNING states. The returned future completes with the last job resource seen, or exceptionally if the job could not be retrieved
+     * or did not end within the timeout. Cancelling the returned future stops waiting without affecting anyone else waiting on the same job.
+     * @param credentialsKey Identifies who the jobRequester requests the job as (see PolarisAccessTokenCache.Key). Only callers with equal keys share a poll, so no caller is handed a job read with
+     *                       someone else's credentials.
+     */
+    public CompletableFuture<PolarisResource<JobAttributes>> waitForJobToEnd(HttpUrl jobApiUrl, Object credentialsKey, ThrowingFunction<HttpUrl, PolarisResource<JobAttributes>, IntegrationException> jobRequester, IntLogger logger,
+        long timeoutInSeconds, int waitIntervalInSeconds) {
+        return waitForJobToEnd(jobApiUrl, credentialsKey, jobRequester, logger, timeoutInSeconds, () -> new FixedJobPollingStrategy(waitIntervalInSeconds));
+    }
+
+    /**
+     * As above, but the delay between polls is decided by a JobPollingStrategy. If the job is already being polled for another caller with the same credentials key, that caller's strategy remains in effect.
+     */
+    public CompletableFuture<PolarisResource<JobAttributes>> waitForJobToEnd(HttpUrl jobApiUrl, Object credentialsKey, ThrowingFunction<HttpUrl, PolarisResource<JobAttributes>, IntegrationException> jobRequester, IntLogger logger,
+        long timeoutInSeconds, Supplier<JobPollingStrategy> pollingStrategySupplier) {
+        Waiter waiter = new Waiter(logger);
+
+        PolledJob polledJob;
+        do {
+            polledJob = polledJobs.computeIfAbsent(new PolledJobKey(jobApiUrl, credentialsKey), polledJobKey -> new PolledJob(polledJobKey, jobRequester, pollingStrategySupplier.get()));
+        } while (!polledJob.addWaiter(waiter));
+
+        String maximumDurationString = DurationFormatUtils.formatDurationHMS(timeoutInSeconds * 1000);
+        ScheduledFuture<?> timeout = scheduler.schedule(
+            () -> waiter.future.completeExceptionally(new PolarisIntegrationException(String.format("Job at url %s did not end in the provided timeout of %s", jobApiUrl, maximumDurationString))),
+            timeoutInSeconds, TimeUnit.SECONDS);
+
+        PolledJob waitedOnJob = polledJob;
+        waiter.future.whenComplete((jobResource, throwable) -> {
+            timeout.cancel(false);
+            waitedOnJob.removeWaiter(waiter);
+        });
+
+        return waiter.future;
+    }
+
+    public int getPolledJobCount() {
+        return polledJobs.size();
+    }
+
+    private static class Waiter {
+        private final IntLogger logger;
+        private final CompletableFuture<PolarisResource<JobAttributes>> future = new CompletableFuture<>();
+
+        private Waiter(IntLogger logger) {
+            this.logger = logger;
+        }
+
+    }
+
+    private static class PolledJobKey {
+        private final HttpUrl jobApiUrl;
+        private final Object credentialsKey;
+
+        private PolledJobKey(HttpUrl jobApiUrl, Object credentialsKey) {
+            this.jobApiUrl = jobApiUrl;
+            this.credentialsKey = credentialsKey;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            PolledJobKey polledJobKey = (PolledJobKey) o;
+            return jobApiUrl.equals(polledJobKey.jobApiUrl) && Objects.equals(credentialsKey, polledJobKey.credentialsKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(jobApiUrl, credentialsKey);
+        }
+
+    }
+
+    private class PolledJob {
+        private final PolledJobKey polledJobKey;
+        private final HttpUrl jobApiUrl;
+        private final ThrowingFunction<HttpUrl, PolarisResource<JobAttributes>, IntegrationException> jobRequester;
+        private final JobPollingStrategy pollingStrategy;
+        private final List<Waiter> waiters = new CopyOnWriteArrayList<>();
+        private boolean finished = false;
+        // At most one chain of polls may run per job, even if every waiter leaves and a new one joins before the next poll
+        private boolean pollScheduled = false;
+        private long firstPollMillis;
+        private int pollCount = 0;
+
+        private PolledJob(PolledJobKey polledJobKey, ThrowingFunction<HttpUrl, PolarisResource<JobAttributes>, IntegrationException> jobRequester, JobPollingStrategy pollingStrategy) {
+            this.polledJobKey = polledJobKey;
+            this.jobApiUrl = polledJobKey.jobApiUrl;
+            this.jobRequester = jobRequester;
+            this.pollingStrategy = pollingStrategy;
+        }
+
+        private synchronized boolean addWaiter(Waiter waiter) {
+            if (finished) {
+                return false;
+            }
+
+            waiters.add(waiter);
+            if (!pollScheduled) {
+                pollScheduled = true;
+                requestExecutor.execute(this::poll);
+            }
+            return true;
+        }
+
+        private synchronized void removeWaiter(Waiter waiter) {
+            waiters.remove(waiter);
+        }
+
+        private void poll() {
+            synchronized (this) {
+                if (waiters.isEmpty()) {
+                    finish();
+                    return;
+                }
+            }
+
+            if (pollCount == 0) {
+                firstPollMillis = System.currentTimeMillis();
+            }
+            pollCount++;
+
+            String jobStatusPrefix = "Job at url " + jobApiUrl;
+            JobStatus lastJobStatus = null;
+            try {
+                PolarisResource<JobAttributes> jobResource = jobRequester.apply(jobApiUrl);
+                Optional<JobStatus> optionalJobStatus = Optional.ofNullable(jobResource)
+                                                            .map(PolarisResource::getAttributes)
+                                                            .map(JobAttributes::getStatus);
+
+                if (!optionalJobStatus.isPresent()) {
+                    logToWaiters(jobStatusPrefix + " was found but the job status could not be determined.");
+                } else if (isStillRunning(optionalJobStatus.get())) {
+                    lastJobStatus = optionalJobStatus.get();
+                    logToWaiters(jobStatusPrefix + " was found with status " + lastJobStatus.getState().toString() + ". Progress: " + lastJobStatus.getProgress());
+                } else {
+                    logPollsSaved(jobStatusPrefix);
+                    completeWaiters(jobResource, null);
+                    return;
+                }
+            } catch (IntegrationException e) {
+                if (e.getMessage() != null && e.getMessage().contains("404")) {
+                    logToWaiters(jobStatusPrefix + " could not be found.");
+                }
+                completeWaiters(null, e);
+                return;
+            } catch (RuntimeException e) {
+                completeWaiters(null, e);
+                return;
+            }
+
+            long nextPollDelay = pollingStrategy.getNextPollDelayInMillis(lastJobStatus, pollCount, System.currentTimeMillis() - firstPollMillis);
+            scheduler.schedule(() -> requestExecutor.execute(this::poll), nextPollDelay, TimeUnit.MILLISECONDS);
+        }
+
+        private void logPollsSaved(String jobStatusPrefix) {
+            long elapsedMillis = System.currentTimeMillis() - firstPollMillis;
+            long baselineIntervalInMillis = pollingStrategy.getBaselineIntervalInMillis();
+            if (baselineIntervalInMillis <= 0) {
+                return;
+            }
+
+            long baselinePollCount = elapsedMillis / baselineIntervalInMillis + 1;
+            long pollsSaved = Math.max(0, baselinePollCount - pollCount);
+            String elapsedString = DurationFormatUtils.formatDurationHMS(elapsedMillis);
+            String baselineIntervalString = DurationFormatUtils.formatDurationHMS(baselineIntervalInMillis);
+            logToWaiters(String.format("%s ended after %d polls over %s (%d polls saved compared to polling every %s).", jobStatusPrefix, pollCount, elapsedString, pollsSaved, baselineIntervalString));
+        }
+
+        private boolean isStillRunning(JobStatus jobStatus) {
+            JobStatus.StateEnum stateEnum = jobStatus.getState();
+            return JobStatus.StateEnum.QUEUED.equals(stateEnum) || JobStatus.StateEnum.RUNNING.equals(stateEnum) || JobStatus.StateEnum.DISPATCHED.equals(stateEnum);
+        }
+
+        private void logToWaiters(String message) {
+            waiters.forEach(waiter -> waiter.logger.info(message));
+        }
+
+        private void completeWaiters(PolarisResource<JobAttributes> jobResource, Throwable failure) {
+            List<Waiter> waitersToComplete;
+            synchronized (this) {
+                finish();
+                waitersToComplete = waiters;
+            }
+
+            for (Waiter waiter : waitersToComplete) {
+                if (failure == null) {
+                    waiter.future.complete(jobResource);
+                } else {
+                    waiter.future.completeExceptionally(failure);
+                }
+            }
+        }
+
+        // Callers must hold this PolledJob's lock
+        private void finish() {
+            finished = true;
+            pollScheduled = false;
+            polledJobs.remove(polledJobKey, this);
+        }
+
+    }
+
+}
@@ -8,10 +8,11 @@
 package com.synopsys.integration.polaris.common.service;
 
 import java.lang.reflect.Type;
-import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.google.gson.Gson;
-import com.google.gson.JsonElement;
+import com.google.gson.JsonIOException;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonSyntaxException;
 import com.synopsys.integration.exception.IntegrationException;
@@ -20,54 +21,65 @@ import com.synopsys.integration.polaris.common.api.PolarisResponse;
 import com.synopsys.integration.rest.response.Response;
 
 public class PolarisJsonTransformer {
-    private static final String FIELD_NAME_POLARIS_COMPONENT_JSON = "json";
-
     private final Gson gson;
+    private final Gson rawJsonCapturingGson;
     private final IntLogger logger;
+    private final Set<Type> responseTypesWithoutRawJson = ConcurrentHashMap.newKeySet();
 
     public PolarisJsonTransformer(Gson gson, IntLogger logger) {
         this.gson = gson;
+        this.rawJsonCapturingGson = gson.newBuilder()
+                                        .registerTypeAdapterFactory(new RawJsonCaptureTypeAdapterFactory())
+                                        .create();
         this.logger = logger;
     }
 
+    private PolarisJsonTransformer(PolarisJsonTransformer polarisJsonTransformer, IntLogger logger) {
+        this.gson = polarisJsonTransformer.gson;
+        this.rawJsonCapturingGson = polarisJsonTransformer.rawJsonCapturingGson;
+        this.logger = logger;
+        this.responseTypesWithoutRawJson.addAll(polarisJsonTransformer.responseTypesWithoutRawJson);
+    }
+
+    /**
+     * A transformer with the same settings that logs to the given logger. It shares this transformer's Gson instances, and with them every type adapter Gson has already built.
+     */
+    public PolarisJsonTransformer withLogger(IntLogger logger) {
+        return new PolarisJsonTransformer(this, logger);
+    }
+
+    /**
+     * By default every PolarisResponse in a response is populated with its raw json. Callers that never use getJson() can turn that off for a response type to skip building the intermediate json tree entirely.
+     */
+    public void disableRawJsonCapture(Type responseType) {
+        responseTypesWithoutRawJson.add(responseType);
+    }
+
+    public void enableRawJsonCapture(Type responseType) {
+        responseTypesWithoutRawJson.remove(responseType);
+    }
+
+    public boolean isRawJsonCaptureEnabled(Type responseType) {
+        return !responseTypesWithoutRawJson.contains(responseType);
+    }
+
     public <C extends PolarisResponse> C getResponse(Response response, Type responseType) throws IntegrationException {
         String json = response.getContentString();
         return getResponseAs(json, responseType);
     }
 
     public <C extends PolarisResponse> C getResponseAs(String json, Type responseType) throws IntegrationException {
+        Gson responseGson = isRawJsonCaptureEnabled(responseType) ? rawJsonCapturingGson : gson;
         try {
-            JsonObject jsonElement = gson.fromJson(json, JsonObject.class);
-            return getResponseAs(jsonElement, responseType);
-        } catch (JsonSyntaxException e) {
+            return responseGson.fromJson(json, responseType);
+        } catch (JsonSyntaxException | JsonIOException e) {
             logger.error(String.format("Could not parse the provided json with Gson:%s%s", System.lineSeparator(), json));
             throw new IntegrationException(e.getMessage(), e);
         }
     }
 
     public <C extends PolarisResponse> C getResponseAs(JsonObject jsonObject, Type responseType) throws IntegrationException {
-        String json = gson.toJson(jsonObject);
-        try {
-            addJsonAsField(jsonObject);
-            return gson.fromJson(jsonObject, responseType);
-        } catch (JsonSyntaxException e) {
-            logger.error(String.format("Could not parse the provided jsonElement with Gson:%s%s", System.lineSeparator(), json));
-            throw new IntegrationException(e.getMessage(), e);
-        }
-    }
-
-    private void addJsonAsField(JsonElement jsonElement) {
-        if (jsonElement.isJsonObject()) {
-            JsonObject innerObject = jsonElement.getAsJsonObject();
-            jsonElement.getAsJsonObject().addProperty(FIELD_NAME_POLARIS_COMPONENT_JSON, gson.toJson(innerObject));
-            for (Map.Entry<String, JsonElement> innerObjectFields : innerObject.entrySet()) {
-                addJsonAsField(innerObjectFields.getValue());
-            }
-        } else if (jsonElement.isJsonArray()) {
-            for (JsonElement arrayElement : jsonElement.getAsJsonArray()) {
-                addJsonAsField(arrayElement);
-            }
-        }
+        return getResponseAs(gson.toJson(jsonObject), responseType);
     }
 
 }
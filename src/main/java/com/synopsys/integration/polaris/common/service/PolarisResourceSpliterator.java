@@ -0,0 +1,150 @@
+/*
+ * synopsys-polaris
+ *
+ * Copyright (c) 2024 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.polaris.common.service;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.function.ThrowingFunction;
+import com.synopsys.integration.polaris.common.api.PolarisAttributes;
+import com.synopsys.integration.polaris.common.api.PolarisPagedResourceResponse;
+import com.synopsys.integration.polaris.common.api.PolarisPaginationMeta;
+import com.synopsys.integration.polaris.common.api.PolarisResource;
+import com.synopsys.integration.polaris.common.exception.UncheckedPolarisIntegrationException;
+
+/**
+ * Walks a paged Polaris resource one page at a time. Only the page being consumed and the page after it are held in memory: when a page is handed to the consumer, the next one is requested in the background on the given executor.
+ */
+class PolarisResourceSpliterator<A extends PolarisAttributes> implements Spliterator<PolarisResource<A>>, AutoCloseable {
+    private final ThrowingFunction<Integer, PolarisPagedResourceResponse<PolarisResource<A>>, IntegrationException> pageRequester;
+    private final int pageSize;
+    private final Integer totalExpected;
+    private final Executor prefetchExecutor;
+
+    private Iterator<PolarisResource<A>> currentPage;
+    private CompletableFuture<PolarisPagedResourceResponse<PolarisResource<A>>> nextPage;
+    private int nextOffset;
+    private long resourcesSeen;
+    private boolean morePagesAvailable;
+
+    PolarisResourceSpliterator(ThrowingFunction<Integer, PolarisPagedResourceResponse<PolarisResource<A>>, IntegrationException> pageRequester, int pageSize, PolarisPagedResourceResponse<PolarisResource<A>> firstPage, Executor prefetchExecutor) {
+        this.pageRequester = pageRequester;
+        this.pageSize = pageSize;
+        this.prefetchExecutor = prefetchExecutor;
+
+        // Pagination meta does not include a total if it only has one page of results to give. -- rotte SEP 2020
+        this.totalExpected = Optional.ofNullable(firstPage)
+                                 .map(PolarisPagedResourceResponse::getMeta)
+                                 .map(PolarisPaginationMeta::getTotal)
+                                 .map(BigDecimal::intValue)
+                                 .orElse(null);
+
+        this.currentPage = Collections.emptyIterator();
+        this.nextOffset = 0;
+        this.resourcesSeen = 0;
+        this.morePagesAvailable = firstPage != null;
+        if (morePagesAvailable) {
+            this.nextPage = CompletableFuture.completedFuture(firstPage);
+        }
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super PolarisResource<A>> action) {
+        while (!currentPage.hasNext()) {
+            if (!morePagesAvailable) {
+                return false;
+            }
+            advanceToNextPage();
+        }
+
+        action.accept(currentPage.next());
+        return true;
+    }
+
+    @Override
+    public Spliterator<PolarisResource<A>> trySplit() {
+        // Pages must be requested in order, so this spliterator cannot be split.
+        return null;
+    }
+
+    @Override
+    public long estimateSize() {
+        if (totalExpected == null) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(0L, totalExpected - resourcesSeen);
+    }
+
+    @Override
+    public int characteristics() {
+        return Spliterator.ORDERED | Spliterator.NONNULL;
+    }
+
+    @Override
+    public void close() {
+        morePagesAvailable = false;
+        if (nextPage != null) {
+            nextPage.cancel(true);
+        }
+    }
+
+    private void advanceToNextPage() {
+        PolarisPagedResourceResponse<PolarisResource<A>> pageOfResources = awaitNextPage();
+        List<PolarisResource<A>> pageResources = Optional.ofNullable(pageOfResources)
+                                                     .map(PolarisPagedResourceResponse::getData)
+                                                     .orElse(Collections.emptyList());
+
+        resourcesSeen += pageResources.size();
+        currentPage = pageResources.iterator();
+        nextOffset += pageSize;
+
+        morePagesAvailable = !pageResources.isEmpty() && totalExpected != null && totalExpected > resourcesSeen;
+        if (morePagesAvailable) {
+            int offsetToPrefetch = nextOffset;
+            nextPage = CompletableFuture.supplyAsync(() -> requestPage(offsetToPrefetch), prefetchExecutor);
+        } else {
+            nextPage = null;
+        }
+    }
+
+    private PolarisPagedResourceResponse<PolarisResource<A>> awaitNextPage() {
+        try {
+            return nextPage.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new UncheckedPolarisIntegrationException(new IntegrationException("Interrupted while waiting for the next page of results", e));
+        } catch (ExecutionException e) {
+            close();
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedPolarisIntegrationException) {
+                throw (UncheckedPolarisIntegrationException) cause;
+            }
+            throw new UncheckedPolarisIntegrationException(new IntegrationException("Problem handling request", cause));
+        }
+    }
+
+    private PolarisPagedResourceResponse<PolarisResource<A>> requestPage(int offset) {
+        try {
+            return pageRequester.apply(offset);
+        } catch (IntegrationException e) {
+            throw new CompletionException(new UncheckedPolarisIntegrationException(e));
+        }
+    }
+
+}
@@ -14,6 +14,16 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 
 import com.google.gson.reflect.TypeToken;
 import com.synopsys.integration.exception.IntegrationException;
@@ -25,19 +35,40 @@ import com.synopsys.integration.polaris.common.api.PolarisResponse;
 import com.synopsys.integration.polaris.common.api.PolarisSingleResourceResponse;
 import com.synopsys.integration.polaris.common.request.PolarisRequestFactory;
 import com.synopsys.integration.polaris.common.rest.AccessTokenPolarisHttpClient;
+import com.synopsys.integration.polaris.common.rest.PolarisAccessTokenCache;
 import com.synopsys.integration.rest.HttpUrl;
 import com.synopsys.integration.rest.request.Request;
 import com.synopsys.integration.rest.response.Response;
 
 public class PolarisService {
+    public static final int DEFAULT_PAGE_REQUEST_PARALLELISM = 4;
+    public static final int SHARED_PAGE_REQUEST_THREADS = 8;
+    private static final long PAGE_REQUEST_THREAD_KEEP_ALIVE_SECONDS = 30L;
+
+    // One bounded pool for the whole JVM, shared by concurrent page requests and stream prefetches; idle threads expire, so it costs nothing between builds.
+    private static final ExecutorService PAGE_REQUEST_EXECUTOR = createPageRequestExecutor();
+
     private final AccessTokenPolarisHttpClient polarisHttpClient;
     private final PolarisJsonTransformer polarisJsonTransformer;
     private final int defaultPageSize;
+    private final int pageRequestParallelism;
 
     public PolarisService(AccessTokenPolarisHttpClient polarisHttpClient, PolarisJsonTransformer polarisJsonTransformer, int defaultPageSize) {
+        this(polarisHttpClient, polarisJsonTransformer, defaultPageSize, DEFAULT_PAGE_REQUEST_PARALLELISM);
+    }
+
+    public PolarisService(AccessTokenPolarisHttpClient polarisHttpClient, PolarisJsonTransformer polarisJsonTransformer, int defaultPageSize, int pageRequestParallelism) {
         this.polarisHttpClient = polarisHttpClient;
         this.polarisJsonTransformer = polarisJsonTransformer;
         this.defaultPageSize = defaultPageSize;
+        this.pageRequestParallelism = Math.max(1, pageRequestParallelism);
+    }
+
+    /**
+     * @return Identifies the Polaris server and access token this service makes its requests with.
+     */
+    public PolarisAccessTokenCache.Key getAccessTokenCacheKey() {
+        return polarisHttpClient.getAccessTokenCacheKey();
     }
 
     public <R extends PolarisResponse> R get(Request request, Type returnType) throws IntegrationException {
@@ -67,37 +98,67 @@ public class PolarisService {
         return collectAllResources(apiUrl, attributeType, pageSize);
     }
 
+    /**
+     * Lazily walks every page of a paged resource. The first page is requested immediately; each later page is requested in the background once the consumer reaches the page before it.
+     * Failures on later pages surface as an UncheckedPolarisIntegrationException. Close the stream if it is abandoned before it is exhausted.
+     */
+    public <A extends PolarisAttributes> Stream<PolarisResource<A>> stream(HttpUrl apiUrl, Class<A> attributeType) throws IntegrationException {
+        return stream(apiUrl, attributeType, defaultPageSize);
+    }
+
+    public <A extends PolarisAttributes> Stream<PolarisResource<A>> stream(HttpUrl apiUrl, Class<A> attributeType, int pageSize) throws IntegrationException {
+        PolarisPagedResourceResponse<PolarisResource<A>> firstPage = executePagedRequest(apiUrl, attributeType, 0, pageSize);
+        PolarisResourceSpliterator<A> spliterator = new PolarisResourceSpliterator<>(offset -> executePagedRequest(apiUrl, attributeType, offset, pageSize), pageSize, firstPage, PAGE_REQUEST_EXECUTOR);
+        return StreamSupport.stream(spliterator, false)
+                   .onClose(spliterator::close);
+    }
+
     public <A extends PolarisAttributes> List<PolarisResource<A>> collectAllResources(HttpUrl apiUrl, Class<A> attributeType, int pageSize) throws IntegrationException {
         List<PolarisResource<A>> allResources = new ArrayList<>();
 
-        Integer totalExpected = null;
-        int offset = 0;
-        boolean totalExpectedHasNotBeenSet = true;
-        boolean thisPageHadData;
-        boolean isMoreData;
-        do {
-            PolarisPagedResourceResponse<PolarisResource<A>> pageOfResources = executePagedRequest(apiUrl, attributeType, offset, pageSize);
-            if (pageOfResources == null) {
-                break;
-            }
+        PolarisPagedResourceResponse<PolarisResource<A>> firstPage = executePagedRequest(apiUrl, attributeType, 0, pageSize);
+        if (firstPage == null) {
+            return allResources;
+        }
 
-            if (totalExpectedHasNotBeenSet) {
-                PolarisPaginationMeta meta = pageOfResources.getMeta();
-                totalExpected = Optional.ofNullable(meta)
+        // Pagination meta does not include a total if it only has one page of results to give. -- rotte SEP 2020
+        Integer totalExpected = Optional.ofNullable(firstPage.getMeta())
                                     .map(PolarisPaginationMeta::getTotal)
                                     .map(BigDecimal::intValue)
                                     .orElse(null);
-                totalExpectedHasNotBeenSet = false;
+
+        boolean thisPageHadData = addPageResources(firstPage, allResources);
+        int offset = pageSize;
+
+        // Once the first page tells us how many results to expect, the remaining offsets are known up front and can be requested concurrently.
+        if (totalExpected != null && thisPageHadData && pageSize > 0) {
+            List<Integer> remainingOffsets = new ArrayList<>();
+            for (int remainingOffset = offset; remainingOffset < totalExpected; remainingOffset += pageSize) {
+                remainingOffsets.add(remainingOffset);
             }
 
-            List<PolarisResource<A>> pageResources = Optional.ofNullable(pageOfResources.getData()).orElse(Collections.emptyList());
-            allResources.addAll(pageResources);
+            for (PolarisPagedResourceResponse<PolarisResource<A>> pageOfResources : executePagedRequests(apiUrl, attributeType, remainingOffsets, pageSize)) {
+                offset += pageSize;
+                if (pageOfResources == null) {
+                    thisPageHadData = false;
+                    break;
+                }
+                thisPageHadData = addPageResources(pageOfResources, allResources);
+                if (!thisPageHadData || totalExpected <= allResources.size()) {
+                    break;
+                }
+            }
+        }
 
-            // Pagination meta does not include a total if it only has one page of results to give. -- rotte SEP 2020
-            isMoreData = totalExpected != null && totalExpected > allResources.size();
-            thisPageHadData = !pageResources.isEmpty();
+        // If the server returned short pages, fall back to requesting one page at a time until we have everything we were promised.
+        while (totalExpected != null && totalExpected > allResources.size() && thisPageHadData) {
+            PolarisPagedResourceResponse<PolarisResource<A>> pageOfResources = executePagedRequest(apiUrl, attributeType, offset, pageSize);
+            if (pageOfResources == null) {
+                break;
+            }
+            thisPageHadData = addPageResources(pageOfResources, allResources);
             offset += pageSize;
-        } while (isMoreData && thisPageHadData);
+        }
 
         return allResources;
     }
@@ -115,4 +176,62 @@ public class PolarisService {
         }
     }
 
+    private <A extends PolarisAttributes> List<PolarisPagedResourceResponse<PolarisResource<A>>> executePagedRequests(HttpUrl apiUrl, Class<A> attributeType, List<Integer> offsets, int limit) throws IntegrationException {
+        List<PolarisPagedResourceResponse<PolarisResource<A>>> pages = new ArrayList<>(Collections.nCopies(offsets.size(), null));
+        int parallelism = Math.min(pageRequestParallelism, offsets.size());
+        if (parallelism <= 1) {
+            for (int index = 0; index < offsets.size(); index++) {
+                pages.set(index, executePagedRequest(apiUrl, attributeType, offsets.get(index), limit));
+            }
+            return pages;
+        }
+
+        // Each lane requests every parallelism-th offset in turn, so one call never holds more than pageRequestParallelism of the shared threads.
+        List<Future<?>> lanes = new ArrayList<>(parallelism);
+        try {
+            for (int lane = 0; lane < parallelism; lane++) {
+                int firstIndex = lane;
+                lanes.add(PAGE_REQUEST_EXECUTOR.submit(() -> {
+                    for (int index = firstIndex; index < offsets.size(); index += parallelism) {
+                        pages.set(index, executePagedRequest(apiUrl, attributeType, offsets.get(index), limit));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> lane : lanes) {
+                lane.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IntegrationException("Interrupted while requesting pages from " + apiUrl, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IntegrationException) {
+                throw (IntegrationException) cause;
+            }
+            throw new IntegrationException("Problem handling request", cause);
+        } finally {
+            lanes.forEach(lane -> lane.cancel(true));
+        }
+
+        // Each lane writes only its own indices and every lane has been joined, so the pages are complete and in offset order.
+        return pages;
+    }
+
+    private static ExecutorService createPageRequestExecutor() {
+        BasicThreadFactory threadFactory = new BasicThreadFactory.Builder()
+                                               .namingPattern("polaris-page-request-%d")
+                                               .daemon(true)
+                                               .build();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(SHARED_PAGE_REQUEST_THREADS, SHARED_PAGE_REQUEST_THREADS, PAGE_REQUEST_THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), threadFactory);
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private <A extends PolarisAttributes> boolean addPageResources(PolarisPagedResourceResponse<PolarisResource<A>> pageOfResources, List<PolarisResource<A>> allResources) {
+        List<PolarisResource<A>> pageResources = Optional.ofNullable(pageOfResources.getData()).orElse(Collections.emptyList());
+        allResources.addAll(pageResources);
+        return !pageResources.isEmpty();
+    }
+
 }
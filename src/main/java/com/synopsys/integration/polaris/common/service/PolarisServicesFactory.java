@@ -7,8 +7,16 @@
  */
 package com.synopsys.integration.polaris.common.service;
 
+import java.lang.reflect.Type;
+import java.util.function.IntFunction;
+
 import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
 import com.synopsys.integration.log.IntLogger;
+import com.synopsys.integration.polaris.common.api.PolarisAttributes;
+import com.synopsys.integration.polaris.common.api.PolarisPagedResourceResponse;
+import com.synopsys.integration.polaris.common.api.PolarisResource;
+import com.synopsys.integration.polaris.common.api.PolarisSingleResourceResponse;
 import com.synopsys.integration.polaris.common.request.PolarisRequestFactory;
 import com.synopsys.integration.polaris.common.rest.AccessTokenPolarisHttpClient;
 
@@ -18,6 +26,8 @@ public class PolarisServicesFactory {
     private final Gson gson;
     private final PolarisJsonTransformer polarisJsonTransformer;
     private int defaultPageSize;
+    private int pageRequestParallelism;
+    private IntFunction<JobPollingStrategy> jobPollingStrategyFactory;
 
     public PolarisServicesFactory(IntLogger logger, AccessTokenPolarisHttpClient httpClient, Gson gson) {
         this.logger = logger;
@@ -25,14 +35,34 @@ public class PolarisServicesFactory {
         this.gson = gson;
         this.polarisJsonTransformer = new PolarisJsonTransformer(gson, logger);
         this.defaultPageSize = PolarisRequestFactory.DEFAULT_LIMIT;
+        this.pageRequestParallelism = PolarisService.DEFAULT_PAGE_REQUEST_PARALLELISM;
+        this.jobPollingStrategyFactory = AdaptiveJobPollingStrategy::new;
+    }
+
+    private PolarisServicesFactory(PolarisServicesFactory polarisServicesFactory, IntLogger logger) {
+        this.logger = logger;
+        this.httpClient = polarisServicesFactory.httpClient;
+        this.gson = polarisServicesFactory.gson;
+        this.polarisJsonTransformer = polarisServicesFactory.polarisJsonTransformer.withLogger(logger);
+        this.defaultPageSize = polarisServicesFactory.defaultPageSize;
+        this.pageRequestParallelism = polarisServicesFactory.pageRequestParallelism;
+        this.jobPollingStrategyFactory = polarisServicesFactory.jobPollingStrategyFactory;
+    }
+
+    /**
+     * A factory with the same settings whose services log to the given logger. The http client and the json machinery are shared with this factory rather than built again, so the http client keeps
+     * logging to the logger it was created with.
+     */
+    public PolarisServicesFactory withLogger(IntLogger logger) {
+        return new PolarisServicesFactory(this, logger);
     }
 
     public PolarisService createPolarisService() {
-        return new PolarisService(httpClient, polarisJsonTransformer, defaultPageSize);
+        return new PolarisService(httpClient, polarisJsonTransformer, defaultPageSize, pageRequestParallelism);
     }
 
     public JobService createJobService() {
-        return new JobService(logger, createPolarisService());
+        return new JobService(logger, createPolarisService(), JobStatusPoller.shared(), jobPollingStrategyFactory);
     }
 
     public CountService createCountService() {
@@ -43,6 +73,15 @@ public class PolarisServicesFactory {
         return new ContextsService(createPolarisService(), httpClient.getPolarisServerUrl());
     }
 
+    /**
+     * Stops populating getJson() on single and paged responses of the given attribute type.
+     */
+    public void disableRawJsonCapture(Class<? extends PolarisAttributes> attributeType) {
+        Type resourceType = TypeToken.getParameterized(PolarisResource.class, attributeType).getType();
+        polarisJsonTransformer.disableRawJsonCapture(TypeToken.getParameterized(PolarisSingleResourceResponse.class, resourceType).getType());
+        polarisJsonTransformer.disableRawJsonCapture(TypeToken.getParameterized(PolarisPagedResourceResponse.class, resourceType).getType());
+    }
+
     public IntLogger getLogger() {
         return logger;
     }
@@ -61,4 +100,22 @@ public class PolarisServicesFactory {
         }
     }
 
+    /**
+     * Caps how many pages of a paged request may be in flight at once after the first page has been retrieved. A value of 1 requests pages sequentially.
+     */
+    public void setPageRequestParallelism(int pageRequestParallelism) {
+        if (pageRequestParallelism > 0) {
+            this.pageRequestParallelism = pageRequestParallelism;
+        }
+    }
+
+    /**
+     * Replaces how the delay between job status polls is chosen. The factory is given the caller's wait interval in seconds; use FixedJobPollingStrategy::new to poll at exactly that interval.
+     */
+    public void setJobPollingStrategyFactory(IntFunction<JobPollingStrategy> jobPollingStrategyFactory) {
+        if (jobPollingStrategyFactory != null) {
+            this.jobPollingStrategyFactory = jobPollingStrategyFactory;
+        }
+    }
+
 }
@@ -0,0 +1,57 @@
+/*
+ * synopsys-polaris
+ *
+ * Copyright (c) 2024 Synopsys, Inc.
+ *
+ * Use subject to the terms and conditions of the Synopsys End User Software License and Maintenance Agreement. All rights reserved worldwide.
+ */
+package com.synopsys.integration.polaris.common.service;
+
+import java.io.IOException;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.synopsys.integration.polaris.common.api.PolarisResponse;
+
+/**
+ * Populates PolarisResponse.getJson() with the raw json of each object as it is deserialized. Each object is read once into a JsonElement, which becomes its raw json, and Gson's own adapter then builds the
+ * value from that tree, so every adapter Gson uses (maps included) reads from an ordinary JsonReader.
+ */
+public class RawJsonCaptureTypeAdapterFactory implements TypeAdapterFactory {
+    @Override
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        if (!PolarisResponse.class.isAssignableFrom(type.getRawType())) {
+            return null;
+        }
+
+        TypeAdapter<T> delegate = gson.getDelegateAdapter(this, type);
+        TypeAdapter<JsonElement> jsonElementAdapter = gson.getAdapter(JsonElement.class);
+        return new TypeAdapter<T>() {
+            @Override
+            public void write(JsonWriter out, T value) throws IOException {
+                delegate.write(out, value);
+            }
+
+            @Override
+            public T read(JsonReader in) throws IOException {
+                if (JsonToken.BEGIN_OBJECT != in.peek()) {
+                    return delegate.read(in);
+                }
+
+                JsonElement jsonElement = jsonElementAdapter.read(in);
+                T value = delegate.fromJsonTree(jsonElement);
+                if (value != null) {
+                    ((PolarisResponse) value).setJson(jsonElement.toString());
+                }
+                return value;
+            }
+        };
+    }
+
+}
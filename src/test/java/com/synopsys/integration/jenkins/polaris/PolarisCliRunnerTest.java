@@ -1,25 +1,31 @@
 package com.synopsys.integration.jenkins.polaris;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.fail;
 
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Optional;
 
 import org.apache.commons.lang3.StringUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 
 import com.synopsys.integration.jenkins.exception.JenkinsUserFriendlyException;
 import com.synopsys.integration.jenkins.extensions.JenkinsIntLogger;
 import com.synopsys.integration.jenkins.polaris.extensions.global.PolarisGlobalConfig;
 import com.synopsys.integration.jenkins.polaris.extensions.tools.PolarisCli;
-import com.synopsys.integration.jenkins.polaris.service.GetPathToPolarisCli;
 import com.synopsys.integration.jenkins.polaris.service.PolarisCliArgumentService;
 import com.synopsys.integration.jenkins.polaris.service.PolarisEnvironmentService;
 import com.synopsys.integration.jenkins.polaris.service.PolarisPhoneHomeService;
+import com.synopsys.integration.jenkins.polaris.service.PreparePolarisCliLaunch;
 import com.synopsys.integration.jenkins.service.JenkinsConfigService;
 import com.synopsys.integration.jenkins.service.JenkinsRemotingService;
 import com.synopsys.integration.jenkins.wrapper.JenkinsProxyHelper;
@@ -30,12 +36,11 @@ import com.synopsys.integration.polaris.common.configuration.PolarisServerConfig
 
 public class PolarisCliRunnerTest {
     public static final String SUCCESSFUL_CLI_NAME = "SuccessfulPolarisCLi";
-    public static final String SUCCESSFUL_CLI_HOME = "/path/to/polaris/cli/home/";
     public static final String NULL_HOME_CLI_NAME = "PolarisCLiWithNullHome";
     public static final String EMPTY_HOME_CLI_NAME = "PolarisCLiWithEmptyHome";
     public static final String NONEXISTANT_CLI_NAME = "NonexistantPolarisCli";
 
-    public static final String CHANGE_SET_FILE_PATH = "/path/to/changeSetFile.txt";
+    public static final List<String> CHANGED_FILES = Collections.singletonList("path/to/ChangedFile.java");
     public static final String POLARIS_ARGUMENTS = "analyze -w --incremental $CHANGE_SET_FILE_PATH";
 
     private IntLogger logger;
@@ -47,6 +52,7 @@ public class PolarisCliRunnerTest {
     private SynopsysCredentialsHelper synopsysCredentialsHelper;
     private JenkinsProxyHelper jenkinsProxyHelper;
     private JenkinsVersionHelper jenkinsVersionHelper;
+    private Path workspace;
 
     @BeforeEach
     public void setUpMocks() {
@@ -56,15 +62,21 @@ public class PolarisCliRunnerTest {
             polarisCliArgumentService = new PolarisCliArgumentService(logger);
             polarisPhoneHomeService = Mockito.mock(PolarisPhoneHomeService.class);
             jenkinsRemotingService = Mockito.mock(JenkinsRemotingService.class);
+            // The agent's side of the preparation runs in this JVM, against a workspace and CLI home on this machine
+            workspace = Files.createTempDirectory("workspace");
+            Path successfulCliHome = Files.createTempDirectory("polaris_cli");
+            Files.createDirectories(successfulCliHome.resolve("bin"));
+            Files.write(successfulCliHome.resolve("bin").resolve("polaris"), "polaris".getBytes(StandardCharsets.UTF_8));
+            Mockito.when(jenkinsRemotingService.getRemoteWorkspacePath()).thenReturn(workspace.toString());
+            Mockito.when(jenkinsRemotingService.call(Mockito.any(PreparePolarisCliLaunch.class))).thenAnswer(invocation -> invocation.<PreparePolarisCliLaunch>getArgument(0).call());
             Mockito.when(jenkinsRemotingService.tokenizeArgumentString(POLARIS_ARGUMENTS)).thenCallRealMethod();
             Mockito.when(jenkinsRemotingService.resolveEnvironmentVariables(Mockito.any(), Mockito.any())).thenCallRealMethod();
-            Mockito.when(jenkinsRemotingService.call(Mockito.any(GetPathToPolarisCli.class))).thenReturn("polaris");
             synopsysCredentialsHelper = Mockito.mock(SynopsysCredentialsHelper.class);
             jenkinsProxyHelper = Mockito.mock(JenkinsProxyHelper.class);
             jenkinsVersionHelper = Mockito.mock(JenkinsVersionHelper.class);
 
             jenkinsConfigService = Mockito.mock(JenkinsConfigService.class);
-            PolarisCli successfulPolarisCli = new PolarisCli(SUCCESSFUL_CLI_NAME, SUCCESSFUL_CLI_HOME, Collections.emptyList());
+            PolarisCli successfulPolarisCli = new PolarisCli(SUCCESSFUL_CLI_NAME, successfulCliHome.toString(), Collections.emptyList());
             PolarisCli nullHomePolarisCli = new PolarisCli(NULL_HOME_CLI_NAME, null, Collections.emptyList());
             PolarisCli emptyHomePolarisCli = new PolarisCli(EMPTY_HOME_CLI_NAME, StringUtils.EMPTY, Collections.emptyList());
             Mockito.when(jenkinsConfigService.getInstallationForNodeAndEnvironment(PolarisCli.DescriptorImpl.class, SUCCESSFUL_CLI_NAME)).thenReturn(Optional.of(successfulPolarisCli));
@@ -89,7 +101,16 @@ public class PolarisCliRunnerTest {
             jenkinsProxyHelper, jenkinsVersionHelper);
 
         try {
-            polarisCliRunner.runPolarisCli(SUCCESSFUL_CLI_NAME, CHANGE_SET_FILE_PATH, POLARIS_ARGUMENTS);
+            polarisCliRunner.runPolarisCli(SUCCESSFUL_CLI_NAME, CHANGED_FILES, POLARIS_ARGUMENTS);
+
+            Path changeSetFile = workspace.resolve(".synopsys").resolve("polaris").resolve("changeSetFiles.txt").toRealPath();
+            assertEquals(CHANGED_FILES, Files.readAllLines(changeSetFile));
+
+            // The whole preparation is one call to the agent, and the arguments refer to the changeset file it wrote
+            ArgumentCaptor<List<String>> polarisArguments = ArgumentCaptor.forClass(List.class);
+            Mockito.verify(jenkinsRemotingService, Mockito.times(1)).call(Mockito.any());
+            Mockito.verify(jenkinsRemotingService).launch(Mockito.any(), polarisArguments.capture());
+            assertEquals(changeSetFile.toString(), polarisArguments.getValue().get(polarisArguments.getValue().size() - 1));
         } catch (Exception e) {
             fail("Unexpected exception occurred in the test code.", e);
         }
@@ -100,7 +121,7 @@ public class PolarisCliRunnerTest {
         PolarisCliRunner polarisCliRunner = new PolarisCliRunner(logger, polarisCliArgumentService, polarisEnvironmentService, polarisPhoneHomeService, jenkinsRemotingService, jenkinsConfigService, synopsysCredentialsHelper,
             jenkinsProxyHelper, jenkinsVersionHelper);
 
-        assertThrows(JenkinsUserFriendlyException.class, () -> polarisCliRunner.runPolarisCli(EMPTY_HOME_CLI_NAME, CHANGE_SET_FILE_PATH, POLARIS_ARGUMENTS));
+        assertThrows(JenkinsUserFriendlyException.class, () -> polarisCliRunner.runPolarisCli(EMPTY_HOME_CLI_NAME, CHANGED_FILES, POLARIS_ARGUMENTS));
     }
 
     @Test
@@ -108,7 +129,7 @@ public class PolarisCliRunnerTest {
         PolarisCliRunner polarisCliRunner = new PolarisCliRunner(logger, polarisCliArgumentService, polarisEnvironmentService, polarisPhoneHomeService, jenkinsRemotingService, jenkinsConfigService, synopsysCredentialsHelper,
             jenkinsProxyHelper, jenkinsVersionHelper);
 
-        assertThrows(JenkinsUserFriendlyException.class, () -> polarisCliRunner.runPolarisCli(NULL_HOME_CLI_NAME, CHANGE_SET_FILE_PATH, POLARIS_ARGUMENTS));
+        assertThrows(JenkinsUserFriendlyException.class, () -> polarisCliRunner.runPolarisCli(NULL_HOME_CLI_NAME, CHANGED_FILES, POLARIS_ARGUMENTS));
     }
 
     @Test
@@ -116,7 +137,7 @@ public class PolarisCliRunnerTest {
         PolarisCliRunner polarisCliRunner = new PolarisCliRunner(logger, polarisCliArgumentService, polarisEnvironmentService, polarisPhoneHomeService, jenkinsRemotingService, jenkinsConfigService, synopsysCredentialsHelper,
             jenkinsProxyHelper, jenkinsVersionHelper);
 
-        assertThrows(JenkinsUserFriendlyException.class, () -> polarisCliRunner.runPolarisCli(NONEXISTANT_CLI_NAME, CHANGE_SET_FILE_PATH, POLARIS_ARGUMENTS));
+        assertThrows(JenkinsUserFriendlyException.class, () -> polarisCliRunner.runPolarisCli(NONEXISTANT_CLI_NAME, CHANGED_FILES, POLARIS_ARGUMENTS));
     }
 
 }
@@ -3,6 +3,8 @@ package com.synopsys.integration.jenkins.polaris;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -13,12 +15,13 @@ import com.synopsys.integration.jenkins.extensions.ChangeBuildStatusTo;
 import com.synopsys.integration.jenkins.extensions.JenkinsIntLogger;
 import com.synopsys.integration.jenkins.polaris.extensions.freestyle.FreestyleCreateChangeSetFile;
 import com.synopsys.integration.jenkins.polaris.extensions.freestyle.WaitForIssues;
+import com.synopsys.integration.jenkins.polaris.service.PendingIssueCount;
 import com.synopsys.integration.jenkins.service.JenkinsBuildService;
 
 public class PolarisFreestyleCommandsTest {
     private static final String POLARIS_CLI_NAME = "polarisCliName";
     private static final String POLARIS_ARGUMENTS = "polarisArguments";
-    private static final String CHANGE_SET_FILE_PATH = "path/to/changeSetFile.txt";
+    private static final ArrayList<String> CHANGED_FILES = new ArrayList<>(Collections.singletonList("path/to/ChangedFile.java"));
     private static final int STATUS_CODE_SUCCESS = 0;
     private static final int STATUS_CODE_FAILURE = 1;
     private static final int NO_ISSUES = 0;
@@ -30,6 +33,7 @@ public class PolarisFreestyleCommandsTest {
     private JenkinsIntLogger logger;
     private PolarisCliRunner mockedCliRunner;
     private PolarisIssueChecker mockedIssueChecker;
+    private DeferredIssueCheck mockedDeferredIssueCheck;
     private JenkinsBuildService mockedBuildService;
     private ChangeSetFileCreator mockedChangeSetFileCreator;
     private WaitForIssues waitForIssues;
@@ -40,6 +44,7 @@ public class PolarisFreestyleCommandsTest {
         logger = JenkinsIntLogger.logToStandardOut();
         mockedCliRunner = Mockito.mock(PolarisCliRunner.class);
         mockedIssueChecker = Mockito.mock(PolarisIssueChecker.class);
+        mockedDeferredIssueCheck = Mockito.mock(DeferredIssueCheck.class);
         mockedBuildService = Mockito.mock(JenkinsBuildService.class);
         mockedChangeSetFileCreator = Mockito.mock(ChangeSetFileCreator.class);
 
@@ -56,15 +61,15 @@ public class PolarisFreestyleCommandsTest {
     @Test
     public void testPreserveNullTimeout() throws Throwable {
         try {
-            Mockito.when(mockedCliRunner.runPolarisCli(POLARIS_CLI_NAME, CHANGE_SET_FILE_PATH, POLARIS_ARGUMENTS)).thenReturn(STATUS_CODE_SUCCESS);
-            Mockito.when(mockedChangeSetFileCreator.createChangeSetFile(EXCLUSION_PATTERNS, INCLUSION_PATTERNS)).thenReturn(CHANGE_SET_FILE_PATH);
+            Mockito.when(mockedCliRunner.runPolarisCli(POLARIS_CLI_NAME, CHANGED_FILES, POLARIS_ARGUMENTS)).thenReturn(STATUS_CODE_SUCCESS);
+            Mockito.when(mockedChangeSetFileCreator.getChangedFiles(EXCLUSION_PATTERNS, INCLUSION_PATTERNS)).thenReturn(CHANGED_FILES);
         } catch (Exception e) {
             fail("An unexpected exception occurred when preparing the test for setup. Please correct the test code.", e);
         }
 
         waitForIssues.setJobTimeoutInMinutes(null);
 
-        PolarisFreestyleCommands polarisFreestyleCommands = new PolarisFreestyleCommands(logger, mockedBuildService, mockedChangeSetFileCreator, mockedCliRunner, mockedIssueChecker);
+        PolarisFreestyleCommands polarisFreestyleCommands = new PolarisFreestyleCommands(logger, mockedBuildService, mockedChangeSetFileCreator, () -> mockedCliRunner, () -> mockedIssueChecker, mockedDeferredIssueCheck);
         polarisFreestyleCommands.runPolarisCliAndCheckForIssues(POLARIS_CLI_NAME, POLARIS_ARGUMENTS, createChangeSetFile, waitForIssues);
 
         Mockito.verify(mockedIssueChecker).getPolarisIssueCount(null);
@@ -73,14 +78,14 @@ public class PolarisFreestyleCommandsTest {
     @Test
     public void testRunPolarisCliAndCheckForIssuesSuccess() {
         try {
-            Mockito.when(mockedCliRunner.runPolarisCli(POLARIS_CLI_NAME, CHANGE_SET_FILE_PATH, POLARIS_ARGUMENTS)).thenReturn(STATUS_CODE_SUCCESS);
+            Mockito.when(mockedCliRunner.runPolarisCli(POLARIS_CLI_NAME, CHANGED_FILES, POLARIS_ARGUMENTS)).thenReturn(STATUS_CODE_SUCCESS);
             Mockito.when(mockedIssueChecker.getPolarisIssueCount(JOB_TIMEOUT_IN_MINUTES)).thenReturn(NO_ISSUES);
-            Mockito.when(mockedChangeSetFileCreator.createChangeSetFile(EXCLUSION_PATTERNS, INCLUSION_PATTERNS)).thenReturn(CHANGE_SET_FILE_PATH);
+            Mockito.when(mockedChangeSetFileCreator.getChangedFiles(EXCLUSION_PATTERNS, INCLUSION_PATTERNS)).thenReturn(CHANGED_FILES);
         } catch (Exception e) {
             fail("An unexpected exception occurred when preparing the test for setup. Please correct the test code.", e);
         }
 
-        PolarisFreestyleCommands polarisFreestyleCommands = new PolarisFreestyleCommands(logger, mockedBuildService, mockedChangeSetFileCreator, mockedCliRunner, mockedIssueChecker);
+        PolarisFreestyleCommands polarisFreestyleCommands = new PolarisFreestyleCommands(logger, mockedBuildService, mockedChangeSetFileCreator, () -> mockedCliRunner, () -> mockedIssueChecker, mockedDeferredIssueCheck);
         polarisFreestyleCommands.runPolarisCliAndCheckForIssues(POLARIS_CLI_NAME, POLARIS_ARGUMENTS, createChangeSetFile, waitForIssues);
 
         Mockito.verify(mockedBuildService, Mockito.never()).markBuildInterrupted();
@@ -93,14 +98,14 @@ public class PolarisFreestyleCommandsTest {
     @Test
     public void testRunPolarisCliAndCheckForIssuesCliFailure() {
         try {
-            Mockito.when(mockedCliRunner.runPolarisCli(POLARIS_CLI_NAME, CHANGE_SET_FILE_PATH, POLARIS_ARGUMENTS)).thenReturn(STATUS_CODE_FAILURE);
+            Mockito.when(mockedCliRunner.runPolarisCli(POLARIS_CLI_NAME, CHANGED_FILES, POLARIS_ARGUMENTS)).thenReturn(STATUS_CODE_FAILURE);
             Mockito.when(mockedIssueChecker.getPolarisIssueCount(JOB_TIMEOUT_IN_MINUTES)).thenReturn(NO_ISSUES);
-            Mockito.when(mockedChangeSetFileCreator.createChangeSetFile(EXCLUSION_PATTERNS, INCLUSION_PATTERNS)).thenReturn(CHANGE_SET_FILE_PATH);
+            Mockito.when(mockedChangeSetFileCreator.getChangedFiles(EXCLUSION_PATTERNS, INCLUSION_PATTERNS)).thenReturn(CHANGED_FILES);
         } catch (Exception e) {
             fail("An unexpected exception occurred when preparing the test for setup. Please correct the test code.", e);
         }
 
-        PolarisFreestyleCommands polarisFreestyleCommands = new PolarisFreestyleCommands(logger, mockedBuildService, mockedChangeSetFileCreator, mockedCliRunner, mockedIssueChecker);
+        PolarisFreestyleCommands polarisFreestyleCommands = new PolarisFreestyleCommands(logger, mockedBuildService, mockedChangeSetFileCreator, () -> mockedCliRunner, () -> mockedIssueChecker, mockedDeferredIssueCheck);
         polarisFreestyleCommands.runPolarisCliAndCheckForIssues(POLARIS_CLI_NAME, POLARIS_ARGUMENTS, createChangeSetFile, waitForIssues);
 
         Mockito.verify(mockedBuildService).markBuildFailed(Mockito.anyString());
@@ -114,14 +119,14 @@ public class PolarisFreestyleCommandsTest {
     @Test
     public void testRunPolarisCliAndCheckForIssuesCliFailureIssues() {
         try {
-            Mockito.when(mockedCliRunner.runPolarisCli(POLARIS_CLI_NAME, CHANGE_SET_FILE_PATH, POLARIS_ARGUMENTS)).thenReturn(STATUS_CODE_SUCCESS);
+            Mockito.when(mockedCliRunner.runPolarisCli(POLARIS_CLI_NAME, CHANGED_FILES, POLARIS_ARGUMENTS)).thenReturn(STATUS_CODE_SUCCESS);
             Mockito.when(mockedIssueChecker.getPolarisIssueCount(JOB_TIMEOUT_IN_MINUTES)).thenReturn(SOME_ISSUES);
-            Mockito.when(mockedChangeSetFileCreator.createChangeSetFile(EXCLUSION_PATTERNS, INCLUSION_PATTERNS)).thenReturn(CHANGE_SET_FILE_PATH);
+            Mockito.when(mockedChangeSetFileCreator.getChangedFiles(EXCLUSION_PATTERNS, INCLUSION_PATTERNS)).thenReturn(CHANGED_FILES);
         } catch (Exception e) {
             fail("An unexpected exception occurred when preparing the test for setup. Please correct the test code.", e);
         }
 
-        PolarisFreestyleCommands polarisFreestyleCommands = new PolarisFreestyleCommands(logger, mockedBuildService, mockedChangeSetFileCreator, mockedCliRunner, mockedIssueChecker);
+        PolarisFreestyleCommands polarisFreestyleCommands = new PolarisFreestyleCommands(logger, mockedBuildService, mockedChangeSetFileCreator, () -> mockedCliRunner, () -> mockedIssueChecker, mockedDeferredIssueCheck);
         polarisFreestyleCommands.runPolarisCliAndCheckForIssues(POLARIS_CLI_NAME, POLARIS_ARGUMENTS, createChangeSetFile, waitForIssues);
 
         Mockito.verify(mockedBuildService).markBuildAs(waitForIssues.getBuildStatusForIssues());
@@ -135,14 +140,14 @@ public class PolarisFreestyleCommandsTest {
     @Test
     public void testRunPolarisCliAndCheckForIssuesCliInterrupted() {
         try {
-            Mockito.when(mockedCliRunner.runPolarisCli(POLARIS_CLI_NAME, CHANGE_SET_FILE_PATH, POLARIS_ARGUMENTS)).thenThrow(new InterruptedException());
+            Mockito.when(mockedCliRunner.runPolarisCli(POLARIS_CLI_NAME, CHANGED_FILES, POLARIS_ARGUMENTS)).thenThrow(new InterruptedException());
             Mockito.when(mockedIssueChecker.getPolarisIssueCount(JOB_TIMEOUT_IN_MINUTES)).thenReturn(NO_ISSUES);
-            Mockito.when(mockedChangeSetFileCreator.createChangeSetFile(EXCLUSION_PATTERNS, INCLUSION_PATTERNS)).thenReturn(CHANGE_SET_FILE_PATH);
+            Mockito.when(mockedChangeSetFileCreator.getChangedFiles(EXCLUSION_PATTERNS, INCLUSION_PATTERNS)).thenReturn(CHANGED_FILES);
         } catch (Exception e) {
             fail("An unexpected exception occurred when preparing the test for setup. Please correct the test code.", e);
         }
 
-        PolarisFreestyleCommands polarisFreestyleCommands = new PolarisFreestyleCommands(logger, mockedBuildService, mockedChangeSetFileCreator, mockedCliRunner, mockedIssueChecker);
+        PolarisFreestyleCommands polarisFreestyleCommands = new PolarisFreestyleCommands(logger, mockedBuildService, mockedChangeSetFileCreator, () -> mockedCliRunner, () -> mockedIssueChecker, mockedDeferredIssueCheck);
         polarisFreestyleCommands.runPolarisCliAndCheckForIssues(POLARIS_CLI_NAME, POLARIS_ARGUMENTS, createChangeSetFile, waitForIssues);
 
         Mockito.verify(mockedBuildService).markBuildInterrupted();
@@ -156,14 +161,14 @@ public class PolarisFreestyleCommandsTest {
     @Test
     public void testRunPolarisCliAndCheckForIssuesCliUnexpectedException() {
         try {
-            Mockito.when(mockedCliRunner.runPolarisCli(POLARIS_CLI_NAME, CHANGE_SET_FILE_PATH, POLARIS_ARGUMENTS)).thenThrow(new IOException());
+            Mockito.when(mockedCliRunner.runPolarisCli(POLARIS_CLI_NAME, CHANGED_FILES, POLARIS_ARGUMENTS)).thenThrow(new IOException());
             Mockito.when(mockedIssueChecker.getPolarisIssueCount(JOB_TIMEOUT_IN_MINUTES)).thenReturn(NO_ISSUES);
-            Mockito.when(mockedChangeSetFileCreator.createChangeSetFile(EXCLUSION_PATTERNS, INCLUSION_PATTERNS)).thenReturn(CHANGE_SET_FILE_PATH);
+            Mockito.when(mockedChangeSetFileCreator.getChangedFiles(EXCLUSION_PATTERNS, INCLUSION_PATTERNS)).thenReturn(CHANGED_FILES);
         } catch (Exception e) {
             fail("An unexpected exception occurred when preparing the test for setup. Please correct the test code.", e);
         }
 
-        PolarisFreestyleCommands polarisFreestyleCommands = new PolarisFreestyleCommands(logger, mockedBuildService, mockedChangeSetFileCreator, mockedCliRunner, mockedIssueChecker);
+        PolarisFreestyleCommands polarisFreestyleCommands = new PolarisFreestyleCommands(logger, mockedBuildService, mockedChangeSetFileCreator, () -> mockedCliRunner, () -> mockedIssueChecker, mockedDeferredIssueCheck);
         polarisFreestyleCommands.runPolarisCliAndCheckForIssues(POLARIS_CLI_NAME, POLARIS_ARGUMENTS, createChangeSetFile, waitForIssues);
 
         Mockito.verify(mockedBuildService).markBuildUnstable(Mockito.any(IOException.class));
@@ -177,14 +182,14 @@ public class PolarisFreestyleCommandsTest {
     @Test
     public void testRunPolarisCliAndCheckForIssuesCliIntegrationException() {
         try {
-            Mockito.when(mockedCliRunner.runPolarisCli(POLARIS_CLI_NAME, CHANGE_SET_FILE_PATH, POLARIS_ARGUMENTS)).thenThrow(new IntegrationException());
+            Mockito.when(mockedCliRunner.runPolarisCli(POLARIS_CLI_NAME, CHANGED_FILES, POLARIS_ARGUMENTS)).thenThrow(new IntegrationException());
             Mockito.when(mockedIssueChecker.getPolarisIssueCount(JOB_TIMEOUT_IN_MINUTES)).thenReturn(NO_ISSUES);
-            Mockito.when(mockedChangeSetFileCreator.createChangeSetFile(EXCLUSION_PATTERNS, INCLUSION_PATTERNS)).thenReturn(CHANGE_SET_FILE_PATH);
+            Mockito.when(mockedChangeSetFileCreator.getChangedFiles(EXCLUSION_PATTERNS, INCLUSION_PATTERNS)).thenReturn(CHANGED_FILES);
         } catch (Exception e) {
             fail("An unexpected exception occurred when preparing the test for setup. Please correct the test code.", e);
         }
 
-        PolarisFreestyleCommands polarisFreestyleCommands = new PolarisFreestyleCommands(logger, mockedBuildService, mockedChangeSetFileCreator, mockedCliRunner, mockedIssueChecker);
+        PolarisFreestyleCommands polarisFreestyleCommands = new PolarisFreestyleCommands(logger, mockedBuildService, mockedChangeSetFileCreator, () -> mockedCliRunner, () -> mockedIssueChecker, mockedDeferredIssueCheck);
         polarisFreestyleCommands.runPolarisCliAndCheckForIssues(POLARIS_CLI_NAME, POLARIS_ARGUMENTS, createChangeSetFile, waitForIssues);
 
         Mockito.verify(mockedBuildService).markBuildFailed(Mockito.any(IntegrationException.class));
@@ -198,14 +203,14 @@ public class PolarisFreestyleCommandsTest {
     @Test
     public void testRunPolarisCliAndCheckForIssuesCliSkipForEmptyChangeSet() {
         try {
-            Mockito.when(mockedCliRunner.runPolarisCli(POLARIS_CLI_NAME, CHANGE_SET_FILE_PATH, POLARIS_ARGUMENTS)).thenThrow(new IntegrationException());
+            Mockito.when(mockedCliRunner.runPolarisCli(POLARIS_CLI_NAME, CHANGED_FILES, POLARIS_ARGUMENTS)).thenThrow(new IntegrationException());
             Mockito.when(mockedIssueChecker.getPolarisIssueCount(JOB_TIMEOUT_IN_MINUTES)).thenReturn(NO_ISSUES);
-            Mockito.when(mockedChangeSetFileCreator.createChangeSetFile(EXCLUSION_PATTERNS, INCLUSION_PATTERNS)).thenReturn(null);
+            Mockito.when(mockedChangeSetFileCreator.getChangedFiles(EXCLUSION_PATTERNS, INCLUSION_PATTERNS)).thenReturn(new ArrayList<>());
         } catch (Exception e) {
             fail("An unexpected exception occurred when preparing the test for setup. Please correct the test code.", e);
         }
 
-        PolarisFreestyleCommands polarisFreestyleCommands = new PolarisFreestyleCommands(logger, mockedBuildService, mockedChangeSetFileCreator, mockedCliRunner, mockedIssueChecker);
+        PolarisFreestyleCommands polarisFreestyleCommands = new PolarisFreestyleCommands(logger, mockedBuildService, mockedChangeSetFileCreator, () -> mockedCliRunner, () -> mockedIssueChecker, mockedDeferredIssueCheck);
         polarisFreestyleCommands.runPolarisCliAndCheckForIssues(POLARIS_CLI_NAME, POLARIS_ARGUMENTS, createChangeSetFile, waitForIssues);
 
         Mockito.verify(mockedBuildService).markBuildAs(Mockito.any(ChangeBuildStatusTo.class));
@@ -222,4 +227,34 @@ public class PolarisFreestyleCommandsTest {
         Mockito.verify(mockedBuildService, Mockito.never()).markBuildFailed(Mockito.any(IntegrationException.class));
     }
 
+    @Test
+    public void testCheckIssuesAfterBuildReleasesTheBuild() throws Throwable {
+        PendingIssueCount pendingIssueCount = PendingIssueCount.waitingForJobs("https://www.example.com/api/issues/", Collections.singletonList("https://www.example.com/api/jobs/job/"), 0L);
+        Mockito.when(mockedCliRunner.runPolarisCli(POLARIS_CLI_NAME, CHANGED_FILES, POLARIS_ARGUMENTS)).thenReturn(STATUS_CODE_SUCCESS);
+        Mockito.when(mockedChangeSetFileCreator.getChangedFiles(EXCLUSION_PATTERNS, INCLUSION_PATTERNS)).thenReturn(CHANGED_FILES);
+        Mockito.when(mockedIssueChecker.preparePolarisIssueCount(JOB_TIMEOUT_IN_MINUTES)).thenReturn(pendingIssueCount);
+        waitForIssues.setCheckIssuesAfterBuild(true);
+
+        PolarisFreestyleCommands polarisFreestyleCommands = new PolarisFreestyleCommands(logger, mockedBuildService, mockedChangeSetFileCreator, () -> mockedCliRunner, () -> mockedIssueChecker, mockedDeferredIssueCheck);
+        polarisFreestyleCommands.runPolarisCliAndCheckForIssues(POLARIS_CLI_NAME, POLARIS_ARGUMENTS, createChangeSetFile, waitForIssues);
+
+        Mockito.verify(mockedDeferredIssueCheck).checkAfterBuild(mockedIssueChecker, pendingIssueCount, ChangeBuildStatusTo.FAILURE);
+        Mockito.verify(mockedIssueChecker, Mockito.never()).getPolarisIssueCount(Mockito.any());
+        Mockito.verify(mockedBuildService, Mockito.never()).markBuildAs(Mockito.any(ChangeBuildStatusTo.class));
+    }
+
+    @Test
+    public void testCheckIssuesAfterBuildWithNothingToWaitFor() throws Throwable {
+        Mockito.when(mockedCliRunner.runPolarisCli(POLARIS_CLI_NAME, CHANGED_FILES, POLARIS_ARGUMENTS)).thenReturn(STATUS_CODE_SUCCESS);
+        Mockito.when(mockedChangeSetFileCreator.getChangedFiles(EXCLUSION_PATTERNS, INCLUSION_PATTERNS)).thenReturn(CHANGED_FILES);
+        Mockito.when(mockedIssueChecker.preparePolarisIssueCount(JOB_TIMEOUT_IN_MINUTES)).thenReturn(PendingIssueCount.counted(SOME_ISSUES));
+        waitForIssues.setCheckIssuesAfterBuild(true);
+
+        PolarisFreestyleCommands polarisFreestyleCommands = new PolarisFreestyleCommands(logger, mockedBuildService, mockedChangeSetFileCreator, () -> mockedCliRunner, () -> mockedIssueChecker, mockedDeferredIssueCheck);
+        polarisFreestyleCommands.runPolarisCliAndCheckForIssues(POLARIS_CLI_NAME, POLARIS_ARGUMENTS, createChangeSetFile, waitForIssues);
+
+        Mockito.verify(mockedDeferredIssueCheck, Mockito.never()).checkAfterBuild(Mockito.any(), Mockito.any(), Mockito.any());
+        Mockito.verify(mockedBuildService).markBuildAs(ChangeBuildStatusTo.FAILURE);
+    }
+
 }
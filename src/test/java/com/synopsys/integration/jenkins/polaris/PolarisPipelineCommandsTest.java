@@ -2,9 +2,15 @@ package com.synopsys.integration.jenkins.polaris;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -13,12 +19,13 @@ import org.mockito.Mockito;
 import com.synopsys.integration.jenkins.exception.JenkinsUserFriendlyException;
 import com.synopsys.integration.jenkins.extensions.JenkinsIntLogger;
 import com.synopsys.integration.jenkins.polaris.extensions.pipeline.PipelineCreateChangeSetFile;
+import com.synopsys.integration.jenkins.polaris.service.PendingIssueCount;
 import com.synopsys.integration.polaris.common.exception.PolarisIntegrationException;
 
 public class PolarisPipelineCommandsTest {
     private static final String POLARIS_CLI_NAME = "polarisCliName";
     private static final String POLARIS_ARGUMENTS = "polarisArguments";
-    private static final String CHANGE_SET_FILE_PATH = "path/to/changeSetFile.txt";
+    private static final ArrayList<String> CHANGED_FILES = new ArrayList<>(Collections.singletonList("path/to/ChangedFile.java"));
     private static final int STATUS_CODE_SKIP = -1;
     private static final int STATUS_CODE_SUCCESS = 0;
     private static final int STATUS_CODE_FAILURE = 1;
@@ -49,14 +56,14 @@ public class PolarisPipelineCommandsTest {
     @Test
     public void testExecutePolarisCliPipelineSuccess() {
         try {
-            Mockito.when(mockedCliRunner.runPolarisCli(POLARIS_CLI_NAME, CHANGE_SET_FILE_PATH, POLARIS_ARGUMENTS)).thenReturn(STATUS_CODE_SUCCESS);
-            Mockito.when(mockedChangeSetFileCreator.createChangeSetFile(EXCLUSION_PATTERNS, INCLUSION_PATTERNS)).thenReturn(CHANGE_SET_FILE_PATH);
+            Mockito.when(mockedCliRunner.runPolarisCli(POLARIS_CLI_NAME, CHANGED_FILES, POLARIS_ARGUMENTS)).thenReturn(STATUS_CODE_SUCCESS);
+            Mockito.when(mockedChangeSetFileCreator.getChangedFiles(EXCLUSION_PATTERNS, INCLUSION_PATTERNS)).thenReturn(CHANGED_FILES);
         } catch (Exception e) {
             fail("An unexpected exception occurred when preparing the test for setup. Please correct the test code.", e);
         }
 
         try {
-            PolarisPipelineCommands polarisPipelineCommands = new PolarisPipelineCommands(logger, mockedChangeSetFileCreator, mockedCliRunner, mockedIssueChecker);
+            PolarisPipelineCommands polarisPipelineCommands = new PolarisPipelineCommands(logger, mockedChangeSetFileCreator, () -> mockedCliRunner, () -> mockedIssueChecker);
             int actualExitCode = polarisPipelineCommands.runPolarisCli(POLARIS_CLI_NAME, POLARIS_ARGUMENTS, true, createChangeSetFile);
 
             assertEquals(STATUS_CODE_SUCCESS, actualExitCode);
@@ -68,27 +75,27 @@ public class PolarisPipelineCommandsTest {
     @Test
     public void testExecutePolarisCliPipelineException() {
         try {
-            Mockito.when(mockedCliRunner.runPolarisCli(POLARIS_CLI_NAME, CHANGE_SET_FILE_PATH, POLARIS_ARGUMENTS)).thenThrow(new IOException());
-            Mockito.when(mockedChangeSetFileCreator.createChangeSetFile(EXCLUSION_PATTERNS, INCLUSION_PATTERNS)).thenReturn(CHANGE_SET_FILE_PATH);
+            Mockito.when(mockedCliRunner.runPolarisCli(POLARIS_CLI_NAME, CHANGED_FILES, POLARIS_ARGUMENTS)).thenThrow(new IOException());
+            Mockito.when(mockedChangeSetFileCreator.getChangedFiles(EXCLUSION_PATTERNS, INCLUSION_PATTERNS)).thenReturn(CHANGED_FILES);
         } catch (Exception e) {
             fail("An unexpected exception occurred when preparing the test for setup. Please correct the test code.", e);
         }
 
-        PolarisPipelineCommands polarisPipelineCommands = new PolarisPipelineCommands(logger, mockedChangeSetFileCreator, mockedCliRunner, mockedIssueChecker);
+        PolarisPipelineCommands polarisPipelineCommands = new PolarisPipelineCommands(logger, mockedChangeSetFileCreator, () -> mockedCliRunner, () -> mockedIssueChecker);
         assertThrows(IOException.class, () -> polarisPipelineCommands.runPolarisCli(POLARIS_CLI_NAME, POLARIS_ARGUMENTS, true, createChangeSetFile));
     }
 
     @Test
     public void testExecutePolarisCliPipelineFailureReturnStatus() {
         try {
-            Mockito.when(mockedCliRunner.runPolarisCli(POLARIS_CLI_NAME, CHANGE_SET_FILE_PATH, POLARIS_ARGUMENTS)).thenReturn(STATUS_CODE_FAILURE);
-            Mockito.when(mockedChangeSetFileCreator.createChangeSetFile(EXCLUSION_PATTERNS, INCLUSION_PATTERNS)).thenReturn(CHANGE_SET_FILE_PATH);
+            Mockito.when(mockedCliRunner.runPolarisCli(POLARIS_CLI_NAME, CHANGED_FILES, POLARIS_ARGUMENTS)).thenReturn(STATUS_CODE_FAILURE);
+            Mockito.when(mockedChangeSetFileCreator.getChangedFiles(EXCLUSION_PATTERNS, INCLUSION_PATTERNS)).thenReturn(CHANGED_FILES);
         } catch (Exception e) {
             fail("An unexpected exception occurred when preparing the test for setup. Please correct the test code.", e);
         }
 
         try {
-            PolarisPipelineCommands polarisPipelineCommands = new PolarisPipelineCommands(logger, mockedChangeSetFileCreator, mockedCliRunner, mockedIssueChecker);
+            PolarisPipelineCommands polarisPipelineCommands = new PolarisPipelineCommands(logger, mockedChangeSetFileCreator, () -> mockedCliRunner, () -> mockedIssueChecker);
             int actualExitCode = polarisPipelineCommands.runPolarisCli(POLARIS_CLI_NAME, POLARIS_ARGUMENTS, true, createChangeSetFile);
 
             assertEquals(STATUS_CODE_FAILURE, actualExitCode);
@@ -100,36 +107,36 @@ public class PolarisPipelineCommandsTest {
     @Test
     public void testExecutePolarisCliPipelineFailureDoNotReturnStatus() {
         try {
-            Mockito.when(mockedCliRunner.runPolarisCli(POLARIS_CLI_NAME, CHANGE_SET_FILE_PATH, POLARIS_ARGUMENTS)).thenReturn(STATUS_CODE_FAILURE);
-            Mockito.when(mockedChangeSetFileCreator.createChangeSetFile(EXCLUSION_PATTERNS, INCLUSION_PATTERNS)).thenReturn(CHANGE_SET_FILE_PATH);
+            Mockito.when(mockedCliRunner.runPolarisCli(POLARIS_CLI_NAME, CHANGED_FILES, POLARIS_ARGUMENTS)).thenReturn(STATUS_CODE_FAILURE);
+            Mockito.when(mockedChangeSetFileCreator.getChangedFiles(EXCLUSION_PATTERNS, INCLUSION_PATTERNS)).thenReturn(CHANGED_FILES);
         } catch (Exception e) {
             fail("An unexpected exception occurred when preparing the test for setup. Please correct the test code.", e);
         }
 
-        PolarisPipelineCommands polarisPipelineCommands = new PolarisPipelineCommands(logger, mockedChangeSetFileCreator, mockedCliRunner, mockedIssueChecker);
+        PolarisPipelineCommands polarisPipelineCommands = new PolarisPipelineCommands(logger, mockedChangeSetFileCreator, () -> mockedCliRunner, () -> mockedIssueChecker);
         assertThrows(JenkinsUserFriendlyException.class, () -> polarisPipelineCommands.runPolarisCli(POLARIS_CLI_NAME, POLARIS_ARGUMENTS, false, createChangeSetFile));
     }
 
     @Test
     public void testExecutePolarisCliPipelineSkipDoNotReturnCode() {
         try {
-            Mockito.when(mockedCliRunner.runPolarisCli(POLARIS_CLI_NAME, CHANGE_SET_FILE_PATH, POLARIS_ARGUMENTS)).thenReturn(STATUS_CODE_FAILURE);
-            Mockito.when(mockedChangeSetFileCreator.createChangeSetFile(EXCLUSION_PATTERNS, INCLUSION_PATTERNS)).thenReturn(null);
+            Mockito.when(mockedCliRunner.runPolarisCli(POLARIS_CLI_NAME, CHANGED_FILES, POLARIS_ARGUMENTS)).thenReturn(STATUS_CODE_FAILURE);
+            Mockito.when(mockedChangeSetFileCreator.getChangedFiles(EXCLUSION_PATTERNS, INCLUSION_PATTERNS)).thenReturn(new ArrayList<>());
         } catch (Exception e) {
             fail("An unexpected exception occurred when preparing the test for setup. Please correct the test code.", e);
         }
 
         createChangeSetFile.setReturnSkipCode(Boolean.FALSE);
 
-        PolarisPipelineCommands polarisPipelineCommands = new PolarisPipelineCommands(logger, mockedChangeSetFileCreator, mockedCliRunner, mockedIssueChecker);
+        PolarisPipelineCommands polarisPipelineCommands = new PolarisPipelineCommands(logger, mockedChangeSetFileCreator, () -> mockedCliRunner, () -> mockedIssueChecker);
         assertThrows(JenkinsUserFriendlyException.class, () -> polarisPipelineCommands.runPolarisCli(POLARIS_CLI_NAME, POLARIS_ARGUMENTS, false, createChangeSetFile));
     }
 
     @Test
     public void testExecutePolarisCliPipelineSkipReturnCode() {
         try {
-            Mockito.when(mockedCliRunner.runPolarisCli(POLARIS_CLI_NAME, CHANGE_SET_FILE_PATH, POLARIS_ARGUMENTS)).thenReturn(STATUS_CODE_FAILURE);
-            Mockito.when(mockedChangeSetFileCreator.createChangeSetFile(EXCLUSION_PATTERNS, INCLUSION_PATTERNS)).thenReturn(null);
+            Mockito.when(mockedCliRunner.runPolarisCli(POLARIS_CLI_NAME, CHANGED_FILES, POLARIS_ARGUMENTS)).thenReturn(STATUS_CODE_FAILURE);
+            Mockito.when(mockedChangeSetFileCreator.getChangedFiles(EXCLUSION_PATTERNS, INCLUSION_PATTERNS)).thenReturn(new ArrayList<>());
         } catch (Exception e) {
             fail("An unexpected exception occurred when preparing the test for setup. Please correct the test code.", e);
         }
@@ -137,7 +144,7 @@ public class PolarisPipelineCommandsTest {
         createChangeSetFile.setReturnSkipCode(Boolean.TRUE);
 
         try {
-            PolarisPipelineCommands polarisPipelineCommands = new PolarisPipelineCommands(logger, mockedChangeSetFileCreator, mockedCliRunner, mockedIssueChecker);
+            PolarisPipelineCommands polarisPipelineCommands = new PolarisPipelineCommands(logger, mockedChangeSetFileCreator, () -> mockedCliRunner, () -> mockedIssueChecker);
             int actualExitCode = polarisPipelineCommands.runPolarisCli(POLARIS_CLI_NAME, POLARIS_ARGUMENTS, false, createChangeSetFile);
 
             assertEquals(STATUS_CODE_SKIP, actualExitCode);
@@ -149,14 +156,14 @@ public class PolarisPipelineCommandsTest {
     @Test
     public void testExecutePolarisCliPipelineSkipDefaultBehavior() {
         try {
-            Mockito.when(mockedCliRunner.runPolarisCli(POLARIS_CLI_NAME, CHANGE_SET_FILE_PATH, POLARIS_ARGUMENTS)).thenReturn(STATUS_CODE_FAILURE);
-            Mockito.when(mockedChangeSetFileCreator.createChangeSetFile(EXCLUSION_PATTERNS, INCLUSION_PATTERNS)).thenReturn(null);
+            Mockito.when(mockedCliRunner.runPolarisCli(POLARIS_CLI_NAME, CHANGED_FILES, POLARIS_ARGUMENTS)).thenReturn(STATUS_CODE_FAILURE);
+            Mockito.when(mockedChangeSetFileCreator.getChangedFiles(EXCLUSION_PATTERNS, INCLUSION_PATTERNS)).thenReturn(new ArrayList<>());
         } catch (Exception e) {
             fail("An unexpected exception occurred when preparing the test for setup. Please correct the test code.", e);
         }
 
         try {
-            PolarisPipelineCommands polarisPipelineCommands = new PolarisPipelineCommands(logger, mockedChangeSetFileCreator, mockedCliRunner, mockedIssueChecker);
+            PolarisPipelineCommands polarisPipelineCommands = new PolarisPipelineCommands(logger, mockedChangeSetFileCreator, () -> mockedCliRunner, () -> mockedIssueChecker);
             int actualExitCode = polarisPipelineCommands.runPolarisCli(POLARIS_CLI_NAME, POLARIS_ARGUMENTS, false, createChangeSetFile);
 
             assertEquals(STATUS_CODE_SKIP, actualExitCode);
@@ -174,7 +181,7 @@ public class PolarisPipelineCommandsTest {
         }
 
         try {
-            PolarisPipelineCommands polarisPipelineCommands = new PolarisPipelineCommands(logger, mockedChangeSetFileCreator, mockedCliRunner, mockedIssueChecker);
+            PolarisPipelineCommands polarisPipelineCommands = new PolarisPipelineCommands(logger, mockedChangeSetFileCreator, () -> mockedCliRunner, () -> mockedIssueChecker);
             int actualIssueCount = polarisPipelineCommands.checkForIssues(JOB_TIMEOUT_IN_MINUTES, true);
 
             assertEquals(NO_ISSUES, actualIssueCount);
@@ -192,7 +199,7 @@ public class PolarisPipelineCommandsTest {
         }
 
         try {
-            PolarisPipelineCommands polarisPipelineCommands = new PolarisPipelineCommands(logger, mockedChangeSetFileCreator, mockedCliRunner, mockedIssueChecker);
+            PolarisPipelineCommands polarisPipelineCommands = new PolarisPipelineCommands(logger, mockedChangeSetFileCreator, () -> mockedCliRunner, () -> mockedIssueChecker);
             int actualIssueCount = polarisPipelineCommands.checkForIssues(JOB_TIMEOUT_IN_MINUTES, true);
 
             assertEquals(SOME_ISSUES, actualIssueCount);
@@ -209,8 +216,43 @@ public class PolarisPipelineCommandsTest {
             fail("An unexpected exception occurred when preparing the test for setup. Please correct the test code.", e);
         }
 
-        PolarisPipelineCommands polarisPipelineCommands = new PolarisPipelineCommands(logger, mockedChangeSetFileCreator, mockedCliRunner, mockedIssueChecker);
+        PolarisPipelineCommands polarisPipelineCommands = new PolarisPipelineCommands(logger, mockedChangeSetFileCreator, () -> mockedCliRunner, () -> mockedIssueChecker);
         assertThrows(PolarisIntegrationException.class, () -> polarisPipelineCommands.checkForIssues(JOB_TIMEOUT_IN_MINUTES, false));
     }
 
+    @Test
+    public void testCheckForPolarisIssuesAsyncReturnIssues() throws Exception {
+        PendingIssueCount pendingIssueCount = PendingIssueCount.waitingForJobs("https://www.example.com/api/issues/", Collections.singletonList("https://www.example.com/api/jobs/job/"), 0L);
+        Mockito.when(mockedIssueChecker.waitForPolarisIssueCount(Mockito.eq(pendingIssueCount), Mockito.any())).thenReturn(CompletableFuture.completedFuture(SOME_ISSUES));
+
+        PolarisPipelineCommands polarisPipelineCommands = new PolarisPipelineCommands(logger, mockedChangeSetFileCreator, () -> mockedCliRunner, () -> mockedIssueChecker);
+        int actualIssueCount = polarisPipelineCommands.checkForIssuesAsync(pendingIssueCount, true, Runnable::run).get(5, TimeUnit.SECONDS);
+
+        assertEquals(SOME_ISSUES, actualIssueCount);
+    }
+
+    @Test
+    public void testCheckForPolarisIssuesAsyncDoNotReturnIssues() {
+        PendingIssueCount pendingIssueCount = PendingIssueCount.waitingForJobs("https://www.example.com/api/issues/", Collections.singletonList("https://www.example.com/api/jobs/job/"), 0L);
+        Mockito.when(mockedIssueChecker.waitForPolarisIssueCount(Mockito.eq(pendingIssueCount), Mockito.any())).thenReturn(CompletableFuture.completedFuture(SOME_ISSUES));
+
+        PolarisPipelineCommands polarisPipelineCommands = new PolarisPipelineCommands(logger, mockedChangeSetFileCreator, () -> mockedCliRunner, () -> mockedIssueChecker);
+        CompletableFuture<Integer> issueCount = polarisPipelineCommands.checkForIssuesAsync(pendingIssueCount, false, Runnable::run);
+
+        ExecutionException executionException = assertThrows(ExecutionException.class, () -> issueCount.get(5, TimeUnit.SECONDS));
+        assertTrue(executionException.getCause() instanceof PolarisIntegrationException);
+    }
+
+    @Test
+    public void testServicesAreOnlyCreatedWhenUsed() throws Exception {
+        Mockito.when(mockedCliRunner.runPolarisCli(POLARIS_CLI_NAME, null, POLARIS_ARGUMENTS)).thenReturn(STATUS_CODE_SUCCESS);
+        Mockito.when(mockedIssueChecker.getPolarisIssueCount(JOB_TIMEOUT_IN_MINUTES)).thenReturn(NO_ISSUES);
+
+        PolarisPipelineCommands runCliCommands = new PolarisPipelineCommands(logger, mockedChangeSetFileCreator, () -> mockedCliRunner, () -> fail("The issue checker should not be created to run the CLI"));
+        assertEquals(STATUS_CODE_SUCCESS, runCliCommands.runPolarisCli(POLARIS_CLI_NAME, POLARIS_ARGUMENTS, false, null));
+
+        PolarisPipelineCommands checkForIssuesCommands = new PolarisPipelineCommands(logger, mockedChangeSetFileCreator, () -> fail("The CLI runner should not be created to check for issues"), () -> mockedIssueChecker);
+        assertEquals(NO_ISSUES, checkForIssuesCommands.checkForIssues(JOB_TIMEOUT_IN_MINUTES, false));
+    }
+
 }
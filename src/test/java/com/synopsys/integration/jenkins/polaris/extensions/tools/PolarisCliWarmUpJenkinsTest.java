@@ -0,0 +1,141 @@
+package com.synopsys.integration.jenkins.polaris.extensions.tools;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+
+import hudson.FilePath;
+import hudson.model.TaskListener;
+import hudson.slaves.DumbSlave;
+import hudson.tools.InstallSourceProperty;
+import hudson.util.StreamTaskListener;
+
+public class PolarisCliWarmUpJenkinsTest {
+    private static final String POLARIS_CLI_NAME = "polaris";
+
+    @Rule
+    public JenkinsRule jenkinsRule = new JenkinsRule();
+
+    @Test
+    public void testWarmUpRunsWhenAgentComesOnline() throws Exception {
+        PolarisCliInstaller polarisCliInstaller = new PolarisCliInstaller(null);
+        polarisCliInstaller.setWarmUpOnConnect(true);
+        configurePolarisCli(polarisCliInstaller);
+
+        DumbSlave agent = jenkinsRule.createOnlineSlave();
+
+        // There is no Polaris server to install from, so the warm-up fails, but it must have run and reported why
+        PolarisCliWarmUp.WarmUpStatus warmUpStatus = waitForWarmUp(agent);
+        assertEquals(PolarisCliWarmUp.WarmUpState.FAILED, warmUpStatus.getState());
+        assertTrue(warmUpStatus.getDetails().length() > 0);
+
+        PolarisCliWarmUpAction warmUpAction = agent.toComputer().getAction(PolarisCliWarmUpAction.class);
+        assertNotNull(warmUpAction);
+        assertNotNull(warmUpAction.getIconFileName());
+    }
+
+    @Test
+    public void testBuildJoinsInstallationInProgressOnAgent() throws Exception {
+        PolarisCli polarisCli = configurePolarisCli(new PolarisCliInstaller(null));
+        DumbSlave agent = jenkinsRule.createOnlineSlave();
+        TaskListener listener = StreamTaskListener.fromStdout();
+
+        FilePath home = agent.getRootPath().child("polaris_cli-1.0");
+        AtomicInteger installations = new AtomicInteger();
+        CountDownLatch installing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            Future<FilePath> warmUp = executorService.submit(() -> PolarisCliWarmUp.installOrJoin(polarisCli, agent, listener, () -> {
+                installations.incrementAndGet();
+                installing.countDown();
+                release.await(10, TimeUnit.SECONDS);
+                return home;
+            }));
+            assertTrue(installing.await(10, TimeUnit.SECONDS));
+
+            Future<FilePath> build = executorService.submit(() -> PolarisCliWarmUp.installOrJoin(polarisCli, agent, listener, () -> {
+                installations.incrementAndGet();
+                return agent.getRootPath().child("another");
+            }));
+            // The build has had time to find the warm-up in progress before it is allowed to finish
+            Thread.sleep(200);
+            release.countDown();
+
+            assertSame(home, warmUp.get(10, TimeUnit.SECONDS));
+            assertSame(home, build.get(10, TimeUnit.SECONDS));
+            assertEquals(1, installations.get());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testBuildInstallsAgainWhenJoinedInstallationFails() throws Exception {
+        PolarisCli polarisCli = configurePolarisCli(new PolarisCliInstaller(null));
+        DumbSlave agent = jenkinsRule.createOnlineSlave();
+        TaskListener listener = StreamTaskListener.fromStdout();
+
+        FilePath home = agent.getRootPath().child("polaris_cli-1.0");
+        CountDownLatch installing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            Future<FilePath> warmUp = executorService.submit(() -> PolarisCliWarmUp.installOrJoin(polarisCli, agent, listener, () -> {
+                installing.countDown();
+                release.await(10, TimeUnit.SECONDS);
+                throw new IOException("download failed");
+            }));
+            assertTrue(installing.await(10, TimeUnit.SECONDS));
+
+            Future<FilePath> build = executorService.submit(() -> PolarisCliWarmUp.installOrJoin(polarisCli, agent, listener, () -> home));
+            Thread.sleep(200);
+            release.countDown();
+
+            assertSame(home, build.get(10, TimeUnit.SECONDS));
+            assertTrue(warmUp.isDone());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    private PolarisCli configurePolarisCli(PolarisCliInstaller polarisCliInstaller) throws IOException {
+        InstallSourceProperty installSourceProperty = new InstallSourceProperty(Collections.singletonList(polarisCliInstaller));
+        PolarisCli polarisCli = new PolarisCli(POLARIS_CLI_NAME, "", Collections.singletonList(installSourceProperty));
+        jenkinsRule.jenkins.getDescriptorByType(PolarisCli.DescriptorImpl.class).setInstallations(polarisCli);
+        return polarisCli;
+    }
+
+    private PolarisCliWarmUp.WarmUpStatus waitForWarmUp(DumbSlave agent) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(30);
+        while (System.currentTimeMillis() < deadline) {
+            List<PolarisCliWarmUp.WarmUpStatus> statuses = PolarisCliWarmUp.getStatuses(agent.toComputer());
+            if (!statuses.isEmpty()) {
+                PolarisCliWarmUp.WarmUpStatus warmUpStatus = statuses.get(0);
+                if (warmUpStatus.getState() == PolarisCliWarmUp.WarmUpState.INSTALLED || warmUpStatus.getState() == PolarisCliWarmUp.WarmUpState.FAILED) {
+                    return warmUpStatus;
+                }
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("The Polaris CLI warm-up did not finish on " + agent.getNodeName());
+    }
+
+}
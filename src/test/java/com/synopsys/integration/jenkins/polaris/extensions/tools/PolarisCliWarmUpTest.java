@@ -0,0 +1,64 @@
+package com.synopsys.integration.jenkins.polaris.extensions.tools;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.File;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import hudson.FilePath;
+import hudson.model.Node;
+import hudson.model.TaskListener;
+import hudson.tools.ToolInstallation;
+import hudson.util.StreamTaskListener;
+
+public class PolarisCliWarmUpTest {
+    @Test
+    public void testInstallationInProgressIsJoined() throws Exception {
+        Node node = Mockito.mock(Node.class);
+        Mockito.when(node.getNodeName()).thenReturn("agent");
+        Mockito.when(node.getDisplayName()).thenReturn("agent");
+        ToolInstallation tool = Mockito.mock(ToolInstallation.class);
+        Mockito.when(tool.getName()).thenReturn("polaris");
+        TaskListener listener = StreamTaskListener.fromStdout();
+
+        FilePath home = new FilePath(new File("polaris_cli-1.0"));
+        AtomicInteger installations = new AtomicInteger();
+        CountDownLatch installing = new CountDownLatch(1);
+        CountDownLatch joined = new CountDownLatch(1);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            Future<FilePath> warmUp = executorService.submit(() -> PolarisCliWarmUp.installOrJoin(tool, node, listener, () -> {
+                installations.incrementAndGet();
+                installing.countDown();
+                joined.await(5, TimeUnit.SECONDS);
+                return home;
+            }));
+            installing.await(5, TimeUnit.SECONDS);
+
+            Future<FilePath> build = executorService.submit(() -> PolarisCliWarmUp.installOrJoin(tool, node, listener, () -> {
+                installations.incrementAndGet();
+                return new FilePath(new File("another"));
+            }));
+            // The build has had time to find the warm-up in progress before it is allowed to finish
+            Thread.sleep(200);
+            joined.countDown();
+
+            assertSame(home, warmUp.get(5, TimeUnit.SECONDS));
+            assertSame(home, build.get(5, TimeUnit.SECONDS));
+            assertEquals(1, installations.get());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+}
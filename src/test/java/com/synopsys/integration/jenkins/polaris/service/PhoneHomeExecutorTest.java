@@ -0,0 +1,56 @@
+package com.synopsys.integration.jenkins.polaris.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+public class PhoneHomeExecutorTest {
+    @Test
+    public void testDropsWhenQueueIsFull() throws Exception {
+        PhoneHomeExecutor phoneHomeExecutor = new PhoneHomeExecutor(1);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Optional<Future<Boolean>> blocking = phoneHomeExecutor.submit(() -> {
+            running.countDown();
+            return release.await(10, TimeUnit.SECONDS);
+        });
+        assertTrue(running.await(10, TimeUnit.SECONDS));
+        Optional<Future<Boolean>> queued = phoneHomeExecutor.submit(() -> true);
+        Optional<Future<Boolean>> dropped = phoneHomeExecutor.submit(() -> true);
+
+        assertTrue(blocking.isPresent());
+        assertTrue(queued.isPresent());
+        assertFalse(dropped.isPresent());
+        assertEquals(1, phoneHomeExecutor.getDroppedCount());
+        assertEquals(1, phoneHomeExecutor.getQueuedCount());
+
+        release.countDown();
+        assertTrue(blocking.get().get(10, TimeUnit.SECONDS));
+        assertTrue(queued.get().get(10, TimeUnit.SECONDS));
+        assertEquals(2, phoneHomeExecutor.getCompletedCount());
+    }
+
+    @Test
+    public void testFailedPhoneHomeIsCompleted() throws Exception {
+        PhoneHomeExecutor phoneHomeExecutor = new PhoneHomeExecutor(PhoneHomeExecutor.DEFAULT_QUEUE_CAPACITY);
+
+        Future<Boolean> failed = phoneHomeExecutor.submit(() -> {
+            throw new IllegalStateException("unreachable");
+        }).orElseThrow(AssertionError::new);
+
+        assertThrows(ExecutionException.class, () -> failed.get(10, TimeUnit.SECONDS));
+        assertEquals(1, phoneHomeExecutor.getCompletedCount());
+        assertEquals(0, phoneHomeExecutor.getDroppedCount());
+    }
+
+}
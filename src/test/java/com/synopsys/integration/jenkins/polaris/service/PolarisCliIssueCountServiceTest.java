@@ -3,6 +3,9 @@ package com.synopsys.integration.jenkins.polaris.service;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -12,7 +15,7 @@ import org.mockito.Mockito;
 import com.synopsys.integration.exception.IntegrationException;
 import com.synopsys.integration.jenkins.exception.JenkinsUserFriendlyException;
 import com.synopsys.integration.jenkins.extensions.JenkinsIntLogger;
-import com.synopsys.integration.polaris.common.cli.PolarisCliResponseUtility;
+import com.synopsys.integration.polaris.common.cli.model.CliCommonResponseDigest;
 import com.synopsys.integration.polaris.common.cli.model.CliCommonResponseModel;
 import com.synopsys.integration.polaris.common.cli.model.CommonIssueSummary;
 import com.synopsys.integration.polaris.common.cli.model.CommonScanInfo;
@@ -28,12 +31,10 @@ public class PolarisCliIssueCountServiceTest {
     public static final String VALID_ISSUE_API_URL = "https://www.example.com/api/issues/";
     public static final String SUCCESSFUL_JOB_STATUS_URL = "https://www.example.com/api/jobs/successfuljob/";
     public static final String FAILING_JOB_STATUS_URL = "https://www.example.com/api/jobs/failingjob/";
-    private static final String MOCK_JSON = "Json to convert into a mocked ResponseModel";
     private CliCommonResponseModel mockedResponseModel;
     private JenkinsIntLogger mockedLogger;
     private CountService mockedCountService;
     private JobService mockedJobService;
-    private PolarisCliResponseUtility mockedPolarisCliResponseUtility;
     private CommonScanInfo mockedScanInfo;
     private CommonToolInfo successfulToolA;
     private CommonToolInfo successfulToolB;
@@ -47,9 +48,7 @@ public class PolarisCliIssueCountServiceTest {
             mockedCountService = Mockito.mock(CountService.class);
             mockedJobService = Mockito.mock(JobService.class);
 
-            mockedPolarisCliResponseUtility = Mockito.mock(PolarisCliResponseUtility.class);
             mockedResponseModel = Mockito.mock(CliCommonResponseModel.class);
-            Mockito.when(mockedPolarisCliResponseUtility.getPolarisCliResponseModelFromString(MOCK_JSON)).thenReturn(mockedResponseModel);
 
             mockedScanInfo = Mockito.mock(CommonScanInfo.class);
             Mockito.when(mockedResponseModel.getScanInfo()).thenReturn(mockedScanInfo);
@@ -67,7 +66,10 @@ public class PolarisCliIssueCountServiceTest {
 
             invalidTool = new CommonToolInfo();
 
-            Mockito.doThrow(new IntegrationException()).when(mockedJobService).waitForJobStateIsCompletedOrDieByUrl(new HttpUrl(FAILING_JOB_STATUS_URL), VALID_TIMEOUT, JobService.DEFAULT_WAIT_INTERVAL);
+            HttpUrl failingJobStatusUrl = new HttpUrl(FAILING_JOB_STATUS_URL);
+            Mockito.doThrow(new IntegrationException()).when(mockedJobService)
+                .waitForJobStatesAreCompletedOrDieByUrls(Mockito.argThat(jobStatusUrls -> jobStatusUrls != null && jobStatusUrls.contains(failingJobStatusUrl)), Mockito.eq((long) VALID_TIMEOUT),
+                    Mockito.eq(JobService.DEFAULT_WAIT_INTERVAL));
         } catch (Exception e) {
             Assertions.fail("Unexpected exception in test code: ", e);
         }
@@ -79,9 +81,9 @@ public class PolarisCliIssueCountServiceTest {
         Mockito.when(mockedIssueSummary.getTotalIssueCount()).thenReturn(EXPECTED_ISSUE_COUNT);
         Mockito.when(mockedResponseModel.getIssueSummary()).thenReturn(Optional.of(mockedIssueSummary));
 
-        PolarisCliIssueCountService polarisCliIssueCountService = new PolarisCliIssueCountService(mockedLogger, mockedCountService, mockedJobService, mockedPolarisCliResponseUtility);
+        PolarisCliIssueCountService polarisCliIssueCountService = new PolarisCliIssueCountService(mockedLogger, mockedCountService, mockedJobService);
         try {
-            Integer actualIssueCount = polarisCliIssueCountService.getIssueCount(VALID_TIMEOUT, MOCK_JSON);
+            Integer actualIssueCount = polarisCliIssueCountService.getIssueCount(VALID_TIMEOUT, createDigest());
 
             Assertions.assertEquals(EXPECTED_ISSUE_COUNT, actualIssueCount);
         } catch (Exception e) {
@@ -95,11 +97,11 @@ public class PolarisCliIssueCountServiceTest {
         Mockito.when(mockedIssueSummary.getTotalIssueCount()).thenReturn(EXPECTED_ISSUE_COUNT);
         Mockito.when(mockedResponseModel.getIssueSummary()).thenReturn(Optional.of(mockedIssueSummary));
 
-        PolarisCliIssueCountService polarisCliIssueCountService = new PolarisCliIssueCountService(mockedLogger, mockedCountService, mockedJobService, mockedPolarisCliResponseUtility);
+        PolarisCliIssueCountService polarisCliIssueCountService = new PolarisCliIssueCountService(mockedLogger, mockedCountService, mockedJobService);
 
         // Since no polling was done, the timeout shouldn't matter -- rotte APR 2020
         try {
-            Integer actualIssueCount = polarisCliIssueCountService.getIssueCount(INVALID_TIMEOUT, MOCK_JSON);
+            Integer actualIssueCount = polarisCliIssueCountService.getIssueCount(INVALID_TIMEOUT, createDigest());
 
             Assertions.assertEquals(EXPECTED_ISSUE_COUNT, actualIssueCount);
         } catch (Exception e) {
@@ -114,11 +116,12 @@ public class PolarisCliIssueCountServiceTest {
             Mockito.when(mockedScanInfo.getIssueApiUrl()).thenReturn(new HttpUrl(VALID_ISSUE_API_URL));
             Mockito.when(mockedResponseModel.getTools()).thenReturn(Arrays.asList(successfulToolA, successfulToolB));
 
-            PolarisCliIssueCountService polarisCliIssueCountService = new PolarisCliIssueCountService(mockedLogger, mockedCountService, mockedJobService, mockedPolarisCliResponseUtility);
+            PolarisCliIssueCountService polarisCliIssueCountService = new PolarisCliIssueCountService(mockedLogger, mockedCountService, mockedJobService);
 
-            Integer actualIssueCount = polarisCliIssueCountService.getIssueCount(VALID_TIMEOUT, MOCK_JSON);
+            Integer actualIssueCount = polarisCliIssueCountService.getIssueCount(VALID_TIMEOUT, createDigest());
 
-            Mockito.verify(mockedJobService, Mockito.times(2)).waitForJobStateIsCompletedOrDieByUrl(new HttpUrl(SUCCESSFUL_JOB_STATUS_URL), VALID_TIMEOUT, JobService.DEFAULT_WAIT_INTERVAL);
+            HttpUrl successfulJobStatusUrl = new HttpUrl(SUCCESSFUL_JOB_STATUS_URL);
+            Mockito.verify(mockedJobService, Mockito.times(1)).waitForJobStatesAreCompletedOrDieByUrls(Arrays.asList(successfulJobStatusUrl, successfulJobStatusUrl), VALID_TIMEOUT, JobService.DEFAULT_WAIT_INTERVAL);
             Assertions.assertEquals(EXPECTED_ISSUE_COUNT, actualIssueCount);
         } catch (Exception e) {
             Assertions.fail("An unexpected exception occurred in the test code, it may need to be fixed.", e);
@@ -132,9 +135,9 @@ public class PolarisCliIssueCountServiceTest {
             Mockito.when(mockedScanInfo.getIssueApiUrl()).thenReturn(new HttpUrl(VALID_ISSUE_API_URL));
             Mockito.when(mockedResponseModel.getTools()).thenReturn(Collections.emptyList());
 
-            PolarisCliIssueCountService polarisCliIssueCountService = new PolarisCliIssueCountService(mockedLogger, mockedCountService, mockedJobService, mockedPolarisCliResponseUtility);
+            PolarisCliIssueCountService polarisCliIssueCountService = new PolarisCliIssueCountService(mockedLogger, mockedCountService, mockedJobService);
 
-            Assertions.assertThrows(JenkinsUserFriendlyException.class, () -> polarisCliIssueCountService.getIssueCount(INVALID_TIMEOUT, MOCK_JSON));
+            Assertions.assertThrows(JenkinsUserFriendlyException.class, () -> polarisCliIssueCountService.getIssueCount(INVALID_TIMEOUT, createDigest()));
         } catch (Exception e) {
             Assertions.fail("An unexpected exception occurred in the test code, it may need to be fixed.", e);
         }
@@ -147,9 +150,9 @@ public class PolarisCliIssueCountServiceTest {
             Mockito.when(mockedScanInfo.getIssueApiUrl()).thenReturn(new HttpUrl(VALID_ISSUE_API_URL));
             Mockito.when(mockedResponseModel.getTools()).thenReturn(Arrays.asList(successfulToolA, failingTool, successfulToolB));
 
-            PolarisCliIssueCountService polarisCliIssueCountService = new PolarisCliIssueCountService(mockedLogger, mockedCountService, mockedJobService, mockedPolarisCliResponseUtility);
+            PolarisCliIssueCountService polarisCliIssueCountService = new PolarisCliIssueCountService(mockedLogger, mockedCountService, mockedJobService);
 
-            Assertions.assertThrows(IntegrationException.class, () -> polarisCliIssueCountService.getIssueCount(VALID_TIMEOUT, MOCK_JSON));
+            Assertions.assertThrows(IntegrationException.class, () -> polarisCliIssueCountService.getIssueCount(VALID_TIMEOUT, createDigest()));
         } catch (Exception e) {
             Assertions.fail("An unexpected exception occurred in the test code, it may need to be fixed.", e);
         }
@@ -162,12 +165,64 @@ public class PolarisCliIssueCountServiceTest {
             Mockito.when(mockedScanInfo.getIssueApiUrl()).thenReturn(new HttpUrl(VALID_ISSUE_API_URL));
             Mockito.when(mockedResponseModel.getTools()).thenReturn(Arrays.asList(successfulToolA, invalidTool, successfulToolB));
 
-            PolarisCliIssueCountService polarisCliIssueCountService = new PolarisCliIssueCountService(mockedLogger, mockedCountService, mockedJobService, mockedPolarisCliResponseUtility);
+            PolarisCliIssueCountService polarisCliIssueCountService = new PolarisCliIssueCountService(mockedLogger, mockedCountService, mockedJobService);
 
-            Assertions.assertThrows(JenkinsUserFriendlyException.class, () -> polarisCliIssueCountService.getIssueCount(VALID_TIMEOUT, MOCK_JSON));
+            Assertions.assertThrows(JenkinsUserFriendlyException.class, () -> polarisCliIssueCountService.getIssueCount(VALID_TIMEOUT, createDigest()));
+            Mockito.verify(mockedJobService, Mockito.never()).waitForJobStatesAreCompletedOrDieByUrls(Mockito.any(), Mockito.anyLong(), Mockito.anyInt());
         } catch (Exception e) {
             Assertions.fail("An unexpected exception occurred in the test code, it may need to be fixed.", e);
         }
     }
 
+    @Test
+    public void testGetCountAsyncFromPolaris() {
+        try {
+            Mockito.when(mockedResponseModel.getIssueSummary()).thenReturn(Optional.empty());
+            Mockito.when(mockedScanInfo.getIssueApiUrl()).thenReturn(new HttpUrl(VALID_ISSUE_API_URL));
+            Mockito.when(mockedResponseModel.getTools()).thenReturn(Arrays.asList(successfulToolA, successfulToolB));
+            Mockito.when(mockedJobService.waitForJobStatesAreCompletedByUrls(Mockito.any(), Mockito.anyLong(), Mockito.anyInt())).thenReturn(CompletableFuture.completedFuture(null));
+
+            PolarisCliIssueCountService polarisCliIssueCountService = new PolarisCliIssueCountService(mockedLogger, mockedCountService, mockedJobService);
+
+            PendingIssueCount pendingIssueCount = polarisCliIssueCountService.prepareIssueCount(VALID_TIMEOUT, createDigest());
+            Assertions.assertFalse(pendingIssueCount.getIssueCount().isPresent());
+            Assertions.assertEquals(Arrays.asList(SUCCESSFUL_JOB_STATUS_URL, SUCCESSFUL_JOB_STATUS_URL), pendingIssueCount.getJobStatusUrls());
+
+            Integer actualIssueCount = polarisCliIssueCountService.getIssueCountAsync(pendingIssueCount, Runnable::run).get(5, TimeUnit.SECONDS);
+
+            HttpUrl successfulJobStatusUrl = new HttpUrl(SUCCESSFUL_JOB_STATUS_URL);
+            Mockito.verify(mockedJobService, Mockito.times(1))
+                .waitForJobStatesAreCompletedByUrls(Mockito.eq(Arrays.asList(successfulJobStatusUrl, successfulJobStatusUrl)), Mockito.longThat(timeout -> timeout <= VALID_TIMEOUT), Mockito.eq(JobService.DEFAULT_WAIT_INTERVAL));
+            Assertions.assertEquals(EXPECTED_ISSUE_COUNT, actualIssueCount);
+        } catch (Exception e) {
+            Assertions.fail("An unexpected exception occurred in the test code, it may need to be fixed.", e);
+        }
+    }
+
+    @Test
+    public void testGetCountAsyncFromPolarisWithFailingTool() {
+        try {
+            Mockito.when(mockedResponseModel.getIssueSummary()).thenReturn(Optional.empty());
+            Mockito.when(mockedScanInfo.getIssueApiUrl()).thenReturn(new HttpUrl(VALID_ISSUE_API_URL));
+            Mockito.when(mockedResponseModel.getTools()).thenReturn(Arrays.asList(successfulToolA, failingTool));
+            CompletableFuture<Void> failedJobs = new CompletableFuture<>();
+            failedJobs.completeExceptionally(new IntegrationException());
+            Mockito.when(mockedJobService.waitForJobStatesAreCompletedByUrls(Mockito.any(), Mockito.anyLong(), Mockito.anyInt())).thenReturn(failedJobs);
+
+            PolarisCliIssueCountService polarisCliIssueCountService = new PolarisCliIssueCountService(mockedLogger, mockedCountService, mockedJobService);
+
+            PendingIssueCount pendingIssueCount = polarisCliIssueCountService.prepareIssueCount(VALID_TIMEOUT, createDigest());
+            ExecutionException executionException = Assertions.assertThrows(ExecutionException.class, () -> polarisCliIssueCountService.getIssueCountAsync(pendingIssueCount, Runnable::run).get(5, TimeUnit.SECONDS));
+            Assertions.assertTrue(executionException.getCause() instanceof IntegrationException);
+            Mockito.verify(mockedCountService, Mockito.never()).getTotalIssueCountFromIssueApiUrl(Mockito.any());
+        } catch (Exception e) {
+            Assertions.fail("An unexpected exception occurred in the test code, it may need to be fixed.", e);
+        }
+    }
+
+    // The digest is made from the model on the agent, and is all the controller sees
+    private CliCommonResponseDigest createDigest() {
+        return CliCommonResponseDigest.fromModel(mockedResponseModel);
+    }
+
 }
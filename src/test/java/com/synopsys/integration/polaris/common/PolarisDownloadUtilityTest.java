@@ -1,6 +1,8 @@
 package com.synopsys.integration.polaris.common;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
@@ -8,10 +10,20 @@ import java.io.File;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.commons.lang3.StringUtils;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 
 import com.synopsys.integration.exception.IntegrationException;
@@ -19,12 +31,13 @@ import com.synopsys.integration.log.BufferedIntLogger;
 import com.synopsys.integration.log.IntLogger;
 import com.synopsys.integration.log.LogLevel;
 import com.synopsys.integration.log.SilentIntLogger;
+import com.synopsys.integration.polaris.common.cli.PolarisCliArchiveExpander;
+import com.synopsys.integration.polaris.common.cli.PolarisCliInstallDirectory;
 import com.synopsys.integration.polaris.common.cli.PolarisDownloadUtility;
 import com.synopsys.integration.rest.HttpUrl;
 import com.synopsys.integration.rest.client.IntHttpClient;
 import com.synopsys.integration.rest.request.Request;
 import com.synopsys.integration.rest.response.Response;
-import com.synopsys.integration.util.CleanupZipExpander;
 import com.synopsys.integration.util.OperatingSystemType;
 
 public class PolarisDownloadUtilityTest {
@@ -61,8 +74,8 @@ public class PolarisDownloadUtilityTest {
         File downloadTarget = tempDirectory.toFile();
         downloadTarget.deleteOnExit();
 
-        CleanupZipExpander cleanupZipExpander = new CleanupZipExpander(intLogger);
-        PolarisDownloadUtility polarisDownloadUtility = new PolarisDownloadUtility(intLogger, OperatingSystemType.LINUX, mockIntHttpClient, cleanupZipExpander, new HttpUrl(PolarisDownloadUtilityTest.FAKE_BUT_VALID_DOWNLOAD_URL),
+        PolarisCliArchiveExpander polarisCliArchiveExpander = new PolarisCliArchiveExpander(intLogger);
+        PolarisDownloadUtility polarisDownloadUtility = new PolarisDownloadUtility(intLogger, OperatingSystemType.LINUX, mockIntHttpClient, polarisCliArchiveExpander, new HttpUrl(PolarisDownloadUtilityTest.FAKE_BUT_VALID_DOWNLOAD_URL),
             downloadTarget);
         Optional<String> polarisCliPath = polarisDownloadUtility.getOrDownloadPolarisCliExecutable();
 
@@ -84,8 +97,8 @@ public class PolarisDownloadUtilityTest {
         File downloadTarget = tempDirectory.toFile();
         downloadTarget.deleteOnExit();
 
-        CleanupZipExpander cleanupZipExpander = new CleanupZipExpander(intLogger);
-        PolarisDownloadUtility polarisDownloadUtility = new PolarisDownloadUtility(intLogger, OperatingSystemType.LINUX, mockIntHttpClient, cleanupZipExpander, new HttpUrl(PolarisDownloadUtilityTest.FAKE_BUT_VALID_DOWNLOAD_URL),
+        PolarisCliArchiveExpander polarisCliArchiveExpander = new PolarisCliArchiveExpander(intLogger);
+        PolarisDownloadUtility polarisDownloadUtility = new PolarisDownloadUtility(intLogger, OperatingSystemType.LINUX, mockIntHttpClient, polarisCliArchiveExpander, new HttpUrl(PolarisDownloadUtilityTest.FAKE_BUT_VALID_DOWNLOAD_URL),
             downloadTarget);
         Optional<String> polarisCliPath = polarisDownloadUtility.getOrDownloadPolarisCliExecutable();
 
@@ -113,22 +126,200 @@ public class PolarisDownloadUtilityTest {
         installDirectory.mkdirs();
         installDirectory.deleteOnExit();
 
-        // create a directory that should be deleted by the update download/extract code
+        // create a directory in the layout used before versioned installations, which is kept as the previous installation
         File directoryOfPreviousExtraction = new File(installDirectory, "temp_polaris_cli_version");
         directoryOfPreviousExtraction.mkdirs();
         assertTrue(directoryOfPreviousExtraction.isDirectory());
         assertTrue(directoryOfPreviousExtraction.exists());
 
-        CleanupZipExpander cleanupZipExpander = new CleanupZipExpander(intLogger);
-        PolarisDownloadUtility polarisDownloadUtility = new PolarisDownloadUtility(intLogger, OperatingSystemType.LINUX, mockIntHttpClient, cleanupZipExpander, new HttpUrl(PolarisDownloadUtilityTest.FAKE_BUT_VALID_DOWNLOAD_URL),
+        PolarisCliArchiveExpander polarisCliArchiveExpander = new PolarisCliArchiveExpander(intLogger);
+        PolarisDownloadUtility polarisDownloadUtility = new PolarisDownloadUtility(intLogger, OperatingSystemType.LINUX, mockIntHttpClient, polarisCliArchiveExpander, new HttpUrl(PolarisDownloadUtilityTest.FAKE_BUT_VALID_DOWNLOAD_URL),
             downloadTarget);
         Optional<String> polarisCliPath = polarisDownloadUtility.getOrDownloadPolarisCliExecutable();
 
         assertTrue(polarisCliPath.isPresent());
         assertTrue(polarisCliPath.get().length() > 0);
-        assertFalse(directoryOfPreviousExtraction.exists());
-        assertTrue(intLogger.getOutputString(LogLevel.WARN).contains("There were items"));
-        assertTrue(intLogger.getOutputString(LogLevel.WARN).contains("that are being deleted"));
+        assertFalse(polarisCliPath.get().startsWith(directoryOfPreviousExtraction.getCanonicalPath()));
+        assertTrue(directoryOfPreviousExtraction.exists());
+        String cacheKey = PolarisCliInstallDirectory.createCacheKey(new HttpUrl(PolarisDownloadUtilityTest.FAKE_BUT_VALID_DOWNLOAD_URL));
+        File currentHome = new PolarisCliInstallDirectory(intLogger, installDirectory, cacheKey).findCurrentHome().orElse(null);
+        assertNotNull(currentHome);
+        assertTrue(polarisCliPath.get().startsWith(currentHome.getCanonicalPath()));
+    }
+
+    @Test
+    public void testNotModifiedResponseSkipsDownload() throws Exception {
+        Response downloadResponse = Mockito.mock(Response.class);
+        Mockito.when(downloadResponse.getContent()).thenReturn(getClass().getResourceAsStream("/swip_mac.zip"));
+        Mockito.when(downloadResponse.getLastModified()).thenReturn(1000000L);
+        Response notModifiedResponse = Mockito.mock(Response.class);
+        Mockito.when(notModifiedResponse.getStatusCode()).thenReturn(304);
+
+        IntHttpClient mockIntHttpClient = Mockito.mock(IntHttpClient.class);
+        Mockito.when(mockIntHttpClient.execute(Mockito.any(Request.class))).thenReturn(downloadResponse, notModifiedResponse);
+
+        BufferedIntLogger intLogger = new BufferedIntLogger();
+        File downloadTarget = Files.createTempDirectory(null).toFile();
+        downloadTarget.deleteOnExit();
+
+        PolarisDownloadUtility polarisDownloadUtility = new PolarisDownloadUtility(intLogger, OperatingSystemType.LINUX, mockIntHttpClient, new PolarisCliArchiveExpander(intLogger),
+            new HttpUrl(PolarisDownloadUtilityTest.FAKE_BUT_VALID_DOWNLOAD_URL), downloadTarget);
+        assertTrue(polarisDownloadUtility.getOrDownloadPolarisCliExecutable().isPresent());
+        assertTrue(polarisDownloadUtility.getOrDownloadPolarisCliExecutable().isPresent());
+
+        ArgumentCaptor<Request> requests = ArgumentCaptor.forClass(Request.class);
+        Mockito.verify(mockIntHttpClient, Mockito.times(2)).execute(requests.capture());
+        assertFalse(requests.getAllValues().get(0).getHeaders().containsKey("If-Modified-Since"));
+        assertEquals("Thu, 01 Jan 1970 00:16:40 GMT", requests.getAllValues().get(1).getHeaders().get("If-Modified-Since"));
+        Mockito.verify(notModifiedResponse, Mockito.never()).getContent();
+        assertTrue(intLogger.getOutputString(LogLevel.DEBUG).contains("skipping download"));
+    }
+
+    @Test
+    public void testLastSuccessfulArtifactIsTriedFirst() throws Exception {
+        Response missingResponse = Mockito.mock(Response.class);
+        Mockito.when(missingResponse.isStatusCodeError()).thenReturn(true);
+        Response downloadResponse = Mockito.mock(Response.class);
+        Mockito.when(downloadResponse.getContent()).thenReturn(getClass().getResourceAsStream("/swip_mac.zip"));
+        Mockito.when(downloadResponse.getLastModified()).thenReturn(1000000L);
+        Response notModifiedResponse = Mockito.mock(Response.class);
+        Mockito.when(notModifiedResponse.getStatusCode()).thenReturn(304);
+
+        IntHttpClient mockIntHttpClient = Mockito.mock(IntHttpClient.class);
+        Mockito.when(mockIntHttpClient.execute(Mockito.any(Request.class))).thenReturn(missingResponse, downloadResponse, notModifiedResponse);
+
+        IntLogger intLogger = new SilentIntLogger();
+        File downloadTarget = Files.createTempDirectory(null).toFile();
+        downloadTarget.deleteOnExit();
+
+        PolarisDownloadUtility polarisDownloadUtility = new PolarisDownloadUtility(intLogger, OperatingSystemType.LINUX, mockIntHttpClient, new PolarisCliArchiveExpander(intLogger),
+            new HttpUrl(PolarisDownloadUtilityTest.FAKE_BUT_VALID_DOWNLOAD_URL), downloadTarget);
+        assertTrue(polarisDownloadUtility.getOrDownloadPolarisCliExecutable().isPresent());
+        assertTrue(polarisDownloadUtility.getOrDownloadPolarisCliExecutable().isPresent());
+
+        ArgumentCaptor<Request> requests = ArgumentCaptor.forClass(Request.class);
+        Mockito.verify(mockIntHttpClient, Mockito.times(3)).execute(requests.capture());
+        assertTrue(requests.getAllValues().get(0).getUrl().string().contains("swip_cli"));
+        assertTrue(requests.getAllValues().get(1).getUrl().string().contains("polaris_cli"));
+        assertTrue(requests.getAllValues().get(2).getUrl().string().contains("polaris_cli"));
+    }
+
+    @Test
+    public void testPreviousInstallationIsKeptForRunningBuilds() throws Exception {
+        AtomicLong lastModifiedOnServer = new AtomicLong();
+        IntHttpClient mockIntHttpClient = Mockito.mock(IntHttpClient.class);
+        Mockito.when(mockIntHttpClient.execute(Mockito.any(Request.class))).thenAnswer(invocation -> {
+            Response downloadResponse = Mockito.mock(Response.class);
+            Mockito.when(downloadResponse.getContent()).thenReturn(getClass().getResourceAsStream("/swip_mac.zip"));
+            Mockito.when(downloadResponse.getLastModified()).thenReturn(lastModifiedOnServer.get());
+            return downloadResponse;
+        });
+
+        IntLogger intLogger = new SilentIntLogger();
+        File downloadTarget = Files.createTempDirectory(null).toFile();
+        downloadTarget.deleteOnExit();
+
+        PolarisDownloadUtility polarisDownloadUtility = new PolarisDownloadUtility(intLogger, OperatingSystemType.LINUX, mockIntHttpClient, new PolarisCliArchiveExpander(intLogger),
+            new HttpUrl(PolarisDownloadUtilityTest.FAKE_BUT_VALID_DOWNLOAD_URL), downloadTarget);
+        List<String> polarisCliPaths = new ArrayList<>();
+        for (long version = 1; version <= 3; version++) {
+            lastModifiedOnServer.set(version * 1000000L);
+            polarisCliPaths.add(polarisDownloadUtility.getOrDownloadPolarisCliExecutable().orElse(null));
+            if (version == 2) {
+                // No build has used the first version for longer than one could still be running it
+                File firstHome = new File(polarisCliPaths.get(0)).getParentFile().getParentFile();
+                new File(firstHome, PolarisCliInstallDirectory.LAST_USED_FILENAME).setLastModified(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(2));
+            }
+        }
+
+        assertEquals(3, new HashSet<>(polarisCliPaths).size());
+        assertFalse(new File(polarisCliPaths.get(0)).exists());
+        assertTrue(new File(polarisCliPaths.get(1)).exists());
+        assertTrue(new File(polarisCliPaths.get(2)).exists());
+    }
+
+    @Test
+    public void testInstallationsForEachServerAreKeptSideBySide() throws Exception {
+        IntHttpClient mockIntHttpClient = Mockito.mock(IntHttpClient.class);
+        Mockito.when(mockIntHttpClient.execute(Mockito.any(Request.class))).thenAnswer(invocation -> {
+            Request request = invocation.getArgument(0);
+            Response response = Mockito.mock(Response.class);
+            if (request.getHeaders().containsKey("If-Modified-Since")) {
+                Mockito.when(response.getStatusCode()).thenReturn(304);
+            } else {
+                Mockito.when(response.getContent()).thenReturn(getClass().getResourceAsStream("/swip_mac.zip"));
+                Mockito.when(response.getLastModified()).thenReturn(request.getUrl().string().contains("first") ? 1000000L : 2000000L);
+            }
+            return response;
+        });
+
+        IntLogger intLogger = new SilentIntLogger();
+        File downloadTarget = Files.createTempDirectory(null).toFile();
+        downloadTarget.deleteOnExit();
+
+        PolarisDownloadUtility firstServerUtility = new PolarisDownloadUtility(intLogger, OperatingSystemType.LINUX, mockIntHttpClient, new PolarisCliArchiveExpander(intLogger), new HttpUrl("http://first.example.com"),
+            downloadTarget);
+        PolarisDownloadUtility secondServerUtility = new PolarisDownloadUtility(intLogger, OperatingSystemType.LINUX, mockIntHttpClient, new PolarisCliArchiveExpander(intLogger), new HttpUrl("http://second.example.com"),
+            downloadTarget);
+        String firstServerCli = firstServerUtility.getOrDownloadPolarisCliExecutable().orElse(null);
+        String secondServerCli = secondServerUtility.getOrDownloadPolarisCliExecutable().orElse(null);
+
+        assertNotNull(firstServerCli);
+        assertNotNull(secondServerCli);
+        assertFalse(firstServerCli.equals(secondServerCli));
+        assertEquals(firstServerCli, firstServerUtility.getOrDownloadPolarisCliExecutable().orElse(null));
+        assertEquals(secondServerCli, secondServerUtility.getOrDownloadPolarisCliExecutable().orElse(null));
+
+        // Switching between the servers only asks each of them whether its own version changed
+        ArgumentCaptor<Request> requests = ArgumentCaptor.forClass(Request.class);
+        Mockito.verify(mockIntHttpClient, Mockito.times(4)).execute(requests.capture());
+        assertEquals("Thu, 01 Jan 1970 00:16:40 GMT", requests.getAllValues().get(2).getHeaders().get("If-Modified-Since"));
+        assertEquals("Thu, 01 Jan 1970 00:33:20 GMT", requests.getAllValues().get(3).getHeaders().get("If-Modified-Since"));
+    }
+
+    @Test
+    public void testConcurrentInstallsDownloadOnce() throws Exception {
+        Response downloadResponse = Mockito.mock(Response.class);
+        Mockito.when(downloadResponse.getContent()).thenReturn(getClass().getResourceAsStream("/swip_mac.zip"));
+        Mockito.when(downloadResponse.getLastModified()).thenReturn(1000000L);
+        Response notModifiedResponse = Mockito.mock(Response.class);
+        Mockito.when(notModifiedResponse.getStatusCode()).thenReturn(304);
+
+        AtomicInteger requestCount = new AtomicInteger();
+        IntHttpClient mockIntHttpClient = Mockito.mock(IntHttpClient.class);
+        Mockito.when(mockIntHttpClient.execute(Mockito.any(Request.class))).thenAnswer(invocation -> {
+            if (requestCount.incrementAndGet() == 1) {
+                // Gives the other installer time to reach the install lock while this one is downloading
+                Thread.sleep(200);
+                return downloadResponse;
+            }
+            return notModifiedResponse;
+        });
+
+        IntLogger intLogger = new SilentIntLogger();
+        File downloadTarget = Files.createTempDirectory(null).toFile();
+        downloadTarget.deleteOnExit();
+
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<Optional<String>>> polarisCliPaths = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                PolarisDownloadUtility polarisDownloadUtility = new PolarisDownloadUtility(intLogger, OperatingSystemType.LINUX, mockIntHttpClient, new PolarisCliArchiveExpander(intLogger),
+                    new HttpUrl(PolarisDownloadUtilityTest.FAKE_BUT_VALID_DOWNLOAD_URL), downloadTarget);
+                polarisCliPaths.add(executorService.submit(() -> polarisDownloadUtility.getOrDownloadPolarisCliExecutable()));
+            }
+
+            String polarisCliPath = polarisCliPaths.get(0).get(10, TimeUnit.SECONDS).orElse(null);
+            assertNotNull(polarisCliPath);
+            assertEquals(polarisCliPath, polarisCliPaths.get(1).get(10, TimeUnit.SECONDS).orElse(null));
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        ArgumentCaptor<Request> requests = ArgumentCaptor.forClass(Request.class);
+        Mockito.verify(mockIntHttpClient, Mockito.times(2)).execute(requests.capture());
+        assertTrue(requests.getAllValues().get(1).getHeaders().containsKey("If-Modified-Since"));
+        Mockito.verify(notModifiedResponse, Mockito.never()).getContent();
     }
 
 }
@@ -0,0 +1,117 @@
+package com.synopsys.integration.polaris.common.cli;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.jupiter.api.Test;
+
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.log.SilentIntLogger;
+
+public class PolarisCliArchiveExpanderTest {
+    private final PolarisCliArchiveExpander polarisCliArchiveExpander = new PolarisCliArchiveExpander(new SilentIntLogger());
+
+    @Test
+    public void testUnchangedEntriesAreReused() throws Exception {
+        assertOnlyChangedEntriesAreWritten(ZipEntry.STORED);
+    }
+
+    @Test
+    public void testStreamedEntriesAreComparedWithThePreviousFile() throws Exception {
+        // Deflated entries written by ZipOutputStream only record their CRC after the data
+        assertOnlyChangedEntriesAreWritten(ZipEntry.DEFLATED);
+    }
+
+    @Test
+    public void testArchiveIsHashedWhileExpanding() throws Exception {
+        byte[] archive = createArchive(ZipEntry.DEFLATED, "polaris_cli-1.0/bin/polaris", "polaris");
+
+        PolarisCliArchiveExpander.ExpansionResult expansionResult = polarisCliArchiveExpander.expand(new ByteArrayInputStream(archive), Files.createTempDirectory(null).toFile(), null);
+
+        assertEquals(DigestUtils.sha256Hex(archive), expansionResult.getArchiveSha256());
+        assertEquals("polaris_cli-1.0", expansionResult.getHome().getName());
+        assertTrue(new File(expansionResult.getHome(), PolarisCliArchiveExpander.MANIFEST_FILENAME).isFile());
+    }
+
+    @Test
+    public void testCorruptEntryFailsExpansion() throws Exception {
+        byte[] archive = createArchive(ZipEntry.STORED, "polaris_cli-1.0/bin/polaris", "#!/bin/sh");
+        // Stored entries appear as-is in the archive, so the first '#' is the start of the entry's data
+        for (int i = 0; i < archive.length; i++) {
+            if (archive[i] == '#') {
+                archive[i] = '!';
+                break;
+            }
+        }
+
+        assertThrows(ZipException.class, () -> polarisCliArchiveExpander.expand(new ByteArrayInputStream(archive), Files.createTempDirectory(null).toFile(), null));
+    }
+
+    @Test
+    public void testEntriesOutsideOfTheArchiveDirectoryAreRejected() throws Exception {
+        byte[] archive = createArchive(ZipEntry.DEFLATED, "polaris_cli-1.0/../../polaris", "polaris");
+
+        assertThrows(IntegrationException.class, () -> polarisCliArchiveExpander.expand(new ByteArrayInputStream(archive), Files.createTempDirectory(null).toFile(), null));
+    }
+
+    private void assertOnlyChangedEntriesAreWritten(int method) throws Exception {
+        byte[] previousArchive = createArchive(method, "polaris_cli-1.0/bin/polaris", "polaris", "polaris_cli-1.0/lib/cli.jar", "first version", "polaris_cli-1.0/lib/shorter.jar", "abcdef");
+        byte[] archive = createArchive(method, "polaris_cli-1.1/bin/polaris", "polaris", "polaris_cli-1.1/lib/cli.jar", "second version", "polaris_cli-1.1/lib/shorter.jar", "abc");
+
+        File previousHome = polarisCliArchiveExpander.expand(new ByteArrayInputStream(previousArchive), Files.createTempDirectory(null).toFile(), null).getHome();
+        PolarisCliArchiveExpander.ExpansionResult expansionResult = polarisCliArchiveExpander.expand(new ByteArrayInputStream(archive), Files.createTempDirectory(null).toFile(), previousHome);
+
+        assertEquals(1, expansionResult.getEntriesReused());
+        assertEquals(2, expansionResult.getEntriesWritten());
+        File home = expansionResult.getHome();
+        assertArrayEquals("polaris".getBytes(StandardCharsets.UTF_8), Files.readAllBytes(new File(home, "bin/polaris").toPath()));
+        assertArrayEquals("second version".getBytes(StandardCharsets.UTF_8), Files.readAllBytes(new File(home, "lib/cli.jar").toPath()));
+        assertArrayEquals("abc".getBytes(StandardCharsets.UTF_8), Files.readAllBytes(new File(home, "lib/shorter.jar").toPath()));
+        assertArrayEquals("first version".getBytes(StandardCharsets.UTF_8), Files.readAllBytes(new File(previousHome, "lib/cli.jar").toPath()));
+        assertTrue(Files.isSameFile(new File(home, "bin/polaris").toPath(), new File(previousHome, "bin/polaris").toPath()));
+        assertFalse(Files.isSameFile(new File(home, "lib/cli.jar").toPath(), new File(previousHome, "lib/cli.jar").toPath()));
+    }
+
+    private byte[] createArchive(int method, String... namesAndContents) throws IOException {
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        for (int i = 0; i < namesAndContents.length; i += 2) {
+            entries.put(namesAndContents[i], namesAndContents[i + 1].getBytes(StandardCharsets.UTF_8));
+        }
+
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        try (ZipOutputStream zipOutputStream = new ZipOutputStream(byteArrayOutputStream)) {
+            for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+                ZipEntry zipEntry = new ZipEntry(entry.getKey());
+                zipEntry.setMethod(method);
+                if (ZipEntry.STORED == method) {
+                    CRC32 crc32 = new CRC32();
+                    crc32.update(entry.getValue());
+                    zipEntry.setCrc(crc32.getValue());
+                    zipEntry.setSize(entry.getValue().length);
+                }
+                zipOutputStream.putNextEntry(zipEntry);
+                zipOutputStream.write(entry.getValue());
+                zipOutputStream.closeEntry();
+            }
+        }
+        return byteArrayOutputStream.toByteArray();
+    }
+
+}
@@ -0,0 +1,101 @@
+package com.synopsys.integration.polaris.common.cli;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.synopsys.integration.log.SilentIntLogger;
+
+public class PolarisCliInstallDirectoryTest {
+    private File installDirectory;
+
+    @BeforeEach
+    public void createInstallDirectory() throws IOException {
+        installDirectory = Files.createTempDirectory(null).toFile();
+        installDirectory.deleteOnExit();
+    }
+
+    @Test
+    public void testLeastRecentlyUsedInstallationIsEvictedOverBudget() throws IOException {
+        PolarisCliInstallDirectory firstServer = createInstallDirectory("aaaaaaaaaaaaaaaa");
+        PolarisCliInstallDirectory secondServer = createInstallDirectory("bbbbbbbbbbbbbbbb");
+        PolarisCliInstallDirectory thirdServer = createInstallDirectory("cccccccccccccccc");
+
+        File firstServerOldHome = install(firstServer, 1000L);
+        File firstServerHome = install(firstServer, 2000L);
+        File secondServerOldHome = install(secondServer, 3000L);
+        File secondServerHome = install(secondServer, 4000L);
+        // Neither old version has been used for a day, and the first server's was used longer ago
+        markLastUsed(firstServerOldHome, TimeUnit.DAYS.toMillis(3));
+        markLastUsed(secondServerOldHome, TimeUnit.DAYS.toMillis(2));
+
+        // There is only room for four installations, so a fifth evicts the least recently used one that is not current
+        File thirdServerHome = install(thirdServer, 5000L);
+
+        assertFalse(firstServerOldHome.exists());
+        assertTrue(secondServerOldHome.exists());
+        assertTrue(firstServerHome.exists());
+        assertTrue(secondServerHome.exists());
+        assertTrue(thirdServerHome.exists());
+        assertEquals(firstServerHome, firstServer.findCurrentHome().orElse(null));
+        assertEquals(secondServerHome, secondServer.findCurrentHome().orElse(null));
+    }
+
+    @Test
+    public void testInstallationsInUseAreNeverEvicted() throws IOException {
+        PolarisCliInstallDirectory firstServer = createInstallDirectory("aaaaaaaaaaaaaaaa");
+        PolarisCliInstallDirectory secondServer = createInstallDirectory("bbbbbbbbbbbbbbbb");
+
+        File firstHome = install(firstServer, 1000L);
+        File secondHome = install(secondServer, 2000L);
+        firstServer.setMaxSizeInBytes(0);
+        File firstHomeUpdate = install(firstServer, 3000L);
+
+        // Every installation was used within the last day, so a build may still be running it
+        assertTrue(firstHome.exists());
+        assertTrue(secondHome.exists());
+        assertTrue(firstHomeUpdate.exists());
+    }
+
+    @Test
+    public void testReplacedVersionIsDeletedOnceUnused() throws IOException {
+        PolarisCliInstallDirectory firstServer = createInstallDirectory("aaaaaaaaaaaaaaaa");
+
+        File firstHome = install(firstServer, 1000L);
+        markLastUsed(firstHome, TimeUnit.DAYS.toMillis(2));
+        File firstHomeUpdate = install(firstServer, 2000L);
+
+        // The budget has room for it, but the server will not send this version again
+        assertFalse(firstHome.exists());
+        assertTrue(firstHomeUpdate.exists());
+    }
+
+    private PolarisCliInstallDirectory createInstallDirectory(String cacheKey) {
+        PolarisCliInstallDirectory polarisCliInstallDirectory = new PolarisCliInstallDirectory(new SilentIntLogger(), installDirectory, cacheKey);
+        polarisCliInstallDirectory.setMaxSizeInBytes(4000);
+        return polarisCliInstallDirectory;
+    }
+
+    private File install(PolarisCliInstallDirectory polarisCliInstallDirectory, long lastModified) throws IOException {
+        File stagingDirectory = polarisCliInstallDirectory.createStagingDirectory();
+        File stagedHome = new File(stagingDirectory, "polaris_cli-1.0");
+        File stagedBinDirectory = new File(stagedHome, "bin");
+        stagedBinDirectory.mkdirs();
+        Files.write(new File(stagedBinDirectory, "polaris").toPath(), new byte[1000]);
+
+        return polarisCliInstallDirectory.withLock(() -> polarisCliInstallDirectory.promote(stagedHome, polarisCliInstallDirectory.getInstallationName(stagedHome.getName(), lastModified)));
+    }
+
+    private void markLastUsed(File home, long millisAgo) {
+        new File(home, PolarisCliInstallDirectory.LAST_USED_FILENAME).setLastModified(System.currentTimeMillis() - millisAgo);
+    }
+
+}
@@ -0,0 +1,177 @@
+package com.synopsys.integration.polaris.common.cli;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.log.SilentIntLogger;
+import com.synopsys.integration.polaris.common.exception.PolarisIntegrationException;
+import com.synopsys.integration.rest.HttpUrl;
+import com.synopsys.integration.rest.client.IntHttpClient;
+import com.synopsys.integration.rest.proxy.ProxyInfo;
+import com.synopsys.integration.rest.request.Request;
+import com.synopsys.integration.rest.response.Response;
+import com.synopsys.integration.util.OperatingSystemType;
+
+public class PolarisCliRangedDownloaderTest {
+    private static final Pattern RANGE_PATTERN = Pattern.compile("bytes=(\\d+)-(\\d+)");
+    private static final String LAST_MODIFIED = "Wed, 21 Oct 2015 07:28:00 GMT";
+
+    private HttpServer httpServer;
+    private ExecutorService serverExecutor;
+    private HttpUrl serverUrl;
+    private byte[] archive;
+    private List<String> requestedRanges;
+    private volatile boolean supportRanges;
+    private volatile boolean changedOnServer;
+    private volatile long interruptRangeStartingAt;
+    private AtomicBoolean interrupted;
+
+    @BeforeEach
+    public void startServer() throws IOException, IntegrationException {
+        archive = new byte[10000];
+        new Random(42).nextBytes(archive);
+        requestedRanges = new CopyOnWriteArrayList<>();
+        supportRanges = true;
+        changedOnServer = false;
+        interruptRangeStartingAt = -1;
+        interrupted = new AtomicBoolean();
+
+        httpServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        httpServer.createContext("/", this::serveArchive);
+        serverExecutor = Executors.newCachedThreadPool();
+        httpServer.setExecutor(serverExecutor);
+        httpServer.start();
+        serverUrl = new HttpUrl("http://localhost:" + httpServer.getAddress().getPort());
+    }
+
+    @AfterEach
+    public void stopServer() {
+        httpServer.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    public void testRangesAreDownloadedInParallelAndResumed() throws Exception {
+        interruptRangeStartingAt = 3000;
+
+        File archiveFile = download(new PolarisCliRangedDownloader(new SilentIntLogger(), createHttpClient(), 4, 1000, 3));
+
+        assertArrayEquals(archive, Files.readAllBytes(archiveFile.toPath()));
+        assertTrue(interrupted.get());
+        assertEquals(11, requestedRanges.size());
+        // Only the rest of the interrupted range is requested again
+        assertTrue(requestedRanges.contains("bytes=3500-3999"));
+    }
+
+    @Test
+    public void testServerWithoutRangesIsDownloadedOverOneConnection() throws Exception {
+        supportRanges = false;
+
+        File archiveFile = download(new PolarisCliRangedDownloader(new SilentIntLogger(), createHttpClient(), 4, 1000, 3));
+
+        assertArrayEquals(archive, Files.readAllBytes(archiveFile.toPath()));
+        assertEquals(1, requestedRanges.size());
+    }
+
+    @Test
+    public void testArchiveChangedDuringDownloadFails() {
+        changedOnServer = true;
+
+        assertThrows(PolarisIntegrationException.class, () -> download(new PolarisCliRangedDownloader(new SilentIntLogger(), createHttpClient(), 4, 1000, 3)));
+    }
+
+    @Test
+    public void testRangedDownloadMode() throws Exception {
+        try (InputStream zipFileStream = getClass().getResourceAsStream("/swip_mac.zip")) {
+            archive = IOUtils.toByteArray(zipFileStream);
+        }
+        interruptRangeStartingAt = 100;
+
+        File downloadTarget = Files.createTempDirectory(null).toFile();
+        downloadTarget.deleteOnExit();
+        PolarisDownloadUtility polarisDownloadUtility = new PolarisDownloadUtility(new SilentIntLogger(), OperatingSystemType.LINUX, createHttpClient(), new PolarisCliArchiveExpander(new SilentIntLogger()), serverUrl,
+            downloadTarget);
+        polarisDownloadUtility.enableRangedDownload(3, 100);
+        Optional<String> polarisCliPath = polarisDownloadUtility.getOrDownloadPolarisCliExecutable();
+
+        assertTrue(polarisCliPath.isPresent());
+        assertTrue(polarisCliPath.get().endsWith("swip_cli"));
+        assertTrue(interrupted.get());
+    }
+
+    private File download(PolarisCliRangedDownloader rangedDownloader) throws IOException, IntegrationException {
+        File archiveFile = File.createTempFile("polaris_cli", ".zip");
+        archiveFile.deleteOnExit();
+
+        Request.Builder requestBuilder = new Request.Builder(serverUrl);
+        rangedDownloader.addFirstRange(requestBuilder);
+        try (Response firstResponse = createHttpClient().execute(requestBuilder.build())) {
+            rangedDownloader.download(serverUrl, firstResponse, archiveFile);
+        }
+        return archiveFile;
+    }
+
+    private IntHttpClient createHttpClient() {
+        return new IntHttpClient(new SilentIntLogger(), 30, false, ProxyInfo.NO_PROXY_INFO);
+    }
+
+    private void serveArchive(HttpExchange exchange) throws IOException {
+        String range = exchange.getRequestHeaders().getFirst("Range");
+        requestedRanges.add(String.valueOf(range));
+        exchange.getResponseHeaders().add("Last-Modified", LAST_MODIFIED);
+
+        Matcher rangeMatcher = RANGE_PATTERN.matcher(String.valueOf(range));
+        boolean ifRangeFailed = changedOnServer && exchange.getRequestHeaders().containsKey("If-Range");
+        if (!supportRanges || !rangeMatcher.matches() || ifRangeFailed) {
+            exchange.sendResponseHeaders(200, archive.length);
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(archive);
+            }
+            return;
+        }
+
+        int start = Integer.parseInt(rangeMatcher.group(1));
+        int end = Math.min(Integer.parseInt(rangeMatcher.group(2)), archive.length - 1);
+        int length = end - start + 1;
+        exchange.getResponseHeaders().add("Content-Range", String.format("bytes %d-%d/%d", start, end, archive.length));
+        exchange.sendResponseHeaders(206, length);
+
+        OutputStream outputStream = exchange.getResponseBody();
+        if (start == interruptRangeStartingAt && interrupted.compareAndSet(false, true)) {
+            // Sends half of the range, then drops the connection
+            outputStream.write(archive, start, length / 2);
+            outputStream.flush();
+            exchange.close();
+            return;
+        }
+        outputStream.write(archive, start, length);
+        outputStream.close();
+    }
+
+}
@@ -0,0 +1,99 @@
+package com.synopsys.integration.polaris.common.cli;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.google.gson.JsonObject;
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.log.SilentIntLogger;
+import com.synopsys.integration.polaris.common.cli.model.CliCommonResponseModel;
+import com.synopsys.integration.polaris.common.cli.model.CommonToolInfo;
+import com.synopsys.integration.rest.HttpUrl;
+
+public class PolarisCliResponseUtilityTest {
+    private final PolarisCliResponseUtility polarisCliResponseUtility = PolarisCliResponseUtility.defaultUtility(new SilentIntLogger());
+
+    @ParameterizedTest
+    @ValueSource(strings = { "/cli-scanv1.json", "/cli-scanv1-w.json", "/cli-scanv2-w.json" })
+    public void testStreamingParseMatchesTreeParse(String resource) throws IntegrationException, IOException, URISyntaxException {
+        String json = readResource(resource);
+
+        CliCommonResponseModel streamed = polarisCliResponseUtility.getPolarisCliResponseModelFromString(json);
+        CliCommonResponseModel fromTree = polarisCliResponseUtility.getPolarisCliResponseModelFromJsonObject(polarisCliResponseUtility.getGson().fromJson(json, JsonObject.class));
+
+        assertSameModel(fromTree, streamed);
+    }
+
+    @Test
+    public void testVersionAfterOtherFields() throws IntegrationException, IOException, URISyntaxException {
+        String json = readResource("/cli-scanv2-w.json");
+        JsonObject versionFirst = polarisCliResponseUtility.getGson().fromJson(json, JsonObject.class);
+        JsonObject versionLast = new JsonObject();
+        versionFirst.entrySet().stream()
+            .filter(field -> !"version".equals(field.getKey()))
+            .forEach(field -> versionLast.add(field.getKey(), field.getValue()));
+        versionLast.add("version", versionFirst.get("version"));
+
+        CliCommonResponseModel streamed = polarisCliResponseUtility.getPolarisCliResponseModelFromString(versionLast.toString());
+
+        assertSameModel(polarisCliResponseUtility.getPolarisCliResponseModelFromString(json), streamed);
+    }
+
+    @Test
+    public void testMissingVersion() {
+        assertThrows(IntegrationException.class, () -> polarisCliResponseUtility.getPolarisCliResponseModelFromString("{\"scanInfo\":{}}"));
+    }
+
+    @Test
+    public void testUnsupportedVersion() {
+        assertThrows(IntegrationException.class, () -> polarisCliResponseUtility.getPolarisCliResponseModelFromString("{\"version\":\"3.0\",\"scanInfo\":{}}"));
+    }
+
+    private String readResource(String resource) throws IOException, URISyntaxException {
+        return new String(Files.readAllBytes(Paths.get(getClass().getResource(resource).toURI())), StandardCharsets.UTF_8);
+    }
+
+    private void assertSameModel(CliCommonResponseModel expected, CliCommonResponseModel actual) {
+        assertEquals(expected.getScanInfo().getCliVersion(), actual.getScanInfo().getCliVersion());
+        assertEquals(expected.getScanInfo().getScanTime(), actual.getScanInfo().getScanTime());
+        assertEquals(expected.getScanInfo().getIssueApiUrl().string(), actual.getScanInfo().getIssueApiUrl().string());
+        assertEquals(expected.getProjectInfo().getProjectId(), actual.getProjectInfo().getProjectId());
+        assertEquals(expected.getProjectInfo().getBranchId(), actual.getProjectInfo().getBranchId());
+        assertEquals(expected.getProjectInfo().getRevisionId(), actual.getProjectInfo().getRevisionId());
+
+        assertEquals(expected.getIssueSummary().isPresent(), actual.getIssueSummary().isPresent());
+        expected.getIssueSummary().ifPresent(issueSummary -> {
+            assertEquals(issueSummary.getTotalIssueCount(), actual.getIssueSummary().get().getTotalIssueCount());
+            assertEquals(issueSummary.getIssuesBySeverity(), actual.getIssueSummary().get().getIssuesBySeverity());
+            assertEquals(issueSummary.getSummaryUrl().string(), actual.getIssueSummary().get().getSummaryUrl().string());
+        });
+
+        List<CommonToolInfo> expectedTools = expected.getTools();
+        List<CommonToolInfo> actualTools = actual.getTools();
+        assertEquals(expectedTools.size(), actualTools.size());
+        assertFalse(actualTools.isEmpty());
+        for (int i = 0; i < expectedTools.size(); i++) {
+            CommonToolInfo expectedTool = expectedTools.get(i);
+            CommonToolInfo actualTool = actualTools.get(i);
+            assertEquals(expectedTool.getToolName(), actualTool.getToolName());
+            assertEquals(expectedTool.getToolVersion(), actualTool.getToolVersion());
+            assertEquals(expectedTool.getJobId(), actualTool.getJobId());
+            assertEquals(expectedTool.getJobStatus(), actualTool.getJobStatus());
+            assertEquals(expectedTool.getJobStatusUrl().string(), actualTool.getJobStatusUrl().string());
+            assertEquals(expectedTool.getIssueApiUrl().map(HttpUrl::string), actualTool.getIssueApiUrl().map(HttpUrl::string));
+        }
+    }
+
+}
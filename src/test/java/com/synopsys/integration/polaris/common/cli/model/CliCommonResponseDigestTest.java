@@ -0,0 +1,58 @@
+package com.synopsys.integration.polaris.common.cli.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.junit.jupiter.api.Test;
+
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.log.SilentIntLogger;
+import com.synopsys.integration.polaris.common.cli.PolarisCliResponseUtility;
+
+public class CliCommonResponseDigestTest {
+    @Test
+    public void testDigestWithIssueSummarySurvivesSerialization() throws IntegrationException, IOException, ClassNotFoundException, URISyntaxException {
+        CliCommonResponseDigest digest = serializeAndDeserialize(createDigest("/cli-scanv2-w.json"));
+
+        assertEquals(9, digest.getTotalIssueCount().orElse(null));
+        assertEquals(1, digest.getToolJobs().size());
+        assertEquals("Coverity", digest.getToolJobs().get(0).getToolName());
+        assertEquals("https://dev01.dev.polaris.synopsys.com/api/jobs/jobs/n2u8nionlh2lb7eavdtrva7ukk", digest.getToolJobs().get(0).getJobStatusUrl().orElse(null));
+    }
+
+    @Test
+    public void testDigestWithoutIssueSummarySurvivesSerialization() throws IntegrationException, IOException, ClassNotFoundException, URISyntaxException {
+        CliCommonResponseDigest digest = serializeAndDeserialize(createDigest("/cli-scanv1.json"));
+
+        assertFalse(digest.getTotalIssueCount().isPresent());
+        assertEquals(1, digest.getToolJobs().size());
+        assertEquals("https://jenkinsint.dev.polaris.synopsys.com/api/jobs/jobs/p10t3j6grt67pabjgp89djvln4", digest.getToolJobs().get(0).getJobStatusUrl().orElse(null));
+        assertTrue(digest.getIssueApiUrl().isPresent());
+    }
+
+    private CliCommonResponseDigest createDigest(String resource) throws IntegrationException, URISyntaxException {
+        Path pathToJson = Paths.get(getClass().getResource(resource).toURI());
+        return CliCommonResponseDigest.fromModel(PolarisCliResponseUtility.defaultUtility(new SilentIntLogger()).getPolarisCliResponseModel(pathToJson));
+    }
+
+    private CliCommonResponseDigest serializeAndDeserialize(CliCommonResponseDigest digest) throws IOException, ClassNotFoundException {
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        try (ObjectOutputStream objectOutputStream = new ObjectOutputStream(byteArrayOutputStream)) {
+            objectOutputStream.writeObject(digest);
+        }
+        try (ObjectInputStream objectInputStream = new ObjectInputStream(new ByteArrayInputStream(byteArrayOutputStream.toByteArray()))) {
+            return (CliCommonResponseDigest) objectInputStream.readObject();
+        }
+    }
+
+}
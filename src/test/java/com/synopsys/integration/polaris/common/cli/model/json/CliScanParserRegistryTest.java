@@ -0,0 +1,44 @@
+package com.synopsys.integration.polaris.common.cli.model.json;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.gson.JsonObject;
+import com.synopsys.integration.log.SilentIntLogger;
+import com.synopsys.integration.polaris.common.cli.PolarisCliResponseUtility;
+import com.synopsys.integration.polaris.common.cli.PolarisCliResponseVersion;
+import com.synopsys.integration.polaris.common.cli.model.json.parser.CliScanUnsupportedParser;
+import com.synopsys.integration.polaris.common.cli.model.json.parser.CliScanV1Parser;
+import com.synopsys.integration.polaris.common.cli.model.json.parser.CliScanV2Parser;
+import com.synopsys.integration.polaris.common.exception.PolarisIntegrationException;
+
+public class CliScanParserRegistryTest {
+    @Test
+    public void testParsersAreSharedPerMajorVersion() {
+        CliScanParserRegistry cliScanParserRegistry = CliScanParserRegistry.shared();
+
+        assertTrue(cliScanParserRegistry.getCliScanParser("1", new PolarisCliResponseVersion(1, 0)) instanceof CliScanV1Parser);
+        assertTrue(cliScanParserRegistry.getCliScanParser("2.0", new PolarisCliResponseVersion(2, 0)) instanceof CliScanV2Parser);
+        assertSame(cliScanParserRegistry.getCliScanParser("2.0", new PolarisCliResponseVersion(2, 0)), cliScanParserRegistry.getCliScanParser("2.1", new PolarisCliResponseVersion(2, 1)));
+    }
+
+    @Test
+    public void testUnsupportedVersion() {
+        CliScanParserRegistry cliScanParserRegistry = CliScanParserRegistry.shared();
+
+        assertTrue(cliScanParserRegistry.getCliScanParser("3.0", new PolarisCliResponseVersion(3, 0)) instanceof CliScanUnsupportedParser);
+        assertThrows(PolarisIntegrationException.class, () -> cliScanParserRegistry.getCliScanParser("3.0", new PolarisCliResponseVersion(3, 0)).fromCliScan(new JsonObject()));
+    }
+
+    @Test
+    public void testDefaultUtilitiesShareGson() {
+        PolarisCliResponseUtility firstBuild = PolarisCliResponseUtility.defaultUtility(new SilentIntLogger());
+        PolarisCliResponseUtility secondBuild = PolarisCliResponseUtility.defaultUtility(new SilentIntLogger());
+
+        assertSame(firstBuild.getGson(), secondBuild.getGson());
+    }
+
+}
@@ -0,0 +1,157 @@
+package com.synopsys.integration.polaris.common.rest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.RequestBuilder;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import com.google.gson.Gson;
+import com.synopsys.integration.log.SilentIntLogger;
+import com.synopsys.integration.rest.HttpUrl;
+import com.synopsys.integration.rest.proxy.ProxyInfo;
+import com.synopsys.integration.rest.response.Response;
+import com.synopsys.integration.rest.support.AuthenticationSupport;
+
+public class PolarisAccessTokenCacheTest {
+    private static final long NOW_MILLIS = TimeUnit.DAYS.toMillis(20000);
+
+    @Test
+    public void testTokenIsRefreshedBeforeItExpires() throws Exception {
+        AtomicLong clock = new AtomicLong(NOW_MILLIS);
+        PolarisAccessTokenCache accessTokenCache = new PolarisAccessTokenCache(clock::get);
+        PolarisAccessTokenCache.Key key = PolarisAccessTokenCache.createKey(new HttpUrl("https://polaris.synopsys.example.com"), "access token");
+
+        AtomicInteger authenticationCount = new AtomicInteger();
+        long expirationMillis = NOW_MILLIS + TimeUnit.HOURS.toMillis(1);
+        String firstToken = accessTokenCache.getOrRefreshToken(key, () -> createJwt(expirationMillis, authenticationCount.incrementAndGet()));
+        assertEquals(firstToken, accessTokenCache.getOrRefreshToken(key, () -> createJwt(expirationMillis, authenticationCount.incrementAndGet())));
+        assertEquals(1, authenticationCount.get());
+
+        clock.set(expirationMillis - PolarisAccessTokenCache.REFRESH_MARGIN_MILLIS);
+        assertFalse(accessTokenCache.getValidToken(key).isPresent());
+        String secondToken = accessTokenCache.getOrRefreshToken(key, () -> createJwt(expirationMillis + TimeUnit.HOURS.toMillis(1), authenticationCount.incrementAndGet()));
+        assertEquals(2, authenticationCount.get());
+        assertFalse(firstToken.equals(secondToken));
+    }
+
+    @Test
+    public void testConcurrentRefreshesAuthenticateOnce() throws Exception {
+        PolarisAccessTokenCache accessTokenCache = new PolarisAccessTokenCache(() -> NOW_MILLIS);
+        PolarisAccessTokenCache.Key key = PolarisAccessTokenCache.createKey(new HttpUrl("https://polaris.synopsys.example.com"), "access token");
+
+        AtomicInteger authenticationCount = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> tokens = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                tokens.add(executorService.submit(() -> {
+                    start.await();
+                    return accessTokenCache.getOrRefreshToken(key, () -> {
+                        try {
+                            Thread.sleep(50);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return createJwt(NOW_MILLIS + TimeUnit.HOURS.toMillis(1), authenticationCount.incrementAndGet());
+                    });
+                }));
+            }
+            start.countDown();
+
+            String expectedToken = tokens.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<String> token : tokens) {
+                assertEquals(expectedToken, token.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, authenticationCount.get());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testOnlyTheRejectedTokenIsInvalidated() throws Exception {
+        PolarisAccessTokenCache accessTokenCache = new PolarisAccessTokenCache(() -> NOW_MILLIS);
+        PolarisAccessTokenCache.Key key = PolarisAccessTokenCache.createKey(new HttpUrl("https://polaris.synopsys.example.com"), "access token");
+        String currentToken = createJwt(NOW_MILLIS + TimeUnit.HOURS.toMillis(1), 2);
+        accessTokenCache.putToken(key, currentToken);
+
+        accessTokenCache.invalidate(key, createJwt(NOW_MILLIS + TimeUnit.HOURS.toMillis(1), 1));
+        assertEquals(currentToken, accessTokenCache.getValidToken(key).orElse(null));
+
+        accessTokenCache.invalidate(key, currentToken);
+        assertFalse(accessTokenCache.getValidToken(key).isPresent());
+    }
+
+    @Test
+    public void testOpaqueTokenUsesDefaultLifetime() {
+        assertEquals(NOW_MILLIS + PolarisAccessTokenCache.DEFAULT_TOKEN_LIFETIME_MILLIS, PolarisAccessTokenCache.parseExpirationMillis("not-a-jwt", NOW_MILLIS));
+    }
+
+    @Test
+    public void testClientsForTheSameServerShareAuthentication() throws Exception {
+        HttpUrl polarisServerUrl = new HttpUrl("https://polaris.synopsys.example.com");
+        PolarisAccessTokenCache accessTokenCache = new PolarisAccessTokenCache(() -> NOW_MILLIS);
+        PolarisConnectionPoolRegistry connectionPoolRegistry = new PolarisConnectionPoolRegistry(1, 1, 1);
+        String jwt = createJwt(NOW_MILLIS + TimeUnit.HOURS.toMillis(1), 1);
+
+        Response authenticationResponse = Mockito.mock(Response.class);
+        Mockito.when(authenticationResponse.isStatusCodeSuccess()).thenReturn(true);
+        Mockito.when(authenticationResponse.getContentString()).thenReturn("{\"jwt\": \"" + jwt + "\"}");
+        AuthenticationSupport authenticationSupport = Mockito.spy(new AuthenticationSupport());
+        Mockito.doReturn(authenticationResponse).when(authenticationSupport).attemptAuthentication(Mockito.any(), Mockito.any(HttpUrl.class), Mockito.any(RequestBuilder.class));
+
+        for (int i = 0; i < 3; i++) {
+            AccessTokenPolarisHttpClient httpClient = new AccessTokenPolarisHttpClient(new SilentIntLogger(), 30, ProxyInfo.NO_PROXY_INFO, polarisServerUrl, "access token", new Gson(), authenticationSupport, accessTokenCache,
+                connectionPoolRegistry);
+            HttpGet request = new HttpGet(polarisServerUrl.string());
+            assertTrue(httpClient.isAlreadyAuthenticated(request));
+            assertEquals("Bearer " + jwt, request.getFirstHeader(AuthenticationSupport.AUTHORIZATION_HEADER).getValue());
+        }
+
+        Mockito.verify(authenticationSupport, Mockito.times(1)).attemptAuthentication(Mockito.any(), Mockito.any(HttpUrl.class), Mockito.any(RequestBuilder.class));
+        connectionPoolRegistry.shutdown();
+    }
+
+    @Test
+    public void testValidTokenIsReadWithoutRefreshing() throws Exception {
+        HttpUrl polarisServerUrl = new HttpUrl("https://polaris.synopsys.example.com");
+        PolarisAccessTokenCache accessTokenCache = Mockito.spy(new PolarisAccessTokenCache(() -> NOW_MILLIS));
+        PolarisConnectionPoolRegistry connectionPoolRegistry = new PolarisConnectionPoolRegistry(1, 1, 1);
+        String jwt = createJwt(NOW_MILLIS + TimeUnit.HOURS.toMillis(1), 1);
+        accessTokenCache.putToken(PolarisAccessTokenCache.createKey(polarisServerUrl, "access token"), jwt);
+
+        AccessTokenPolarisHttpClient httpClient = new AccessTokenPolarisHttpClient(new SilentIntLogger(), 30, ProxyInfo.NO_PROXY_INFO, polarisServerUrl, "access token", new Gson(), new AuthenticationSupport(),
+            accessTokenCache, connectionPoolRegistry);
+        HttpGet request = new HttpGet(polarisServerUrl.string());
+        assertTrue(httpClient.isAlreadyAuthenticated(request));
+        assertEquals("Bearer " + jwt, request.getFirstHeader(AuthenticationSupport.AUTHORIZATION_HEADER).getValue());
+
+        Mockito.verify(accessTokenCache, Mockito.never()).getOrRefreshToken(Mockito.any(), Mockito.any());
+        connectionPoolRegistry.shutdown();
+    }
+
+    private String createJwt(long expirationMillis, int tokenNumber) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        String header = encoder.encodeToString("{\"alg\":\"none\"}".getBytes(StandardCharsets.UTF_8));
+        String claims = encoder.encodeToString(String.format("{\"exp\":%d,\"jti\":\"%d\"}", TimeUnit.MILLISECONDS.toSeconds(expirationMillis), tokenNumber).getBytes(StandardCharsets.UTF_8));
+        return header + "." + claims + ".";
+    }
+
+}
@@ -0,0 +1,83 @@
+package com.synopsys.integration.polaris.common.rest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpServer;
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.log.SilentIntLogger;
+import com.synopsys.integration.rest.HttpUrl;
+import com.synopsys.integration.rest.client.IntHttpClient;
+import com.synopsys.integration.rest.proxy.ProxyInfo;
+import com.synopsys.integration.rest.request.Request;
+import com.synopsys.integration.rest.response.Response;
+
+public class PolarisConnectionPoolRegistryTest {
+    private HttpServer httpServer;
+    private HttpUrl serverUrl;
+    private Set<Integer> clientPorts;
+    private PolarisConnectionPoolRegistry connectionPoolRegistry;
+
+    @BeforeEach
+    public void startServer() throws IOException, IntegrationException {
+        clientPorts = ConcurrentHashMap.newKeySet();
+        httpServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        httpServer.createContext("/", exchange -> {
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(body);
+            }
+        });
+        httpServer.start();
+        serverUrl = new HttpUrl("http://localhost:" + httpServer.getAddress().getPort() + "/");
+        connectionPoolRegistry = new PolarisConnectionPoolRegistry(2, 10, 60);
+    }
+
+    @AfterEach
+    public void stopServer() {
+        connectionPoolRegistry.shutdown();
+        httpServer.stop(0);
+    }
+
+    @Test
+    public void testClientsReuseConnections() throws IntegrationException, IOException {
+        for (int i = 0; i < 3; i++) {
+            IntHttpClient intHttpClient = new IntHttpClient(new SilentIntLogger(), 30, false, ProxyInfo.NO_PROXY_INFO);
+            connectionPoolRegistry.configure(intHttpClient.getClientBuilder(), serverUrl.string(), ProxyInfo.NO_PROXY_INFO, 30, false);
+            for (int j = 0; j < 3; j++) {
+                try (Response response = intHttpClient.execute(new Request.Builder(serverUrl).build())) {
+                    assertEquals("{}", response.getContentString());
+                }
+            }
+        }
+
+        assertEquals(1, clientPorts.size());
+        assertEquals(1, connectionPoolRegistry.getPoolCount());
+    }
+
+    @Test
+    public void testPoolsAreKeyedByTargetAndTimeout() {
+        assertSame(connectionPoolRegistry.getConnectionManager(serverUrl.string(), ProxyInfo.NO_PROXY_INFO, 30, false),
+            connectionPoolRegistry.getConnectionManager(serverUrl.string(), ProxyInfo.NO_PROXY_INFO, 30, false));
+        assertNotSame(connectionPoolRegistry.getConnectionManager(serverUrl.string(), ProxyInfo.NO_PROXY_INFO, 30, false),
+            connectionPoolRegistry.getConnectionManager(serverUrl.string(), ProxyInfo.NO_PROXY_INFO, 60, false));
+        assertNotSame(connectionPoolRegistry.getConnectionManager(serverUrl.string(), ProxyInfo.NO_PROXY_INFO, 30, false),
+            connectionPoolRegistry.getConnectionManager("https://polaris.synopsys.example.com", ProxyInfo.NO_PROXY_INFO, 30, false));
+        assertEquals(3, connectionPoolRegistry.getPoolCount());
+    }
+
+}
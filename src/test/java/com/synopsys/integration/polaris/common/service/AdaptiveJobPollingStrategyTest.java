@@ -0,0 +1,52 @@
+package com.synopsys.integration.polaris.common.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.gson.Gson;
+
+import com.synopsys.integration.polaris.common.api.model.JobStatus;
+
+public class AdaptiveJobPollingStrategyTest {
+    @Test
+    public void testBacksOffToTheCap() {
+        AdaptiveJobPollingStrategy pollingStrategy = new AdaptiveJobPollingStrategy(5, 60, 2.0, 0.0, new Random());
+
+        assertEquals(5000, pollingStrategy.getNextPollDelayInMillis(null, 1, 0));
+        assertEquals(10000, pollingStrategy.getNextPollDelayInMillis(null, 2, 5000));
+        assertEquals(20000, pollingStrategy.getNextPollDelayInMillis(null, 3, 15000));
+        assertEquals(40000, pollingStrategy.getNextPollDelayInMillis(null, 4, 35000));
+        assertEquals(60000, pollingStrategy.getNextPollDelayInMillis(null, 5, 75000));
+        assertEquals(60000, pollingStrategy.getNextPollDelayInMillis(null, 20, 1000000));
+    }
+
+    @Test
+    public void testTightensAsProgressNearsCompletion() {
+        AdaptiveJobPollingStrategy pollingStrategy = new AdaptiveJobPollingStrategy(5, 60, 2.0, 0.0, new Random());
+
+        assertEquals(5000, pollingStrategy.getNextPollDelayInMillis(createRunningStatus(10), 1, 0));
+        // 10% every 20 seconds leaves 40 seconds, so wait half of that
+        assertEquals(20000, pollingStrategy.getNextPollDelayInMillis(createRunningStatus(80), 5, 140000));
+        // Never drops below the minimum interval
+        assertEquals(5000, pollingStrategy.getNextPollDelayInMillis(createRunningStatus(99), 6, 160000));
+    }
+
+    @Test
+    public void testJitterStaysWithinBounds() {
+        AdaptiveJobPollingStrategy pollingStrategy = new AdaptiveJobPollingStrategy(5, 60, 2.0, 0.2, new Random(42));
+
+        for (int i = 0; i < 100; i++) {
+            long delay = pollingStrategy.getNextPollDelayInMillis(null, 3, 15000);
+            assertTrue(delay >= 16000 && delay <= 24000, "Unexpected delay " + delay);
+        }
+    }
+
+    private JobStatus createRunningStatus(int progress) {
+        return new Gson().fromJson(String.format("{\"state\": \"RUNNING\", \"progress\": %d}", progress), JobStatus.class);
+    }
+
+}
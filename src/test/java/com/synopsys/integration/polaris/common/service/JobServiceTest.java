@@ -1,10 +1,17 @@
 package com.synopsys.integration.polaris.common.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.io.IOUtils;
 import org.junit.jupiter.api.Test;
@@ -19,6 +26,7 @@ import com.synopsys.integration.log.SilentIntLogger;
 import com.synopsys.integration.polaris.common.api.PolarisResource;
 import com.synopsys.integration.polaris.common.api.model.JobAttributes;
 import com.synopsys.integration.polaris.common.api.model.JobStatus;
+import com.synopsys.integration.polaris.common.exception.PolarisIntegrationException;
 import com.synopsys.integration.polaris.common.request.PolarisRequestFactory;
 import com.synopsys.integration.polaris.common.rest.AccessTokenPolarisHttpClient;
 import com.synopsys.integration.rest.HttpUrl;
@@ -60,6 +68,117 @@ public class JobServiceTest {
         assertEquals(JobStatus.StateEnum.RUNNING, jobStatus.getState());
     }
 
+    @Test
+    public void testWaitForCompletedJob() throws Exception {
+        AccessTokenPolarisHttpClient polarisHttpClient = Mockito.mock(AccessTokenPolarisHttpClient.class);
+        HttpUrl jobsApi = new HttpUrl("https://polaris.synopsys.example.com/api/jobs/jobs/p10t3j6grt67pabjgp89djvln4");
+        mockClientBehavior(polarisHttpClient, jobsApi, "jobservice_status.json");
+
+        PolarisJsonTransformer polarisJsonTransformer = new PolarisJsonTransformer(new Gson(), new PrintStreamIntLogger(System.out, LogLevel.INFO));
+        PolarisService polarisService = new PolarisService(polarisHttpClient, polarisJsonTransformer, PolarisRequestFactory.DEFAULT_LIMIT);
+
+        JobService jobService = new JobService(new SilentIntLogger(), polarisService, new JobStatusPoller(1));
+        JobStatus jobStatus = jobService.waitForJobStateIsCompletedByUrl(jobsApi, 5, 1).get(5, TimeUnit.SECONDS);
+
+        assertEquals(JobStatus.StateEnum.COMPLETED, jobStatus.getState());
+    }
+
+    @Test
+    public void testWaitForRunningJobTimesOut() throws IntegrationException {
+        AccessTokenPolarisHttpClient polarisHttpClient = Mockito.mock(AccessTokenPolarisHttpClient.class);
+        HttpUrl opsraApi = new HttpUrl("https://polaris.synopsys.example.com/api/tds-sca/v0/bdio/status?scan-id=5ed9ed6e-f9b7-4ea8-8255-ec6104f72437");
+        mockClientBehavior(polarisHttpClient, opsraApi, "osra_status.json");
+
+        PolarisJsonTransformer polarisJsonTransformer = new PolarisJsonTransformer(new Gson(), new PrintStreamIntLogger(System.out, LogLevel.INFO));
+        PolarisService polarisService = new PolarisService(polarisHttpClient, polarisJsonTransformer, PolarisRequestFactory.DEFAULT_LIMIT);
+
+        JobStatusPoller jobStatusPoller = new JobStatusPoller(1);
+        JobService jobService = new JobService(new SilentIntLogger(), polarisService, jobStatusPoller);
+
+        assertThrows(PolarisIntegrationException.class, () -> jobService.waitForJobStateIsCompletedOrDieByUrl(opsraApi, 1, 1));
+    }
+
+    @Test
+    public void testWaitersOnTheSameJobSharePolling() throws Exception {
+        AccessTokenPolarisHttpClient polarisHttpClient = Mockito.mock(AccessTokenPolarisHttpClient.class);
+        HttpUrl opsraApi = new HttpUrl("https://polaris.synopsys.example.com/api/tds-sca/v0/bdio/status?scan-id=5ed9ed6e-f9b7-4ea8-8255-ec6104f72437");
+        mockClientBehavior(polarisHttpClient, opsraApi, "osra_status.json");
+
+        PolarisJsonTransformer polarisJsonTransformer = new PolarisJsonTransformer(new Gson(), new PrintStreamIntLogger(System.out, LogLevel.INFO));
+        PolarisService polarisService = new PolarisService(polarisHttpClient, polarisJsonTransformer, PolarisRequestFactory.DEFAULT_LIMIT);
+
+        JobStatusPoller jobStatusPoller = new JobStatusPoller(1);
+        JobService jobService = new JobService(new SilentIntLogger(), polarisService, jobStatusPoller);
+
+        CompletableFuture<JobStatus> firstWaiter = jobService.waitForJobStateIsCompletedByUrl(opsraApi, 60, 60);
+        CompletableFuture<JobStatus> secondWaiter = jobService.waitForJobStateIsCompletedByUrl(opsraApi, 60, 60);
+        assertEquals(1, jobStatusPoller.getPolledJobCount());
+
+        firstWaiter.cancel(true);
+        secondWaiter.cancel(true);
+        assertTrue(firstWaiter.isCancelled());
+        assertTrue(secondWaiter.isCancelled());
+    }
+
+    @Test
+    public void testFirstFailedJobEndsTheWaitOnTheRest() throws IntegrationException {
+        AccessTokenPolarisHttpClient polarisHttpClient = Mockito.mock(AccessTokenPolarisHttpClient.class);
+        HttpUrl runningJobApi = new HttpUrl("https://polaris.synopsys.example.com/api/tds-sca/v0/bdio/status?scan-id=5ed9ed6e-f9b7-4ea8-8255-ec6104f72437");
+        HttpUrl completedJobApi = new HttpUrl("https://polaris.synopsys.example.com/api/jobs/jobs/p10t3j6grt67pabjgp89djvln4");
+        HttpUrl missingJobApi = new HttpUrl("https://polaris.synopsys.example.com/api/jobs/jobs/missing");
+        mockClientBehavior(polarisHttpClient, runningJobApi, "osra_status.json");
+        mockClientBehavior(polarisHttpClient, completedJobApi, "jobservice_status.json");
+        ArgumentMatcher<Request> isMissingJobRequest = request -> null != request && request.getUrl().equals(missingJobApi);
+        Mockito.when(polarisHttpClient.execute(Mockito.argThat(isMissingJobRequest))).thenThrow(new IntegrationException("404"));
+
+        PolarisJsonTransformer polarisJsonTransformer = new PolarisJsonTransformer(new Gson(), new PrintStreamIntLogger(System.out, LogLevel.INFO));
+        PolarisService polarisService = new PolarisService(polarisHttpClient, polarisJsonTransformer, PolarisRequestFactory.DEFAULT_LIMIT);
+
+        JobStatusPoller jobStatusPoller = new JobStatusPoller(1);
+        JobService jobService = new JobService(new SilentIntLogger(), polarisService, jobStatusPoller);
+
+        long start = System.currentTimeMillis();
+        assertThrows(IntegrationException.class, () -> jobService.waitForJobStatesAreCompletedOrDieByUrls(Arrays.asList(runningJobApi, completedJobApi, missingJobApi), 60, 1));
+        assertTrue(System.currentTimeMillis() - start < 30000);
+    }
+
+    @Test
+    public void testWaitForSeveralCompletedJobs() throws Exception {
+        AccessTokenPolarisHttpClient polarisHttpClient = Mockito.mock(AccessTokenPolarisHttpClient.class);
+        HttpUrl jobsApi = new HttpUrl("https://polaris.synopsys.example.com/api/jobs/jobs/p10t3j6grt67pabjgp89djvln4");
+        mockClientBehavior(polarisHttpClient, jobsApi, "jobservice_status.json");
+
+        PolarisJsonTransformer polarisJsonTransformer = new PolarisJsonTransformer(new Gson(), new PrintStreamIntLogger(System.out, LogLevel.INFO));
+        PolarisService polarisService = new PolarisService(polarisHttpClient, polarisJsonTransformer, PolarisRequestFactory.DEFAULT_LIMIT);
+
+        JobService jobService = new JobService(new SilentIntLogger(), polarisService, new JobStatusPoller(1));
+        jobService.waitForJobStatesAreCompletedOrDieByUrls(Arrays.asList(jobsApi, jobsApi), 5, 1);
+    }
+
+    @Test
+    public void testWaitForSeveralJobsDoesNotBlock() throws Exception {
+        AccessTokenPolarisHttpClient polarisHttpClient = Mockito.mock(AccessTokenPolarisHttpClient.class);
+        HttpUrl runningJobApi = new HttpUrl("https://polaris.synopsys.example.com/api/tds-sca/v0/bdio/status?scan-id=5ed9ed6e-f9b7-4ea8-8255-ec6104f72437");
+        HttpUrl missingJobApi = new HttpUrl("https://polaris.synopsys.example.com/api/jobs/jobs/missing");
+        mockClientBehavior(polarisHttpClient, runningJobApi, "osra_status.json");
+        ArgumentMatcher<Request> isMissingJobRequest = request -> null != request && request.getUrl().equals(missingJobApi);
+        Mockito.when(polarisHttpClient.execute(Mockito.argThat(isMissingJobRequest))).thenThrow(new IntegrationException("404"));
+
+        PolarisJsonTransformer polarisJsonTransformer = new PolarisJsonTransformer(new Gson(), new PrintStreamIntLogger(System.out, LogLevel.INFO));
+        PolarisService polarisService = new PolarisService(polarisHttpClient, polarisJsonTransformer, PolarisRequestFactory.DEFAULT_LIMIT);
+
+        JobService jobService = new JobService(new SilentIntLogger(), polarisService, new JobStatusPoller(1));
+
+        CompletableFuture<Void> runningJobCompleted = jobService.waitForJobStatesAreCompletedByUrls(Arrays.asList(runningJobApi), 60, 60);
+        assertFalse(runningJobCompleted.isDone());
+        runningJobCompleted.cancel(true);
+        assertTrue(runningJobCompleted.isCancelled());
+
+        CompletableFuture<Void> missingJobCompleted = jobService.waitForJobStatesAreCompletedByUrls(Arrays.asList(runningJobApi, missingJobApi), 60, 1);
+        ExecutionException executionException = assertThrows(ExecutionException.class, () -> missingJobCompleted.get(30, TimeUnit.SECONDS));
+        assertTrue(executionException.getCause() instanceof IntegrationException);
+    }
+
     private void mockClientBehavior(AccessTokenPolarisHttpClient polarisHttpClient, HttpUrl uri, String results) {
         try {
             Response response = Mockito.mock(Response.class);
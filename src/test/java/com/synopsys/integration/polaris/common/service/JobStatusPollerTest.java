@@ -0,0 +1,123 @@
+package com.synopsys.integration.polaris.common.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.gson.Gson;
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.function.ThrowingFunction;
+import com.synopsys.integration.log.SilentIntLogger;
+import com.synopsys.integration.polaris.common.api.PolarisResource;
+import com.synopsys.integration.polaris.common.api.model.JobAttributes;
+import com.synopsys.integration.polaris.common.api.model.JobStatus;
+import com.synopsys.integration.polaris.common.exception.PolarisIntegrationException;
+import com.synopsys.integration.rest.HttpUrl;
+
+public class JobStatusPollerTest {
+    private static final String CREDENTIALS_KEY = "credentials";
+
+    @Test
+    public void testRejoiningWaiterDoesNotStartSecondPoll() throws Exception {
+        JobStatusPoller jobStatusPoller = new JobStatusPoller(1);
+        HttpUrl slowJobApi = new HttpUrl("https://polaris.synopsys.example.com/api/jobs/jobs/slow");
+        HttpUrl jobApi = new HttpUrl("https://polaris.synopsys.example.com/api/jobs/jobs/running");
+
+        // Keep the only request thread busy so the poll for jobApi cannot run until both waiters have come and gone
+        CountDownLatch releaseSlowJob = new CountDownLatch(1);
+        CompletableFuture<PolarisResource<JobAttributes>> slowWaiter = jobStatusPoller.waitForJobToEnd(slowJobApi, CREDENTIALS_KEY, url -> {
+            await(releaseSlowJob);
+            return createJob(JobStatus.StateEnum.COMPLETED);
+        }, new SilentIntLogger(), 60, 60);
+
+        AtomicInteger requestCount = new AtomicInteger();
+        ThrowingFunction<HttpUrl, PolarisResource<JobAttributes>, IntegrationException> jobRequester = url -> {
+            requestCount.incrementAndGet();
+            return createJob(JobStatus.StateEnum.RUNNING);
+        };
+
+        CompletableFuture<PolarisResource<JobAttributes>> firstWaiter = jobStatusPoller.waitForJobToEnd(jobApi, CREDENTIALS_KEY, jobRequester, new SilentIntLogger(), 60, 60);
+        firstWaiter.cancel(true);
+        CompletableFuture<PolarisResource<JobAttributes>> secondWaiter = jobStatusPoller.waitForJobToEnd(jobApi, CREDENTIALS_KEY, jobRequester, new SilentIntLogger(), 60, 60);
+
+        releaseSlowJob.countDown();
+        slowWaiter.get(10, TimeUnit.SECONDS);
+        Thread.sleep(500);
+
+        assertEquals(1, requestCount.get());
+        secondWaiter.cancel(true);
+    }
+
+    @Test
+    public void testTimeoutFiresWhileRequestsAreSlow() throws Exception {
+        JobStatusPoller jobStatusPoller = new JobStatusPoller(1);
+        HttpUrl jobApi = new HttpUrl("https://polaris.synopsys.example.com/api/jobs/jobs/slow");
+        CountDownLatch releaseJob = new CountDownLatch(1);
+
+        CompletableFuture<PolarisResource<JobAttributes>> waiter = jobStatusPoller.waitForJobToEnd(jobApi, CREDENTIALS_KEY, url -> {
+            await(releaseJob);
+            return createJob(JobStatus.StateEnum.COMPLETED);
+        }, new SilentIntLogger(), 1, 1);
+
+        try {
+            ExecutionException executionException = assertThrows(ExecutionException.class, () -> waiter.get(10, TimeUnit.SECONDS));
+            assertTrue(executionException.getCause() instanceof PolarisIntegrationException);
+        } finally {
+            releaseJob.countDown();
+        }
+    }
+
+    @Test
+    public void testWaitersWithDifferentCredentialsDoNotSharePoll() throws Exception {
+        JobStatusPoller jobStatusPoller = new JobStatusPoller(2);
+        HttpUrl jobApi = new HttpUrl("https://polaris.synopsys.example.com/api/jobs/jobs/completed");
+
+        // Neither requester can answer until both waiters have registered
+        CountDownLatch bothRegistered = new CountDownLatch(1);
+        AtomicInteger firstRequestCount = new AtomicInteger();
+        AtomicInteger secondRequestCount = new AtomicInteger();
+        CompletableFuture<PolarisResource<JobAttributes>> firstWaiter = jobStatusPoller.waitForJobToEnd(jobApi, "first", url -> {
+            await(bothRegistered);
+            firstRequestCount.incrementAndGet();
+            return createJob(JobStatus.StateEnum.COMPLETED);
+        }, new SilentIntLogger(), 60, 60);
+        CompletableFuture<PolarisResource<JobAttributes>> secondWaiter = jobStatusPoller.waitForJobToEnd(jobApi, "second", url -> {
+            await(bothRegistered);
+            secondRequestCount.incrementAndGet();
+            return createJob(JobStatus.StateEnum.COMPLETED);
+        }, new SilentIntLogger(), 60, 60);
+        assertEquals(2, jobStatusPoller.getPolledJobCount());
+        bothRegistered.countDown();
+
+        firstWaiter.get(10, TimeUnit.SECONDS);
+        secondWaiter.get(10, TimeUnit.SECONDS);
+        assertEquals(1, firstRequestCount.get());
+        assertEquals(1, secondRequestCount.get());
+    }
+
+    private void await(CountDownLatch latch) {
+        try {
+            latch.await(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private PolarisResource<JobAttributes> createJob(JobStatus.StateEnum state) {
+        JobStatus jobStatus = new Gson().fromJson(String.format("{\"state\":\"%s\",\"progress\":50}", state), JobStatus.class);
+        JobAttributes jobAttributes = new JobAttributes();
+        jobAttributes.setStatus(jobStatus);
+        PolarisResource<JobAttributes> jobResource = new PolarisResource<>();
+        jobResource.setAttributes(jobAttributes);
+        return jobResource;
+    }
+
+}
@@ -0,0 +1,111 @@
+package com.synopsys.integration.polaris.common.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.Test;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.reflect.TypeToken;
+import com.synopsys.integration.exception.IntegrationException;
+import com.synopsys.integration.log.SilentIntLogger;
+import com.synopsys.integration.polaris.common.api.PolarisResource;
+import com.synopsys.integration.polaris.common.api.PolarisResponse;
+import com.synopsys.integration.polaris.common.api.PolarisSingleResourceResponse;
+import com.synopsys.integration.polaris.common.api.model.JobAttributes;
+import com.synopsys.integration.polaris.common.api.model.JobStatus;
+
+public class PolarisJsonTransformerTest {
+    private static final Type JOB_RESPONSE_TYPE = new TypeToken<PolarisSingleResourceResponse<PolarisResource<JobAttributes>>>() {}.getType();
+
+    @Test
+    public void testRawJsonCapturedForEveryResponseObject() throws IOException, IntegrationException {
+        String json = getPreparedContentStringFrom("jobservice_status.json");
+        JsonObject expectedRoot = JsonParser.parseString(json).getAsJsonObject();
+        JsonObject expectedResource = expectedRoot.getAsJsonObject("data");
+        JsonObject expectedAttributes = expectedResource.getAsJsonObject("attributes");
+        JsonObject expectedStatus = expectedAttributes.getAsJsonObject("status");
+
+        PolarisJsonTransformer polarisJsonTransformer = new PolarisJsonTransformer(new Gson(), new SilentIntLogger());
+        PolarisSingleResourceResponse<PolarisResource<JobAttributes>> response = polarisJsonTransformer.getResponseAs(json, JOB_RESPONSE_TYPE);
+
+        PolarisResource<JobAttributes> resource = response.getData();
+        JobAttributes attributes = resource.getAttributes();
+        JobStatus status = attributes.getStatus();
+
+        assertEquals(expectedRoot, JsonParser.parseString(response.getJson()));
+        assertEquals(expectedResource, JsonParser.parseString(resource.getJson()));
+        // Fields JobAttributes does not model are still part of its raw json
+        assertEquals(expectedAttributes, JsonParser.parseString(attributes.getJson()));
+        assertEquals(expectedStatus, JsonParser.parseString(status.getJson()));
+        assertEquals(JobStatus.StateEnum.COMPLETED, status.getState());
+    }
+
+    @Test
+    public void testWithLoggerKeepsSettings() throws IOException, IntegrationException {
+        String json = getPreparedContentStringFrom("jobservice_status.json");
+
+        PolarisJsonTransformer polarisJsonTransformer = new PolarisJsonTransformer(new Gson(), new SilentIntLogger());
+        polarisJsonTransformer.disableRawJsonCapture(TypeToken.getParameterized(PolarisSingleResourceResponse.class, TypeToken.getParameterized(PolarisResource.class, JobAttributes.class).getType()).getType());
+        PolarisJsonTransformer stepJsonTransformer = polarisJsonTransformer.withLogger(new SilentIntLogger());
+        PolarisSingleResourceResponse<PolarisResource<JobAttributes>> response = stepJsonTransformer.getResponseAs(json, JOB_RESPONSE_TYPE);
+
+        assertNull(response.getJson());
+        assertEquals(Integer.valueOf(100), response.getData().getAttributes().getStatus().getProgress());
+
+        // Settings changed afterwards belong to each transformer alone
+        stepJsonTransformer.enableRawJsonCapture(TypeToken.getParameterized(PolarisSingleResourceResponse.class, TypeToken.getParameterized(PolarisResource.class, JobAttributes.class).getType()).getType());
+        assertNotNull(stepJsonTransformer.<PolarisSingleResourceResponse<PolarisResource<JobAttributes>>>getResponseAs(json, JOB_RESPONSE_TYPE).getJson());
+        assertNull(polarisJsonTransformer.<PolarisSingleResourceResponse<PolarisResource<JobAttributes>>>getResponseAs(json, JOB_RESPONSE_TYPE).getJson());
+    }
+
+    @Test
+    public void testRawJsonCaptureDisabledForResponseType() throws IOException, IntegrationException {
+        String json = getPreparedContentStringFrom("jobservice_status.json");
+
+        PolarisJsonTransformer polarisJsonTransformer = new PolarisJsonTransformer(new Gson(), new SilentIntLogger());
+        polarisJsonTransformer.disableRawJsonCapture(TypeToken.getParameterized(PolarisSingleResourceResponse.class, TypeToken.getParameterized(PolarisResource.class, JobAttributes.class).getType()).getType());
+        PolarisSingleResourceResponse<PolarisResource<JobAttributes>> response = polarisJsonTransformer.getResponseAs(json, JOB_RESPONSE_TYPE);
+
+        assertNull(response.getJson());
+        assertNull(response.getData().getJson());
+        assertNotNull(response.getData().getAttributes().getStatus());
+        assertEquals(Integer.valueOf(100), response.getData().getAttributes().getStatus().getProgress());
+    }
+
+    @Test
+    public void testRawJsonCapturedForMapTypedFields() throws IntegrationException {
+        String json = "{\"labels\":{\"team\":\"core\"},\"statuses\":{\"scan\":{\"state\":\"RUNNING\",\"progress\":50,\"unmodelled\":[1,null]}}}";
+        JsonObject expectedRoot = JsonParser.parseString(json).getAsJsonObject();
+        JsonObject expectedStatus = expectedRoot.getAsJsonObject("statuses").getAsJsonObject("scan");
+
+        PolarisJsonTransformer polarisJsonTransformer = new PolarisJsonTransformer(new Gson(), new SilentIntLogger());
+        LabelledResponse response = polarisJsonTransformer.getResponseAs(json, LabelledResponse.class);
+
+        assertEquals("core", response.labels.get("team"));
+        assertEquals(expectedRoot, JsonParser.parseString(response.getJson()));
+        JobStatus status = response.statuses.get("scan");
+        assertEquals(JobStatus.StateEnum.RUNNING, status.getState());
+        assertEquals(expectedStatus, JsonParser.parseString(status.getJson()));
+    }
+
+    private String getPreparedContentStringFrom(String resourceName) throws IOException {
+        return IOUtils.toString(getClass().getResourceAsStream("/JobService/" + resourceName), StandardCharsets.UTF_8);
+    }
+
+    private static class LabelledResponse extends PolarisResponse {
+        private static final long serialVersionUID = 1L;
+        private Map<String, String> labels;
+        private Map<String, JobStatus> statuses;
+    }
+
+}
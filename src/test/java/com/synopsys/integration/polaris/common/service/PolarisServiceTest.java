@@ -1,15 +1,20 @@
 package com.synopsys.integration.polaris.common.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertIterableEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.apache.commons.io.IOUtils;
@@ -80,6 +85,14 @@ public class PolarisServiceTest {
         );
     }
 
+    private static Stream<Arguments> createPageRequestParallelisms() {
+        return Stream.of(
+            Arguments.of(1),
+            Arguments.of(2),
+            Arguments.of(8)
+        );
+    }
+
     @Test
     public void createDefaultPolarisGetRequestTest() throws IntegrationException {
         Request request = PolarisRequestFactory.createDefaultPagedGetRequest(BASE_URL);
@@ -128,6 +141,69 @@ public class PolarisServiceTest {
         }
     }
 
+    @ParameterizedTest
+    @MethodSource("createGetAllMockData")
+    public void testStream(Map<String, String> offsetsToResults, int pageSize, int expectedTotal) throws IntegrationException {
+        HttpUrl apiHttpUrl = BASE_URL.appendRelativeUrl("/api/jobs/jobs");
+
+        AccessTokenPolarisHttpClient polarisHttpClient = Mockito.mock(AccessTokenPolarisHttpClient.class);
+        mockClientBehavior(polarisHttpClient, apiHttpUrl, offsetsToResults, "jobs_no_more_results.json");
+
+        PolarisJsonTransformer polarisJsonTransformer = new PolarisJsonTransformer(new Gson(), new PrintStreamIntLogger(System.out, LogLevel.INFO));
+        PolarisService polarisService = new PolarisService(polarisHttpClient, polarisJsonTransformer, pageSize);
+        try (Stream<PolarisResource<JobAttributes>> allResources = polarisService.stream(apiHttpUrl, JobAttributes.class)) {
+            assertEquals(expectedTotal, allResources.count());
+        }
+    }
+
+    @Test
+    public void testStreamRequestsPagesOnlyAsNeeded() throws IntegrationException, IOException {
+        HttpUrl apiHttpUrl = BASE_URL.appendRelativeUrl("/api/jobs/jobs");
+
+        Map<String, String> getAllMultiPageMap = new HashMap<>();
+        getAllMultiPageMap.put(PAGE_ONE_OFFSET, "jobs_page_1_of_3.json");
+        getAllMultiPageMap.put(PAGE_TWO_OFFSET, "jobs_page_2_of_3.json");
+        getAllMultiPageMap.put(PAGE_THREE_OFFSET, "jobs_page_3_of_3.json");
+
+        AccessTokenPolarisHttpClient polarisHttpClient = Mockito.mock(AccessTokenPolarisHttpClient.class);
+        mockClientBehavior(polarisHttpClient, apiHttpUrl, getAllMultiPageMap, "jobs_no_more_results.json");
+
+        PolarisJsonTransformer polarisJsonTransformer = new PolarisJsonTransformer(new Gson(), new PrintStreamIntLogger(System.out, LogLevel.INFO));
+        PolarisService polarisService = new PolarisService(polarisHttpClient, polarisJsonTransformer, 1);
+        try (Stream<PolarisResource<JobAttributes>> allResources = polarisService.stream(apiHttpUrl, JobAttributes.class)) {
+            Optional<PolarisResource<JobAttributes>> firstJob = allResources.findFirst();
+            assertTrue(firstJob.isPresent());
+            assertEquals("l2kp6fi7n55od2r3780ur1k60o", firstJob.get().getId());
+        }
+
+        // The first page plus, at most, the one page prefetched behind it
+        Mockito.verify(polarisHttpClient, Mockito.atMost(2)).execute(Mockito.any(Request.class));
+        Mockito.verify(polarisHttpClient, Mockito.never()).execute(Mockito.argThat((Request request) -> requestMatches(request, apiHttpUrl, PAGE_THREE_OFFSET)));
+    }
+
+    @ParameterizedTest
+    @MethodSource("createPageRequestParallelisms")
+    public void testGetAllPreservesOffsetOrder(int pageRequestParallelism) throws IntegrationException {
+        HttpUrl apiHttpUrl = BASE_URL.appendRelativeUrl("/api/jobs/jobs");
+
+        Map<String, String> getAllMultiPageMap = new HashMap<>();
+        getAllMultiPageMap.put(PAGE_ONE_OFFSET, "jobs_page_1_of_3.json");
+        getAllMultiPageMap.put(PAGE_TWO_OFFSET, "jobs_page_2_of_3.json");
+        getAllMultiPageMap.put(PAGE_THREE_OFFSET, "jobs_page_3_of_3.json");
+
+        AccessTokenPolarisHttpClient polarisHttpClient = Mockito.mock(AccessTokenPolarisHttpClient.class);
+        mockClientBehavior(polarisHttpClient, apiHttpUrl, getAllMultiPageMap, "jobs_no_more_results.json");
+
+        PolarisJsonTransformer polarisJsonTransformer = new PolarisJsonTransformer(new Gson(), new PrintStreamIntLogger(System.out, LogLevel.INFO));
+        PolarisService polarisService = new PolarisService(polarisHttpClient, polarisJsonTransformer, 1, pageRequestParallelism);
+
+        List<String> jobIds = polarisService.getAll(apiHttpUrl, JobAttributes.class).stream()
+                                  .map(PolarisResource::getId)
+                                  .collect(Collectors.toList());
+
+        assertIterableEquals(Arrays.asList("l2kp6fi7n55od2r3780ur1k60o", "6vrshs30jh0q9boiiptpdmcris", "dn1q8u3iip3vjd6egqnh5ets0g"), jobIds);
+    }
+
     private void mockClientBehavior(AccessTokenPolarisHttpClient polarisHttpClient, HttpUrl url, Map<String, String> offsetsToResults, String emptyResultsPage) {
         try {
             for (Map.Entry<String, String> entry : offsetsToResults.entrySet()) {